@@ -0,0 +1,157 @@
+package io.pixelsdb.ccb.network;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The settings of a benchmark run, loaded from a properties file.
+ * Sizes can be given in bytes or with a KB/MB/GB suffix, lists are comma separated.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class BenchmarkConfig
+{
+    private final Properties properties;
+
+    public BenchmarkConfig(Properties properties)
+    {
+        this.properties = properties;
+    }
+
+    public static BenchmarkConfig load(String path) throws IOException
+    {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(path))
+        {
+            properties.load(in);
+        }
+        return new BenchmarkConfig(properties);
+    }
+
+    public String getString(String key, String defaultValue)
+    {
+        String value = this.properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public String getString(String key)
+    {
+        String value = getString(key, null);
+        if (value == null)
+        {
+            throw new IllegalArgumentException("missing required setting: " + key);
+        }
+        return value;
+    }
+
+    public int getInt(String key, int defaultValue)
+    {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public long getLong(String key, long defaultValue)
+    {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    public double getDouble(String key, double defaultValue)
+    {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue)
+    {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    public long getSize(String key, long defaultValue)
+    {
+        String value = getString(key, null);
+        return value == null ? defaultValue : parseSize(value);
+    }
+
+    public List<String> getList(String key, String defaultValue)
+    {
+        String value = getString(key, defaultValue);
+        List<String> list = new ArrayList<>();
+        if (value != null)
+        {
+            for (String item : value.split(","))
+            {
+                if (!item.isBlank())
+                {
+                    list.add(item.trim());
+                }
+            }
+        }
+        return list;
+    }
+
+    public List<Integer> getIntList(String key, String defaultValue)
+    {
+        List<Integer> list = new ArrayList<>();
+        for (String item : getList(key, defaultValue))
+        {
+            list.add(Integer.parseInt(item));
+        }
+        return list;
+    }
+
+    public List<Long> getSizeList(String key, String defaultValue)
+    {
+        List<Long> list = new ArrayList<>();
+        for (String item : getList(key, defaultValue))
+        {
+            list.add(parseSize(item));
+        }
+        return list;
+    }
+
+    /**
+     * @return a copy of this config, whose settings can be changed independently
+     */
+    public BenchmarkConfig copy()
+    {
+        Properties properties = new Properties();
+        properties.putAll(this.properties);
+        return new BenchmarkConfig(properties);
+    }
+
+    public void set(String key, String value)
+    {
+        this.properties.setProperty(key, value);
+    }
+
+    /**
+     * @param size the size in bytes, optionally suffixed with B, KB, MB, or GB (case-insensitive)
+     * @return the size in bytes
+     */
+    public static long parseSize(String size)
+    {
+        String value = size.trim().toUpperCase();
+        long unit = 1;
+        if (value.endsWith("KB"))
+        {
+            unit = 1024L;
+        }
+        else if (value.endsWith("MB"))
+        {
+            unit = 1024L * 1024L;
+        }
+        else if (value.endsWith("GB"))
+        {
+            unit = 1024L * 1024L * 1024L;
+        }
+        value = value.replaceAll("[KMG]?B$", "").trim();
+        return Long.parseLong(value) * unit;
+    }
+}
@@ -0,0 +1,52 @@
+package io.pixelsdb.ccb.network;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class Futures
+{
+    private Futures() { }
+
+    /**
+     * Wait for the future and rethrow its failure as an IOException.
+     */
+    public static <T> T join(CompletableFuture<T> future) throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for the result", e);
+        }
+        catch (ExecutionException | CompletionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * @return the cause of a {@link CompletionException}, or the throwable itself
+     */
+    public static Throwable unwrap(Throwable throwable)
+    {
+        if (throwable instanceof CompletionException && throwable.getCause() != null)
+        {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+}
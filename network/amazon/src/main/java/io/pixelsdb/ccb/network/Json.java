@@ -0,0 +1,345 @@
+package io.pixelsdb.ccb.network;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal json reader and writer, for the sqs json protocol of the in-process stand-ins and the json lines of
+ * the timeline. Objects are read as maps, arrays as lists, numbers as longs or doubles, and the other values as
+ * strings, booleans, or null.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class Json
+{
+    private final String text;
+    private int pos = 0;
+
+    private Json(String text)
+    {
+        this.text = text;
+    }
+
+    public static Object parse(String text) throws IOException
+    {
+        Json json = new Json(text);
+        json.skipSpaces();
+        if (json.pos >= text.length())
+        {
+            return new LinkedHashMap<String, Object>();
+        }
+        Object value = json.readValue();
+        json.skipSpaces();
+        if (json.pos != text.length())
+        {
+            throw json.error("unexpected trailing content");
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String text) throws IOException
+    {
+        Object value = parse(text);
+        if (!(value instanceof Map))
+        {
+            throw new IOException("json object expected");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    public static String write(Object value)
+    {
+        StringBuilder builder = new StringBuilder();
+        write(builder, value);
+        return builder.toString();
+    }
+
+    private Object readValue() throws IOException
+    {
+        skipSpaces();
+        if (this.pos >= this.text.length())
+        {
+            throw error("unexpected end");
+        }
+        char c = this.text.charAt(this.pos);
+        switch (c)
+        {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                expect("true");
+                return Boolean.TRUE;
+            case 'f':
+                expect("false");
+                return Boolean.FALSE;
+            case 'n':
+                expect("null");
+                return null;
+            default:
+                return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() throws IOException
+    {
+        Map<String, Object> object = new LinkedHashMap<>();
+        this.pos++;
+        skipSpaces();
+        if (peek() == '}')
+        {
+            this.pos++;
+            return object;
+        }
+        while (true)
+        {
+            skipSpaces();
+            String key = readString();
+            skipSpaces();
+            if (peek() != ':')
+            {
+                throw error("':' expected");
+            }
+            this.pos++;
+            object.put(key, readValue());
+            skipSpaces();
+            char c = peek();
+            this.pos++;
+            if (c == '}')
+            {
+                return object;
+            }
+            if (c != ',')
+            {
+                throw error("',' or '}' expected");
+            }
+        }
+    }
+
+    private List<Object> readArray() throws IOException
+    {
+        List<Object> array = new ArrayList<>();
+        this.pos++;
+        skipSpaces();
+        if (peek() == ']')
+        {
+            this.pos++;
+            return array;
+        }
+        while (true)
+        {
+            array.add(readValue());
+            skipSpaces();
+            char c = peek();
+            this.pos++;
+            if (c == ']')
+            {
+                return array;
+            }
+            if (c != ',')
+            {
+                throw error("',' or ']' expected");
+            }
+        }
+    }
+
+    private String readString() throws IOException
+    {
+        if (peek() != '"')
+        {
+            throw error("string expected");
+        }
+        this.pos++;
+        StringBuilder builder = new StringBuilder();
+        while (true)
+        {
+            char c = peek();
+            this.pos++;
+            if (c == '"')
+            {
+                return builder.toString();
+            }
+            if (c != '\\')
+            {
+                builder.append(c);
+                continue;
+            }
+            char escaped = peek();
+            this.pos++;
+            switch (escaped)
+            {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (this.pos + 4 > this.text.length())
+                    {
+                        throw error("truncated unicode escape");
+                    }
+                    builder.append((char) Integer.parseInt(this.text.substring(this.pos, this.pos + 4), 16));
+                    this.pos += 4;
+                    break;
+                default:
+                    builder.append(escaped);
+            }
+        }
+    }
+
+    private Object readNumber() throws IOException
+    {
+        int start = this.pos;
+        while (this.pos < this.text.length() && "+-0123456789.eE".indexOf(this.text.charAt(this.pos)) >= 0)
+        {
+            this.pos++;
+        }
+        String number = this.text.substring(start, this.pos);
+        try
+        {
+            if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0)
+            {
+                return Double.parseDouble(number);
+            }
+            return Long.parseLong(number);
+        }
+        catch (NumberFormatException e)
+        {
+            throw error("invalid number '" + number + "'");
+        }
+    }
+
+    private void expect(String literal) throws IOException
+    {
+        if (!this.text.startsWith(literal, this.pos))
+        {
+            throw error("'" + literal + "' expected");
+        }
+        this.pos += literal.length();
+    }
+
+    private char peek() throws IOException
+    {
+        if (this.pos >= this.text.length())
+        {
+            throw error("unexpected end");
+        }
+        return this.text.charAt(this.pos);
+    }
+
+    private void skipSpaces()
+    {
+        while (this.pos < this.text.length() && Character.isWhitespace(this.text.charAt(this.pos)))
+        {
+            this.pos++;
+        }
+    }
+
+    private IOException error(String message)
+    {
+        return new IOException("invalid json at " + this.pos + ": " + message);
+    }
+
+    private static void write(StringBuilder builder, Object value)
+    {
+        if (value == null)
+        {
+            builder.append("null");
+        }
+        else if (value instanceof Map)
+        {
+            builder.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+            {
+                if (!first)
+                {
+                    builder.append(',');
+                }
+                first = false;
+                writeString(builder, String.valueOf(entry.getKey()));
+                builder.append(':');
+                write(builder, entry.getValue());
+            }
+            builder.append('}');
+        }
+        else if (value instanceof List)
+        {
+            builder.append('[');
+            boolean first = true;
+            for (Object item : (List<?>) value)
+            {
+                if (!first)
+                {
+                    builder.append(',');
+                }
+                first = false;
+                write(builder, item);
+            }
+            builder.append(']');
+        }
+        else if (value instanceof Number || value instanceof Boolean)
+        {
+            builder.append(value);
+        }
+        else
+        {
+            writeString(builder, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder builder, String value)
+    {
+        builder.append('"');
+        for (int i = 0; i < value.length(); ++i)
+        {
+            char c = value.charAt(i);
+            switch (c)
+            {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20)
+                    {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    }
+                    else
+                    {
+                        builder.append(c);
+                    }
+            }
+        }
+        builder.append('"');
+    }
+}
@@ -1,9 +1,16 @@
 package io.pixelsdb.ccb.network;
 
-import io.pixelsdb.ccb.network.http.HttpReceiver;
-import io.pixelsdb.ccb.network.http.HttpSender;
-import io.pixelsdb.ccb.network.sqs.S3qsReceiver;
-import io.pixelsdb.ccb.network.sqs.S3qsSender;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.codec.CodecMetrics;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.TimelineSampler;
+import io.pixelsdb.ccb.network.sweep.CellResult;
+import io.pixelsdb.ccb.network.sweep.LoopbackRunner;
+import io.pixelsdb.ccb.network.sweep.Role;
+import io.pixelsdb.ccb.network.sweep.ShuffleRunner;
+import io.pixelsdb.ccb.network.sweep.SweepCell;
+import io.pixelsdb.ccb.network.sweep.SweepRunner;
 
 import java.io.IOException;
 
@@ -13,88 +20,84 @@ import java.io.IOException;
  */
 public class Main
 {
-    private static final int BUFFER_SIZE = 8 * 1024 * 1024;
-    private static final long BUFFER_NUM = 12800;
     public static void main(String[] args) throws IOException
     {
         if (args.length < 2)
         {
-            System.out.println("Usage: program[sender/receiver] method[http/sqs] args");
+            System.out.println("Usage: program[sender/receiver] transport[http/http_striped/s3qs/sqs/sqs_async/sqs_pure/shm/hybrid] config");
+            System.out.println("       program[sweep/shuffle/loopback] config");
             return;
         }
         String program = args[0];
-        String method = args[1];
 
-        if (program.equals("sender"))
+        if (program.equals("sweep"))
         {
-            Sender sender;
-            if (method.equals("http"))
-            {
-                String host = args[2];
-                String port = args[3];
-                sender = new HttpSender(host, Integer.parseInt(port));
-            }
-            else if (method.equals("sqs"))
-            {
-                String s3Prefix = args[2];
-                String queueUrl = args[3];
-                sender = new S3qsSender(s3Prefix, queueUrl);
-            }
-            else
-            {
-                System.err.println("Unknown method: " + method);
-                return;
-            }
-            byte[] smallBuffer = new byte[BUFFER_SIZE];
-            sender.send(smallBuffer);
-            long start = System.currentTimeMillis();
-            byte[] buffer = new byte[BUFFER_SIZE];
-            for (int i = 0; i < BUFFER_NUM; ++i)
-            {
-                sender.send(buffer);
-            }
-            sender.close();
-            long end = System.currentTimeMillis();
-            System.out.println("latency: " + (end - start)/1000.0d + " seconds");
-            System.out.println("rate: " + BUFFER_SIZE * BUFFER_NUM * 1000.0d / 1024 / 1024 / (end - start) + " MB/s");
-            System.out.println("start at: " + start);
-            System.out.println("stop at: " + end);
+            BenchmarkConfig config = BenchmarkConfig.load(args[1]);
+            initBufferPool(config);
+            TransportExecutors.init(config);
+            new SweepRunner(config).run();
         }
-        else if (program.equals("receiver"))
+        else if (program.equals("shuffle"))
         {
-            Receiver receiver;
-            if (method.equals("http"))
-            {
-                String host = args[2];
-                String port = args[3];
-                receiver = new HttpReceiver(host, Integer.parseInt(port));
-            }
-            else if (method.equals("sqs"))
+            BenchmarkConfig config = BenchmarkConfig.load(args[1]);
+            initBufferPool(config);
+            TransportExecutors.init(config);
+            new ShuffleRunner(config).run();
+        }
+        else if (program.equals("loopback"))
+        {
+            BenchmarkConfig config = BenchmarkConfig.load(args[1]);
+            initBufferPool(config);
+            TransportExecutors.init(config);
+            new LoopbackRunner(config).run();
+        }
+        else if (program.equals("sender") || program.equals("receiver"))
+        {
+            if (args.length < 3)
             {
-                String queueUrl = args[2];
-                receiver = new S3qsReceiver(queueUrl);
+                System.err.println("Missing config file for " + program);
+                return;
             }
-            else
+            Transport transport = Transport.from(args[1]);
+            BenchmarkConfig config = BenchmarkConfig.load(args[2]);
+            initBufferPool(config);
+            TransportExecutors.init(config);
+            int bufferSize = (int) config.getSize("benchmark.message.size", 8 * 1024 * 1024);
+            long bufferNum = config.getLong("benchmark.message.count", 12800);
+            int concurrency = config.getInt("benchmark.concurrency", 1);
+            SweepRunner runner = new SweepRunner(config, Role.valueOf(program));
+            SweepCell cell = new SweepCell(transport, bufferSize, bufferNum, concurrency);
+            CellResult result;
+            try (TimelineSampler timeline = TimelineSampler.from(config, program))
             {
-                System.err.println("Unknown method: " + method);
-                return;
+                runner.warmUp(cell, timeline);
+                if (timeline != null)
+                {
+                    timeline.setRun(cell.getLabel());
+                }
+                result = runner.runCell(cell, bufferNum);
             }
-            receiver.receive(BUFFER_SIZE);
-            long start = System.currentTimeMillis();
-            for (int i = 0; i < BUFFER_NUM; ++i)
+            System.out.println("latency: " + result.getElapsedMs() / 1000.0d + " seconds");
+            System.out.println("rate: " + result.getMBPerSecond() + " MB/s");
+            System.out.println("start at: " + result.getStartMs());
+            System.out.println("stop at: " + result.getEndMs());
+            System.out.println("failures: " + result.getFailures());
+            System.out.print(LatencyMetrics.Instance().report());
+            if (config.getBoolean("codec.enabled", false))
             {
-                receiver.receive(BUFFER_SIZE);
+                System.out.println(CodecMetrics.Instance().report());
             }
-            receiver.close();
-            long end = System.currentTimeMillis();
-            System.out.println("latency: " + (end - start)/1000.0d + " seconds");
-            System.out.println("rate: " + BUFFER_SIZE * BUFFER_NUM * 1000.0d / 1024 / 1024 / (end - start) + " MB/s");
-            System.out.println("start at: " + start);
-            System.out.println("stop at: " + end);
+            System.out.println(BufferPool.Instance());
         }
         else
         {
             System.err.println("Unknown program: " + program);
         }
     }
+
+    private static void initBufferPool(BenchmarkConfig config)
+    {
+        BufferPool.init(config.getSize("buffer.pool.capacity", 1024L * 1024L * 1024L),
+                config.getBoolean("buffer.pool.direct", false));
+    }
 }
@@ -1,7 +1,13 @@
 package io.pixelsdb.ccb.network;
 
+import io.pixelsdb.ccb.network.stream.BufferReadChannel;
+
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author hank
@@ -11,6 +17,78 @@ public interface Receiver extends AutoCloseable
 {
     ByteBuffer receive(int bytes) throws IOException;
 
+    /**
+     * Receive one message of dst.remaining() bytes into dst, starting at its position.
+     * The position of dst is advanced by the number of bytes received. This allows the caller to reuse
+     * buffers, e.g., from {@link io.pixelsdb.ccb.network.buffer.BufferPool}, instead of having a new buffer
+     * allocated for each message. The default implementation copies the result of {@link #receive(int)}.
+     * @param dst the buffer to receive into, can be a heap or a direct buffer
+     * @return the number of bytes received
+     */
+    default int receive(ByteBuffer dst) throws IOException
+    {
+        ByteBuffer buffer = receive(dst.remaining());
+        if (buffer == null)
+        {
+            return 0;
+        }
+        int bytes = buffer.remaining();
+        dst.put(buffer);
+        return bytes;
+    }
+
+    /**
+     * Start receiving one message. The returned future is completed with the payload once it has been
+     * fetched, so that the caller can process it while later messages are still being received.
+     * The payload buffers may come from {@link io.pixelsdb.ccb.network.buffer.BufferPool#Instance()} and can
+     * be released to it once consumed. The default implementation receives synchronously.
+     * @param bytes the size of the message
+     * @return the future of the payload
+     */
+    default CompletableFuture<ByteBuffer> receiveAsync(int bytes)
+    {
+        try
+        {
+            return CompletableFuture.completedFuture(receive(bytes));
+        }
+        catch (IOException e)
+        {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Start receiving one message as a channel, whose first bytes can be consumed before the last ones are
+     * received. The channel reaches its end at the end of the message, and must be closed before the next
+     * message is received. The default implementation receives the whole message by {@link #receive(int)}
+     * and releases its buffer to the buffer pool when the channel is closed.
+     * @param bytes the size of the message
+     * @return the channel of the message
+     */
+    default ReadableByteChannel receiveChannel(int bytes) throws IOException
+    {
+        return new BufferReadChannel(receive(bytes));
+    }
+
+    /**
+     * @return the input stream of one message, see {@link #receiveChannel(int)}
+     */
+    default InputStream receiveStream(int bytes) throws IOException
+    {
+        return Channels.newInputStream(receiveChannel(bytes));
+    }
+
+    /**
+     * A stream receiver reads exactly the number of bytes asked for from a byte stream, so a message can be
+     * read in several receives. A message receiver returns one whole message per receive, which may be
+     * shorter than the number of bytes asked for. The default is a message receiver.
+     * @return whether this is a stream receiver
+     */
+    default boolean isStream()
+    {
+        return false;
+    }
+
     boolean isClosed();
 
     @Override
@@ -1,6 +1,12 @@
 package io.pixelsdb.ccb.network;
 
+import io.pixelsdb.ccb.network.stream.BufferedSendChannel;
+
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * @author hank
@@ -8,7 +14,40 @@ import java.io.IOException;
  */
 public interface Sender extends AutoCloseable
 {
-    void send(byte[] buffer) throws IOException;
+    default void send(byte[] buffer) throws IOException
+    {
+        send(ByteBuffer.wrap(buffer));
+    }
+
+    /**
+     * Send the bytes between the position and the limit of the buffer, which can be a heap or a direct buffer.
+     * The sender may hold the buffer until the message is sent, i.e., after this method returns, so the caller
+     * must not modify its content before the sender is closed. Implementations must not change the position
+     * or the limit of the buffer, so that one buffer can be sent repeatedly and by concurrent senders.
+     * @param buffer the message
+     */
+    void send(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Open the channel of one message, whose bytes are written while they are produced, and which is complete
+     * when the channel is closed. A streaming sender starts sending the first bytes before the message is
+     * complete, so the producer and the network overlap. Like {@link #send(ByteBuffer)}, closing the channel
+     * may return before the message is delivered. The default implementation collects the message and sends it
+     * when the channel is closed.
+     * @return the channel of the message, only one message is written at a time through one sender
+     */
+    default WritableByteChannel openChannel() throws IOException
+    {
+        return new BufferedSendChannel(this);
+    }
+
+    /**
+     * @return the output stream of one message, see {@link #openChannel()}
+     */
+    default OutputStream openStream() throws IOException
+    {
+        return Channels.newOutputStream(openChannel());
+    }
 
     boolean isClosed();
 
@@ -0,0 +1,292 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.buffer.SpillPolicy;
+import io.pixelsdb.ccb.network.flow.InFlightLimiter;
+import io.pixelsdb.ccb.network.flow.RatePolicy;
+import io.pixelsdb.ccb.network.http.HttpReceiver;
+import io.pixelsdb.ccb.network.http.HttpSender;
+import io.pixelsdb.ccb.network.http.StripeScheduling;
+import io.pixelsdb.ccb.network.http.StripedHttpReceiver;
+import io.pixelsdb.ccb.network.http.StripedHttpSender;
+import io.pixelsdb.ccb.network.pack.PackPolicy;
+import io.pixelsdb.ccb.network.retry.HedgePolicy;
+import io.pixelsdb.ccb.network.retry.RetryPolicy;
+import io.pixelsdb.ccb.network.shm.ShmReceiver;
+import io.pixelsdb.ccb.network.shm.ShmSender;
+import io.pixelsdb.ccb.network.sqs.BatchPolicy;
+import io.pixelsdb.ccb.network.sqs.HybridPolicy;
+import io.pixelsdb.ccb.network.sqs.HybridReceiver;
+import io.pixelsdb.ccb.network.sqs.HybridSender;
+import io.pixelsdb.ccb.network.sqs.OrderPolicy;
+import io.pixelsdb.ccb.network.sqs.PrefetchPolicy;
+import io.pixelsdb.ccb.network.sqs.S3qsReceiver;
+import io.pixelsdb.ccb.network.sqs.S3qsSender;
+import io.pixelsdb.ccb.network.sqs.SqsAsyncReceiver;
+import io.pixelsdb.ccb.network.sqs.SqsAsyncSender;
+import io.pixelsdb.ccb.network.sqs.SqsPureReceiver;
+import io.pixelsdb.ccb.network.sqs.SqsPureSender;
+import io.pixelsdb.ccb.network.sqs.SqsReceiver;
+import io.pixelsdb.ccb.network.sqs.SqsSender;
+import io.pixelsdb.ccb.network.transfer.TransferPolicy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The transports that can be benchmarked. The index passed to the factory methods identifies
+ * one of the concurrent senders (or receivers) in a run: http uses port + index, http_striped uses
+ * the stripes ports from port + index * stripes, and the S3-based transports write under prefix/index/ so that concurrent senders never
+ * overwrite each other's objects. If order.enabled, s3qs and sqs use the queue url suffixed by -index, hybrid always does. shm uses
+ * the ring file named by transport.shm.name suffixed by -index in transport.shm.dir, so its sender and receiver
+ * must run on the same host.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public enum Transport
+{
+    http
+    {
+        @Override
+        public Sender newSender(BenchmarkConfig config, int index) throws IOException
+        {
+            return new HttpSender(httpHost(config), httpPort(config) + index);
+        }
+
+        @Override
+        public Receiver newReceiver(BenchmarkConfig config, int index) throws IOException
+        {
+            return new HttpReceiver(httpHost(config), httpPort(config) + index);
+        }
+
+        @Override
+        public boolean isPointToPoint(BenchmarkConfig config)
+        {
+            return true;
+        }
+    },
+    http_striped
+    {
+        @Override
+        public Sender newSender(BenchmarkConfig config, int index) throws IOException
+        {
+            int stripes = httpStripes(config);
+            return new StripedHttpSender(httpHost(config), httpPort(config) + index * stripes, stripes,
+                    (int) config.getSize("transport.http.chunk.size", 1024 * 1024),
+                    StripeScheduling.from(config.getString("transport.http.scheduling", "round_robin")),
+                    InFlightLimiter.from(config));
+        }
+
+        @Override
+        public Receiver newReceiver(BenchmarkConfig config, int index) throws IOException
+        {
+            int stripes = httpStripes(config);
+            return new StripedHttpReceiver(httpHost(config), httpPort(config) + index * stripes, stripes,
+                    config.getInt("transport.http.buffered.chunks", 16));
+        }
+
+        @Override
+        public boolean isPointToPoint(BenchmarkConfig config)
+        {
+            return true;
+        }
+    },
+    s3qs
+    {
+        @Override
+        public Sender newSender(BenchmarkConfig config, int index) throws IOException
+        {
+            return new S3qsSender(s3Prefix(config, index), queueUrl(config, index), InFlightLimiter.from(config),
+                    PackPolicy.from(config), RetryPolicy.from(config));
+        }
+
+        @Override
+        public Receiver newReceiver(BenchmarkConfig config, int index) throws IOException
+        {
+            return new S3qsReceiver(queueUrl(config, index), PackPolicy.from(config), TransferPolicy.from(config),
+                    RetryPolicy.from(config), OrderPolicy.from(config), PrefetchPolicy.from(config));
+        }
+
+        @Override
+        public boolean isPointToPoint(BenchmarkConfig config)
+        {
+            return OrderPolicy.from(config).isEnabled();
+        }
+    },
+    sqs
+    {
+        @Override
+        public Sender newSender(BenchmarkConfig config, int index) throws IOException
+        {
+            return new SqsSender(s3Prefix(config, index), queueUrl(config, index), InFlightLimiter.from(config),
+                    BatchPolicy.from(config), PackPolicy.from(config), TransferPolicy.from(config),
+                    RetryPolicy.from(config), OrderPolicy.from(config));
+        }
+
+        @Override
+        public Receiver newReceiver(BenchmarkConfig config, int index) throws IOException
+        {
+            return new SqsReceiver(queueUrl(config, index), BatchPolicy.from(config), PackPolicy.from(config),
+                    TransferPolicy.from(config), PrefetchPolicy.from(config), RetryPolicy.from(config),
+                    HedgePolicy.from(config), OrderPolicy.from(config));
+        }
+
+        @Override
+        public boolean isPointToPoint(BenchmarkConfig config)
+        {
+            return OrderPolicy.from(config).isEnabled();
+        }
+    },
+    sqs_async
+    {
+        @Override
+        public Sender newSender(BenchmarkConfig config, int index) throws IOException
+        {
+            return new SqsAsyncSender(s3Prefix(config, index), queueUrl(config), InFlightLimiter.from(config),
+                    BatchPolicy.from(config), RatePolicy.from(config, "send"), RetryPolicy.from(config));
+        }
+
+        @Override
+        public Receiver newReceiver(BenchmarkConfig config, int index) throws IOException
+        {
+            return new SqsAsyncReceiver(queueUrl(config), BatchPolicy.from(config), RatePolicy.from(config, "receive"),
+                    RetryPolicy.from(config), HedgePolicy.from(config));
+        }
+    },
+    sqs_pure
+    {
+        @Override
+        public Sender newSender(BenchmarkConfig config, int index) throws IOException
+        {
+            return new SqsPureSender(queueUrl(config), InFlightLimiter.from(config),
+                    BatchPolicy.from(config));
+        }
+
+        @Override
+        public Receiver newReceiver(BenchmarkConfig config, int index) throws IOException
+        {
+            return new SqsPureReceiver(queueUrl(config), BatchPolicy.from(config), SpillPolicy.from(config));
+        }
+    },
+    shm
+    {
+        @Override
+        public Sender newSender(BenchmarkConfig config, int index) throws IOException
+        {
+            return new ShmSender(shmPath(config, index), config.getLong("transport.shm.open.timeout.ms", 30000));
+        }
+
+        @Override
+        public Receiver newReceiver(BenchmarkConfig config, int index) throws IOException
+        {
+            long capacity = config.getSize("transport.shm.ring.size", 256 * 1024 * 1024);
+            if (capacity > Integer.MAX_VALUE)
+            {
+                throw new IllegalArgumentException("ring size exceeds 2GB: " + capacity);
+            }
+            return new ShmReceiver(shmPath(config, index), (int) capacity);
+        }
+
+        @Override
+        public boolean isPointToPoint(BenchmarkConfig config)
+        {
+            return true;
+        }
+    },
+    hybrid
+    {
+        @Override
+        public Sender newSender(BenchmarkConfig config, int index) throws IOException
+        {
+            return new HybridSender(s3Prefix(config, index), indexedQueueUrl(config, index),
+                    HybridPolicy.from(config), InFlightLimiter.from(config), BatchPolicy.from(config));
+        }
+
+        @Override
+        public Receiver newReceiver(BenchmarkConfig config, int index) throws IOException
+        {
+            return new HybridReceiver(indexedQueueUrl(config, index), BatchPolicy.from(config));
+        }
+
+        /**
+         * The fragments of a payload are reassembled by the receiver, so they must all reach the same one.
+         */
+        @Override
+        public boolean isPointToPoint(BenchmarkConfig config)
+        {
+            return true;
+        }
+    };
+
+    public abstract Sender newSender(BenchmarkConfig config, int index) throws IOException;
+
+    public abstract Receiver newReceiver(BenchmarkConfig config, int index) throws IOException;
+
+    /**
+     * @return true if a receiver is connected to exactly one sender of the same index, false if a receiver
+     * drains a queue that any number of senders can send to
+     */
+    public boolean isPointToPoint(BenchmarkConfig config)
+    {
+        return false;
+    }
+
+    public static Transport from(String name)
+    {
+        return valueOf(name.trim().toLowerCase().replace('-', '_'));
+    }
+
+    private static String httpHost(BenchmarkConfig config)
+    {
+        return config.getString("transport.http.host", "localhost");
+    }
+
+    private static int httpPort(BenchmarkConfig config)
+    {
+        return config.getInt("transport.http.port", 19200);
+    }
+
+    private static int httpStripes(BenchmarkConfig config)
+    {
+        return config.getInt("transport.http.stripes", 4);
+    }
+
+    private static String queueUrl(BenchmarkConfig config)
+    {
+        return config.getString("transport.sqs.queue.url");
+    }
+
+    /**
+     * @return the queue of the sender and the receiver of the index if ordered delivery is enabled, as the order
+     * is per sender, otherwise the queue shared by all the senders and receivers
+     */
+    private static String queueUrl(BenchmarkConfig config, int index)
+    {
+        return OrderPolicy.from(config).isEnabled() ? indexedQueueUrl(config, index) : queueUrl(config);
+    }
+
+    /**
+     * @return the queue of the sender and the receiver of the index
+     */
+    private static String indexedQueueUrl(BenchmarkConfig config, int index)
+    {
+        return queueUrl(config) + "-" + index;
+    }
+
+    private static Path shmPath(BenchmarkConfig config, int index)
+    {
+        return Paths.get(config.getString("transport.shm.dir", "/dev/shm"),
+                config.getString("transport.shm.name", "ccb-ring") + "-" + index);
+    }
+
+    private static String s3Prefix(BenchmarkConfig config, int index)
+    {
+        String prefix = config.getString("transport.s3.prefix");
+        if (!prefix.endsWith("/"))
+        {
+            prefix += "/";
+        }
+        return prefix + index + "/";
+    }
+}
@@ -0,0 +1,152 @@
+package io.pixelsdb.ccb.network.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of byte buffers in power-of-two size classes, from 4KB to 256MB.
+ * A buffer is acquired with its limit set to the requested size and should be released once its content
+ * is consumed. Released buffers are kept for reuse as long as the pooled bytes do not exceed the capacity,
+ * otherwise they are left to the garbage collector. Requests larger than the largest class are allocated
+ * exactly and never pooled.
+ * <p/>
+ * Receivers allocate the buffers returned by {@link io.pixelsdb.ccb.network.Receiver#receive(int)} from
+ * {@link #Instance()}, so callers can hand them back by {@link #release(ByteBuffer)}.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class BufferPool
+{
+    private static final int MIN_CLASS_BITS = 12;
+    private static final int MAX_CLASS_BITS = 28;
+    private static final long DEFAULT_CAPACITY = 1024L * 1024L * 1024L;
+
+    private static volatile BufferPool instance = new BufferPool(DEFAULT_CAPACITY, false);
+
+    public static BufferPool Instance()
+    {
+        return instance;
+    }
+
+    /**
+     * Replace the process-wide pool, should be called before the receivers are opened.
+     * @param capacity the maximum number of bytes kept in the pool
+     * @param direct whether to allocate direct (off-heap) buffers
+     */
+    public static void init(long capacity, boolean direct)
+    {
+        instance = new BufferPool(capacity, direct);
+    }
+
+    private final long capacity;
+    private final boolean direct;
+    @SuppressWarnings("unchecked")
+    private final ConcurrentLinkedDeque<ByteBuffer>[] classes = new ConcurrentLinkedDeque[MAX_CLASS_BITS + 1];
+    private final AtomicLong pooledBytes = new AtomicLong(0);
+    private final AtomicLong allocations = new AtomicLong(0);
+    private final AtomicLong reuses = new AtomicLong(0);
+
+    public BufferPool(long capacity, boolean direct)
+    {
+        this.capacity = capacity;
+        this.direct = direct;
+        for (int i = MIN_CLASS_BITS; i <= MAX_CLASS_BITS; ++i)
+        {
+            this.classes[i] = new ConcurrentLinkedDeque<>();
+        }
+    }
+
+    public boolean isDirect()
+    {
+        return this.direct;
+    }
+
+    /**
+     * @param size the number of bytes needed
+     * @return a buffer with position 0 and limit size, its capacity may be larger than size
+     */
+    public ByteBuffer acquire(int size)
+    {
+        int bits = classOf(size);
+        if (bits > MAX_CLASS_BITS)
+        {
+            this.allocations.incrementAndGet();
+            return allocate(size);
+        }
+        ByteBuffer buffer = this.classes[bits].pollFirst();
+        if (buffer != null)
+        {
+            this.pooledBytes.addAndGet(-buffer.capacity());
+            this.reuses.incrementAndGet();
+        }
+        else
+        {
+            this.allocations.incrementAndGet();
+            buffer = allocate(1 << bits);
+        }
+        buffer.clear().limit(size);
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool. Buffers that are read-only, of another kind (direct or heap), or whose
+     * capacity is not a size class of this pool are ignored, so any received buffer can be released safely.
+     */
+    public void release(ByteBuffer buffer)
+    {
+        if (buffer == null || buffer.isReadOnly() || buffer.isDirect() != this.direct)
+        {
+            return;
+        }
+        int capacity = buffer.capacity();
+        int bits = classOf(capacity);
+        if (bits > MAX_CLASS_BITS || (1 << bits) != capacity)
+        {
+            return;
+        }
+        if (this.pooledBytes.addAndGet(capacity) > this.capacity)
+        {
+            this.pooledBytes.addAndGet(-capacity);
+            return;
+        }
+        this.classes[bits].offerFirst(buffer);
+    }
+
+    public long getAllocations()
+    {
+        return this.allocations.get();
+    }
+
+    public long getReuses()
+    {
+        return this.reuses.get();
+    }
+
+    public long getPooledBytes()
+    {
+        return this.pooledBytes.get();
+    }
+
+    private ByteBuffer allocate(int size)
+    {
+        return this.direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+
+    private static int classOf(int size)
+    {
+        if (size <= 1 << MIN_CLASS_BITS)
+        {
+            return MIN_CLASS_BITS;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "buffer pool: allocations=" + getAllocations() + ", reuses=" + getReuses() +
+                ", pooled bytes=" + getPooledBytes() + ", direct=" + this.direct;
+    }
+}
@@ -0,0 +1,74 @@
+package io.pixelsdb.ccb.network.buffer;
+
+import io.pixelsdb.pixels.common.physical.PhysicalReader;
+import io.pixelsdb.pixels.common.physical.PhysicalWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Helpers to pass {@link ByteBuffer}s to the pixels physical readers and writers without copying them.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class Buffers
+{
+    private Buffers() { }
+
+    /**
+     * Append the bytes between the position and the limit of the buffer to the writer.
+     * The writer is given the backing array of a heap buffer, so it is not copied. A direct buffer has to be
+     * copied once into a heap array, because {@link PhysicalWriter#append(ByteBuffer)} flips its argument
+     * and assumes that it has an array. The position and the limit of the buffer are not changed.
+     */
+    public static void append(PhysicalWriter writer, ByteBuffer buffer) throws IOException
+    {
+        if (buffer.hasArray())
+        {
+            writer.append(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        else
+        {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            writer.append(bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Read dst.remaining() bytes from the current position of the reader into dst and advance the position
+     * of dst. A heap buffer is filled in place through its backing array, a direct buffer receives a copy
+     * of what {@link PhysicalReader#readFully(int)} returns.
+     * @return the number of bytes read
+     */
+    public static int readFully(PhysicalReader reader, ByteBuffer dst) throws IOException
+    {
+        int length = dst.remaining();
+        if (dst.hasArray())
+        {
+            reader.readFully(dst.array(), dst.arrayOffset() + dst.position(), length);
+            dst.position(dst.position() + length);
+        }
+        else
+        {
+            dst.put(reader.readFully(length));
+        }
+        return length;
+    }
+
+    /**
+     * Copy the remaining bytes of src into dst, failing if dst does not have enough room for the whole message.
+     * @return the number of bytes copied
+     */
+    public static int copy(ByteBuffer src, ByteBuffer dst) throws IOException
+    {
+        int length = src.remaining();
+        if (length > dst.remaining())
+        {
+            throw new IOException("message of " + length + " bytes does not fit in " + dst.remaining() + " bytes");
+        }
+        dst.put(src.duplicate());
+        return length;
+    }
+}
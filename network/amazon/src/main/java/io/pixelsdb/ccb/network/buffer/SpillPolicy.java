@@ -0,0 +1,75 @@
+package io.pixelsdb.ccb.network.buffer;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+/**
+ * Whether and how a {@link SpillQueue} spills the payloads it holds to local disk: the payloads are kept in
+ * memory while they total at most memoryBytes, and the payloads beyond are written to memory-mapped segment
+ * files of segmentSize bytes (or one payload if larger) in dir, which are deleted once they are drained.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class SpillPolicy
+{
+    public static final long DEFAULT_MEMORY_BYTES = 256L * 1024 * 1024;
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private final boolean enabled;
+    private final long memoryBytes;
+    private final long segmentSize;
+    private final String dir;
+
+    public SpillPolicy(boolean enabled, long memoryBytes, long segmentSize, String dir)
+    {
+        if (memoryBytes < 0 || segmentSize < 1 || segmentSize > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("the memory bytes must be non-negative and the segment size in [1, 2GB)");
+        }
+        this.enabled = enabled;
+        this.memoryBytes = memoryBytes;
+        this.segmentSize = segmentSize;
+        this.dir = dir;
+    }
+
+    /**
+     * @return the policy that keeps all the payloads in memory
+     */
+    public static SpillPolicy disabled()
+    {
+        return new SpillPolicy(false, DEFAULT_MEMORY_BYTES, DEFAULT_SEGMENT_SIZE, System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Create a policy from the spill.* settings, the segment files are in the temporary directory if spill.dir
+     * is empty.
+     */
+    public static SpillPolicy from(BenchmarkConfig config)
+    {
+        String dir = config.getString("spill.dir", "").trim();
+        return new SpillPolicy(config.getBoolean("spill.enabled", false),
+                config.getSize("spill.memory.bytes", DEFAULT_MEMORY_BYTES),
+                config.getSize("spill.segment.size", DEFAULT_SEGMENT_SIZE),
+                dir.isEmpty() ? System.getProperty("java.io.tmpdir") : dir);
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public long getMemoryBytes()
+    {
+        return memoryBytes;
+    }
+
+    public long getSegmentSize()
+    {
+        return segmentSize;
+    }
+
+    public String getDir()
+    {
+        return dir;
+    }
+}
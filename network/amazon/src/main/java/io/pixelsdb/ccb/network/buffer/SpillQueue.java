@@ -0,0 +1,291 @@
+package io.pixelsdb.ccb.network.buffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * An unbounded FIFO queue of payloads with a bounded memory footprint, for a receiver whose consumer may be
+ * slower than the transport. The payloads are kept as they are put while they total at most the
+ * {@link SpillPolicy#getMemoryBytes()} budget, the payloads beyond are copied into memory-mapped segment files
+ * on local disk, so the operating system writes them back under memory pressure instead of the heap growing.
+ * A spilled payload is paged back into a buffer from the {@link BufferPool} when it is taken, and a segment
+ * file is deleted once all its payloads are taken. The payloads are taken in the order they are put, whether
+ * they were spilled or not. If the policy is disabled, all the payloads are kept in memory.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class SpillQueue implements Closeable
+{
+    private final SpillPolicy policy;
+    private final Path dir;
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private long memoryBytes = 0;
+    private Segment writing = null;
+    private long spilledBytes = 0;
+    private long spills = 0;
+    private int segments = 0;
+    private boolean closed = false;
+
+    public SpillQueue(SpillPolicy policy)
+    {
+        this.policy = policy;
+        this.dir = Paths.get(policy.getDir());
+    }
+
+    /**
+     * Add a payload to the tail of the queue, its position and limit are not changed. A spilled payload is copied,
+     * so it can be reused once this method returns, a payload kept in memory must not be changed until it is taken.
+     * @throws IOException if the payload could not be spilled, it is then not added
+     */
+    public synchronized void put(ByteBuffer payload) throws IOException
+    {
+        if (this.closed)
+        {
+            throw new IOException("spill queue is closed");
+        }
+        int bytes = payload.remaining();
+        if (!this.policy.isEnabled() || this.memoryBytes + bytes <= this.policy.getMemoryBytes())
+        {
+            this.entries.add(new Entry(payload, null, 0, bytes));
+            this.memoryBytes += bytes;
+        }
+        else
+        {
+            this.entries.add(spill(payload));
+        }
+        notifyAll();
+    }
+
+    private Entry spill(ByteBuffer payload) throws IOException
+    {
+        int bytes = payload.remaining();
+        if (this.writing == null || this.writing.map.capacity() - this.writing.position < bytes)
+        {
+            if (this.writing != null)
+            {
+                Segment sealed = this.writing;
+                this.writing = null;
+                deleteIfDrained(sealed);
+            }
+            this.writing = newSegment((int) Math.max(this.policy.getSegmentSize(), bytes));
+        }
+        Segment segment = this.writing;
+        int offset = segment.position;
+        ByteBuffer dst = segment.map.duplicate();
+        dst.position(offset);
+        dst.put(payload.duplicate());
+        segment.position += bytes;
+        segment.live++;
+        this.spilledBytes += bytes;
+        this.spills++;
+        return new Entry(null, segment, offset, bytes);
+    }
+
+    private Segment newSegment(int size) throws IOException
+    {
+        Files.createDirectories(this.dir);
+        Path path = Files.createTempFile(this.dir, "spill-", ".seg");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            this.segments++;
+            return new Segment(path, map);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    /**
+     * Take the payload at the head of the queue, waiting until there is one.
+     * @return the payload as it was put, or a buffer from the buffer pool holding the spilled payload
+     * @throws IOException if the queue is closed while it is empty
+     */
+    public ByteBuffer take() throws IOException, InterruptedException
+    {
+        Entry entry;
+        synchronized (this)
+        {
+            while (this.entries.isEmpty() && !this.closed)
+            {
+                wait();
+            }
+            entry = poll0();
+        }
+        return pageIn(entry);
+    }
+
+    /**
+     * @return the payload at the head of the queue, or null if the queue is empty
+     */
+    public ByteBuffer poll() throws IOException
+    {
+        Entry entry;
+        synchronized (this)
+        {
+            if (this.entries.isEmpty() && !this.closed)
+            {
+                return null;
+            }
+            entry = poll0();
+        }
+        return pageIn(entry);
+    }
+
+    private Entry poll0() throws IOException
+    {
+        if (this.closed)
+        {
+            throw new IOException("spill queue is closed");
+        }
+        Entry entry = this.entries.poll();
+        if (entry.payload != null)
+        {
+            this.memoryBytes -= entry.length;
+        }
+        return entry;
+    }
+
+    /**
+     * Copy a spilled payload out of its segment, which is not deleted until its payloads are all taken.
+     */
+    private ByteBuffer pageIn(Entry entry) throws IOException
+    {
+        if (entry.payload != null)
+        {
+            return entry.payload;
+        }
+        ByteBuffer buffer = BufferPool.Instance().acquire(entry.length);
+        ByteBuffer src = entry.segment.map.duplicate();
+        src.limit(entry.offset + entry.length).position(entry.offset);
+        buffer.put(src).flip();
+        synchronized (this)
+        {
+            entry.segment.live--;
+            if (entry.segment != this.writing)
+            {
+                deleteIfDrained(entry.segment);
+            }
+        }
+        return buffer;
+    }
+
+    private void deleteIfDrained(Segment segment) throws IOException
+    {
+        if (segment.live == 0)
+        {
+            // the mapping is unmapped when it is garbage collected, the file is unlinked now
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    /**
+     * @return the number of payloads in the queue
+     */
+    public synchronized int size()
+    {
+        return this.entries.size();
+    }
+
+    /**
+     * @return the number of bytes of the payloads in the queue that are kept in memory
+     */
+    public synchronized long getMemoryBytes()
+    {
+        return this.memoryBytes;
+    }
+
+    /**
+     * @return the number of bytes spilled to disk since the queue was created
+     */
+    public synchronized long getSpilledBytes()
+    {
+        return this.spilledBytes;
+    }
+
+    /**
+     * @return the number of payloads spilled to disk since the queue was created
+     */
+    public synchronized long getSpills()
+    {
+        return this.spills;
+    }
+
+    /**
+     * @return the number of segment files created since the queue was created
+     */
+    public synchronized int getSegments()
+    {
+        return this.segments;
+    }
+
+    /**
+     * Drop the remaining payloads and delete the segment files, the waiting takes fail.
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (this.closed)
+        {
+            return;
+        }
+        this.closed = true;
+        for (Entry entry : this.entries)
+        {
+            if (entry.segment != null)
+            {
+                Files.deleteIfExists(entry.segment.path);
+            }
+        }
+        if (this.writing != null)
+        {
+            Files.deleteIfExists(this.writing.path);
+        }
+        this.entries.clear();
+        this.memoryBytes = 0;
+        notifyAll();
+    }
+
+    private static class Segment
+    {
+        private final Path path;
+        private final MappedByteBuffer map;
+        private int position = 0;
+        private int live = 0;
+
+        private Segment(Path path, MappedByteBuffer map)
+        {
+            this.path = path;
+            this.map = map;
+        }
+    }
+
+    private static class Entry
+    {
+        private final ByteBuffer payload;
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        private Entry(ByteBuffer payload, Segment segment, int offset, int length)
+        {
+            this.payload = payload;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
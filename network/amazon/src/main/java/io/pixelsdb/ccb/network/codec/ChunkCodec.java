@@ -0,0 +1,35 @@
+package io.pixelsdb.ccb.network.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses and decompresses one chunk of a message. Implementations are stateless and can be used by
+ * several threads at once. The buffers can be heap or direct buffers, direct buffers avoid copies in the
+ * native codecs.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public interface ChunkCodec
+{
+    /**
+     * @return the maximum size of the compressed form of length bytes
+     */
+    int maxCompressedLength(int length);
+
+    /**
+     * Compress the bytes between the position and the limit of src into dst, starting at the position of dst.
+     * The position of src is not changed, the position of dst is advanced by the compressed size.
+     * @return the compressed size
+     */
+    int compress(ByteBuffer src, ByteBuffer dst) throws IOException;
+
+    /**
+     * Decompress the bytes between the position and the limit of src into dst, which must have exactly
+     * the room of the uncompressed chunk. The position of src is not changed, the position of dst is
+     * advanced to its limit.
+     * @return the uncompressed size
+     */
+    int decompress(ByteBuffer src, ByteBuffer dst) throws IOException;
+}
@@ -0,0 +1,192 @@
+package io.pixelsdb.ccb.network.codec;
+
+import com.github.luben.zstd.Zstd;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The compression codecs of the codec stage, the id of a codec is written in the header of each message.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public enum Codec
+{
+    none
+    {
+        @Override
+        public ChunkCodec newChunkCodec(int level)
+        {
+            return new ChunkCodec()
+            {
+                @Override
+                public int maxCompressedLength(int length)
+                {
+                    return length;
+                }
+
+                @Override
+                public int compress(ByteBuffer src, ByteBuffer dst)
+                {
+                    int length = src.remaining();
+                    dst.put(src.duplicate());
+                    return length;
+                }
+
+                @Override
+                public int decompress(ByteBuffer src, ByteBuffer dst) throws IOException
+                {
+                    if (src.remaining() != dst.remaining())
+                    {
+                        throw new IOException("chunk of " + src.remaining() + " bytes, expected " + dst.remaining());
+                    }
+                    return compress(src, dst);
+                }
+            };
+        }
+    },
+    /**
+     * Level 0 selects the fast compressor, levels 1 to 17 the high compressor.
+     */
+    lz4
+    {
+        @Override
+        public ChunkCodec newChunkCodec(int level)
+        {
+            LZ4Factory factory = LZ4Factory.fastestInstance();
+            LZ4Compressor compressor = level > 0 ? factory.highCompressor(level) : factory.fastCompressor();
+            LZ4SafeDecompressor decompressor = factory.safeDecompressor();
+            return new ChunkCodec()
+            {
+                @Override
+                public int maxCompressedLength(int length)
+                {
+                    return compressor.maxCompressedLength(length);
+                }
+
+                @Override
+                public int compress(ByteBuffer src, ByteBuffer dst)
+                {
+                    int length = compressor.compress(src, src.position(), src.remaining(),
+                            dst, dst.position(), dst.remaining());
+                    dst.position(dst.position() + length);
+                    return length;
+                }
+
+                @Override
+                public int decompress(ByteBuffer src, ByteBuffer dst) throws IOException
+                {
+                    try
+                    {
+                        int length = decompressor.decompress(src, src.position(), src.remaining(),
+                                dst, dst.position(), dst.remaining());
+                        dst.position(dst.position() + length);
+                        return length;
+                    }
+                    catch (LZ4Exception e)
+                    {
+                        throw new IOException("failed to decompress lz4 chunk", e);
+                    }
+                }
+            };
+        }
+    },
+    /**
+     * Level 0 selects the default level of zstd (3). The native library takes direct buffers or arrays,
+     * other buffers, such as read-only heap buffers, are copied into direct buffers first.
+     */
+    zstd
+    {
+        @Override
+        public ChunkCodec newChunkCodec(int level)
+        {
+            int zstdLevel = level > 0 ? level : 3;
+            return new ChunkCodec()
+            {
+                @Override
+                public int maxCompressedLength(int length)
+                {
+                    return (int) Zstd.compressBound(length);
+                }
+
+                @Override
+                public int compress(ByteBuffer src, ByteBuffer dst) throws IOException
+                {
+                    ByteBuffer in = direct(src);
+                    ByteBuffer out = dst.isDirect() ? dst : ByteBuffer.allocateDirect(dst.remaining());
+                    long length = Zstd.compressDirectByteBuffer(out, out.position(), out.remaining(),
+                            in, in.position(), in.remaining(), zstdLevel);
+                    return (int) finish(length, out, dst);
+                }
+
+                @Override
+                public int decompress(ByteBuffer src, ByteBuffer dst) throws IOException
+                {
+                    ByteBuffer in = direct(src);
+                    ByteBuffer out = dst.isDirect() ? dst : ByteBuffer.allocateDirect(dst.remaining());
+                    long length = Zstd.decompressDirectByteBuffer(out, out.position(), out.remaining(),
+                            in, in.position(), in.remaining());
+                    return (int) finish(length, out, dst);
+                }
+
+                private long finish(long length, ByteBuffer out, ByteBuffer dst) throws IOException
+                {
+                    if (Zstd.isError(length))
+                    {
+                        throw new IOException("zstd failed: " + Zstd.getErrorName(length));
+                    }
+                    if (out != dst)
+                    {
+                        out.limit(out.position() + (int) length);
+                        dst.put(out);
+                    }
+                    else
+                    {
+                        dst.position(dst.position() + (int) length);
+                    }
+                    return length;
+                }
+            };
+        }
+
+        private ByteBuffer direct(ByteBuffer buffer)
+        {
+            if (buffer.isDirect())
+            {
+                return buffer;
+            }
+            ByteBuffer copy = ByteBuffer.allocateDirect(buffer.remaining());
+            copy.put(buffer.duplicate()).flip();
+            return copy;
+        }
+    };
+
+    /**
+     * @param level the compression level, 0 for the codec's default
+     */
+    public abstract ChunkCodec newChunkCodec(int level);
+
+    public byte getId()
+    {
+        return (byte) ordinal();
+    }
+
+    public static Codec fromId(byte id) throws IOException
+    {
+        if (id < 0 || id >= values().length)
+        {
+            throw new IOException("unknown codec id: " + id);
+        }
+        return values()[id];
+    }
+
+    public static Codec from(String name)
+    {
+        return valueOf(name.trim().toLowerCase());
+    }
+}
@@ -0,0 +1,245 @@
+package io.pixelsdb.ccb.network.codec;
+
+import io.pixelsdb.ccb.network.Futures;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * The wire format of a compressed message: a header of the codec id (byte), the uncompressed length (int), the
+ * chunk size (int) and the number of chunks (int), followed by the compressed length of each chunk (int) and
+ * the compressed chunks, all big-endian. The chunks are compressed and decompressed independently, so they are
+ * processed in parallel, and the CPU time spent on them is recorded in {@link CodecMetrics}.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class CodecFrame
+{
+    public static final int FIXED_HEADER_SIZE = 1 + 3 * Integer.BYTES;
+    public static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private final Codec codec;
+    private final int length;
+    private final int chunkSize;
+    private final int[] compressedLengths;
+
+    private CodecFrame(Codec codec, int length, int chunkSize, int[] compressedLengths)
+    {
+        this.codec = codec;
+        this.length = length;
+        this.chunkSize = chunkSize;
+        this.compressedLengths = compressedLengths;
+    }
+
+    /**
+     * @return the size of the header and the chunk table of a frame, given its fixed header
+     */
+    public static int headerSize(ByteBuffer fixedHeader)
+    {
+        int count = fixedHeader.duplicate().order(ByteOrder.BIG_ENDIAN).getInt(fixedHeader.position() + 9);
+        return FIXED_HEADER_SIZE + count * Integer.BYTES;
+    }
+
+    /**
+     * @return an upper bound of the frame size of a payload of at most length bytes, for all the codecs and
+     * chunk sizes of at least {@link #MIN_CHUNK_SIZE}
+     */
+    public static int maxFrameSize(int length)
+    {
+        long chunks = length / MIN_CHUNK_SIZE + 1;
+        return (int) Math.min(Integer.MAX_VALUE, FIXED_HEADER_SIZE + chunks * (Integer.BYTES + 64) +
+                length + length / 255 + 1);
+    }
+
+    /**
+     * Compress the payload into a new frame. The chunks are compressed into a scratch buffer from the pool, in
+     * parallel on the executor if there are several, and then copied into the frame.
+     * @param direct whether the frame is a direct buffer
+     * @return the frame, with position 0 and limit at its end
+     */
+    public static ByteBuffer encode(Codec codec, ChunkCodec chunkCodec, ByteBuffer payload, int chunkSize,
+                                    boolean direct, BufferPool scratchPool, Executor executor) throws IOException
+    {
+        int length = payload.remaining();
+        int count = Math.max(1, (length + chunkSize - 1) / chunkSize);
+        int maxChunk = chunkCodec.maxCompressedLength(Math.min(length, chunkSize));
+        ByteBuffer scratch = scratchPool.acquire((int) Math.min(Integer.MAX_VALUE, (long) maxChunk * count));
+        try
+        {
+            int[] compressedLengths = new int[count];
+            runChunks(count, executor, i -> {
+                ByteBuffer chunk = payload.duplicate();
+                chunk.position(payload.position() + i * chunkSize);
+                chunk.limit(chunk.position() + Math.min(chunkSize, length - i * chunkSize));
+                ByteBuffer slot = scratch.duplicate();
+                slot.limit(i * maxChunk + maxChunk).position(i * maxChunk);
+                long cpu = threadMXBean.getCurrentThreadCpuTime();
+                compressedLengths[i] = chunkCodec.compress(chunk, slot);
+                CodecMetrics.Instance().recordCompress(chunk.remaining(), compressedLengths[i],
+                        threadMXBean.getCurrentThreadCpuTime() - cpu);
+            });
+            long frameSize = FIXED_HEADER_SIZE + (long) count * Integer.BYTES;
+            for (int compressedLength : compressedLengths)
+            {
+                frameSize += compressedLength;
+            }
+            if (frameSize > Integer.MAX_VALUE)
+            {
+                throw new IOException("compressed frame exceeds 2GB");
+            }
+            ByteBuffer frame = (direct ? ByteBuffer.allocateDirect((int) frameSize) :
+                    ByteBuffer.allocate((int) frameSize)).order(ByteOrder.BIG_ENDIAN);
+            frame.put(codec.getId()).putInt(length).putInt(chunkSize).putInt(count);
+            for (int compressedLength : compressedLengths)
+            {
+                frame.putInt(compressedLength);
+            }
+            for (int i = 0; i < count; ++i)
+            {
+                ByteBuffer slot = scratch.duplicate();
+                slot.limit(i * maxChunk + compressedLengths[i]).position(i * maxChunk);
+                frame.put(slot);
+            }
+            return frame.flip();
+        }
+        finally
+        {
+            scratchPool.release(scratch);
+        }
+    }
+
+    /**
+     * Parse the header and the chunk table at the position of the buffer, and advance the position past them.
+     */
+    public static CodecFrame readHeader(ByteBuffer buffer) throws IOException
+    {
+        if (buffer.remaining() < FIXED_HEADER_SIZE)
+        {
+            throw new IOException("truncated codec header of " + buffer.remaining() + " bytes");
+        }
+        ByteBuffer header = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        Codec codec = Codec.fromId(header.get());
+        int length = header.getInt();
+        int chunkSize = header.getInt();
+        int count = header.getInt();
+        if (length < 0 || chunkSize <= 0 || count < 1 || header.remaining() < (long) count * Integer.BYTES)
+        {
+            throw new IOException("corrupted codec header: length=" + length + ", chunkSize=" + chunkSize +
+                    ", count=" + count);
+        }
+        int[] compressedLengths = new int[count];
+        for (int i = 0; i < count; ++i)
+        {
+            compressedLengths[i] = header.getInt();
+        }
+        buffer.position(header.position());
+        return new CodecFrame(codec, length, chunkSize, compressedLengths);
+    }
+
+    /**
+     * Decompress the chunks that follow the header, between the position and the limit of data, into dst, in
+     * parallel on the executor if there are several. The position of dst is advanced by the uncompressed length.
+     * @return the uncompressed length
+     */
+    public int decode(ByteBuffer data, ByteBuffer dst, Executor executor) throws IOException
+    {
+        if (this.length > dst.remaining())
+        {
+            throw new IOException("message of " + this.length + " bytes does not fit in " + dst.remaining() + " bytes");
+        }
+        if (getCompressedLength() > data.remaining())
+        {
+            throw new IOException("truncated frame: " + data.remaining() + " of " + getCompressedLength() + " bytes");
+        }
+        ChunkCodec chunkCodec = this.codec.newChunkCodec(0);
+        int[] offsets = new int[this.compressedLengths.length];
+        for (int i = 1; i < offsets.length; ++i)
+        {
+            offsets[i] = offsets[i - 1] + this.compressedLengths[i - 1];
+        }
+        runChunks(this.compressedLengths.length, executor, i -> {
+            ByteBuffer chunk = data.duplicate();
+            chunk.position(data.position() + offsets[i]);
+            chunk.limit(chunk.position() + this.compressedLengths[i]);
+            ByteBuffer target = dst.duplicate();
+            target.position(dst.position() + i * this.chunkSize);
+            target.limit(target.position() + Math.min(this.chunkSize, this.length - i * this.chunkSize));
+            long cpu = threadMXBean.getCurrentThreadCpuTime();
+            chunkCodec.decompress(chunk, target);
+            CodecMetrics.Instance().recordDecompress(this.compressedLengths[i],
+                    Math.min(this.chunkSize, this.length - i * this.chunkSize),
+                    threadMXBean.getCurrentThreadCpuTime() - cpu);
+        });
+        dst.position(dst.position() + this.length);
+        return this.length;
+    }
+
+    public Codec getCodec()
+    {
+        return codec;
+    }
+
+    /**
+     * @return the uncompressed length of the message
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * @return the total size of the compressed chunks that follow the header
+     */
+    public int getCompressedLength()
+    {
+        long total = 0;
+        for (int compressedLength : this.compressedLengths)
+        {
+            total += compressedLength;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, total);
+    }
+
+    private interface ChunkTask
+    {
+        void run(int chunk) throws IOException;
+    }
+
+    /**
+     * Run the task for each chunk, in the calling thread if there is only one chunk.
+     */
+    private static void runChunks(int count, Executor executor, ChunkTask task) throws IOException
+    {
+        if (count == 1)
+        {
+            task.run(0);
+            return;
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; ++i)
+        {
+            int chunk = i;
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try
+                {
+                    task.run(chunk);
+                }
+                catch (IOException e)
+                {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        }
+        Futures.join(CompletableFuture.allOf(futures));
+    }
+}
@@ -0,0 +1,83 @@
+package io.pixelsdb.ccb.network.codec;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The process-wide counters of the codec stage: the bytes before and after compression, and the cpu time
+ * spent by the threads compressing and decompressing the chunks.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class CodecMetrics
+{
+    private static final CodecMetrics instance = new CodecMetrics();
+
+    public static CodecMetrics Instance()
+    {
+        return instance;
+    }
+
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+    private final LongAdder decompressNanos = new LongAdder();
+
+    private CodecMetrics() { }
+
+    public void recordCompress(long uncompressed, long compressed, long cpuNanos)
+    {
+        this.uncompressedBytes.add(uncompressed);
+        this.compressedBytes.add(compressed);
+        this.compressNanos.add(cpuNanos);
+    }
+
+    public void recordDecompress(long compressed, long uncompressed, long cpuNanos)
+    {
+        this.uncompressedBytes.add(uncompressed);
+        this.compressedBytes.add(compressed);
+        this.decompressNanos.add(cpuNanos);
+    }
+
+    public void reset()
+    {
+        this.uncompressedBytes.reset();
+        this.compressedBytes.reset();
+        this.compressNanos.reset();
+        this.decompressNanos.reset();
+    }
+
+    public long getUncompressedBytes()
+    {
+        return uncompressedBytes.sum();
+    }
+
+    public long getCompressedBytes()
+    {
+        return compressedBytes.sum();
+    }
+
+    /**
+     * @return the uncompressed bytes divided by the compressed bytes, 1 if nothing was compressed
+     */
+    public double getRatio()
+    {
+        long compressed = getCompressedBytes();
+        return compressed == 0 ? 1 : (double) getUncompressedBytes() / compressed;
+    }
+
+    /**
+     * @return the cpu time of compressing and decompressing, in milliseconds
+     */
+    public double getCpuMs()
+    {
+        return (compressNanos.sum() + decompressNanos.sum()) / 1e6;
+    }
+
+    public String report()
+    {
+        return String.format("codec: uncompressed=%d bytes, compressed=%d bytes, ratio=%.3f, " +
+                        "compress cpu=%.3f ms, decompress cpu=%.3f ms", getUncompressedBytes(), getCompressedBytes(),
+                getRatio(), compressNanos.sum() / 1e6, decompressNanos.sum() / 1e6);
+    }
+}
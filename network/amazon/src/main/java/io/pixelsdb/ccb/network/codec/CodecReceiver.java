@@ -0,0 +1,139 @@
+package io.pixelsdb.ccb.network.codec;
+
+import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Receives the {@link CodecFrame}s sent by a {@link CodecSender} and decompresses them by the codec named in
+ * their headers, so the receiver does not need to know the codec of the sender. The frames of a message-based
+ * receiver are received whole, by asking for the largest frame a message of the given size can have. The
+ * frames of a stream receiver are read in three steps: the fixed header, the chunk table, and the chunks.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class CodecReceiver implements Receiver
+{
+    private final Receiver receiver;
+
+    public CodecReceiver(Receiver receiver)
+    {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public ByteBuffer receive(int bytes) throws IOException
+    {
+        if (this.receiver.isStream())
+        {
+            return readStreamFrame(bytes);
+        }
+        return decode(this.receiver.receive(CodecFrame.maxFrameSize(bytes)));
+    }
+
+    @Override
+    public CompletableFuture<ByteBuffer> receiveAsync(int bytes)
+    {
+        if (this.receiver.isStream())
+        {
+            return Receiver.super.receiveAsync(bytes);
+        }
+        return this.receiver.receiveAsync(CodecFrame.maxFrameSize(bytes)).thenApply(frame -> {
+            try
+            {
+                return decode(frame);
+            }
+            catch (IOException e)
+            {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public int receive(ByteBuffer dst) throws IOException
+    {
+        ByteBuffer buffer = receive(dst.remaining());
+        int bytes = buffer.remaining();
+        dst.put(buffer);
+        BufferPool.Instance().release(buffer);
+        return bytes;
+    }
+
+    /**
+     * Decompress the frame into a buffer from the buffer pool and release the frame to the pool.
+     */
+    private static ByteBuffer decode(ByteBuffer frame) throws IOException
+    {
+        if (frame == null)
+        {
+            throw new IOException("no frame is received");
+        }
+        try
+        {
+            ByteBuffer data = frame.duplicate();
+            CodecFrame header = CodecFrame.readHeader(data);
+            ByteBuffer buffer = BufferPool.Instance().acquire(header.getLength());
+            header.decode(data, buffer, ForkJoinPool.commonPool());
+            return buffer.flip();
+        }
+        finally
+        {
+            BufferPool.Instance().release(frame);
+        }
+    }
+
+    private ByteBuffer readStreamFrame(int bytes) throws IOException
+    {
+        ByteBuffer fixedHeader = ByteBuffer.allocate(CodecFrame.FIXED_HEADER_SIZE);
+        this.receiver.receive(fixedHeader);
+        fixedHeader.flip();
+        int headerSize = CodecFrame.headerSize(fixedHeader);
+        if (headerSize > CodecFrame.maxFrameSize(bytes))
+        {
+            throw new IOException("corrupted codec header of " + headerSize + " bytes");
+        }
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        header.put(fixedHeader);
+        this.receiver.receive(header);
+        header.flip();
+        CodecFrame frame = CodecFrame.readHeader(header);
+        ByteBuffer data = BufferPool.Instance().acquire(frame.getCompressedLength());
+        try
+        {
+            this.receiver.receive(data);
+            data.flip();
+            ByteBuffer buffer = BufferPool.Instance().acquire(frame.getLength());
+            frame.decode(data, buffer, ForkJoinPool.commonPool());
+            return buffer.flip();
+        }
+        finally
+        {
+            BufferPool.Instance().release(data);
+        }
+    }
+
+    @Override
+    public boolean isStream()
+    {
+        return this.receiver.isStream();
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return this.receiver.isClosed();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.receiver.close();
+    }
+}
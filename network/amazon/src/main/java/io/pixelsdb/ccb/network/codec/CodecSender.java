@@ -0,0 +1,72 @@
+package io.pixelsdb.ccb.network.codec;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+import io.pixelsdb.ccb.network.Sender;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compresses each payload into a {@link CodecFrame} and sends the frame by the wrapped sender. The chunks of a
+ * payload are compressed in parallel on the common fork-join pool. A new frame is allocated for each message,
+ * because the wrapped sender may hold the buffer until the message is sent.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class CodecSender implements Sender
+{
+    private final Sender sender;
+    private final Codec codec;
+    private final ChunkCodec chunkCodec;
+    private final int chunkSize;
+    private final boolean direct;
+    private final BufferPool scratchPool;
+
+    /**
+     * @param chunkSize the size of the chunks compressed independently, at least {@link CodecFrame#MIN_CHUNK_SIZE}
+     * @param direct whether the compressed frames are direct buffers, they are if the payload is direct anyway
+     */
+    public CodecSender(Sender sender, Codec codec, int level, int chunkSize, boolean direct)
+    {
+        if (chunkSize < CodecFrame.MIN_CHUNK_SIZE)
+        {
+            throw new IllegalArgumentException("chunk size must be at least " + CodecFrame.MIN_CHUNK_SIZE);
+        }
+        this.sender = sender;
+        this.codec = codec;
+        this.chunkCodec = codec.newChunkCodec(level);
+        this.chunkSize = chunkSize;
+        this.direct = direct;
+        this.scratchPool = new BufferPool(256L * 1024 * 1024, true);
+    }
+
+    public static CodecSender from(Sender sender, BenchmarkConfig config)
+    {
+        return new CodecSender(sender, Codec.from(config.getString("codec.name", "lz4")),
+                config.getInt("codec.level", 0), (int) config.getSize("codec.chunk.size", 1024 * 1024),
+                config.getBoolean("codec.direct", true));
+    }
+
+    @Override
+    public void send(ByteBuffer buffer) throws IOException
+    {
+        ByteBuffer frame = CodecFrame.encode(this.codec, this.chunkCodec, buffer, this.chunkSize,
+                this.direct || buffer.isDirect(), this.scratchPool, ForkJoinPool.commonPool());
+        this.sender.send(frame);
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return this.sender.isClosed();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.sender.close();
+    }
+}
@@ -0,0 +1,102 @@
+package io.pixelsdb.ccb.network.exec;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs at most maxConcurrency tasks of the delegate at a time. {@link #execute(Runnable)} blocks the submitting
+ * thread while the cap is reached, so that an unbounded delegate (such as a thread-per-task executor) does not
+ * start more requests than the cap, and the producers are slowed down instead of queueing without bound.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class BoundedExecutor extends AbstractExecutorService
+{
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+
+    public BoundedExecutor(ExecutorService delegate, int maxConcurrency)
+    {
+        if (maxConcurrency < 1)
+        {
+            throw new IllegalArgumentException("the maximum concurrency must be positive");
+        }
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(Runnable command)
+    {
+        try
+        {
+            this.permits.acquire();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for a permit", e);
+        }
+        try
+        {
+            this.delegate.execute(() -> {
+                try
+                {
+                    command.run();
+                }
+                finally
+                {
+                    this.permits.release();
+                }
+            });
+        }
+        catch (RuntimeException e)
+        {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of tasks that can start without waiting
+     */
+    public int getAvailable()
+    {
+        return this.permits.availablePermits();
+    }
+
+    @Override
+    public void shutdown()
+    {
+        this.delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow()
+    {
+        return this.delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown()
+    {
+        return this.delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated()
+    {
+        return this.delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return this.delegate.awaitTermination(timeout, unit);
+    }
+}
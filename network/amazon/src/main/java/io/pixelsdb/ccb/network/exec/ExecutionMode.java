@@ -0,0 +1,24 @@
+package io.pixelsdb.ccb.network.exec;
+
+/**
+ * How the blocking transports run their requests, see {@link TransportExecutors}.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public enum ExecutionMode
+{
+    /**
+     * Each transport runs its requests on a fixed pool of platform threads.
+     */
+    fixed,
+    /**
+     * Each request runs on its own virtual thread, up to a cap of concurrent requests per executor.
+     */
+    virtual;
+
+    public static ExecutionMode from(String name)
+    {
+        return valueOf(name.trim().toLowerCase());
+    }
+}
@@ -0,0 +1,88 @@
+package io.pixelsdb.ccb.network.exec;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executors of the blocking transports according to the process-wide execution mode. In fixed mode
+ * a transport gets a fixed pool of the number of threads it asks for, as before; in virtual mode it gets a
+ * virtual-thread-per-task executor capped at maxConcurrency running requests, so thousands of S3 and SQS
+ * requests can be outstanding without as many platform threads.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TransportExecutors
+{
+    public static final int DEFAULT_MAX_CONCURRENCY = 1024;
+
+    private static TransportExecutors instance = new TransportExecutors(ExecutionMode.fixed, DEFAULT_MAX_CONCURRENCY);
+
+    public static TransportExecutors Instance()
+    {
+        return instance;
+    }
+
+    /**
+     * Set the execution mode of the transports created afterwards.
+     */
+    public static void init(ExecutionMode mode, int maxConcurrency)
+    {
+        instance = new TransportExecutors(mode, maxConcurrency);
+    }
+
+    /**
+     * Set the execution mode from the execution.* settings.
+     */
+    public static void init(BenchmarkConfig config)
+    {
+        init(ExecutionMode.from(config.getString("execution.mode", "fixed")),
+                config.getInt("execution.virtual.max.concurrency", DEFAULT_MAX_CONCURRENCY));
+    }
+
+    private final ExecutionMode mode;
+    private final int maxConcurrency;
+
+    public TransportExecutors(ExecutionMode mode, int maxConcurrency)
+    {
+        this.mode = mode;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * @param threads the number of platform threads in fixed mode
+     * @return the executor of a transport's blocking requests
+     */
+    public ExecutorService newExecutor(int threads)
+    {
+        if (this.mode == ExecutionMode.virtual)
+        {
+            return new BoundedExecutor(Executors.newVirtualThreadPerTaskExecutor(), this.maxConcurrency);
+        }
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * @return the executor of long-running tasks such as pollers, which must not wait for each other
+     */
+    public ExecutorService newUnboundedExecutor()
+    {
+        if (this.mode == ExecutionMode.virtual)
+        {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    public ExecutionMode getMode()
+    {
+        return mode;
+    }
+
+    public int getMaxConcurrency()
+    {
+        return maxConcurrency;
+    }
+}
@@ -0,0 +1,70 @@
+package io.pixelsdb.ccb.network.flow;
+
+/**
+ * A latency-based window on the number of in-flight messages. The latencies of completed messages are
+ * averaged over rounds of window completions. After each round the window grows by one if the round's
+ * average latency is within the tolerance of the lowest round average seen so far (the link is not yet
+ * queueing), and shrinks multiplicatively if it is above, because the extra messages only wait in a queue.
+ * The baseline slowly drifts up so that a permanent change of the link's latency is eventually accepted.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class AdaptiveWindow
+{
+    private static final double TOLERANCE = 1.5;
+    private static final double DECREASE = 0.75;
+    private static final double BASELINE_DRIFT = 1.01;
+
+    private final int minWindow;
+    private final int maxWindow;
+    private int window;
+    private double baselineNanos = Double.MAX_VALUE;
+    private long roundNanos = 0;
+    private int roundSamples = 0;
+
+    public AdaptiveWindow(int initialWindow, int minWindow, int maxWindow)
+    {
+        this.minWindow = Math.max(1, minWindow);
+        this.maxWindow = Math.max(this.minWindow, maxWindow);
+        this.window = Math.min(this.maxWindow, Math.max(this.minWindow, initialWindow));
+    }
+
+    /**
+     * @param latencyNanos the latency of a completed message
+     * @return the current window
+     */
+    public synchronized int update(long latencyNanos)
+    {
+        this.roundNanos += latencyNanos;
+        if (++this.roundSamples < this.window)
+        {
+            return this.window;
+        }
+        double average = (double) this.roundNanos / this.roundSamples;
+        this.roundNanos = 0;
+        this.roundSamples = 0;
+        if (average < this.baselineNanos)
+        {
+            this.baselineNanos = average;
+        }
+        else
+        {
+            this.baselineNanos *= BASELINE_DRIFT;
+        }
+        if (average <= this.baselineNanos * TOLERANCE)
+        {
+            this.window = Math.min(this.maxWindow, this.window + 1);
+        }
+        else
+        {
+            this.window = Math.max(this.minWindow, (int) (this.window * DECREASE));
+        }
+        return this.window;
+    }
+
+    public synchronized int getWindow()
+    {
+        return this.window;
+    }
+}
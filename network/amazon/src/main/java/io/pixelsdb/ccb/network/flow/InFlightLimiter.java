@@ -0,0 +1,161 @@
+package io.pixelsdb.ccb.network.flow;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+import java.io.IOException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the number of messages and bytes that a sender has accepted but not finished sending.
+ * {@link #acquire(int)} is called in send() before the message is handed to the background work, and
+ * {@link #release(int, long)} when the work of the message is done. When the limit is reached, acquire
+ * either blocks the producer or fails with an IOException, so that the memory held by queued messages stays
+ * bounded. A single message larger than the byte limit is admitted when nothing else is in flight.
+ * <p/>
+ * If an {@link AdaptiveWindow} is given, the message limit follows the window, which is fed the latency of
+ * each released message.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class InFlightLimiter
+{
+    public static final int DEFAULT_MAX_MESSAGES = 64;
+    public static final long DEFAULT_MAX_BYTES = 1024L * 1024L * 1024L;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = this.lock.newCondition();
+    private final long maxBytes;
+    private final boolean reject;
+    private final AdaptiveWindow adaptiveWindow;
+    private volatile int maxMessages;
+    private long inFlightBytes = 0;
+    private int inFlightMessages = 0;
+
+    public InFlightLimiter(int maxMessages, long maxBytes, boolean reject, AdaptiveWindow adaptiveWindow)
+    {
+        this.maxMessages = adaptiveWindow != null ? adaptiveWindow.getWindow() : maxMessages;
+        this.maxBytes = maxBytes;
+        this.reject = reject;
+        this.adaptiveWindow = adaptiveWindow;
+    }
+
+    public InFlightLimiter(int maxMessages, long maxBytes)
+    {
+        this(maxMessages, maxBytes, false, null);
+    }
+
+    /**
+     * @return a blocking limiter with the default limits
+     */
+    public static InFlightLimiter defaults()
+    {
+        return new InFlightLimiter(DEFAULT_MAX_MESSAGES, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Create a limiter from the send.inflight.* settings.
+     */
+    public static InFlightLimiter from(BenchmarkConfig config)
+    {
+        int maxMessages = config.getInt("send.inflight.messages", DEFAULT_MAX_MESSAGES);
+        long maxBytes = config.getSize("send.inflight.bytes", DEFAULT_MAX_BYTES);
+        boolean reject = config.getBoolean("send.inflight.reject", false);
+        AdaptiveWindow adaptiveWindow = null;
+        if (config.getBoolean("send.inflight.adaptive", false))
+        {
+            adaptiveWindow = new AdaptiveWindow(config.getInt("send.inflight.adaptive.initial", 8),
+                    config.getInt("send.inflight.adaptive.min", 1), maxMessages);
+        }
+        return new InFlightLimiter(maxMessages, maxBytes, reject, adaptiveWindow);
+    }
+
+    /**
+     * Admit a message of the given size, blocking until it fits in the limits unless in reject mode.
+     * @throws IOException if the limits are reached in reject mode, or if interrupted while waiting
+     */
+    public void acquire(int bytes) throws IOException
+    {
+        this.lock.lock();
+        try
+        {
+            while (this.inFlightMessages >= this.maxMessages ||
+                    (this.inFlightMessages > 0 && this.inFlightBytes + bytes > this.maxBytes))
+            {
+                if (this.reject)
+                {
+                    throw new IOException("in-flight limit reached: " + this.inFlightMessages + " messages, " +
+                            this.inFlightBytes + " bytes");
+                }
+                this.released.await();
+            }
+            this.inFlightMessages++;
+            this.inFlightBytes += bytes;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for in-flight messages", e);
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Release a message admitted by {@link #acquire(int)}.
+     * @param bytes the size of the message
+     * @param latencyNanos the time taken to send the message, used by the adaptive window
+     */
+    public void release(int bytes, long latencyNanos)
+    {
+        if (this.adaptiveWindow != null)
+        {
+            this.maxMessages = this.adaptiveWindow.update(latencyNanos);
+        }
+        this.lock.lock();
+        try
+        {
+            this.inFlightMessages--;
+            this.inFlightBytes -= bytes;
+            this.released.signalAll();
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    public int getMaxMessages()
+    {
+        return this.maxMessages;
+    }
+
+    public int getInFlightMessages()
+    {
+        this.lock.lock();
+        try
+        {
+            return this.inFlightMessages;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    public long getInFlightBytes()
+    {
+        this.lock.lock();
+        try
+        {
+            return this.inFlightBytes;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+}
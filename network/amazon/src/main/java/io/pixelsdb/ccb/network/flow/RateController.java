@@ -0,0 +1,278 @@
+package io.pixelsdb.ccb.network.flow;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the bytes per second and the concurrent requests of a transport according to a {@link RatePolicy}.
+ * {@link #acquire(int)} is called before a request and {@link #release(long, Throwable)} when it completes,
+ * which feeds the adaptive policy with the latency and the failure, if any, of the request, and
+ * {@link #onRetry(Throwable)} for each failed attempt of a request that is retried. The live
+ * controllers are registered process-wide, so that their current rates and concurrencies can be sampled as
+ * metrics, until they are closed.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class RateController implements AutoCloseable
+{
+    private static final double BASELINE_DRIFT = 1.01;
+    private static final Set<RateController> active = ConcurrentHashMap.newKeySet();
+
+    private final RatePolicy policy;
+    private final RateLimiter rateLimiter;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = this.lock.newCondition();
+    private volatile double rate;
+    private volatile int concurrency;
+    private int inFlight = 0;
+    private long roundNanos = 0;
+    private int roundSamples = 0;
+    private int roundErrors = 0;
+    private boolean roundCut = false;
+    private int recovery = 0;
+    private double baselineNanos = Double.MAX_VALUE;
+    private long throttles = 0;
+
+    public RateController(RatePolicy policy)
+    {
+        this.policy = policy;
+        this.rate = policy.getInitialRate();
+        this.concurrency = policy.getInitialConcurrency();
+        this.rateLimiter = RateLimiter.create(this.rate);
+        active.add(this);
+    }
+
+    /**
+     * Wait until the bytes are within the rate and a request slot is free.
+     * @throws IOException if interrupted while waiting
+     */
+    public void acquire(int bytes) throws IOException
+    {
+        this.rateLimiter.acquire(Math.max(1, bytes));
+        this.lock.lock();
+        try
+        {
+            while (this.inFlight >= this.concurrency)
+            {
+                this.released.await();
+            }
+            this.inFlight++;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for the rate controller", e);
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Release the slot of a completed request.
+     * @param latencyNanos the latency of the request
+     * @param failure the failure of the request, or null if it succeeded
+     */
+    public void release(long latencyNanos, Throwable failure)
+    {
+        this.lock.lock();
+        try
+        {
+            this.inFlight--;
+            if (this.policy.isAdaptive())
+            {
+                update(latencyNanos, failure);
+            }
+            this.released.signalAll();
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Release the slot of a request that was not issued after all, e.g., as it was rejected by another limit,
+     * the adaptive policy is not fed.
+     */
+    public void cancel()
+    {
+        this.lock.lock();
+        try
+        {
+            this.inFlight--;
+            this.released.signalAll();
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Report a failed attempt of a request that is retried, so a throttle cuts the limits at once rather than
+     * when the request completes after its retries. The slot of the request is kept until it is released.
+     */
+    public void onRetry(Throwable failure)
+    {
+        if (!this.policy.isAdaptive() || !Throttling.isThrottle(failure))
+        {
+            return;
+        }
+        this.lock.lock();
+        try
+        {
+            throttle(this.recovery > 0);
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    private void update(long latencyNanos, Throwable failure)
+    {
+        // the requests in flight at a cut were issued under the old limits, so their completions neither cut
+        // the limits again nor count towards a healthy round
+        boolean recovering = this.recovery > 0;
+        if (recovering)
+        {
+            this.recovery--;
+            this.roundCut = true;
+        }
+        if (failure != null && Throttling.isThrottle(failure))
+        {
+            throttle(recovering);
+        }
+        if (failure != null)
+        {
+            this.roundErrors++;
+        }
+        else
+        {
+            this.roundNanos += latencyNanos;
+        }
+        if (++this.roundSamples < this.concurrency)
+        {
+            return;
+        }
+        int successes = this.roundSamples - this.roundErrors;
+        double average = successes > 0 ? (double) this.roundNanos / successes : Double.MAX_VALUE;
+        boolean healthy = !this.roundCut && this.roundErrors <= this.roundSamples * this.policy.getErrorTolerance();
+        if (average < this.baselineNanos)
+        {
+            this.baselineNanos = average;
+        }
+        else if (this.baselineNanos < Double.MAX_VALUE)
+        {
+            this.baselineNanos *= BASELINE_DRIFT;
+        }
+        if (healthy && average <= this.baselineNanos * this.policy.getLatencyTolerance())
+        {
+            setLimits(this.rate + this.policy.getRateIncrease(), this.concurrency + 1);
+        }
+        else if (!this.roundCut)
+        {
+            decrease();
+        }
+        this.roundNanos = 0;
+        this.roundSamples = 0;
+        this.roundErrors = 0;
+        this.roundCut = false;
+    }
+
+    private void throttle(boolean recovering)
+    {
+        this.throttles++;
+        if (!recovering)
+        {
+            decrease();
+            this.roundCut = true;
+            this.recovery = this.inFlight;
+        }
+    }
+
+    private void decrease()
+    {
+        setLimits(this.rate * this.policy.getDecrease(), (int) (this.concurrency * this.policy.getDecrease()));
+    }
+
+    private void setLimits(double rate, int concurrency)
+    {
+        this.rate = Math.min(this.policy.getMaxRate(), Math.max(this.policy.getMinRate(), rate));
+        this.concurrency = Math.min(this.policy.getMaxConcurrency(),
+                Math.max(this.policy.getMinConcurrency(), concurrency));
+        this.rateLimiter.setRate(this.rate);
+    }
+
+    /**
+     * @return the current rate in bytes per second
+     */
+    public double getRate()
+    {
+        return this.rate;
+    }
+
+    public int getConcurrency()
+    {
+        return this.concurrency;
+    }
+
+    public long getThrottles()
+    {
+        this.lock.lock();
+        try
+        {
+            return this.throttles;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the sum of the current rates of the live controllers in bytes per second
+     */
+    public static double getTotalRate()
+    {
+        double total = 0;
+        for (RateController controller : active)
+        {
+            total += controller.getRate();
+        }
+        return total;
+    }
+
+    /**
+     * @return the sum of the current concurrencies of the live adaptive controllers, the fixed ones are unbounded
+     */
+    public static long getTotalConcurrency()
+    {
+        long total = 0;
+        for (RateController controller : active)
+        {
+            if (controller.policy.isAdaptive())
+            {
+                total += controller.getConcurrency();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Unregister the controller from the process-wide metrics.
+     */
+    @Override
+    public void close()
+    {
+        active.remove(this);
+    }
+}
@@ -0,0 +1,142 @@
+package io.pixelsdb.ccb.network.flow;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+/**
+ * How a {@link RateController} limits the bytes per second and the concurrent requests of a transport. A fixed
+ * policy keeps the initial rate and concurrency. An adaptive (AIMD) policy adjusts them after each round of
+ * as many completed requests as the current concurrency: if the round had no throttling, an error rate within
+ * errorTolerance, and an average latency within latencyTolerance times the lowest round average seen so far,
+ * the rate grows by rateIncrease and the concurrency by one, otherwise both are multiplied by decrease. A
+ * throttled request cuts them at once, at most once per round.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class RatePolicy
+{
+    public static final double DEFAULT_SEND_RATE = 3000d * 1024 * 1024;
+    public static final double DEFAULT_RECEIVE_RATE = 1500d * 1024 * 1024;
+    public static final int DEFAULT_CONCURRENCY = 64;
+
+    private final boolean adaptive;
+    private final double initialRate;
+    private final double minRate;
+    private final double maxRate;
+    private final double rateIncrease;
+    private final int initialConcurrency;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final double decrease;
+    private final double latencyTolerance;
+    private final double errorTolerance;
+
+    public RatePolicy(boolean adaptive, double initialRate, double minRate, double maxRate, double rateIncrease,
+                      int initialConcurrency, int minConcurrency, int maxConcurrency, double decrease,
+                      double latencyTolerance, double errorTolerance)
+    {
+        if (minRate <= 0 || maxRate < minRate || minConcurrency < 1 || maxConcurrency < minConcurrency)
+        {
+            throw new IllegalArgumentException("the rate and concurrency bounds must be positive and ordered");
+        }
+        if (decrease <= 0 || decrease >= 1 || latencyTolerance < 1)
+        {
+            throw new IllegalArgumentException("the decrease must be in (0, 1) and the latency tolerance at least 1");
+        }
+        this.adaptive = adaptive;
+        this.initialRate = Math.min(maxRate, Math.max(minRate, initialRate));
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.rateIncrease = rateIncrease;
+        this.initialConcurrency = Math.min(maxConcurrency, Math.max(minConcurrency, initialConcurrency));
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.decrease = decrease;
+        this.latencyTolerance = latencyTolerance;
+        this.errorTolerance = errorTolerance;
+    }
+
+    /**
+     * @return the policy that keeps the rate fixed, with no limit on the concurrency
+     */
+    public static RatePolicy fixed(double rate)
+    {
+        return new RatePolicy(false, rate, rate, rate, 0, Integer.MAX_VALUE, 1, Integer.MAX_VALUE,
+                0.5, 2, 0);
+    }
+
+    /**
+     * Create a policy from the rate.* settings.
+     * @param side send or receive, the initial rate is rate.send.initial or rate.receive.initial
+     */
+    public static RatePolicy from(BenchmarkConfig config, String side)
+    {
+        double defaultRate = side.equals("send") ? DEFAULT_SEND_RATE : DEFAULT_RECEIVE_RATE;
+        double initialRate = config.getSize("rate." + side + ".initial", (long) defaultRate);
+        if (!config.getString("rate.control", "fixed").equals("aimd"))
+        {
+            return fixed(initialRate);
+        }
+        return new RatePolicy(true, initialRate,
+                config.getSize("rate.min", 16L * 1024 * 1024), config.getSize("rate.max", 10L * 1024 * 1024 * 1024),
+                config.getSize("rate.increase", 64L * 1024 * 1024),
+                config.getInt("rate.concurrency.initial", 16), config.getInt("rate.concurrency.min", 1),
+                config.getInt("rate.concurrency.max", DEFAULT_CONCURRENCY), config.getDouble("rate.decrease", 0.5),
+                config.getDouble("rate.latency.tolerance", 2), config.getDouble("rate.error.tolerance", 0.05));
+    }
+
+    public boolean isAdaptive()
+    {
+        return adaptive;
+    }
+
+    public double getInitialRate()
+    {
+        return initialRate;
+    }
+
+    public double getMinRate()
+    {
+        return minRate;
+    }
+
+    public double getMaxRate()
+    {
+        return maxRate;
+    }
+
+    public double getRateIncrease()
+    {
+        return rateIncrease;
+    }
+
+    public int getInitialConcurrency()
+    {
+        return initialConcurrency;
+    }
+
+    public int getMinConcurrency()
+    {
+        return minConcurrency;
+    }
+
+    public int getMaxConcurrency()
+    {
+        return maxConcurrency;
+    }
+
+    public double getDecrease()
+    {
+        return decrease;
+    }
+
+    public double getLatencyTolerance()
+    {
+        return latencyTolerance;
+    }
+
+    public double getErrorTolerance()
+    {
+        return errorTolerance;
+    }
+}
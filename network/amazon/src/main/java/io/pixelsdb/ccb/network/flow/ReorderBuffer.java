@@ -0,0 +1,150 @@
+package io.pixelsdb.ccb.network.flow;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Puts items that arrive out of order back into the order of their sequence numbers, which start from 0.
+ * Producers {@link #put(long, Object)} items in any order, and the consumer {@link #take()}s them in sequence
+ * order, waiting for the next item if it has not arrived yet. The buffer itself is not bounded, producers that
+ * must bound it have to do so per producer: bounding it globally can deadlock when the buffered items are all
+ * after the missing one.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class ReorderBuffer<T>
+{
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition arrived = this.lock.newCondition();
+    private final Map<Long, T> pending = new HashMap<>();
+    private long next = 0;
+    private IOException failure = null;
+
+    public void put(long sequence, T item)
+    {
+        this.lock.lock();
+        try
+        {
+            if (sequence < this.next || this.pending.putIfAbsent(sequence, item) != null)
+            {
+                throw new IllegalArgumentException("sequence number " + sequence + " is delivered twice");
+            }
+            if (sequence == this.next)
+            {
+                this.arrived.signalAll();
+            }
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the item with the next sequence number, blocking until it arrives
+     * @throws IOException if the buffer failed before the item arrived, or if interrupted
+     */
+    public T take() throws IOException
+    {
+        this.lock.lock();
+        try
+        {
+            T item;
+            while ((item = this.pending.remove(this.next)) == null)
+            {
+                if (this.failure != null)
+                {
+                    throw this.failure;
+                }
+                this.arrived.await();
+            }
+            this.next++;
+            return item;
+        }
+        catch (InterruptedException e)
+        {
+            throw new IOException("interrupted while waiting for item " + this.next, e);
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Wake up the consumer with the failure if the next item will never arrive.
+     */
+    public void fail(IOException failure)
+    {
+        this.lock.lock();
+        try
+        {
+            if (this.failure == null)
+            {
+                this.failure = failure;
+            }
+            this.arrived.signalAll();
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the items that arrived but are not taken, e.g., to release them when the consumer is gone.
+     * @return the removed items
+     */
+    public List<T> drain()
+    {
+        this.lock.lock();
+        try
+        {
+            List<T> items = new ArrayList<>(this.pending.values());
+            this.pending.clear();
+            return items;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the sequence number of the next item to take
+     */
+    public long getNext()
+    {
+        this.lock.lock();
+        try
+        {
+            return this.next;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of items that arrived but are not taken yet
+     */
+    public int getPending()
+    {
+        this.lock.lock();
+        try
+        {
+            return this.pending.size();
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+}
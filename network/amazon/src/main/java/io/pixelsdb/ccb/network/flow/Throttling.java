@@ -0,0 +1,50 @@
+package io.pixelsdb.ccb.network.flow;
+
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+import java.util.Set;
+
+/**
+ * Tells the failures by which S3 and SQS ask the client to slow down, e.g., S3 SlowDown (503) and SQS
+ * RequestThrottled, from other failures.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class Throttling
+{
+    private static final Set<String> ERROR_CODES = Set.of("SlowDown", "Throttling", "ThrottlingException",
+            "RequestThrottled", "RequestThrottledException", "TooManyRequestsException", "RequestLimitExceeded",
+            "OverLimit", "KmsThrottled");
+
+    private Throttling() { }
+
+    /**
+     * @return true if the failure, or one of its causes, is a throttling response of the service
+     */
+    public static boolean isThrottle(Throwable failure)
+    {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof SdkServiceException)
+            {
+                SdkServiceException serviceException = (SdkServiceException) cause;
+                if (serviceException.isThrottlingException() || serviceException.statusCode() == 503)
+                {
+                    return true;
+                }
+                if (cause instanceof AwsServiceException && ((AwsServiceException) cause).awsErrorDetails() != null &&
+                        ERROR_CODES.contains(((AwsServiceException) cause).awsErrorDetails().errorCode()))
+                {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause)
+            {
+                break;
+            }
+        }
+        return false;
+    }
+}
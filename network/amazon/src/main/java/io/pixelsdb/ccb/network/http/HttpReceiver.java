@@ -1,6 +1,9 @@
 package io.pixelsdb.ccb.network.http;
 
 import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.stream.ReaderChannel;
 import io.pixelsdb.pixels.common.physical.PhysicalReader;
 import io.pixelsdb.pixels.common.physical.PhysicalReaderUtil;
 import io.pixelsdb.pixels.common.physical.Storage;
@@ -8,6 +11,7 @@ import io.pixelsdb.pixels.common.physical.StorageFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 
 /**
  * @author hank
@@ -28,7 +32,31 @@ public class HttpReceiver implements Receiver
     @Override
     public ByteBuffer receive(int bytes) throws IOException
     {
-        return this.physicalReader.readFully(bytes);
+        ByteBuffer buffer = BufferPool.Instance().acquire(bytes);
+        receive(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public int receive(ByteBuffer dst) throws IOException
+    {
+        return Buffers.readFully(this.physicalReader, dst);
+    }
+
+    /**
+     * The channel reads the next bytes of the message from the stream as they are asked for.
+     */
+    @Override
+    public ReadableByteChannel receiveChannel(int bytes)
+    {
+        return new ReaderChannel(this.physicalReader, bytes, 0, null);
+    }
+
+    @Override
+    public boolean isStream()
+    {
+        return true;
     }
 
     @Override
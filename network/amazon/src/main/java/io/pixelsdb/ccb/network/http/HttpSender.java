@@ -1,12 +1,16 @@
 package io.pixelsdb.ccb.network.http;
 
 import io.pixelsdb.ccb.network.Sender;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.stream.WriterChannel;
 import io.pixelsdb.pixels.common.physical.PhysicalWriter;
 import io.pixelsdb.pixels.common.physical.PhysicalWriterUtil;
 import io.pixelsdb.pixels.common.physical.Storage;
 import io.pixelsdb.pixels.common.physical.StorageFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * @author hank
@@ -23,13 +27,23 @@ public class HttpSender implements Sender
         String path = Storage.Scheme.httpstream + "://" + host + ":" + port;
         this.physicalWriter = PhysicalWriterUtil.newPhysicalWriter(httpStream, path);
     }
+
     @Override
-    public void send(byte[] buffer) throws IOException
+    public void send(ByteBuffer buffer) throws IOException
     {
-        this.physicalWriter.append(buffer, 0, buffer.length);
+        Buffers.append(this.physicalWriter, buffer);
         this.physicalWriter.flush();
     }
 
+    /**
+     * Every write to the channel is pushed to the receiver, the messages are delimited by their sizes only.
+     */
+    @Override
+    public WritableByteChannel openChannel()
+    {
+        return new WriterChannel(this.physicalWriter, true, null);
+    }
+
     @Override
     public boolean isClosed()
     {
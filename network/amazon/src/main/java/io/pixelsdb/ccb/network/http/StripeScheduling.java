@@ -0,0 +1,24 @@
+package io.pixelsdb.ccb.network.http;
+
+/**
+ * How {@link StripedHttpSender} chooses the connection of the next chunk.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public enum StripeScheduling
+{
+    /**
+     * The chunks are spread over the connections in turn.
+     */
+    round_robin,
+    /**
+     * Each chunk goes to the connection with the fewest bytes queued, so a slow flow gets fewer chunks.
+     */
+    least_loaded;
+
+    public static StripeScheduling from(String name)
+    {
+        return valueOf(name.trim().toLowerCase().replace('-', '_'));
+    }
+}
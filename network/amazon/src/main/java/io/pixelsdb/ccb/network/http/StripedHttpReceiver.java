@@ -0,0 +1,173 @@
+package io.pixelsdb.ccb.network.http;
+
+import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.flow.ReorderBuffer;
+import io.pixelsdb.pixels.common.physical.PhysicalReader;
+import io.pixelsdb.pixels.common.physical.PhysicalReaderUtil;
+import io.pixelsdb.pixels.common.physical.Storage;
+import io.pixelsdb.pixels.common.physical.StorageFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives the stream of a {@link StripedHttpSender}. One thread per connection reads the chunks into pooled
+ * buffers and puts them into a {@link ReorderBuffer}, and receive takes them back in sequence order. Each
+ * connection may have at most maxBufferedChunks chunks waiting in the reorder buffer; as the chunks of one
+ * connection arrive in sequence order, this bounds the memory without blocking the connection of the next chunk.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class StripedHttpReceiver implements Receiver
+{
+    private final PhysicalReader[] readers;
+    private final Semaphore[] buffered;
+    private final ReorderBuffer<Chunk> reorderBuffer = new ReorderBuffer<>();
+    private final ExecutorService executor;
+    private Chunk current = null;
+    private volatile boolean closed = false;
+
+    public StripedHttpReceiver(String host, int basePort, int stripes) throws IOException
+    {
+        this(host, basePort, stripes, 16);
+    }
+
+    /**
+     * @param basePort the port of the first connection, the others use the following ports
+     */
+    public StripedHttpReceiver(String host, int basePort, int stripes, int maxBufferedChunks) throws IOException
+    {
+        Storage httpStream = StorageFactory.Instance().getStorage(Storage.Scheme.httpstream);
+        this.readers = new PhysicalReader[stripes];
+        this.buffered = new Semaphore[stripes];
+        this.executor = Executors.newFixedThreadPool(stripes);
+        for (int i = 0; i < stripes; ++i)
+        {
+            String path = Storage.Scheme.httpstream + "://" + host + ":" + (basePort + i);
+            this.readers[i] = PhysicalReaderUtil.newPhysicalReader(httpStream, path);
+            this.buffered[i] = new Semaphore(maxBufferedChunks);
+        }
+        for (int i = 0; i < stripes; ++i)
+        {
+            int stripe = i;
+            this.executor.submit(() -> readStripe(stripe));
+        }
+    }
+
+    private void readStripe(int stripe)
+    {
+        PhysicalReader reader = this.readers[stripe];
+        try
+        {
+            while (!this.closed)
+            {
+                this.buffered[stripe].acquire();
+                ByteBuffer header = reader.readFully(StripedHttpSender.CHUNK_HEADER_SIZE);
+                long sequence = header.getLong();
+                int length = header.getInt();
+                ByteBuffer data = BufferPool.Instance().acquire(length);
+                Buffers.readFully(reader, data);
+                this.reorderBuffer.put(sequence, new Chunk(stripe, data.flip()));
+            }
+        }
+        catch (IOException e)
+        {
+            if (!this.closed)
+            {
+                this.reorderBuffer.fail(e);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            this.reorderBuffer.fail(new IOException("interrupted while reading stripe " + stripe, e));
+        }
+    }
+
+    @Override
+    public ByteBuffer receive(int bytes) throws IOException
+    {
+        ByteBuffer buffer = BufferPool.Instance().acquire(bytes);
+        receive(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Fill dst with the next dst.remaining() bytes of the stream, taking the chunks in sequence order.
+     */
+    @Override
+    public synchronized int receive(ByteBuffer dst) throws IOException
+    {
+        int length = dst.remaining();
+        while (dst.hasRemaining())
+        {
+            if (this.current == null)
+            {
+                this.current = this.reorderBuffer.take();
+            }
+            ByteBuffer data = this.current.data;
+            int n = Math.min(data.remaining(), dst.remaining());
+            ByteBuffer part = data.duplicate();
+            part.limit(part.position() + n);
+            dst.put(part);
+            data.position(data.position() + n);
+            if (!data.hasRemaining())
+            {
+                BufferPool.Instance().release(data);
+                this.buffered[this.current.stripe].release();
+                this.current = null;
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public boolean isStream()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.closed = true;
+        for (PhysicalReader reader : this.readers)
+        {
+            reader.close();
+        }
+        this.executor.shutdownNow();
+        try
+        {
+            this.executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    private static class Chunk
+    {
+        private final int stripe;
+        private final ByteBuffer data;
+
+        private Chunk(int stripe, ByteBuffer data)
+        {
+            this.stripe = stripe;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package io.pixelsdb.ccb.network.http;
+
+import io.pixelsdb.ccb.network.Sender;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.flow.InFlightLimiter;
+import io.pixelsdb.pixels.common.physical.PhysicalWriter;
+import io.pixelsdb.pixels.common.physical.PhysicalWriterUtil;
+import io.pixelsdb.pixels.common.physical.Storage;
+import io.pixelsdb.pixels.common.physical.StorageFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends a stream over several httpstream connections on consecutive ports. Each payload is cut into chunks
+ * of up to chunkSize bytes, and each chunk is prefixed with its sequence number (long) and length (int) and
+ * written to one of the connections by that connection's thread, so that {@link StripedHttpReceiver} can put
+ * the chunks back in order. A connection is flushed whenever its thread has no more chunks queued.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class StripedHttpSender implements Sender
+{
+    public static final int CHUNK_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Stripe[] stripes;
+    private final int chunkSize;
+    private final StripeScheduling scheduling;
+    private final InFlightLimiter inFlightLimiter;
+    private long nextSequence = 0;
+    private int nextStripe = 0;
+    private volatile IOException failure = null;
+    private boolean closed = false;
+
+    public StripedHttpSender(String host, int basePort, int stripes, int chunkSize) throws IOException
+    {
+        this(host, basePort, stripes, chunkSize, StripeScheduling.round_robin, InFlightLimiter.defaults());
+    }
+
+    /**
+     * @param basePort the port of the first connection, the others use the following ports
+     * @param inFlightLimiter bounds the payloads that are accepted but not completely written
+     */
+    public StripedHttpSender(String host, int basePort, int stripes, int chunkSize, StripeScheduling scheduling,
+                             InFlightLimiter inFlightLimiter) throws IOException
+    {
+        if (stripes < 1 || chunkSize < 1)
+        {
+            throw new IllegalArgumentException("the number of stripes and the chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.scheduling = scheduling;
+        this.inFlightLimiter = inFlightLimiter;
+        Storage httpStream = StorageFactory.Instance().getStorage(Storage.Scheme.httpstream);
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; ++i)
+        {
+            String path = Storage.Scheme.httpstream + "://" + host + ":" + (basePort + i);
+            this.stripes[i] = new Stripe(PhysicalWriterUtil.newPhysicalWriter(httpStream, path));
+        }
+    }
+
+    /**
+     * The payload is held until all its chunks are written.
+     */
+    @Override
+    public void send(ByteBuffer buffer) throws IOException
+    {
+        if (this.failure != null)
+        {
+            throw this.failure;
+        }
+        ByteBuffer payload = buffer.slice();
+        int bytes = payload.remaining();
+        int chunks = Math.max(1, (bytes + this.chunkSize - 1) / this.chunkSize);
+        this.inFlightLimiter.acquire(bytes);
+        long start = System.nanoTime();
+        AtomicInteger unwritten = new AtomicInteger(chunks);
+        // the chunks of a stripe must be queued in sequence order, so that the receiver can bound each stripe
+        synchronized (this)
+        {
+            for (int i = 0; i < chunks; ++i)
+            {
+                int offset = i * this.chunkSize;
+                ByteBuffer chunk = payload.duplicate();
+                chunk.limit(Math.min(bytes, offset + this.chunkSize)).position(offset);
+                Stripe stripe = nextStripe();
+                stripe.write(this.nextSequence++, chunk.slice(), () -> {
+                    if (unwritten.decrementAndGet() == 0)
+                    {
+                        this.inFlightLimiter.release(bytes, System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+    }
+
+    private Stripe nextStripe()
+    {
+        if (this.scheduling == StripeScheduling.round_robin)
+        {
+            Stripe stripe = this.stripes[this.nextStripe];
+            this.nextStripe = (this.nextStripe + 1) % this.stripes.length;
+            return stripe;
+        }
+        Stripe leastLoaded = this.stripes[0];
+        for (Stripe stripe : this.stripes)
+        {
+            if (stripe.queuedBytes.get() < leastLoaded.queuedBytes.get())
+            {
+                leastLoaded = stripe;
+            }
+        }
+        return leastLoaded;
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        for (Stripe stripe : this.stripes)
+        {
+            stripe.executor.shutdown();
+        }
+        for (Stripe stripe : this.stripes)
+        {
+            while (true)
+            {
+                try
+                {
+                    if (stripe.executor.awaitTermination(1, TimeUnit.SECONDS))
+                    {
+                        break;
+                    }
+                } catch (InterruptedException e)
+                {
+                    e.printStackTrace();
+                }
+            }
+            stripe.writer.close();
+        }
+        this.closed = true;
+        if (this.failure != null)
+        {
+            throw this.failure;
+        }
+    }
+
+    private class Stripe
+    {
+        private final PhysicalWriter writer;
+        private final ExecutorService executor = Executors.newSingleThreadExecutor();
+        private final AtomicLong queuedBytes = new AtomicLong(0);
+        private final AtomicInteger queuedChunks = new AtomicInteger(0);
+
+        private Stripe(PhysicalWriter writer)
+        {
+            this.writer = writer;
+        }
+
+        private void write(long sequence, ByteBuffer chunk, Runnable written)
+        {
+            int length = chunk.remaining();
+            this.queuedBytes.addAndGet(length);
+            this.queuedChunks.incrementAndGet();
+            this.executor.submit(() -> {
+                try
+                {
+                    ByteBuffer header = ByteBuffer.allocate(CHUNK_HEADER_SIZE);
+                    header.putLong(sequence).putInt(length).flip();
+                    Buffers.append(this.writer, header);
+                    Buffers.append(this.writer, chunk);
+                    if (this.queuedChunks.decrementAndGet() == 0)
+                    {
+                        this.writer.flush();
+                    }
+                }
+                catch (IOException e)
+                {
+                    failure = e;
+                }
+                finally
+                {
+                    this.queuedBytes.addAndGet(-length);
+                    written.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package io.pixelsdb.ccb.network.local;
+
+import com.sun.net.httpserver.HttpServer;
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * An http server on the loopback interface that serves the {@link LocalS3} and {@link LocalSqs} stand-ins on
+ * one port, so that the transports can be run without an aws account. The requests with an X-Amz-Target
+ * header are sqs json requests, the others are s3 requests. The endpoint is an ip address, so the s3 clients
+ * use path-style requests.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class LocalCloud implements Closeable
+{
+    private static final String ACCOUNT = "000000000000";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LocalS3 s3;
+    private final LocalSqs sqs;
+
+    /**
+     * @param port the port to listen on, 0 for any free port
+     */
+    public LocalCloud(int port, LocalS3 s3, LocalSqs sqs) throws IOException
+    {
+        this.s3 = s3;
+        this.sqs = sqs;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        // long polls block their threads, so the server must not run out of threads
+        this.executor = TransportExecutors.Instance().newUnboundedExecutor();
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/", exchange -> {
+            if (exchange.getRequestHeaders().containsKey("X-Amz-Target"))
+            {
+                this.sqs.handle(exchange);
+            }
+            else
+            {
+                this.s3.handle(exchange);
+            }
+        });
+        this.server.start();
+    }
+
+    /**
+     * Create and start the stand-ins from the local.* settings.
+     */
+    public static LocalCloud from(BenchmarkConfig config) throws IOException
+    {
+        return new LocalCloud(config.getInt("local.port", 0),
+                new LocalS3(ShapingPolicy.from(config, "local.s3"),
+                        config.getSize("local.s3.capacity", 4L * 1024 * 1024 * 1024)),
+                new LocalSqs(ShapingPolicy.from(config, "local.sqs"),
+                        config.getSize("local.sqs.max.message.bytes", 256 * 1024)));
+    }
+
+    public String getEndpoint()
+    {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort();
+    }
+
+    public String getQueueUrl(String queueName)
+    {
+        return getEndpoint() + "/" + ACCOUNT + "/" + queueName;
+    }
+
+    /**
+     * Point the aws sdk clients created afterwards in this process, including those of the pixels storages,
+     * at the stand-ins by the endpoint, region, and credential system properties of the sdk.
+     */
+    public void configureSdk()
+    {
+        System.setProperty("aws.endpointUrl", getEndpoint());
+        System.setProperty("aws.region", "us-east-1");
+        System.setProperty("aws.accessKeyId", "local");
+        System.setProperty("aws.secretAccessKey", "local");
+    }
+
+    public LocalS3 getS3()
+    {
+        return s3;
+    }
+
+    public LocalSqs getSqs()
+    {
+        return sqs;
+    }
+
+    public String report()
+    {
+        return String.format("local s3: requests=%d, throttled=%d, objects=%d, stored bytes=%d%n" +
+                        "local sqs: requests=%d, throttled=%d%n",
+                this.s3.getShaper().getRequests(), this.s3.getShaper().getThrottled(), this.s3.getObjectCount(),
+                this.s3.getStoredBytes(), this.sqs.getShaper().getRequests(), this.sqs.getShaper().getThrottled());
+    }
+
+    @Override
+    public void close()
+    {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+}
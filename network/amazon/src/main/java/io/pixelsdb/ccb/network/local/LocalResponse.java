@@ -0,0 +1,74 @@
+package io.pixelsdb.ccb.network.local;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The response of a stand-in service to one request. The body is a range of a byte array, so that the
+ * ranged reads of an object do not copy it.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class LocalResponse
+{
+    private final int status;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private final byte[] body;
+    private final int offset;
+    private final int length;
+
+    public LocalResponse(int status, byte[] body, int offset, int length)
+    {
+        this.status = status;
+        this.body = body;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public LocalResponse(int status)
+    {
+        this(status, new byte[0], 0, 0);
+    }
+
+    /**
+     * @return the response with the text as its body
+     */
+    public static LocalResponse text(int status, String contentType, String text)
+    {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        return new LocalResponse(status, body, 0, body.length).header("Content-Type", contentType);
+    }
+
+    public LocalResponse header(String name, String value)
+    {
+        this.headers.put(name, value);
+        return this;
+    }
+
+    public int getStatus()
+    {
+        return status;
+    }
+
+    public Map<String, String> getHeaders()
+    {
+        return headers;
+    }
+
+    public byte[] getBody()
+    {
+        return body;
+    }
+
+    public int getOffset()
+    {
+        return offset;
+    }
+
+    public int getLength()
+    {
+        return length;
+    }
+}
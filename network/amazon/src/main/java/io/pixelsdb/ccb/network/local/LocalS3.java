@@ -0,0 +1,342 @@
+package io.pixelsdb.ccb.network.local;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-memory stand-in of the S3 rest api, covering what the transports use: put, get (including ranged
+ * gets), head, and delete of objects, and multipart uploads. Both path-style and virtual-hosted-style requests
+ * are served, and aws-chunked request bodies are decoded. The requests are not authenticated. As the transports
+ * never delete their objects, the oldest objects are evicted once the stored objects exceed the capacity.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class LocalS3 extends ShapedHandler
+{
+    private static final String XML = "application/xml";
+
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicLong storedBytes = new AtomicLong(0);
+    private final long capacity;
+
+    /**
+     * @param capacity the number of bytes of the stored objects beyond which the oldest objects are evicted
+     */
+    public LocalS3(ShapingPolicy policy, long capacity)
+    {
+        super(policy);
+        this.capacity = capacity;
+    }
+
+    @Override
+    protected LocalResponse serve(HttpExchange exchange, byte[] body) throws IOException
+    {
+        String[] location = locate(exchange);
+        if (location[1].isEmpty())
+        {
+            // bucket operations, such as listing, are not used by the transports
+            return LocalResponse.text(200, XML, "<ListBucketResult><Name>" + location[0] +
+                    "</Name><KeyCount>0</KeyCount><IsTruncated>false</IsTruncated></ListBucketResult>");
+        }
+        String path = location[0] + "/" + location[1];
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        switch (exchange.getRequestMethod())
+        {
+            case "PUT":
+                byte[] content = decode(exchange, body);
+                if (query.containsKey("uploadId"))
+                {
+                    Upload upload = this.uploads.get(query.get("uploadId"));
+                    if (upload == null)
+                    {
+                        return error(404, "NoSuchUpload", query.get("uploadId"));
+                    }
+                    upload.parts.put(Integer.parseInt(query.get("partNumber")), content);
+                    return new LocalResponse(200).header("ETag", etag(content));
+                }
+                StoredObject object = new StoredObject(content, etag(content));
+                store(path, object);
+                return new LocalResponse(200).header("ETag", object.etag);
+            case "POST":
+                if (query.containsKey("uploads"))
+                {
+                    String uploadId = UUID.randomUUID().toString();
+                    this.uploads.put(uploadId, new Upload());
+                    return LocalResponse.text(200, XML, "<InitiateMultipartUploadResult><Bucket>" + location[0] +
+                            "</Bucket><Key>" + location[1] + "</Key><UploadId>" + uploadId +
+                            "</UploadId></InitiateMultipartUploadResult>");
+                }
+                if (query.containsKey("uploadId"))
+                {
+                    Upload upload = this.uploads.remove(query.get("uploadId"));
+                    if (upload == null)
+                    {
+                        return error(404, "NoSuchUpload", query.get("uploadId"));
+                    }
+                    ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+                    for (byte[] part : upload.parts.values())
+                    {
+                        assembled.write(part);
+                    }
+                    StoredObject completed = new StoredObject(assembled.toByteArray(),
+                            "\"" + UUID.randomUUID().toString().replace("-", "") + "-" + upload.parts.size() + "\"");
+                    store(path, completed);
+                    return LocalResponse.text(200, XML, "<CompleteMultipartUploadResult><Bucket>" + location[0] +
+                            "</Bucket><Key>" + location[1] + "</Key><ETag>" + completed.etag +
+                            "</ETag></CompleteMultipartUploadResult>");
+                }
+                return error(400, "InvalidRequest", "unsupported post request");
+            case "GET":
+            case "HEAD":
+                StoredObject stored = this.objects.get(path);
+                if (stored == null)
+                {
+                    return error(404, "NoSuchKey", path);
+                }
+                return read(exchange, stored);
+            case "DELETE":
+                if (query.containsKey("uploadId"))
+                {
+                    this.uploads.remove(query.get("uploadId"));
+                }
+                else
+                {
+                    StoredObject removed = this.objects.remove(path);
+                    if (removed != null)
+                    {
+                        this.storedBytes.addAndGet(-removed.content.length);
+                    }
+                }
+                return new LocalResponse(204);
+            default:
+                return error(405, "MethodNotAllowed", exchange.getRequestMethod());
+        }
+    }
+
+    private void store(String path, StoredObject object)
+    {
+        StoredObject replaced = this.objects.put(path, object);
+        this.storedBytes.addAndGet(object.content.length - (replaced == null ? 0 : replaced.content.length));
+        this.insertionOrder.add(path);
+        while (this.storedBytes.get() > this.capacity)
+        {
+            String oldest = this.insertionOrder.poll();
+            if (oldest == null)
+            {
+                break;
+            }
+            StoredObject evicted = this.objects.remove(oldest);
+            if (evicted != null)
+            {
+                this.storedBytes.addAndGet(-evicted.content.length);
+            }
+        }
+    }
+
+    private static LocalResponse read(HttpExchange exchange, StoredObject object) throws IOException
+    {
+        int length = object.content.length;
+        int start = 0;
+        int end = length - 1;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        boolean ranged = range != null && range.startsWith("bytes=") && length > 0;
+        if (ranged)
+        {
+            String[] bounds = range.substring("bytes=".length()).split("-", 2);
+            if (bounds[0].isEmpty())
+            {
+                start = Math.max(0, length - Integer.parseInt(bounds[1]));
+            }
+            else
+            {
+                start = Integer.parseInt(bounds[0]);
+                if (!bounds[1].isEmpty())
+                {
+                    end = Math.min(end, Integer.parseInt(bounds[1]));
+                }
+            }
+            if (start >= length || start > end)
+            {
+                return error(416, "InvalidRange", range);
+            }
+        }
+        LocalResponse response = exchange.getRequestMethod().equals("HEAD") ?
+                new LocalResponse(200).header("Content-Length", String.valueOf(length)) :
+                new LocalResponse(ranged ? 206 : 200, object.content, start, end - start + 1);
+        if (ranged)
+        {
+            response.header("Content-Range", "bytes " + start + "-" + end + "/" + length);
+        }
+        return response.header("ETag", object.etag).header("Accept-Ranges", "bytes")
+                .header("Content-Type", "application/octet-stream").header("Last-Modified", object.lastModified);
+    }
+
+    @Override
+    protected LocalResponse throttled()
+    {
+        return error(503, "SlowDown", "Please reduce your request rate.");
+    }
+
+    @Override
+    protected LocalResponse failed(Exception e)
+    {
+        return error(400, "InvalidRequest", String.valueOf(e.getMessage()));
+    }
+
+    private static LocalResponse error(int status, String code, String message)
+    {
+        return LocalResponse.text(status, XML, "<Error><Code>" + code + "</Code><Message>" + message +
+                "</Message></Error>");
+    }
+
+    /**
+     * @return the bucket and the key of the request, the key is empty for bucket requests
+     */
+    private static String[] locate(HttpExchange exchange)
+    {
+        String path = exchange.getRequestURI().getPath();
+        path = path.startsWith("/") ? path.substring(1) : path;
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        host = host == null ? "" : host.replaceFirst(":\\d+$", "");
+        if (host.endsWith(".localhost"))
+        {
+            // virtual-hosted-style, the bucket is the first label of the host
+            return new String[]{host.substring(0, host.indexOf('.')), path};
+        }
+        int slash = path.indexOf('/');
+        return slash < 0 ? new String[]{path, ""} : new String[]{path.substring(0, slash), path.substring(slash + 1)};
+    }
+
+    private static Map<String, String> query(String rawQuery)
+    {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty())
+        {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&"))
+        {
+            int equals = parameter.indexOf('=');
+            String name = equals < 0 ? parameter : parameter.substring(0, equals);
+            String value = equals < 0 ? "" : URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8);
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    /**
+     * Decode an aws-chunked body, whose chunks are each preceded by their hex size and an optional signature,
+     * and followed by optional trailing checksums. Other bodies are returned as they are.
+     */
+    private static byte[] decode(HttpExchange exchange, byte[] body) throws IOException
+    {
+        String sha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        if (!(sha256 != null && sha256.startsWith("STREAMING-")) && !(encoding != null && encoding.contains("aws-chunked")))
+        {
+            return body;
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream(body.length);
+        int pos = 0;
+        while (pos < body.length)
+        {
+            int lineEnd = indexOfCrlf(body, pos);
+            if (lineEnd < 0)
+            {
+                throw new IOException("malformed aws-chunked body");
+            }
+            String line = new String(body, pos, lineEnd - pos, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(line.split(";", 2)[0].trim(), 16);
+            pos = lineEnd + 2;
+            if (size == 0)
+            {
+                // the remaining lines are the trailing checksums
+                break;
+            }
+            decoded.write(body, pos, size);
+            pos += size + 2;
+        }
+        return decoded.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] bytes, int from)
+    {
+        for (int i = from; i + 1 < bytes.length; ++i)
+        {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n')
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String etag(byte[] content)
+    {
+        try
+        {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(content);
+            StringBuilder builder = new StringBuilder("\"");
+            for (byte b : digest)
+            {
+                builder.append(String.format("%02x", b & 0xff));
+            }
+            return builder.append('"').toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("md5 is not available", e);
+        }
+    }
+
+    /**
+     * @return the number of stored objects
+     */
+    public int getObjectCount()
+    {
+        return objects.size();
+    }
+
+    public long getStoredBytes()
+    {
+        return storedBytes.get();
+    }
+
+    private static class StoredObject
+    {
+        private final byte[] content;
+        private final String etag;
+        private final String lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+
+        private StoredObject(byte[] content, String etag)
+        {
+            this.content = content;
+            this.etag = etag;
+        }
+    }
+
+    private static class Upload
+    {
+        private final ConcurrentSkipListMap<Integer, byte[]> parts = new ConcurrentSkipListMap<>();
+    }
+}
@@ -0,0 +1,359 @@
+package io.pixelsdb.ccb.network.local;
+
+import com.sun.net.httpserver.HttpExchange;
+import io.pixelsdb.ccb.network.Json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-memory stand-in of the SQS json protocol, covering what the transports use: sending, receiving (with
+ * long polling and visibility timeouts), and deleting messages, one at a time or in batches of up to 10, and
+ * creating and looking up queues. Queues are also created on their first use, named by the last segment of
+ * their url. The size limit of a message and of a batch is maxMessageBytes. The requests are not authenticated.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class LocalSqs extends ShapedHandler
+{
+    private static final String JSON = "application/x-amz-json-1.0";
+    private static final int MAX_BATCH_ENTRIES = 10;
+    private static final long DEFAULT_VISIBILITY_TIMEOUT_SEC = 30;
+
+    private final Map<String, LocalQueue> queues = new ConcurrentHashMap<>();
+    private final long maxMessageBytes;
+
+    public LocalSqs(ShapingPolicy policy, long maxMessageBytes)
+    {
+        super(policy);
+        this.maxMessageBytes = maxMessageBytes;
+    }
+
+    @Override
+    protected LocalResponse serve(HttpExchange exchange, byte[] body) throws IOException, InterruptedException
+    {
+        String target = exchange.getRequestHeaders().getFirst("X-Amz-Target");
+        String operation = target.substring(target.indexOf('.') + 1);
+        Map<String, Object> request = Json.parseObject(new String(body, StandardCharsets.UTF_8));
+        Map<String, Object> response = new LinkedHashMap<>();
+        switch (operation)
+        {
+            case "CreateQueue":
+            case "GetQueueUrl":
+                String name = (String) request.get("QueueName");
+                queue(name);
+                response.put("QueueUrl", "http://" + exchange.getRequestHeaders().getFirst("Host") +
+                        "/000000000000/" + name);
+                break;
+            case "SendMessage":
+                QueuedMessage message = new QueuedMessage((String) request.get("MessageBody"),
+                        attributes(request.get("MessageAttributes")));
+                if (message.size > this.maxMessageBytes)
+                {
+                    return error("InvalidParameterValue", "message of " + message.size + " bytes exceeds " +
+                            this.maxMessageBytes + " bytes");
+                }
+                queueOf(request).visible.add(message);
+                response.putAll(message.sent());
+                break;
+            case "SendMessageBatch":
+                List<?> entries = entries(request);
+                if (entries.size() > MAX_BATCH_ENTRIES)
+                {
+                    return error("TooManyEntriesInBatchRequest", entries.size() + " entries");
+                }
+                List<QueuedMessage> batch = new ArrayList<>(entries.size());
+                List<Object> successful = new ArrayList<>(entries.size());
+                long batchBytes = 0;
+                for (Object entry : entries)
+                {
+                    Map<?, ?> fields = (Map<?, ?>) entry;
+                    QueuedMessage queued = new QueuedMessage((String) fields.get("MessageBody"),
+                            attributes(fields.get("MessageAttributes")));
+                    batchBytes += queued.size;
+                    batch.add(queued);
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("Id", fields.get("Id"));
+                    result.putAll(queued.sent());
+                    successful.add(result);
+                }
+                if (batchBytes > this.maxMessageBytes)
+                {
+                    return error("BatchRequestTooLong", "batch of " + batchBytes + " bytes exceeds " +
+                            this.maxMessageBytes + " bytes");
+                }
+                queueOf(request).visible.addAll(batch);
+                response.put("Successful", successful);
+                response.put("Failed", new ArrayList<>());
+                break;
+            case "ReceiveMessage":
+                response.put("Messages", queueOf(request).receive(request));
+                break;
+            case "DeleteMessage":
+                queueOf(request).inFlight.remove((String) request.get("ReceiptHandle"));
+                break;
+            case "DeleteMessageBatch":
+                LocalQueue queue = queueOf(request);
+                List<Object> deleted = new ArrayList<>();
+                for (Object entry : entries(request))
+                {
+                    Map<?, ?> fields = (Map<?, ?>) entry;
+                    queue.inFlight.remove((String) fields.get("ReceiptHandle"));
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("Id", fields.get("Id"));
+                    deleted.add(result);
+                }
+                response.put("Successful", deleted);
+                response.put("Failed", new ArrayList<>());
+                break;
+            default:
+                return error("UnsupportedOperation", operation);
+        }
+        return LocalResponse.text(200, JSON, Json.write(response));
+    }
+
+    @Override
+    protected LocalResponse throttled()
+    {
+        return error("RequestThrottled", "Request is throttled.");
+    }
+
+    @Override
+    protected LocalResponse failed(Exception e)
+    {
+        return error("InvalidParameterValue", String.valueOf(e.getMessage()));
+    }
+
+    private static LocalResponse error(String code, String message)
+    {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("__type", "com.amazonaws.sqs#" + code);
+        error.put("message", message);
+        return LocalResponse.text(400, JSON, Json.write(error)).header("x-amzn-query-error", code + ";Sender");
+    }
+
+    private LocalQueue queue(String name)
+    {
+        return this.queues.computeIfAbsent(name, key -> new LocalQueue());
+    }
+
+    private LocalQueue queueOf(Map<String, Object> request) throws IOException
+    {
+        String url = (String) request.get("QueueUrl");
+        if (url == null)
+        {
+            throw new IOException("missing QueueUrl");
+        }
+        return queue(url.substring(url.lastIndexOf('/') + 1));
+    }
+
+    private static List<?> entries(Map<String, Object> request) throws IOException
+    {
+        Object entries = request.get("Entries");
+        if (!(entries instanceof List) || ((List<?>) entries).isEmpty())
+        {
+            throw new IOException("missing Entries");
+        }
+        return (List<?>) entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> attributes(Object attributes)
+    {
+        return attributes instanceof Map ? (Map<String, Object>) attributes : new LinkedHashMap<>();
+    }
+
+    /**
+     * @return the number of messages in the queue that are visible or in flight
+     */
+    public int getDepth(String queueName)
+    {
+        LocalQueue queue = this.queues.get(queueName);
+        return queue == null ? 0 : queue.visible.size() + queue.inFlight.size();
+    }
+
+    private static String md5Hex(byte[] bytes)
+    {
+        try
+        {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(bytes);
+            StringBuilder builder = new StringBuilder();
+            for (byte b : digest)
+            {
+                builder.append(String.format("%02x", b & 0xff));
+            }
+            return builder.toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("md5 is not available", e);
+        }
+    }
+
+    private static class LocalQueue
+    {
+        private final BlockingDeque<QueuedMessage> visible = new LinkedBlockingDeque<>();
+        private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+        /**
+         * Return the expired in-flight messages to the queue, then take up to MaxNumberOfMessages messages,
+         * waiting up to WaitTimeSeconds for the first one.
+         */
+        @SuppressWarnings("unchecked")
+        private List<Object> receive(Map<String, Object> request) throws InterruptedException
+        {
+            long now = System.nanoTime();
+            for (Iterator<InFlight> it = this.inFlight.values().iterator(); it.hasNext(); )
+            {
+                InFlight expired = it.next();
+                if (expired.deadlineNanos < now)
+                {
+                    it.remove();
+                    this.visible.addFirst(expired.message);
+                }
+            }
+            int maxMessages = request.containsKey("MaxNumberOfMessages") ?
+                    ((Number) request.get("MaxNumberOfMessages")).intValue() : 1;
+            long waitSeconds = request.containsKey("WaitTimeSeconds") ?
+                    ((Number) request.get("WaitTimeSeconds")).longValue() : 0;
+            long visibilitySeconds = request.containsKey("VisibilityTimeout") ?
+                    ((Number) request.get("VisibilityTimeout")).longValue() : DEFAULT_VISIBILITY_TIMEOUT_SEC;
+            List<Object> names = request.get("MessageAttributeNames") instanceof List ?
+                    (List<Object>) request.get("MessageAttributeNames") : new ArrayList<>();
+            List<Object> messages = new ArrayList<>();
+            QueuedMessage message = this.visible.poll(waitSeconds, TimeUnit.SECONDS);
+            while (message != null)
+            {
+                String receiptHandle = UUID.randomUUID().toString();
+                this.inFlight.put(receiptHandle, new InFlight(message,
+                        System.nanoTime() + TimeUnit.SECONDS.toNanos(visibilitySeconds)));
+                messages.add(message.received(receiptHandle, names));
+                message = messages.size() < maxMessages ? this.visible.poll() : null;
+            }
+            return messages;
+        }
+    }
+
+    private static class InFlight
+    {
+        private final QueuedMessage message;
+        private final long deadlineNanos;
+
+        private InFlight(QueuedMessage message, long deadlineNanos)
+        {
+            this.message = message;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private static class QueuedMessage
+    {
+        private final String id = UUID.randomUUID().toString();
+        private final String body;
+        private final Map<String, Object> attributes;
+        private final String bodyMd5;
+        private final long size;
+
+        private QueuedMessage(String body, Map<String, Object> attributes)
+        {
+            this.body = body == null ? "" : body;
+            this.attributes = attributes;
+            byte[] bodyBytes = this.body.getBytes(StandardCharsets.UTF_8);
+            this.bodyMd5 = md5Hex(bodyBytes);
+            long size = bodyBytes.length;
+            for (Map.Entry<String, Object> attribute : attributes.entrySet())
+            {
+                Map<?, ?> value = (Map<?, ?>) attribute.getValue();
+                size += attribute.getKey().length() + String.valueOf(value.get("DataType")).length() +
+                        valueOf(value).length;
+            }
+            this.size = size;
+        }
+
+        private Map<String, Object> sent()
+        {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("MessageId", this.id);
+            result.put("MD5OfMessageBody", this.bodyMd5);
+            if (!this.attributes.isEmpty())
+            {
+                result.put("MD5OfMessageAttributes", attributesMd5(this.attributes));
+            }
+            return result;
+        }
+
+        private Map<String, Object> received(String receiptHandle, List<Object> names)
+        {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("MessageId", this.id);
+            result.put("ReceiptHandle", receiptHandle);
+            result.put("MD5OfBody", this.bodyMd5);
+            result.put("Body", this.body);
+            Map<String, Object> selected = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> attribute : this.attributes.entrySet())
+            {
+                if (names.contains("All") || names.contains(".*") || names.contains(attribute.getKey()))
+                {
+                    selected.put(attribute.getKey(), attribute.getValue());
+                }
+            }
+            if (!selected.isEmpty())
+            {
+                result.put("MessageAttributes", selected);
+                result.put("MD5OfMessageAttributes", attributesMd5(selected));
+            }
+            return result;
+        }
+
+        /**
+         * The digest of the attributes as sqs computes it: for each attribute in the order of the names, the
+         * length-prefixed name, data type, and value, with a transport type byte of 1 for string values and 2
+         * for binary values before the value.
+         */
+        private static String attributesMd5(Map<String, Object> attributes)
+        {
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            for (Map.Entry<String, Object> attribute : new TreeMap<>(attributes).entrySet())
+            {
+                Map<?, ?> value = (Map<?, ?>) attribute.getValue();
+                writeLengthPrefixed(encoded, attribute.getKey().getBytes(StandardCharsets.UTF_8));
+                writeLengthPrefixed(encoded, String.valueOf(value.get("DataType")).getBytes(StandardCharsets.UTF_8));
+                encoded.write(value.containsKey("BinaryValue") ? 2 : 1);
+                writeLengthPrefixed(encoded, valueOf(value));
+            }
+            return md5Hex(encoded.toByteArray());
+        }
+
+        private static byte[] valueOf(Map<?, ?> value)
+        {
+            if (value.containsKey("BinaryValue"))
+            {
+                return Base64.getDecoder().decode(String.valueOf(value.get("BinaryValue")));
+            }
+            return String.valueOf(value.get("StringValue")).getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static void writeLengthPrefixed(ByteArrayOutputStream out, byte[] bytes)
+        {
+            out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+            out.writeBytes(bytes);
+        }
+    }
+}
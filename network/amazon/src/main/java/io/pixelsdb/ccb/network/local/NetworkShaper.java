@@ -0,0 +1,99 @@
+package io.pixelsdb.ccb.network.local;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies a {@link ShapingPolicy} to the requests of a stand-in service. A request is first admitted, or
+ * rejected as throttled, and an admitted request is delayed by the latency and by its share of the bandwidth
+ * before it is answered. The bandwidth is shared by all the requests: each one reserves the link for the time
+ * its bytes take, after the reservations of the requests before it.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class NetworkShaper
+{
+    private final ShapingPolicy policy;
+    private final Semaphore concurrency;
+    private final RateLimiter requestRate;
+    private final AtomicLong requests = new AtomicLong(0);
+    private final AtomicLong throttled = new AtomicLong(0);
+    private long linkFreeNanos = 0;
+
+    public NetworkShaper(ShapingPolicy policy)
+    {
+        this.policy = policy;
+        this.concurrency = policy.getMaxConcurrentRequests() > 0 ?
+                new Semaphore(policy.getMaxConcurrentRequests()) : null;
+        this.requestRate = policy.getMaxRequestsPerSecond() > 0 ?
+                RateLimiter.create(policy.getMaxRequestsPerSecond()) : null;
+    }
+
+    /**
+     * @return true if the request is admitted, then {@link #release()} must be called when it is answered,
+     * or false if it is to be rejected as throttled
+     */
+    public boolean tryAdmit()
+    {
+        this.requests.incrementAndGet();
+        if ((this.policy.getThrottleRate() > 0 && ThreadLocalRandom.current().nextDouble() < this.policy.getThrottleRate())
+                || (this.requestRate != null && !this.requestRate.tryAcquire()))
+        {
+            this.throttled.incrementAndGet();
+            return false;
+        }
+        if (this.concurrency != null && !this.concurrency.tryAcquire())
+        {
+            this.throttled.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release()
+    {
+        if (this.concurrency != null)
+        {
+            this.concurrency.release();
+        }
+    }
+
+    /**
+     * Delay the calling thread by the latency and the transfer time of the bytes of a request and its response.
+     */
+    public void delay(long bytes) throws InterruptedException
+    {
+        long delayNanos = TimeUnit.MILLISECONDS.toNanos(this.policy.getLatencyMs());
+        if (this.policy.getBandwidth() > 0 && bytes > 0)
+        {
+            long transferNanos = (long) (bytes * 1e9 / this.policy.getBandwidth());
+            long now = System.nanoTime();
+            long end;
+            synchronized (this)
+            {
+                end = Math.max(now, this.linkFreeNanos) + transferNanos;
+                this.linkFreeNanos = end;
+            }
+            delayNanos += end - now;
+        }
+        if (delayNanos > 0)
+        {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+        }
+    }
+
+    public long getRequests()
+    {
+        return requests.get();
+    }
+
+    public long getThrottled()
+    {
+        return throttled.get();
+    }
+}
@@ -0,0 +1,106 @@
+package io.pixelsdb.ccb.network.local;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * The base of the stand-in services: it reads the request, admits it or answers it as throttled by the
+ * {@link NetworkShaper}, serves it, delays the response by the latency and the transfer time of the request
+ * and the response, and writes the response.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public abstract class ShapedHandler implements HttpHandler
+{
+    private final NetworkShaper shaper;
+
+    protected ShapedHandler(ShapingPolicy policy)
+    {
+        this.shaper = new NetworkShaper(policy);
+    }
+
+    /**
+     * @param body the request body
+     * @return the response to the request
+     */
+    protected abstract LocalResponse serve(HttpExchange exchange, byte[] body) throws IOException, InterruptedException;
+
+    /**
+     * @return the response to a request rejected by the shaper
+     */
+    protected abstract LocalResponse throttled();
+
+    /**
+     * @return the response to a request that failed while it was served
+     */
+    protected abstract LocalResponse failed(Exception e);
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            if (!this.shaper.tryAdmit())
+            {
+                respond(exchange, throttled());
+                return;
+            }
+            try
+            {
+                LocalResponse response;
+                try
+                {
+                    response = serve(exchange, body);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    response = failed(e);
+                }
+                this.shaper.delay((long) body.length + response.getLength());
+                respond(exchange, response);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                this.shaper.release();
+            }
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, LocalResponse response) throws IOException
+    {
+        for (Map.Entry<String, String> header : response.getHeaders().entrySet())
+        {
+            exchange.getResponseHeaders().set(header.getKey(), header.getValue());
+        }
+        if (exchange.getRequestMethod().equals("HEAD") || response.getLength() == 0)
+        {
+            // the content length of a head response is set in the headers by the service
+            exchange.sendResponseHeaders(response.getStatus(), -1);
+            return;
+        }
+        exchange.sendResponseHeaders(response.getStatus(), response.getLength());
+        try (OutputStream out = exchange.getResponseBody())
+        {
+            out.write(response.getBody(), response.getOffset(), response.getLength());
+        }
+    }
+
+    public NetworkShaper getShaper()
+    {
+        return shaper;
+    }
+}
@@ -0,0 +1,86 @@
+package io.pixelsdb.ccb.network.local;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+/**
+ * How {@link NetworkShaper} shapes the requests to a stand-in service: each request is delayed by latencyMs
+ * plus the time to move its bytes at bandwidth bytes per second, a fraction throttleRate of the requests is
+ * rejected as throttled, and so are the requests beyond maxConcurrentRequests in progress or beyond
+ * maxRequestsPerSecond. A bandwidth or a limit of 0 means unlimited.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class ShapingPolicy
+{
+    private final long latencyMs;
+    private final long bandwidth;
+    private final double throttleRate;
+    private final int maxConcurrentRequests;
+    private final double maxRequestsPerSecond;
+
+    public ShapingPolicy(long latencyMs, long bandwidth, double throttleRate, int maxConcurrentRequests,
+                         double maxRequestsPerSecond)
+    {
+        if (latencyMs < 0 || bandwidth < 0 || maxConcurrentRequests < 0 || maxRequestsPerSecond < 0)
+        {
+            throw new IllegalArgumentException("latency, bandwidth, and request limits must be non-negative");
+        }
+        if (throttleRate < 0 || throttleRate > 1)
+        {
+            throw new IllegalArgumentException("throttle rate must be within [0, 1]: " + throttleRate);
+        }
+        this.latencyMs = latencyMs;
+        this.bandwidth = bandwidth;
+        this.throttleRate = throttleRate;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+    }
+
+    /**
+     * @return the policy that neither delays nor rejects any request
+     */
+    public static ShapingPolicy unshaped()
+    {
+        return new ShapingPolicy(0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Create a policy from the settings under the prefix, e.g., local.s3 for local.s3.latency.ms,
+     * local.s3.bandwidth, local.s3.throttle.rate, local.s3.max.concurrent.requests, and
+     * local.s3.max.requests.per.sec.
+     */
+    public static ShapingPolicy from(BenchmarkConfig config, String prefix)
+    {
+        return new ShapingPolicy(config.getLong(prefix + ".latency.ms", 0),
+                config.getSize(prefix + ".bandwidth", 0),
+                config.getDouble(prefix + ".throttle.rate", 0),
+                config.getInt(prefix + ".max.concurrent.requests", 0),
+                config.getDouble(prefix + ".max.requests.per.sec", 0));
+    }
+
+    public long getLatencyMs()
+    {
+        return latencyMs;
+    }
+
+    public long getBandwidth()
+    {
+        return bandwidth;
+    }
+
+    public double getThrottleRate()
+    {
+        return throttleRate;
+    }
+
+    public int getMaxConcurrentRequests()
+    {
+        return maxConcurrentRequests;
+    }
+
+    public double getMaxRequestsPerSecond()
+    {
+        return maxRequestsPerSecond;
+    }
+}
@@ -0,0 +1,65 @@
+package io.pixelsdb.ccb.network.metrics;
+
+import io.pixelsdb.ccb.network.Futures;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The process-wide count of the failures in the background of the transports, e.g., a put or a send of a message
+ * that still failed after its retries, a polled message whose object could not be read, or a failed poll. Such a
+ * failure is not thrown by a send or receive call, so it is counted here and reported with the result of the run. The
+ * first failure of a run is printed with its stack trace, the later ones are only counted. Each failure is also
+ * counted as an error in the current interval of the {@link TimelineMetrics}.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class FailureMetrics
+{
+    private static final FailureMetrics instance = new FailureMetrics();
+
+    public static FailureMetrics Instance()
+    {
+        return instance;
+    }
+
+    private final LongAdder failures = new LongAdder();
+    private final AtomicReference<Throwable> first = new AtomicReference<>();
+
+    private FailureMetrics() { }
+
+    public void record(Throwable failure)
+    {
+        this.failures.increment();
+        TimelineMetrics.Instance().recordError();
+        Throwable cause = Futures.unwrap(failure);
+        if (this.first.compareAndSet(null, cause))
+        {
+            System.err.println("a transport failed in the background, the later failures are only counted:");
+            cause.printStackTrace();
+        }
+    }
+
+    /**
+     * @return the number of failures since the last reset
+     */
+    public long getFailures()
+    {
+        return this.failures.sum();
+    }
+
+    /**
+     * @return the first failure since the last reset, or null if none
+     */
+    public Throwable getFirstFailure()
+    {
+        return this.first.get();
+    }
+
+    public void reset()
+    {
+        this.failures.reset();
+        this.first.set(null);
+    }
+}
@@ -0,0 +1,158 @@
+package io.pixelsdb.ccb.network.metrics;
+
+import io.pixelsdb.ccb.network.Receiver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Records the latency of each receive of the wrapped receiver in {@link Phase#receive}, and counts the failed
+ * receives in the {@link TimelineMetrics}.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class InstrumentedReceiver implements Receiver
+{
+    private final Receiver receiver;
+
+    public InstrumentedReceiver(Receiver receiver)
+    {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public ByteBuffer receive(int bytes) throws IOException
+    {
+        long start = System.nanoTime();
+        ByteBuffer buffer;
+        try
+        {
+            buffer = this.receiver.receive(bytes);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            TimelineMetrics.Instance().recordError();
+            throw e;
+        }
+        LatencyMetrics.Instance().record(Phase.receive, start);
+        return buffer;
+    }
+
+    /**
+     * The latency of an asynchronous receive is the time from the call until the payload is available.
+     */
+    @Override
+    public CompletableFuture<ByteBuffer> receiveAsync(int bytes)
+    {
+        long start = System.nanoTime();
+        return this.receiver.receiveAsync(bytes).whenComplete((buffer, err) -> {
+            if (err == null)
+            {
+                LatencyMetrics.Instance().record(Phase.receive, start);
+            }
+            else
+            {
+                TimelineMetrics.Instance().recordError();
+            }
+        });
+    }
+
+    @Override
+    public int receive(ByteBuffer dst) throws IOException
+    {
+        long start = System.nanoTime();
+        int bytes;
+        try
+        {
+            bytes = this.receiver.receive(dst);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            TimelineMetrics.Instance().recordError();
+            throw e;
+        }
+        LatencyMetrics.Instance().record(Phase.receive, start);
+        return bytes;
+    }
+
+    /**
+     * The latency of a streamed receive is the time from the call until the channel is closed.
+     */
+    @Override
+    public ReadableByteChannel receiveChannel(int bytes) throws IOException
+    {
+        long start = System.nanoTime();
+        ReadableByteChannel channel;
+        try
+        {
+            channel = this.receiver.receiveChannel(bytes);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            TimelineMetrics.Instance().recordError();
+            throw e;
+        }
+        return new ReadableByteChannel()
+        {
+            @Override
+            public int read(ByteBuffer dst) throws IOException
+            {
+                try
+                {
+                    return channel.read(dst);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    TimelineMetrics.Instance().recordError();
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean isOpen()
+            {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+                boolean open = channel.isOpen();
+                try
+                {
+                    channel.close();
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    TimelineMetrics.Instance().recordError();
+                    throw e;
+                }
+                if (open)
+                {
+                    LatencyMetrics.Instance().record(Phase.receive, start);
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean isStream()
+    {
+        return this.receiver.isStream();
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return this.receiver.isClosed();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.receiver.close();
+    }
+}
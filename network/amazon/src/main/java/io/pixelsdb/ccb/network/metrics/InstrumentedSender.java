@@ -0,0 +1,112 @@
+package io.pixelsdb.ccb.network.metrics;
+
+import io.pixelsdb.ccb.network.Sender;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Records the latency of each send of the wrapped sender in {@link Phase#send}, and counts the failed sends
+ * in the {@link TimelineMetrics}.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class InstrumentedSender implements Sender
+{
+    private final Sender sender;
+
+    public InstrumentedSender(Sender sender)
+    {
+        this.sender = sender;
+    }
+
+    @Override
+    public void send(ByteBuffer buffer) throws IOException
+    {
+        long start = System.nanoTime();
+        try
+        {
+            this.sender.send(buffer);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            TimelineMetrics.Instance().recordError();
+            throw e;
+        }
+        LatencyMetrics.Instance().record(Phase.send, start);
+    }
+
+    /**
+     * The latency of a streamed send is the time from opening the channel until it is closed.
+     */
+    @Override
+    public WritableByteChannel openChannel() throws IOException
+    {
+        long start = System.nanoTime();
+        WritableByteChannel channel;
+        try
+        {
+            channel = this.sender.openChannel();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            TimelineMetrics.Instance().recordError();
+            throw e;
+        }
+        return new WritableByteChannel()
+        {
+            @Override
+            public int write(ByteBuffer src) throws IOException
+            {
+                try
+                {
+                    return channel.write(src);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    TimelineMetrics.Instance().recordError();
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean isOpen()
+            {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+                boolean open = channel.isOpen();
+                try
+                {
+                    channel.close();
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    TimelineMetrics.Instance().recordError();
+                    throw e;
+                }
+                if (open)
+                {
+                    LatencyMetrics.Instance().record(Phase.send, start);
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return this.sender.isClosed();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.sender.close();
+    }
+}
@@ -0,0 +1,119 @@
+package io.pixelsdb.ccb.network.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free log-linear histogram of latencies in nanoseconds. Values below 64 have their own
+ * buckets, larger values are bucketed by their highest 6 bits, so that the relative error of a
+ * reported percentile is bounded by 1/32 regardless of the magnitude. Recording a value costs one
+ * atomic increment on the bucket plus the updates of the count, sum, and max.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = indexOf(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong(0);
+    private final AtomicLong sum = new AtomicLong(0);
+    private final AtomicLong max = new AtomicLong(0);
+
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+        {
+            nanos = 0;
+        }
+        this.buckets.incrementAndGet(indexOf(nanos));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(nanos);
+        long current;
+        while (nanos > (current = this.max.get()) && !this.max.compareAndSet(current, nanos));
+    }
+
+    /**
+     * Record the time elapsed since the given start.
+     * @param startNanos the start time from {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos)
+    {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount()
+    {
+        return this.count.get();
+    }
+
+    public long getMaxNanos()
+    {
+        return this.max.get();
+    }
+
+    public double getMeanNanos()
+    {
+        long count = this.count.get();
+        return count == 0 ? 0 : (double) this.sum.get() / count;
+    }
+
+    /**
+     * @param percentile the percentile in (0, 100]
+     * @return the upper bound of the bucket containing the percentile, or 0 if nothing is recorded
+     */
+    public long getPercentileNanos(double percentile)
+    {
+        long count = this.count.get();
+        if (count == 0)
+        {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0d));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i)
+        {
+            seen += this.buckets.get(i);
+            if (seen >= rank)
+            {
+                return Math.min(upperBoundOf(i), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; ++i)
+        {
+            this.buckets.set(i, 0);
+        }
+        this.count.set(0);
+        this.sum.set(0);
+        this.max.set(0);
+    }
+
+    static int indexOf(long value)
+    {
+        if (value < 2 * SUB_BUCKETS)
+        {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long upperBoundOf(int index)
+    {
+        if (index < 2 * SUB_BUCKETS)
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long top = index - (long) shift * SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
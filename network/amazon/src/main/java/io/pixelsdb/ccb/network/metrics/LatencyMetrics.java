@@ -0,0 +1,76 @@
+package io.pixelsdb.ccb.network.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The process-wide latency histograms, one per {@link Phase}.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class LatencyMetrics
+{
+    private static final LatencyMetrics instance = new LatencyMetrics();
+
+    public static LatencyMetrics Instance()
+    {
+        return instance;
+    }
+
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+
+    private LatencyMetrics()
+    {
+        for (Phase phase : Phase.values())
+        {
+            this.histograms.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public LatencyHistogram get(Phase phase)
+    {
+        return this.histograms.get(phase);
+    }
+
+    /**
+     * Record the time elapsed since startNanos in the histogram of the phase, and in the current interval of
+     * the {@link TimelineMetrics}.
+     */
+    public void record(Phase phase, long startNanos)
+    {
+        long nanos = System.nanoTime() - startNanos;
+        this.histograms.get(phase).record(nanos);
+        TimelineMetrics.Instance().record(phase, nanos);
+    }
+
+    public void reset()
+    {
+        for (LatencyHistogram histogram : this.histograms.values())
+        {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * @return one line per phase that has recorded latencies, in milliseconds
+     */
+    public String report()
+    {
+        StringBuilder builder = new StringBuilder(String.format("%-12s %10s %10s %10s %10s %10s %10s%n",
+                "phase", "count", "mean(ms)", "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)"));
+        for (Map.Entry<Phase, LatencyHistogram> entry : this.histograms.entrySet())
+        {
+            LatencyHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0)
+            {
+                continue;
+            }
+            builder.append(String.format("%-12s %10d %10.3f %10.3f %10.3f %10.3f %10.3f%n", entry.getKey(),
+                    histogram.getCount(), histogram.getMeanNanos() / 1e6,
+                    histogram.getPercentileNanos(50) / 1e6, histogram.getPercentileNanos(99) / 1e6,
+                    histogram.getPercentileNanos(99.9) / 1e6, histogram.getMaxNanos() / 1e6));
+        }
+        return builder.toString();
+    }
+}
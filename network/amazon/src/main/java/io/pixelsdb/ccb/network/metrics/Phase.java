@@ -0,0 +1,16 @@
+package io.pixelsdb.ccb.network.metrics;
+
+/**
+ * The phases whose latencies are recorded. send and receive are the calls on
+ * {@link io.pixelsdb.ccb.network.Sender} and {@link io.pixelsdb.ccb.network.Receiver},
+ * the others are the storage and queue requests issued inside the transports. With batching,
+ * sqs_send is the latency of a message until its batch is accepted, and the batch phases are the
+ * latencies of the batch requests.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public enum Phase
+{
+    send, receive, s3_put, s3_get, sqs_send, sqs_receive, sqs_send_batch, sqs_delete_batch
+}
@@ -0,0 +1,109 @@
+package io.pixelsdb.ccb.network.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The process-wide counters of the current sampling interval of the timeline: the messages and bytes sent or
+ * received by the benchmark, the failed requests inside the transports, and a latency histogram per
+ * {@link Phase}. Unlike {@link LatencyMetrics}, which accumulates over a run, these are drained by the
+ * {@link TimelineSampler} at the end of each interval.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TimelineMetrics
+{
+    private static final TimelineMetrics instance = new TimelineMetrics();
+
+    public static TimelineMetrics Instance()
+    {
+        return instance;
+    }
+
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile LatencyHistogram[] histograms = newHistograms();
+
+    private TimelineMetrics() { }
+
+    /**
+     * Count a message sent or received by the benchmark.
+     */
+    public void recordMessage(long bytes)
+    {
+        this.messages.increment();
+        this.bytes.add(bytes);
+    }
+
+    /**
+     * Count a failed request, e.g., a put or a send of a message that is reported but not retried.
+     */
+    public void recordError()
+    {
+        this.errors.increment();
+    }
+
+    public void record(Phase phase, long nanos)
+    {
+        this.histograms[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * @return the counters since the previous drain, the counters are reset and the histograms replaced,
+     * a latency recorded concurrently may be counted in either interval
+     */
+    public Interval drain()
+    {
+        LatencyHistogram[] drained = this.histograms;
+        this.histograms = newHistograms();
+        return new Interval(this.messages.sumThenReset(), this.bytes.sumThenReset(), this.errors.sumThenReset(),
+                drained);
+    }
+
+    private static LatencyHistogram[] newHistograms()
+    {
+        LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+        for (int i = 0; i < histograms.length; ++i)
+        {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    public static class Interval
+    {
+        private final long messages;
+        private final long bytes;
+        private final long errors;
+        private final LatencyHistogram[] histograms;
+
+        private Interval(long messages, long bytes, long errors, LatencyHistogram[] histograms)
+        {
+            this.messages = messages;
+            this.bytes = bytes;
+            this.errors = errors;
+            this.histograms = histograms;
+        }
+
+        public long getMessages()
+        {
+            return messages;
+        }
+
+        public long getBytes()
+        {
+            return bytes;
+        }
+
+        public long getErrors()
+        {
+            return errors;
+        }
+
+        public LatencyHistogram get(Phase phase)
+        {
+            return histograms[phase.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package io.pixelsdb.ccb.network.metrics;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+import io.pixelsdb.ccb.network.Json;
+import io.pixelsdb.ccb.network.flow.RateController;
+
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a row of the {@link TimelineMetrics} every interval, so that throttling episodes, long-poll stalls,
+ * and gc pauses in the middle of a run are visible. The rows are taken at the epoch-aligned boundaries of the
+ * interval and stamped with the epoch milliseconds of the start of their interval, so that the timelines of
+ * the sender and the receiver processes can be joined on epoch_ms. As the metrics are process-wide, there must
+ * be one sampler per process, and its rows are labelled by the role of the process, e.g., loopback if the sender
+ * and the receiver run in the same process. Each row holds the messages, bytes, and
+ * errors of the interval, their rates, the current rate and concurrency limits of the live
+ * {@link RateController}s, and the count, p50, p99, and max latency of every {@link Phase}.
+ * <p/>
+ * The output is a CSV table like the startup_times_*.csv files, or json lines (one object per row).
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TimelineSampler implements Closeable
+{
+    private final long intervalMs;
+    private final boolean json;
+    private final String role;
+    private final PrintWriter writer;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "timeline-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile String run = "";
+    private long lastNanos;
+    private boolean headerWritten = false;
+
+    public TimelineSampler(String path, long intervalMs, boolean json) throws IOException
+    {
+        this(path, intervalMs, json, "");
+    }
+
+    /**
+     * @param json true for json lines, false for CSV
+     * @param role the role of the process, written in every row
+     */
+    public TimelineSampler(String path, long intervalMs, boolean json, String role) throws IOException
+    {
+        if (intervalMs <= 0)
+        {
+            throw new IllegalArgumentException("interval must be positive: " + intervalMs);
+        }
+        this.intervalMs = intervalMs;
+        this.json = json;
+        this.role = role;
+        this.writer = new PrintWriter(new FileWriter(path));
+        // discard what was recorded before the timeline starts
+        TimelineMetrics.Instance().drain();
+        this.lastNanos = System.nanoTime();
+        long delayMs = intervalMs - System.currentTimeMillis() % intervalMs;
+        this.timer.scheduleAtFixedRate(() -> sample(false), delayMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param role the role of the process, written in every row
+     * @return the sampler of the timeline.* settings, or null if timeline.enabled is false
+     */
+    public static TimelineSampler from(BenchmarkConfig config, String role) throws IOException
+    {
+        if (!config.getBoolean("timeline.enabled", false))
+        {
+            return null;
+        }
+        return new TimelineSampler(config.getString("timeline.output", "timeline.csv"),
+                config.getLong("timeline.interval.ms", 100),
+                config.getString("timeline.format", "csv").equalsIgnoreCase("json"), role);
+    }
+
+    /**
+     * @param run the label of the rows sampled from now on, e.g., the cell and repetition being run
+     */
+    public void setRun(String run)
+    {
+        this.run = run;
+    }
+
+    private synchronized void sample(boolean last)
+    {
+        long nowMs = System.currentTimeMillis();
+        long nowNanos = System.nanoTime();
+        // a tick fires at (about) the end of its interval, the last sample ends within its interval
+        long epochMs = last ? nowMs - nowMs % this.intervalMs :
+                Math.round((double) nowMs / this.intervalMs) * this.intervalMs - this.intervalMs;
+        double elapsedSec = Math.max(1, nowNanos - this.lastNanos) / 1e9;
+        this.lastNanos = nowNanos;
+        TimelineMetrics.Interval interval = TimelineMetrics.Instance().drain();
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("epoch_ms", epochMs);
+        row.put("role", this.role);
+        row.put("run", this.run);
+        row.put("messages", interval.getMessages());
+        row.put("bytes", interval.getBytes());
+        row.put("errors", interval.getErrors());
+        row.put("messages_per_sec", round(interval.getMessages() / elapsedSec));
+        row.put("mb_per_sec", round(interval.getBytes() / 1024.0d / 1024.0d / elapsedSec));
+        row.put("rate_limit_mb_per_sec", round(RateController.getTotalRate() / 1024.0d / 1024.0d));
+        row.put("concurrency_limit", RateController.getTotalConcurrency());
+        for (Phase phase : Phase.values())
+        {
+            LatencyHistogram histogram = interval.get(phase);
+            row.put(phase + "_count", histogram.getCount());
+            row.put(phase + "_p50_ms", round(histogram.getPercentileNanos(50) / 1e6));
+            row.put(phase + "_p99_ms", round(histogram.getPercentileNanos(99) / 1e6));
+            row.put(phase + "_max_ms", round(histogram.getMaxNanos() / 1e6));
+        }
+        if (this.json)
+        {
+            this.writer.println(Json.write(row));
+        }
+        else
+        {
+            if (!this.headerWritten)
+            {
+                this.writer.println(String.join(",", row.keySet()));
+                this.headerWritten = true;
+            }
+            StringBuilder line = new StringBuilder();
+            for (Object value : row.values())
+            {
+                if (line.length() > 0)
+                {
+                    line.append(',');
+                }
+                line.append(value);
+            }
+            this.writer.println(line);
+        }
+        this.writer.flush();
+    }
+
+    private static double round(double value)
+    {
+        return Math.round(value * 1000) / 1000.0d;
+    }
+
+    /**
+     * Stop sampling, write the row of the last (partial) interval, and close the output.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        this.timer.shutdown();
+        try
+        {
+            this.timer.awaitTermination(this.intervalMs, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        sample(true);
+        this.writer.close();
+    }
+}
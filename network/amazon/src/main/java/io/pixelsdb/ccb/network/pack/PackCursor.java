@@ -0,0 +1,96 @@
+package io.pixelsdb.ccb.network.pack;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out the payloads of a sequence of packed objects one by one. When all the payloads of the current
+ * object have been handed out, one of the receives opens the next object outside the cursor's lock and hands
+ * it over to the others, which wait for it, so the lock is only held to pick a payload. The payloads are read
+ * outside the lock, so concurrent receives of the same object overlap in bulk mode. The lock is a
+ * {@link ReentrantLock} rather than a monitor, so that a waiting virtual thread does not pin its carrier.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class PackCursor
+{
+    public interface Source
+    {
+        /**
+         * @return the next packed object, blocking until one is available
+         */
+        PackedObject next() throws IOException;
+    }
+
+    private final Source source;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition opened = this.lock.newCondition();
+    private PackedObject current = null;
+    private int next = 0;
+    private boolean opening = false;
+
+    public PackCursor(Source source)
+    {
+        this.source = source;
+    }
+
+    /**
+     * Read the next payload into dst and advance the position of dst.
+     * @return the number of bytes read
+     */
+    public int read(ByteBuffer dst) throws IOException
+    {
+        PackedObject object;
+        int i;
+        this.lock.lock();
+        try
+        {
+            while (this.current == null || this.next >= this.current.getCount())
+            {
+                if (this.opening)
+                {
+                    this.opened.await();
+                    continue;
+                }
+                this.opening = true;
+                PackedObject packed = null;
+                this.lock.unlock();
+                try
+                {
+                    packed = this.source.next();
+                }
+                finally
+                {
+                    this.lock.lock();
+                    // if the open failed, a waiting receive takes over opening the next object
+                    this.opening = false;
+                    if (packed != null)
+                    {
+                        this.current = packed;
+                        this.next = 0;
+                    }
+                    this.opened.signalAll();
+                }
+            }
+            object = this.current;
+            i = this.next;
+            // the payload is not handed out if it does not fit, so it is not lost
+            PackedObject.checkFits(object.getLength(i), dst);
+            this.next++;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for the next packed object");
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+        return object.read(i, dst);
+    }
+}
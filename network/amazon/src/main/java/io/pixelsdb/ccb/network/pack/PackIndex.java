@@ -0,0 +1,126 @@
+package io.pixelsdb.ccb.network.pack;
+
+import io.pixelsdb.pixels.common.physical.PhysicalReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The offset index of a packed object. A packed object is the concatenation of its payloads followed by
+ * the footer: the length of each payload (int), the number of payloads (int), and {@link #MAGIC} (int),
+ * all big-endian. The offset of a payload is the sum of the lengths before it.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class PackIndex
+{
+    public static final int MAGIC = 0x50434b31;
+    public static final int TRAILER_SIZE = 8;
+
+    private final long[] offsets;
+    private final int[] lengths;
+
+    public PackIndex(int[] lengths)
+    {
+        this.lengths = lengths;
+        this.offsets = new long[lengths.length];
+        long offset = 0;
+        for (int i = 0; i < lengths.length; ++i)
+        {
+            this.offsets[i] = offset;
+            offset += lengths[i];
+        }
+    }
+
+    /**
+     * @return the size of the footer of a packed object with count payloads
+     */
+    public static int footerSize(int count)
+    {
+        return count * Integer.BYTES + TRAILER_SIZE;
+    }
+
+    /**
+     * Write the footer for the given payload lengths at the position of dst.
+     */
+    public static void writeFooter(int[] lengths, int count, ByteBuffer dst)
+    {
+        dst.order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < count; ++i)
+        {
+            dst.putInt(lengths[i]);
+        }
+        dst.putInt(count);
+        dst.putInt(MAGIC);
+    }
+
+    /**
+     * Parse the index from the footer of a whole packed object, which is between the position and the limit
+     * of the buffer. The buffer is not modified.
+     */
+    public static PackIndex parse(ByteBuffer object) throws IOException
+    {
+        ByteBuffer buffer = object.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int end = buffer.limit();
+        if (buffer.remaining() < TRAILER_SIZE || buffer.getInt(end - Integer.BYTES) != MAGIC)
+        {
+            throw new IOException("the object is not a packed object");
+        }
+        int count = buffer.getInt(end - TRAILER_SIZE);
+        int footerStart = end - footerSize(count);
+        if (count < 0 || footerStart < buffer.position())
+        {
+            throw new IOException("corrupted footer in packed object, count=" + count);
+        }
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; ++i)
+        {
+            lengths[i] = buffer.getInt(footerStart + i * Integer.BYTES);
+        }
+        return new PackIndex(lengths);
+    }
+
+    /**
+     * Read the index from the tail of a packed object, with one read of the trailer and one of the lengths.
+     */
+    public static PackIndex read(PhysicalReader reader) throws IOException
+    {
+        long length = reader.getFileLength();
+        if (length < TRAILER_SIZE)
+        {
+            throw new IOException("the object is not a packed object: " + reader.getPath());
+        }
+        reader.seek(length - TRAILER_SIZE);
+        ByteBuffer trailer = reader.readFully(TRAILER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        int count = trailer.getInt();
+        if (trailer.getInt() != MAGIC || count < 0 || footerSize(count) > length)
+        {
+            throw new IOException("the object is not a packed object: " + reader.getPath());
+        }
+        reader.seek(length - footerSize(count));
+        ByteBuffer footer = reader.readFully(count * Integer.BYTES).order(ByteOrder.BIG_ENDIAN);
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; ++i)
+        {
+            lengths[i] = footer.getInt();
+        }
+        return new PackIndex(lengths);
+    }
+
+    public int getCount()
+    {
+        return lengths.length;
+    }
+
+    public long getOffset(int index)
+    {
+        return offsets[index];
+    }
+
+    public int getLength(int index)
+    {
+        return lengths[index];
+    }
+}
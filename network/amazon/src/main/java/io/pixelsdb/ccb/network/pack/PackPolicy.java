@@ -0,0 +1,84 @@
+package io.pixelsdb.ccb.network.pack;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+/**
+ * Whether and how the claim-check transports pack several payloads into one S3 object. A packed object is
+ * written when it holds maxMessages payloads, when it reaches maxBytes, or lingerMs after its first payload
+ * was added, whichever comes first. On the receiver side, bulkRead chooses between one GET of the whole
+ * object and one ranged GET per payload.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class PackPolicy
+{
+    public static final long DEFAULT_MAX_BYTES = 8 * 1024 * 1024;
+    public static final int DEFAULT_MAX_MESSAGES = 1024;
+    public static final long DEFAULT_LINGER_MS = 10;
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final int maxMessages;
+    private final long lingerMs;
+    private final boolean bulkRead;
+
+    public PackPolicy(boolean enabled, long maxBytes, int maxMessages, long lingerMs, boolean bulkRead)
+    {
+        if (maxBytes <= 0 || maxBytes > Integer.MAX_VALUE || maxMessages <= 0)
+        {
+            throw new IllegalArgumentException("the size of a packed object must be in (0, 2GB), " +
+                    "and the number of payloads in it must be positive");
+        }
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.maxMessages = maxMessages;
+        this.lingerMs = lingerMs;
+        this.bulkRead = bulkRead;
+    }
+
+    /**
+     * @return the policy that writes every payload in its own object
+     */
+    public static PackPolicy disabled()
+    {
+        return new PackPolicy(false, DEFAULT_MAX_BYTES, DEFAULT_MAX_MESSAGES, DEFAULT_LINGER_MS, true);
+    }
+
+    /**
+     * Create a policy from the pack.* settings.
+     */
+    public static PackPolicy from(BenchmarkConfig config)
+    {
+        return new PackPolicy(config.getBoolean("pack.enabled", false),
+                config.getSize("pack.max.bytes", DEFAULT_MAX_BYTES),
+                config.getInt("pack.max.messages", DEFAULT_MAX_MESSAGES),
+                config.getLong("pack.linger.ms", DEFAULT_LINGER_MS),
+                config.getBoolean("pack.read.bulk", true));
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public long getMaxBytes()
+    {
+        return maxBytes;
+    }
+
+    public int getMaxMessages()
+    {
+        return maxMessages;
+    }
+
+    public long getLingerMs()
+    {
+        return lingerMs;
+    }
+
+    public boolean isBulkRead()
+    {
+        return bulkRead;
+    }
+}
@@ -0,0 +1,153 @@
+package io.pixelsdb.ccb.network.pack;
+
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
+import io.pixelsdb.pixels.common.physical.PhysicalReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A packed object opened for reading. In bulk mode, the whole object is read by one GET into a pooled buffer
+ * when it is opened, and the payloads are copied out of it. In ranged mode, only the index is read when it is
+ * opened, and each payload is read by its own ranged GET; the ranged reads of one object are serialized as
+ * they share the reader's position. The object releases its reader and buffer after each of its payloads has
+ * been read once.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class PackedObject
+{
+    private final PhysicalReader reader;
+    private final PackIndex index;
+    private final ByteBuffer data;
+    private final AtomicInteger unread;
+    /**
+     * Serializes the ranged reads, a lock rather than a monitor so that a virtual thread blocked in a read
+     * does not pin its carrier.
+     */
+    private final ReentrantLock readLock = new ReentrantLock();
+
+    private PackedObject(PhysicalReader reader, PackIndex index, ByteBuffer data)
+    {
+        this.reader = reader;
+        this.index = index;
+        this.data = data;
+        this.unread = new AtomicInteger(index.getCount());
+    }
+
+    public static PackedObject open(PhysicalReader reader, boolean bulk) throws IOException
+    {
+        if (bulk)
+        {
+            ByteBuffer data = null;
+            // the reader is closed once the object is read, or if the read or the parse of the index fails
+            try (reader)
+            {
+                long start = System.nanoTime();
+                int length = (int) reader.getFileLength();
+                data = BufferPool.Instance().acquire(length);
+                Buffers.readFully(reader, data);
+                data.flip();
+                LatencyMetrics.Instance().record(Phase.s3_get, start);
+                return new PackedObject(null, PackIndex.parse(data), data);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                if (data != null)
+                {
+                    BufferPool.Instance().release(data);
+                }
+                throw e;
+            }
+        }
+        try
+        {
+            return new PackedObject(reader, PackIndex.read(reader), null);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            reader.close();
+            throw e;
+        }
+    }
+
+    public int getCount()
+    {
+        return this.index.getCount();
+    }
+
+    public int getLength(int i)
+    {
+        return this.index.getLength(i);
+    }
+
+    /**
+     * Read the payload at the given index into dst and advance the position of dst.
+     * Each payload must be read exactly once, a payload that does not fit in dst is not read, so it can be read
+     * again into a larger dst.
+     * @return the number of bytes read
+     */
+    public int read(int i, ByteBuffer dst) throws IOException
+    {
+        int length = this.index.getLength(i);
+        checkFits(length, dst);
+        try
+        {
+            if (this.data != null)
+            {
+                ByteBuffer payload = this.data.duplicate();
+                payload.limit((int) this.index.getOffset(i) + length).position((int) this.index.getOffset(i));
+                return Buffers.copy(payload, dst);
+            }
+            ByteBuffer range = dst.duplicate();
+            range.limit(range.position() + length);
+            long start = System.nanoTime();
+            this.readLock.lock();
+            try
+            {
+                this.reader.seek(this.index.getOffset(i));
+                Buffers.readFully(this.reader, range);
+            }
+            finally
+            {
+                this.readLock.unlock();
+            }
+            LatencyMetrics.Instance().record(Phase.s3_get, start);
+            dst.position(range.position());
+            return length;
+        }
+        finally
+        {
+            if (this.unread.decrementAndGet() == 0)
+            {
+                release();
+            }
+        }
+    }
+
+    static void checkFits(int length, ByteBuffer dst) throws IOException
+    {
+        if (length > dst.remaining())
+        {
+            throw new IOException("message of " + length + " bytes does not fit in " + dst.remaining() + " bytes");
+        }
+    }
+
+    private void release() throws IOException
+    {
+        if (this.data != null)
+        {
+            BufferPool.Instance().release(this.data);
+        }
+        if (this.reader != null)
+        {
+            this.reader.close();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package io.pixelsdb.ccb.network.pack;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Copies the payloads given to {@link #add(ByteBuffer)} into packed objects according to a {@link PackPolicy},
+ * and hands each sealed object (payloads and footer, see {@link PackIndex}) to the writer function. The future
+ * of a payload completes when the writer's future of its object does.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class Packer implements Closeable
+{
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private final PackPolicy policy;
+    private final Function<ByteBuffer, CompletableFuture<Void>> writer;
+    private final ScheduledExecutorService lingerTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "packer-linger");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<CompletableFuture<?>> writes = ConcurrentHashMap.newKeySet();
+    private Pack current = null;
+    private long generation = 0;
+
+    public Packer(PackPolicy policy, Function<ByteBuffer, CompletableFuture<Void>> writer)
+    {
+        this.policy = policy;
+        this.writer = writer;
+    }
+
+    /**
+     * Copy the remaining bytes of the payload into the current packed object, the payload is not modified.
+     * @return the future completed when the object containing this payload is written
+     */
+    public CompletableFuture<Void> add(ByteBuffer payload)
+    {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        List<Pack> full = new ArrayList<>(2);
+        boolean first;
+        long generation;
+        synchronized (this)
+        {
+            if (this.current != null && this.current.size + payload.remaining() > this.policy.getMaxBytes())
+            {
+                full.add(drain());
+            }
+            if (this.current == null)
+            {
+                this.current = new Pack((int) Math.min(this.policy.getMaxBytes(),
+                        Math.max(INITIAL_CAPACITY, payload.remaining())));
+            }
+            this.current.add(payload, future);
+            first = this.current.futures.size() == 1;
+            generation = this.generation;
+            if (this.current.futures.size() >= this.policy.getMaxMessages() ||
+                    this.current.size >= this.policy.getMaxBytes())
+            {
+                full.add(drain());
+                first = false;
+            }
+        }
+        for (Pack pack : full)
+        {
+            write(pack);
+        }
+        if (first)
+        {
+            this.lingerTimer.schedule(() -> {
+                Pack pack;
+                synchronized (this)
+                {
+                    pack = this.generation == generation && this.current != null ? drain() : null;
+                }
+                if (pack != null)
+                {
+                    write(pack);
+                }
+            }, this.policy.getLingerMs(), TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    private Pack drain()
+    {
+        Pack pack = this.current;
+        this.current = null;
+        this.generation++;
+        return pack;
+    }
+
+    private void write(Pack pack)
+    {
+        CompletableFuture<Void> write;
+        try
+        {
+            write = this.writer.apply(pack.seal());
+        }
+        catch (RuntimeException e)
+        {
+            write = CompletableFuture.failedFuture(e);
+        }
+        this.writes.add(write);
+        CompletableFuture<Void> tracked = write;
+        write.whenComplete((res, err) -> {
+            this.writes.remove(tracked);
+            for (CompletableFuture<Void> future : pack.futures)
+            {
+                if (err != null)
+                {
+                    future.completeExceptionally(err);
+                }
+                else
+                {
+                    future.complete(null);
+                }
+            }
+        });
+    }
+
+    /**
+     * Write the current packed object and wait for all the writes to complete.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        Pack pack;
+        synchronized (this)
+        {
+            pack = this.current != null ? drain() : null;
+        }
+        if (pack != null)
+        {
+            write(pack);
+        }
+        for (CompletableFuture<?> write : this.writes)
+        {
+            try
+            {
+                write.join();
+            }
+            catch (Exception e)
+            {
+                // the failure is propagated to the futures of the payloads
+            }
+        }
+        this.lingerTimer.shutdownNow();
+    }
+
+    private static class Pack
+    {
+        private byte[] data;
+        private int size = 0;
+        private int[] lengths = new int[16];
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        private Pack(int capacity)
+        {
+            this.data = new byte[capacity];
+        }
+
+        private void add(ByteBuffer payload, CompletableFuture<Void> future)
+        {
+            int length = payload.remaining();
+            ensureCapacity(this.size + length);
+            payload.duplicate().get(this.data, this.size, length);
+            this.size += length;
+            int count = this.futures.size();
+            if (count == this.lengths.length)
+            {
+                this.lengths = Arrays.copyOf(this.lengths, count * 2);
+            }
+            this.lengths[count] = length;
+            this.futures.add(future);
+        }
+
+        /**
+         * @return the whole packed object, the pack must not be added to afterwards
+         */
+        private ByteBuffer seal()
+        {
+            int count = this.futures.size();
+            ensureCapacity(this.size + PackIndex.footerSize(count));
+            ByteBuffer object = ByteBuffer.wrap(this.data, 0, this.size + PackIndex.footerSize(count));
+            object.position(this.size);
+            PackIndex.writeFooter(this.lengths, count, object);
+            return object.flip();
+        }
+
+        private void ensureCapacity(long capacity)
+        {
+            if (capacity > Integer.MAX_VALUE)
+            {
+                throw new IllegalStateException("packed object exceeds 2GB");
+            }
+            if (capacity > this.data.length)
+            {
+                this.data = Arrays.copyOf(this.data, (int) Math.max(capacity, Math.min(
+                        (long) this.data.length * 2, Integer.MAX_VALUE - 8)));
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.pixelsdb.ccb.network.payload;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Generates bytes drawn uniformly from an alphabet of 2^bits symbols, so that the content has about bits
+ * bits of entropy per byte: 8 is incompressible, 0 is all zeros. A fractional number of bits is rounded to
+ * the nearest alphabet size.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class EntropyGenerator implements PayloadGenerator
+{
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private final int alphabet;
+
+    public EntropyGenerator(double bits)
+    {
+        if (bits < 0 || bits > 8)
+        {
+            throw new IllegalArgumentException("bits of entropy per byte must be within [0, 8]: " + bits);
+        }
+        this.alphabet = (int) Math.max(1, Math.min(256, Math.round(Math.pow(2, bits))));
+    }
+
+    public int getAlphabet()
+    {
+        return alphabet;
+    }
+
+    @Override
+    public void fill(ByteBuffer dst, long seed)
+    {
+        Random random = new Random(seed);
+        byte[] block = new byte[Math.min(BLOCK_SIZE, dst.remaining())];
+        while (dst.hasRemaining())
+        {
+            int length = Math.min(block.length, dst.remaining());
+            if (this.alphabet == 256)
+            {
+                random.nextBytes(block);
+            }
+            else
+            {
+                for (int i = 0; i < length; ++i)
+                {
+                    block[i] = (byte) random.nextInt(this.alphabet);
+                }
+            }
+            dst.put(block, 0, length);
+        }
+    }
+}
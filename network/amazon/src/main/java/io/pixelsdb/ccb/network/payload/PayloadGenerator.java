@@ -0,0 +1,19 @@
+package io.pixelsdb.ccb.network.payload;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Generates the content of the payloads sent by the benchmark.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public interface PayloadGenerator
+{
+    /**
+     * Fill dst from its position to its limit and advance its position to the limit. The same seed
+     * generates the same content, different seeds generate independent contents.
+     */
+    void fill(ByteBuffer dst, long seed) throws IOException;
+}
@@ -0,0 +1,62 @@
+package io.pixelsdb.ccb.network.payload;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+import io.pixelsdb.pixels.core.encoding.EncodingLevel;
+
+/**
+ * The kinds of payload content. Zeros are the most compressible content and flatter any compressing or
+ * deduplicating layer, random bytes are incompressible, entropy bytes have a tunable number of bits of
+ * entropy per byte, and pixels payloads are the bytes of Pixels files of random rows.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public enum PayloadKind
+{
+    zeros
+    {
+        @Override
+        public PayloadGenerator newGenerator(BenchmarkConfig config)
+        {
+            return (dst, seed) -> {
+                while (dst.hasRemaining())
+                {
+                    dst.put((byte) 0);
+                }
+            };
+        }
+    },
+    random
+    {
+        @Override
+        public PayloadGenerator newGenerator(BenchmarkConfig config)
+        {
+            return new EntropyGenerator(8);
+        }
+    },
+    entropy
+    {
+        @Override
+        public PayloadGenerator newGenerator(BenchmarkConfig config)
+        {
+            return new EntropyGenerator(config.getDouble("payload.entropy.bits", 4));
+        }
+    },
+    pixels
+    {
+        @Override
+        public PayloadGenerator newGenerator(BenchmarkConfig config)
+        {
+            return new PixelsGenerator(config.getString("payload.pixels.schema", PixelsGenerator.DEFAULT_SCHEMA),
+                    config.getInt("payload.pixels.rows.per.file", 100000),
+                    EncodingLevel.from(config.getInt("payload.pixels.encoding.level", 2)));
+        }
+    };
+
+    public abstract PayloadGenerator newGenerator(BenchmarkConfig config);
+
+    public static PayloadKind from(String name)
+    {
+        return valueOf(name.trim().toLowerCase());
+    }
+}
@@ -0,0 +1,71 @@
+package io.pixelsdb.ccb.network.payload;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed set of payloads generated ahead of time, so that generating them stays off the measured path.
+ * The senders cycle through the payloads, so consecutive messages have different contents. The payloads
+ * are shared by all the senders, which must not modify them.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class PayloadPool
+{
+    private final ByteBuffer[] payloads;
+    private final AtomicLong next = new AtomicLong(0);
+
+    public PayloadPool(ByteBuffer[] payloads)
+    {
+        if (payloads.length == 0)
+        {
+            throw new IllegalArgumentException("payload pool must not be empty");
+        }
+        this.payloads = payloads;
+    }
+
+    /**
+     * Generate count payloads of size bytes, payload i is generated with the seed seed + i.
+     */
+    public static PayloadPool generate(PayloadGenerator generator, int size, int count, boolean direct, long seed)
+            throws IOException
+    {
+        ByteBuffer[] payloads = new ByteBuffer[count];
+        for (int i = 0; i < count; ++i)
+        {
+            ByteBuffer payload = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+            generator.fill(payload, seed + i);
+            payloads[i] = payload.flip();
+        }
+        return new PayloadPool(payloads);
+    }
+
+    public static PayloadPool from(BenchmarkConfig config, int size) throws IOException
+    {
+        PayloadGenerator generator = PayloadKind.from(config.getString("payload.kind", "random")).newGenerator(config);
+        return generate(generator, size, config.getInt("payload.pool.size", 4),
+                config.getBoolean("payload.direct", false), config.getLong("payload.seed", 0));
+    }
+
+    /**
+     * @return the next payload, with position 0 and limit at its size
+     */
+    public ByteBuffer next()
+    {
+        return this.payloads[(int) (this.next.getAndIncrement() % this.payloads.length)];
+    }
+
+    public int getSize()
+    {
+        return payloads.length;
+    }
+
+    public int getPayloadSize()
+    {
+        return payloads[0].limit();
+    }
+}
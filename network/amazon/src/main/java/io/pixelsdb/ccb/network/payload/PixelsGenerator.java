@@ -0,0 +1,184 @@
+package io.pixelsdb.ccb.network.payload;
+
+import io.pixelsdb.pixels.common.physical.Storage;
+import io.pixelsdb.pixels.common.physical.StorageFactory;
+import io.pixelsdb.pixels.core.PixelsWriter;
+import io.pixelsdb.pixels.core.PixelsWriterImpl;
+import io.pixelsdb.pixels.core.TypeDescription;
+import io.pixelsdb.pixels.core.encoding.EncodingLevel;
+import io.pixelsdb.pixels.core.vector.VectorizedRowBatch;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates payloads of Pixels-encoded row batches, as the intermediate results of Pixels Turbo are Pixels
+ * files. Files of rowsPerFile random rows of the schema are written to a temporary local file by
+ * {@link PixelsWriterImpl} and their bytes are concatenated until the payload is full, the last file is cut
+ * at the end of the payload. The values are generated as text and parsed by the column vectors, the same way
+ * the Pixels loader ingests csv: ids are ascending, strings come from a small dictionary, and the other
+ * values are uniform within realistic ranges, so the encodings of Pixels apply as they do to real data.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class PixelsGenerator implements PayloadGenerator
+{
+    public static final String DEFAULT_SCHEMA =
+            "struct<id:bigint,quantity:int,price:decimal(15,2),discount:double,ship_date:date,comment:varchar(44)>";
+    private static final int PIXEL_STRIDE = 10000;
+    private static final int ROW_GROUP_SIZE = 256 * 1024 * 1024;
+    private static final int DICTIONARY_SIZE = 1024;
+
+    private final TypeDescription schema;
+    private final int rowsPerFile;
+    private final EncodingLevel encodingLevel;
+
+    public PixelsGenerator(String schema, int rowsPerFile, EncodingLevel encodingLevel)
+    {
+        if (rowsPerFile <= 0)
+        {
+            throw new IllegalArgumentException("rows per file must be positive: " + rowsPerFile);
+        }
+        this.schema = TypeDescription.fromString(schema);
+        this.rowsPerFile = rowsPerFile;
+        this.encodingLevel = encodingLevel;
+    }
+
+    @Override
+    public void fill(ByteBuffer dst, long seed) throws IOException
+    {
+        Random random = new Random(seed);
+        String[] dictionary = dictionary(random);
+        Storage storage = StorageFactory.Instance().getStorage(Storage.Scheme.file);
+        Path file = Files.createTempFile("ccb-payload-", ".pxl");
+        try
+        {
+            long firstId = 0;
+            while (dst.hasRemaining())
+            {
+                writeFile(storage, file.toString(), random, dictionary, firstId);
+                firstId += this.rowsPerFile;
+                try (FileChannel channel = FileChannel.open(file))
+                {
+                    while (dst.hasRemaining() && channel.read(dst) >= 0)
+                    {
+                        // read until the payload is full or the file ends
+                    }
+                }
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void writeFile(Storage storage, String path, Random random, String[] dictionary, long firstId)
+            throws IOException
+    {
+        PixelsWriter writer = PixelsWriterImpl.newBuilder()
+                .setSchema(this.schema)
+                .setPixelStride(PIXEL_STRIDE)
+                .setRowGroupSize(ROW_GROUP_SIZE)
+                .setStorage(storage)
+                .setPath(path)
+                .setOverwrite(true)
+                .setBlockSize(2L * ROW_GROUP_SIZE)
+                .setReplication((short) 1)
+                .setBlockPadding(false)
+                .setEncodingLevel(this.encodingLevel)
+                .setCompressionBlockSize(1)
+                .build();
+        try
+        {
+            List<TypeDescription> columns = this.schema.getChildren();
+            VectorizedRowBatch rowBatch = this.schema.createRowBatch(PIXEL_STRIDE);
+            for (int i = 0; i < this.rowsPerFile; ++i)
+            {
+                rowBatch.size++;
+                for (int j = 0; j < columns.size(); ++j)
+                {
+                    rowBatch.cols[j].add(value(columns.get(j), random, dictionary, firstId + i));
+                }
+                if (rowBatch.isFull())
+                {
+                    writer.addRowBatch(rowBatch);
+                    rowBatch.reset();
+                }
+            }
+            if (rowBatch.size > 0)
+            {
+                writer.addRowBatch(rowBatch);
+            }
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    private static String value(TypeDescription type, Random random, String[] dictionary, long id)
+    {
+        switch (type.getCategory())
+        {
+            case BOOLEAN:
+                return String.valueOf(random.nextBoolean());
+            case BYTE:
+                return String.valueOf(random.nextInt(Byte.MAX_VALUE));
+            case SHORT:
+                return String.valueOf(random.nextInt(Short.MAX_VALUE));
+            case INT:
+                return String.valueOf(random.nextInt(1000));
+            case LONG:
+                return String.valueOf(id);
+            case FLOAT:
+            case DOUBLE:
+                return String.valueOf(random.nextInt(10000) / 100.0);
+            case DECIMAL:
+                int digits = Math.min(9, type.getPrecision());
+                return BigDecimal.valueOf(random.nextInt((int) Math.pow(10, digits)), type.getScale()).toPlainString();
+            case DATE:
+                return LocalDate.ofEpochDay(8000 + random.nextInt(3000)).toString();
+            case TIME:
+                return String.format("%02d:%02d:%02d", random.nextInt(24), random.nextInt(60), random.nextInt(60));
+            case TIMESTAMP:
+                return LocalDate.ofEpochDay(8000 + random.nextInt(3000)) + String.format(" %02d:%02d:%02d",
+                        random.nextInt(24), random.nextInt(60), random.nextInt(60));
+            case STRING:
+            case VARCHAR:
+            case CHAR:
+            case BINARY:
+            case VARBINARY:
+                String word = dictionary[random.nextInt(dictionary.length)];
+                int maxLength = type.getMaxLength();
+                return maxLength > 0 && word.length() > maxLength ? word.substring(0, maxLength) : word;
+            default:
+                throw new IllegalArgumentException("unsupported column type: " + type.getCategory());
+        }
+    }
+
+    private static String[] dictionary(Random random)
+    {
+        String[] dictionary = new String[DICTIONARY_SIZE];
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < dictionary.length; ++i)
+        {
+            builder.setLength(0);
+            int length = 4 + random.nextInt(40);
+            for (int j = 0; j < length; ++j)
+            {
+                builder.append((char) ('a' + random.nextInt(26)));
+            }
+            dictionary[i] = builder.toString();
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,74 @@
+package io.pixelsdb.ccb.network.retry;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+/**
+ * Whether and when the S3 GETs are hedged. If enabled, a second GET of the same object is issued when the
+ * first has not completed within the given percentile of the recent GET latencies (at least minDelayMs), and
+ * the first of the two to complete is taken. No GET is hedged until minSamples latencies are recorded.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class HedgePolicy
+{
+    public static final double DEFAULT_PERCENTILE = 95;
+    public static final long DEFAULT_MIN_DELAY_MS = 10;
+    public static final int DEFAULT_MIN_SAMPLES = 64;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayMs;
+    private final int minSamples;
+
+    public HedgePolicy(boolean enabled, double percentile, long minDelayMs, int minSamples)
+    {
+        if (percentile <= 0 || percentile > 100 || minDelayMs < 0 || minSamples < 1)
+        {
+            throw new IllegalArgumentException("the percentile must be in (0, 100] and the minimums positive");
+        }
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayMs = minDelayMs;
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * @return the policy that issues every GET once
+     */
+    public static HedgePolicy disabled()
+    {
+        return new HedgePolicy(false, DEFAULT_PERCENTILE, DEFAULT_MIN_DELAY_MS, DEFAULT_MIN_SAMPLES);
+    }
+
+    /**
+     * Create a policy from the hedge.* settings.
+     */
+    public static HedgePolicy from(BenchmarkConfig config)
+    {
+        return new HedgePolicy(config.getBoolean("hedge.enabled", false),
+                config.getDouble("hedge.percentile", DEFAULT_PERCENTILE),
+                config.getLong("hedge.min.delay.ms", DEFAULT_MIN_DELAY_MS),
+                config.getInt("hedge.min.samples", DEFAULT_MIN_SAMPLES));
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public double getPercentile()
+    {
+        return percentile;
+    }
+
+    public long getMinDelayMs()
+    {
+        return minDelayMs;
+    }
+
+    public int getMinSamples()
+    {
+        return minSamples;
+    }
+}
@@ -0,0 +1,148 @@
+package io.pixelsdb.ccb.network.retry;
+
+import io.pixelsdb.ccb.network.Futures;
+import io.pixelsdb.ccb.network.metrics.LatencyHistogram;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Issues requests according to a {@link HedgePolicy}. The hedging delay follows the latencies of the
+ * requests issued through this hedger, so one hedger should serve one kind of request, e.g., the GETs of
+ * one receiver. Only the latencies of the first requests are recorded, so the hedges do not hide the
+ * tail they are cutting.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class Hedger
+{
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hedge-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicLong hedges = new AtomicLong(0);
+    private static final AtomicLong hedgeWins = new AtomicLong(0);
+
+    private final HedgePolicy policy;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    public Hedger(HedgePolicy policy)
+    {
+        this.policy = policy;
+    }
+
+    /**
+     * @return the delay after which a request is hedged, or -1 if it is not hedged
+     */
+    public long getDelayNanos()
+    {
+        if (!this.policy.isEnabled() || this.latencies.getCount() < this.policy.getMinSamples())
+        {
+            return -1;
+        }
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(this.policy.getMinDelayMs()),
+                this.latencies.getPercentileNanos(this.policy.getPercentile()));
+    }
+
+    /**
+     * Issue the request, and issue it once more if it is not completed within the hedging delay.
+     * @param request issues one request
+     * @param discard releases the result of a request that completed after the other one, can be null
+     * @return the future of the first request to succeed, which fails only if both requests fail
+     */
+    public <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> request, Consumer<T> discard)
+    {
+        long delay = getDelayNanos();
+        long start = System.nanoTime();
+        CompletableFuture<T> first = issue(request);
+        if (!this.policy.isEnabled())
+        {
+            return first;
+        }
+        first.whenComplete((value, err) -> {
+            if (err == null)
+            {
+                this.latencies.recordSince(start);
+            }
+        });
+        if (delay < 0)
+        {
+            return first;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        settle(first, result, outstanding, discard, false);
+        ScheduledFuture<?> hedge = timer.schedule(() -> {
+            if (!result.isDone())
+            {
+                outstanding.incrementAndGet();
+                hedges.incrementAndGet();
+                settle(issue(request), result, outstanding, discard, true);
+            }
+        }, delay, TimeUnit.NANOSECONDS);
+        result.whenComplete((value, err) -> hedge.cancel(false));
+        return result;
+    }
+
+    private static <T> CompletableFuture<T> issue(Supplier<CompletableFuture<T>> request)
+    {
+        try
+        {
+            return request.get();
+        }
+        catch (RuntimeException e)
+        {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <T> void settle(CompletableFuture<T> future, CompletableFuture<T> result,
+                                   AtomicInteger outstanding, Consumer<T> discard, boolean hedged)
+    {
+        future.whenComplete((value, err) -> {
+            if (err == null)
+            {
+                if (result.complete(value))
+                {
+                    if (hedged)
+                    {
+                        hedgeWins.incrementAndGet();
+                    }
+                }
+                else if (discard != null)
+                {
+                    discard.accept(value);
+                }
+            }
+            else if (outstanding.decrementAndGet() == 0)
+            {
+                result.completeExceptionally(Futures.unwrap(err));
+            }
+        });
+    }
+
+    /**
+     * @return the number of hedged requests issued in this process
+     */
+    public static long getHedges()
+    {
+        return hedges.get();
+    }
+
+    /**
+     * @return the number of hedged requests that completed before the requests they hedged
+     */
+    public static long getHedgeWins()
+    {
+        return hedgeWins.get();
+    }
+}
@@ -0,0 +1,231 @@
+package io.pixelsdb.ccb.network.retry;
+
+import io.pixelsdb.ccb.network.Futures;
+import io.pixelsdb.ccb.network.flow.Throttling;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Attempts requests according to a {@link RetryPolicy}, synchronously by sleeping between the attempts, or
+ * asynchronously by scheduling the next attempt on a shared timer. The attempts must be idempotent: the
+ * transports put the same key and send the same path again, so a retry overwrites the object of the failed
+ * attempt rather than adding one. Throttling, server errors, and i/o errors are retried, client errors
+ * (4xx except 408 and 429), interrupts, and cancellations are not.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class Retrier
+{
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "retry-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicLong retries = new AtomicLong(0);
+
+    private final RetryPolicy policy;
+    private final Listener listener;
+
+    public Retrier(RetryPolicy policy)
+    {
+        this(policy, null);
+    }
+
+    /**
+     * @param listener notified of each failed attempt that is retried, or null
+     */
+    public Retrier(RetryPolicy policy, Listener listener)
+    {
+        this.policy = policy;
+        this.listener = listener;
+    }
+
+    /**
+     * Run the attempt until it succeeds, fails by a non-retryable failure, or the attempts are exhausted,
+     * in which case the last failure is thrown.
+     */
+    public <T> T call(Attempt<T> attempt) throws IOException
+    {
+        for (int retry = 0; ; ++retry)
+        {
+            try
+            {
+                return attempt.run();
+            }
+            catch (IOException | RuntimeException e)
+            {
+                if (retry + 1 >= this.policy.getMaxAttempts() || !isRetryable(e))
+                {
+                    throw e;
+                }
+                onRetry(e);
+                try
+                {
+                    Thread.sleep(this.policy.delayMsOf(retry));
+                }
+                catch (InterruptedException ie)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while backing off", e);
+                }
+            }
+        }
+    }
+
+    public void run(Action action) throws IOException
+    {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Issue the request until its future succeeds, fails by a non-retryable failure, or the attempts are
+     * exhausted. The retries are issued from the timer thread, so the request must not block.
+     * @return the future of the first successful attempt, or of the last failure
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> request)
+    {
+        if (!this.policy.isEnabled())
+        {
+            return request.get();
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(request, 0, result);
+        return result;
+    }
+
+    private <T> void attemptAsync(Supplier<CompletableFuture<T>> request, int retry, CompletableFuture<T> result)
+    {
+        CompletableFuture<T> future;
+        try
+        {
+            future = request.get();
+        }
+        catch (RuntimeException e)
+        {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, err) -> {
+            if (err == null)
+            {
+                result.complete(value);
+            }
+            else if (retry + 1 >= this.policy.getMaxAttempts() || !isRetryable(err))
+            {
+                result.completeExceptionally(Futures.unwrap(err));
+            }
+            else
+            {
+                onRetry(err);
+                timer.schedule(() -> attemptAsync(request, retry + 1, result),
+                        this.policy.delayMsOf(retry), TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    private void onRetry(Throwable failure)
+    {
+        retries.incrementAndGet();
+        if (this.listener != null)
+        {
+            this.listener.onRetry(Futures.unwrap(failure));
+        }
+    }
+
+    /**
+     * @return true if the failure, judged by itself and its causes, may not recur on another attempt
+     */
+    public static boolean isRetryable(Throwable failure)
+    {
+        if (Throttling.isThrottle(failure))
+        {
+            return true;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof InterruptedException || cause instanceof InterruptedIOException ||
+                    cause instanceof ClosedByInterruptException || cause instanceof CancellationException ||
+                    cause instanceof IllegalArgumentException || cause instanceof IllegalStateException)
+            {
+                return false;
+            }
+            if (cause instanceof SdkServiceException)
+            {
+                int status = ((SdkServiceException) cause).statusCode();
+                if (status >= 400 && status < 500 && status != 408 && status != 429)
+                {
+                    return false;
+                }
+            }
+            if (cause.getCause() == cause)
+            {
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the failure, judged by itself and its causes, is of the connection rather than of the request,
+     * e.g., a refused, reset, or timed out connection, so the client may have to reconnect
+     */
+    public static boolean isConnectionFailure(Throwable failure)
+    {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof SocketException || cause instanceof SocketTimeoutException ||
+                    cause instanceof UnknownHostException)
+            {
+                return true;
+            }
+            if (cause.getCause() == cause)
+            {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of retries issued in this process
+     */
+    public static long getRetries()
+    {
+        return retries.get();
+    }
+
+    public interface Attempt<T>
+    {
+        T run() throws IOException;
+    }
+
+    public interface Action
+    {
+        void run() throws IOException;
+    }
+
+    /**
+     * Notified of the failed attempts before they are retried, the failure of the last attempt is that of the
+     * request and is not notified.
+     */
+    public interface Listener
+    {
+        void onRetry(Throwable failure);
+    }
+}
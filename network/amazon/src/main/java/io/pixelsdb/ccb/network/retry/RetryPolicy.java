@@ -0,0 +1,87 @@
+package io.pixelsdb.ccb.network.retry;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How many times and how far apart the failed S3 and SQS requests are attempted. The delay before the n-th
+ * retry (from 0) is drawn uniformly from [0, min(maxDelayMs, baseDelayMs * 2^n)], so that the requests that
+ * failed together, e.g., by throttling, do not retry together.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class RetryPolicy
+{
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final long DEFAULT_BASE_DELAY_MS = 50;
+    public static final long DEFAULT_MAX_DELAY_MS = 2000;
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs)
+    {
+        if (maxAttempts < 1 || baseDelayMs < 0 || maxDelayMs < baseDelayMs)
+        {
+            throw new IllegalArgumentException("the attempts must be positive and the delays non-negative and ordered");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /**
+     * @return the policy that attempts every request once
+     */
+    public static RetryPolicy disabled()
+    {
+        return new RetryPolicy(1, DEFAULT_BASE_DELAY_MS, DEFAULT_MAX_DELAY_MS);
+    }
+
+    /**
+     * Create a policy from the retry.* settings.
+     */
+    public static RetryPolicy from(BenchmarkConfig config)
+    {
+        if (!config.getBoolean("retry.enabled", false))
+        {
+            return disabled();
+        }
+        return new RetryPolicy(config.getInt("retry.max.attempts", DEFAULT_MAX_ATTEMPTS),
+                config.getLong("retry.base.delay.ms", DEFAULT_BASE_DELAY_MS),
+                config.getLong("retry.max.delay.ms", DEFAULT_MAX_DELAY_MS));
+    }
+
+    /**
+     * @param retry the number of retries before this one
+     * @return the jittered delay in ms before the retry
+     */
+    public long delayMsOf(int retry)
+    {
+        long bound = Math.min(this.maxDelayMs, this.baseDelayMs << Math.min(retry, 30));
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    public boolean isEnabled()
+    {
+        return maxAttempts > 1;
+    }
+
+    public int getMaxAttempts()
+    {
+        return maxAttempts;
+    }
+
+    public long getBaseDelayMs()
+    {
+        return baseDelayMs;
+    }
+
+    public long getMaxDelayMs()
+    {
+        return maxDelayMs;
+    }
+}
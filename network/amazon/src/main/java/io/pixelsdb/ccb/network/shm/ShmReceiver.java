@@ -0,0 +1,90 @@
+package io.pixelsdb.ccb.network.shm;
+
+import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.stream.BufferReadChannel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * Receives the payloads of the {@link ShmSender}s on the same host from a {@link ShmRing}, which this receiver
+ * creates and deletes when it is closed. {@link #receiveSlice()} and {@link #receiveChannel(int)} read the
+ * payload in place without copying it, which holds its space in the ring until the next payload is received.
+ * The other receive calls copy the payload out of the ring and release its space at once, so their payloads can
+ * be held by the caller, e.g., by a window of asynchronous receives.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class ShmReceiver implements Receiver
+{
+    private final ShmRing ring;
+    private boolean closed = false;
+
+    /**
+     * @param path the ring file, which replaces the file left by a previous receiver
+     * @param capacity the number of bytes of the ring, a power of two
+     */
+    public ShmReceiver(Path path, int capacity) throws IOException
+    {
+        this.ring = ShmRing.create(path, capacity);
+    }
+
+    /**
+     * Receive the next payload without copying it.
+     * @return a read-only slice of the payload in the ring, valid until the next payload is received
+     */
+    public ByteBuffer receiveSlice() throws IOException
+    {
+        return this.ring.read();
+    }
+
+    @Override
+    public ByteBuffer receive(int bytes) throws IOException
+    {
+        ByteBuffer payload = this.ring.read();
+        ByteBuffer buffer = BufferPool.Instance().acquire(payload.remaining());
+        buffer.put(payload).flip();
+        this.ring.release();
+        return buffer;
+    }
+
+    @Override
+    public int receive(ByteBuffer dst) throws IOException
+    {
+        try
+        {
+            return Buffers.copy(this.ring.read(), dst);
+        }
+        finally
+        {
+            this.ring.release();
+        }
+    }
+
+    /**
+     * The channel reads the payload in place, see {@link #receiveSlice()}.
+     */
+    @Override
+    public ReadableByteChannel receiveChannel(int bytes) throws IOException
+    {
+        return new BufferReadChannel(receiveSlice());
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.ring.close();
+        this.closed = true;
+    }
+}
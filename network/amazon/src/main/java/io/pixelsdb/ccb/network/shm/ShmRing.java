@@ -0,0 +1,343 @@
+package io.pixelsdb.ccb.network.shm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A ring buffer of variable-length messages in a memory-mapped file, e.g., in /dev/shm, shared by the producers
+ * and the consumer of the processes on one host. Any number of producers can write to the ring, one consumer
+ * reads from it. The ring is coordinated by two 64-bit counters in the header of the file, which are only
+ * accessed atomically, so no lock is taken across processes:
+ * <ul>
+ *     <li>the tail is the position up to which the ring is claimed, a producer claims the space of a message by
+ *     a compare-and-set of the tail, then copies the message into it and publishes its record;</li>
+ *     <li>the head is the position up to which the ring is consumed, which the consumer advances once it has
+ *     read a message, so the producers can then claim the space again.</li>
+ * </ul>
+ * A record is 16-byte aligned and starts with a 16-byte header of its sequence (its position + 1), the message
+ * length, and its type. The sequence is written last with release semantics, so a record is complete when its
+ * sequence is that of the head. Before publishing, a producer clears the sequence slot following its record, so
+ * the bytes of the previous lap there can not be taken for a record, the rest of the ring is never cleared.
+ * A message that does not fit before the end of the ring is preceded by a padding record up to the end, so a
+ * message is always contiguous and read in place as a slice of the mapping. A message can be at most half of
+ * the ring.
+ * <p/>
+ * The consumer creates the ring file, the producers attach to it once it is initialized, so the consumer's
+ * process should be started first or concurrently. The waits for space and messages spin, then yield, then park
+ * for up to {@link #MAX_PARK_NANOS}, as there is no cross-process notification.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class ShmRing implements Closeable
+{
+    public static final int MIN_CAPACITY = 4096;
+    public static final long MAX_PARK_NANOS = 1000_000L;
+
+    private static final long MAGIC = 0x6363622d72696e67L;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 8;
+    // the counters are on their own cache lines, so the producers and the consumer do not falsely share them
+    private static final int TAIL_OFFSET = 64;
+    private static final int HEAD_OFFSET = 128;
+    private static final int DATA_OFFSET = 192;
+    private static final int RECORD_HEADER = 16;
+    private static final int ALIGNMENT = 16;
+    private static final int TYPE_MESSAGE = 1;
+    private static final int TYPE_PADDING = 2;
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final boolean owner;
+    /**
+     * The length of the record read by the consumer but not yet released, 0 if none.
+     */
+    private int unreleased = 0;
+    private volatile boolean closed = false;
+
+    private ShmRing(Path path, MappedByteBuffer buffer, int capacity, boolean owner)
+    {
+        this.path = path;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.owner = owner;
+    }
+
+    /**
+     * Create the ring file for the consumer, replacing the file left by a previous ring of the same path.
+     * @param capacity the number of bytes of the messages, a power of two of at least {@link #MIN_CAPACITY}
+     */
+    public static ShmRing create(Path path, int capacity) throws IOException
+    {
+        if (capacity < MIN_CAPACITY || Integer.bitCount(capacity) != 1 || capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("the ring capacity must be a power of two in [4KB, 1GB]");
+        }
+        Files.deleteIfExists(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            // the mapping stays valid after the channel is closed, and the file is zero filled
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, DATA_OFFSET + capacity);
+            buffer.putInt(CAPACITY_OFFSET, capacity);
+            LONG.setRelease(buffer, MAGIC_OFFSET, MAGIC);
+            return new ShmRing(path, buffer, capacity, true);
+        }
+    }
+
+    /**
+     * Attach a producer to the ring file created by the consumer, waiting until it is created.
+     * @param timeoutMs the maximum time to wait for the ring file
+     */
+    public static ShmRing attach(Path path, long timeoutMs) throws IOException
+    {
+        long deadline = System.nanoTime() + timeoutMs * 1000_000L;
+        for (int attempt = 0; ; ++attempt)
+        {
+            if (Files.exists(path) && Files.size(path) > DATA_OFFSET)
+            {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE))
+                {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                    if ((long) LONG.getAcquire(buffer, MAGIC_OFFSET) == MAGIC)
+                    {
+                        int capacity = buffer.getInt(CAPACITY_OFFSET);
+                        if (DATA_OFFSET + capacity != buffer.capacity())
+                        {
+                            throw new IOException("ring file " + path + " is corrupted");
+                        }
+                        return new ShmRing(path, buffer, capacity, false);
+                    }
+                }
+            }
+            if (System.nanoTime() > deadline)
+            {
+                throw new IOException("ring file " + path + " is not created in " + timeoutMs + " ms");
+            }
+            idle(attempt);
+        }
+    }
+
+    /**
+     * @return the maximum number of bytes of a message
+     */
+    public int getMaxMessageBytes()
+    {
+        return this.capacity / 2 - RECORD_HEADER;
+    }
+
+    public int getCapacity()
+    {
+        return this.capacity;
+    }
+
+    /**
+     * Copy a message into the ring, waiting while the ring is too full for it. The position and the limit of the
+     * message are not changed. This method can be called by any number of producers concurrently.
+     */
+    public void write(ByteBuffer message) throws IOException
+    {
+        int length = message.remaining();
+        if (length > getMaxMessageBytes())
+        {
+            throw new IOException("message of " + length + " bytes exceeds the maximum of the ring: " +
+                    getMaxMessageBytes());
+        }
+        int required = align(RECORD_HEADER + length);
+        int mask = this.capacity - 1;
+        for (int attempt = 0; ; ++attempt)
+        {
+            checkOpen();
+            long tail = (long) LONG.getVolatile(this.buffer, TAIL_OFFSET);
+            long head = (long) LONG.getVolatile(this.buffer, HEAD_OFFSET);
+            int index = (int) (tail & mask);
+            int toEnd = this.capacity - index;
+            int padding = required > toEnd ? toEnd : 0;
+            // the header slot following the record must be free as well, as it is cleared
+            if (tail + padding + required + RECORD_HEADER - head > this.capacity)
+            {
+                idle(attempt);
+                continue;
+            }
+            if (!LONG.compareAndSet(this.buffer, TAIL_OFFSET, tail, tail + padding + required))
+            {
+                // another producer claimed the space first
+                continue;
+            }
+            clearNext(tail + padding + required);
+            if (padding > 0)
+            {
+                publish(index, tail, padding - RECORD_HEADER, TYPE_PADDING);
+                index = 0;
+                tail += padding;
+            }
+            ByteBuffer dst = this.buffer.duplicate();
+            dst.position(DATA_OFFSET + index + RECORD_HEADER);
+            dst.put(message.duplicate());
+            publish(index, tail, length, TYPE_MESSAGE);
+            return;
+        }
+    }
+
+    /**
+     * Clear the sequence slot at the position, unless the producer that claimed it has published its record
+     * already, which is why the slot is cleared by a compare-and-set.
+     */
+    private void clearNext(long position)
+    {
+        int offset = DATA_OFFSET + (int) (position & (this.capacity - 1));
+        long sequence = (long) LONG.getVolatile(this.buffer, offset);
+        if (sequence != position + 1)
+        {
+            LONG.compareAndSet(this.buffer, offset, sequence, 0L);
+        }
+    }
+
+    private void publish(int index, long position, int length, int type)
+    {
+        int offset = DATA_OFFSET + index;
+        this.buffer.putInt(offset + 8, length);
+        this.buffer.putInt(offset + 12, type);
+        LONG.setRelease(this.buffer, offset, position + 1);
+    }
+
+    /**
+     * Read the next message, waiting until there is one. This method releases the message read before, and
+     * must only be called by the consumer.
+     * @return a read-only slice of the message in the ring, which is valid until the next message is read or
+     * {@link #release()} is called
+     */
+    public ByteBuffer read() throws IOException
+    {
+        for (int attempt = 0; ; ++attempt)
+        {
+            ByteBuffer message = poll();
+            if (message != null)
+            {
+                return message;
+            }
+            idle(attempt);
+        }
+    }
+
+    /**
+     * Read the next message if there is one, see {@link #read()}.
+     * @return the slice of the message, or null if the ring is empty
+     */
+    public ByteBuffer poll() throws IOException
+    {
+        checkOpen();
+        release();
+        int mask = this.capacity - 1;
+        while (true)
+        {
+            long head = (long) LONG.getOpaque(this.buffer, HEAD_OFFSET);
+            int offset = DATA_OFFSET + (int) (head & mask);
+            if ((long) LONG.getAcquire(this.buffer, offset) != head + 1)
+            {
+                return null;
+            }
+            int length = this.buffer.getInt(offset + 8);
+            int recordLength = align(RECORD_HEADER + length);
+            if (this.buffer.getInt(offset + 12) == TYPE_PADDING)
+            {
+                LONG.setRelease(this.buffer, HEAD_OFFSET, head + recordLength);
+                continue;
+            }
+            this.unreleased = recordLength;
+            return this.buffer.slice(offset + RECORD_HEADER, length).asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * Give the space of the message read last back to the producers, its slice must not be read after this.
+     */
+    public void release()
+    {
+        if (this.unreleased > 0)
+        {
+            long head = (long) LONG.getOpaque(this.buffer, HEAD_OFFSET);
+            LONG.setRelease(this.buffer, HEAD_OFFSET, head + this.unreleased);
+            this.unreleased = 0;
+        }
+    }
+
+    /**
+     * @return the number of bytes claimed by the producers and not yet released by the consumer
+     */
+    public long getUsedBytes()
+    {
+        return (long) LONG.getVolatile(this.buffer, TAIL_OFFSET) - (long) LONG.getVolatile(this.buffer, HEAD_OFFSET);
+    }
+
+    private void checkOpen() throws IOException
+    {
+        if (this.closed)
+        {
+            throw new IOException("ring " + this.path + " is closed");
+        }
+    }
+
+    private static int align(int length)
+    {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * Wait before the next attempt, spinning for the first attempts, as a message is usually published soon.
+     */
+    private static void idle(int attempt) throws InterruptedIOException
+    {
+        if (attempt < SPINS)
+        {
+            Thread.onSpinWait();
+        }
+        else if (attempt < SPINS + YIELDS)
+        {
+            Thread.yield();
+        }
+        else
+        {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L << Math.min(attempt - SPINS - YIELDS, 10)));
+            if (Thread.interrupted())
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for the ring");
+            }
+        }
+    }
+
+    /**
+     * Detach from the ring, the consumer also deletes the ring file. The mapping is unmapped when it is garbage
+     * collected, and the memory of the deleted file is freed once every process has unmapped it.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (this.closed)
+        {
+            return;
+        }
+        this.closed = true;
+        if (this.owner)
+        {
+            Files.deleteIfExists(this.path);
+        }
+    }
+}
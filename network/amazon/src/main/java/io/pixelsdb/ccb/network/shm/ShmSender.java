@@ -0,0 +1,49 @@
+package io.pixelsdb.ccb.network.shm;
+
+import io.pixelsdb.ccb.network.Sender;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Sends the payloads to a receiver on the same host by copying them into a {@link ShmRing}. A send returns once
+ * the payload is in the ring, so it blocks only while the ring is full. Several senders, in this process or in
+ * others, can send to the same ring.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class ShmSender implements Sender
+{
+    private final ShmRing ring;
+    private boolean closed = false;
+
+    /**
+     * @param path the ring file, which is created by the receiver
+     * @param timeoutMs the maximum time to wait for the receiver to create the ring file
+     */
+    public ShmSender(Path path, long timeoutMs) throws IOException
+    {
+        this.ring = ShmRing.attach(path, timeoutMs);
+    }
+
+    @Override
+    public void send(ByteBuffer buffer) throws IOException
+    {
+        this.ring.write(buffer);
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.ring.close();
+        this.closed = true;
+    }
+}
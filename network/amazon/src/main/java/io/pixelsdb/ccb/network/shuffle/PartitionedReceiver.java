@@ -0,0 +1,137 @@
+package io.pixelsdb.ccb.network.shuffle;
+
+import io.pixelsdb.ccb.network.Futures;
+import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The receiver of one partition, which drains only the flows of that partition: the queue of the partition,
+ * or, for point-to-point transports, the connection from each upstream sender. The flows are drained
+ * concurrently, so that a sender blocked on a slow flow of this partition never stalls the other flows.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class PartitionedReceiver implements AutoCloseable
+{
+    private final int partition;
+    private final Receiver[] flows;
+    private final long[] messages;
+    private boolean closed = false;
+
+    /**
+     * @param flows the receivers of the flows of the partition, closed with this receiver
+     * @param messages the number of messages to be received from each flow
+     */
+    public PartitionedReceiver(int partition, Receiver[] flows, long[] messages)
+    {
+        if (flows.length != messages.length)
+        {
+            throw new IllegalArgumentException("flows and messages are of different lengths");
+        }
+        this.partition = partition;
+        this.flows = flows;
+        this.messages = messages;
+    }
+
+    /**
+     * Drain all the flows of the partition, each by one call of the drainer.
+     */
+    public void drain(FlowDrainer drainer) throws IOException
+    {
+        if (this.flows.length == 1)
+        {
+            drainer.drain(this.flows[0], this.messages[0]);
+            return;
+        }
+        ExecutorService executor = TransportExecutors.Instance().newExecutor(this.flows.length);
+        try
+        {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(this.flows.length);
+            for (int i = 0; i < this.flows.length; ++i)
+            {
+                Receiver flow = this.flows[i];
+                long flowMessages = this.messages[i];
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try
+                    {
+                        drainer.drain(flow, flowMessages);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+            Futures.join(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    public int getPartition()
+    {
+        return partition;
+    }
+
+    public long getMessages()
+    {
+        long total = 0;
+        for (long flowMessages : messages)
+        {
+            total += flowMessages;
+        }
+        return total;
+    }
+
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    /**
+     * Close the receivers of all the flows, even if some of them fail to close.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        IOException failure = null;
+        for (Receiver receiver : this.flows)
+        {
+            try
+            {
+                receiver.close();
+            }
+            catch (IOException e)
+            {
+                if (failure == null)
+                {
+                    failure = e;
+                }
+                else
+                {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        this.closed = true;
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    public interface FlowDrainer
+    {
+        void drain(Receiver flow, long messages) throws IOException;
+    }
+}
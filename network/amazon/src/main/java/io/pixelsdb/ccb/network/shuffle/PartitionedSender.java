@@ -0,0 +1,74 @@
+package io.pixelsdb.ccb.network.shuffle;
+
+import io.pixelsdb.ccb.network.Sender;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The sender of a partition worker, which holds one sender per downstream partition, each writing to the
+ * queue (or connection) and s3 prefix of that partition.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class PartitionedSender implements AutoCloseable
+{
+    private final Sender[] partitions;
+    private boolean closed = false;
+
+    /**
+     * @param partitions the sender of each partition, closed with this sender
+     */
+    public PartitionedSender(Sender[] partitions)
+    {
+        this.partitions = partitions;
+    }
+
+    public void send(int partition, ByteBuffer buffer) throws IOException
+    {
+        this.partitions[partition].send(buffer);
+    }
+
+    public int getPartitions()
+    {
+        return partitions.length;
+    }
+
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    /**
+     * Close the senders of all the partitions, even if some of them fail to close.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        IOException failure = null;
+        for (Sender sender : this.partitions)
+        {
+            try
+            {
+                sender.close();
+            }
+            catch (IOException e)
+            {
+                if (failure == null)
+                {
+                    failure = e;
+                }
+                else
+                {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        this.closed = true;
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+}
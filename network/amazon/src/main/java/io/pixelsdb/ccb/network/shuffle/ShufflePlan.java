@@ -0,0 +1,196 @@
+package io.pixelsdb.ccb.network.shuffle;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The messages of an MxN shuffle: each of the M senders (the partition workers) sends its messages to the
+ * N partitions. The messages are split among the senders, and each sender's messages among the partitions,
+ * in proportion to Zipf weights 1/(i+1)^skew, so a skew of 0 is uniform and a larger skew makes the first
+ * senders (or partitions) hotter. The partition skew is the same for all senders, as the key distribution
+ * of a partitioned join is.
+ * <p/>
+ * Sender m and partition n are connected by flow m * N + n, which is the index passed to the transports.
+ * Each partition has its own queue, whose url is transport.sqs.queue.url suffixed by -n.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class ShufflePlan
+{
+    private final int senders;
+    private final int partitions;
+    private final long messageCount;
+    private final double senderSkew;
+    private final double partitionSkew;
+    private final long[][] messages;
+
+    /**
+     * @param messageCount the total number of messages of all the senders
+     */
+    public ShufflePlan(int senders, int partitions, long messageCount, double senderSkew, double partitionSkew)
+    {
+        if (senders <= 0 || partitions <= 0)
+        {
+            throw new IllegalArgumentException("senders and partitions must be positive");
+        }
+        this.senders = senders;
+        this.partitions = partitions;
+        this.messageCount = messageCount;
+        this.senderSkew = senderSkew;
+        this.partitionSkew = partitionSkew;
+        this.messages = new long[senders][];
+        long[] senderMessages = split(messageCount, zipf(senders, senderSkew));
+        double[] partitionWeights = zipf(partitions, partitionSkew);
+        for (int i = 0; i < senders; ++i)
+        {
+            this.messages[i] = split(senderMessages[i], partitionWeights);
+        }
+    }
+
+    public static ShufflePlan from(BenchmarkConfig config)
+    {
+        return new ShufflePlan(config.getInt("shuffle.senders", 64), config.getInt("shuffle.partitions", 64),
+                config.getLong("shuffle.message.count", 65536), config.getDouble("shuffle.sender.skew", 0),
+                config.getDouble("shuffle.partition.skew", 0));
+    }
+
+    public int getSenders()
+    {
+        return senders;
+    }
+
+    public int getPartitions()
+    {
+        return partitions;
+    }
+
+    public long getMessageCount()
+    {
+        return messageCount;
+    }
+
+    public double getSenderSkew()
+    {
+        return senderSkew;
+    }
+
+    public double getPartitionSkew()
+    {
+        return partitionSkew;
+    }
+
+    public long getMessages(int sender, int partition)
+    {
+        return messages[sender][partition];
+    }
+
+    public long getSenderMessages(int sender)
+    {
+        return Arrays.stream(messages[sender]).sum();
+    }
+
+    public long getPartitionMessages(int partition)
+    {
+        long total = 0;
+        for (long[] senderMessages : messages)
+        {
+            total += senderMessages[partition];
+        }
+        return total;
+    }
+
+    /**
+     * @return the partitions of the messages of the sender in sending order, the messages to each partition
+     * are spread evenly (by smooth weighted round-robin), so that no partition is sent to in one burst
+     */
+    public int[] scheduleOf(int sender)
+    {
+        long[] counts = this.messages[sender];
+        long total = getSenderMessages(sender);
+        if (total > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("sender " + sender + " has more than 2^31-1 messages");
+        }
+        int[] schedule = new int[(int) total];
+        long[] current = new long[this.partitions];
+        for (int i = 0; i < schedule.length; ++i)
+        {
+            int next = 0;
+            for (int j = 0; j < this.partitions; ++j)
+            {
+                current[j] += counts[j];
+                if (current[j] > current[next])
+                {
+                    next = j;
+                }
+            }
+            current[next] -= total;
+            schedule[i] = next;
+        }
+        return schedule;
+    }
+
+    public static int flowOf(int sender, int partition, int partitions)
+    {
+        return sender * partitions + partition;
+    }
+
+    /**
+     * @return a copy of the config with the queue url of the partition
+     */
+    public static BenchmarkConfig configOf(BenchmarkConfig config, int partition)
+    {
+        BenchmarkConfig partitionConfig = config.copy();
+        String queueUrl = config.getString("transport.sqs.queue.url", null);
+        if (queueUrl != null)
+        {
+            partitionConfig.set("transport.sqs.queue.url", queueUrl + "-" + partition);
+        }
+        return partitionConfig;
+    }
+
+    /**
+     * @return the weights 1/(i+1)^skew of i in [0, n)
+     */
+    public static double[] zipf(int n, double skew)
+    {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; ++i)
+        {
+            weights[i] = 1.0d / Math.pow(i + 1, skew);
+        }
+        return weights;
+    }
+
+    /**
+     * Split the total in proportion to the weights, the remainder goes to the largest fractions.
+     */
+    public static long[] split(long total, double[] weights)
+    {
+        double sum = Arrays.stream(weights).sum();
+        long[] shares = new long[weights.length];
+        Double[] fractions = new Double[weights.length];
+        long assigned = 0;
+        for (int i = 0; i < weights.length; ++i)
+        {
+            double exact = total * weights[i] / sum;
+            shares[i] = (long) Math.floor(exact);
+            fractions[i] = exact - shares[i];
+            assigned += shares[i];
+        }
+        Integer[] order = new Integer[weights.length];
+        for (int i = 0; i < order.length; ++i)
+        {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> fractions[i]).reversed());
+        for (int i = 0; assigned < total; ++i, ++assigned)
+        {
+            shares[order[i % order.length]]++;
+        }
+        return shares;
+    }
+}
@@ -0,0 +1,65 @@
+package io.pixelsdb.ccb.network.sqs;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+/**
+ * How {@link SqsBatcher} groups sends and deletes into batch requests: a batch is sent when it has
+ * maxEntries entries, when the next entry would take its payload over maxBytes, or lingerMs after its
+ * first entry was added, whichever comes first.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class BatchPolicy
+{
+    public static final int MAX_ENTRIES = 10;
+    public static final long DEFAULT_MAX_BYTES = 256 * 1024;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long lingerMs;
+
+    public BatchPolicy(int maxEntries, long maxBytes, long lingerMs)
+    {
+        if (maxEntries < 1 || maxEntries > MAX_ENTRIES)
+        {
+            throw new IllegalArgumentException("the number of entries in a batch must be in [1, 10]");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.lingerMs = lingerMs;
+    }
+
+    /**
+     * @return the policy that sends every entry in its own request, as soon as it is added
+     */
+    public static BatchPolicy unbatched()
+    {
+        return new BatchPolicy(1, DEFAULT_MAX_BYTES, 0);
+    }
+
+    /**
+     * Create a policy from the sqs.batch.* settings.
+     */
+    public static BatchPolicy from(BenchmarkConfig config)
+    {
+        return new BatchPolicy(config.getInt("sqs.batch.max.entries", MAX_ENTRIES),
+                config.getSize("sqs.batch.max.bytes", DEFAULT_MAX_BYTES),
+                config.getLong("sqs.batch.linger.ms", 5));
+    }
+
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    public long getMaxBytes()
+    {
+        return maxBytes;
+    }
+
+    public long getLingerMs()
+    {
+        return lingerMs;
+    }
+}
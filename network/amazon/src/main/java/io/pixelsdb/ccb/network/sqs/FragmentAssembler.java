@@ -0,0 +1,80 @@
+package io.pixelsdb.ccb.network.sqs;
+
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reassembles the payloads that {@link HybridSender} splits into inline fragments. The fragments of a payload
+ * may arrive in any order and on any thread, each is copied to its offset in a buffer from the buffer pool.
+ * A fragment that is delivered twice is ignored.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class FragmentAssembler
+{
+    private final Map<String, Assembly> assemblies = new ConcurrentHashMap<>();
+
+    /**
+     * @param payloadId the id of the payload the fragment belongs to
+     * @param offset the offset of the fragment in the payload
+     * @param count the number of fragments of the payload
+     * @param total the size of the payload in bytes
+     * @param fragment the content of the fragment, it is not modified
+     * @return the whole payload (position 0, limit total) if this was its last missing fragment, otherwise null
+     */
+    public ByteBuffer add(String payloadId, int offset, int count, int total, ByteBuffer fragment) throws IOException
+    {
+        if (offset < 0 || offset + fragment.remaining() > total)
+        {
+            throw new IOException("fragment [" + offset + ", " + (offset + fragment.remaining()) +
+                    ") is out of the payload of " + total + " bytes");
+        }
+        Assembly assembly = this.assemblies.computeIfAbsent(payloadId, id -> new Assembly(total));
+        synchronized (assembly)
+        {
+            if (!assembly.offsets.add(offset))
+            {
+                return null;
+            }
+        }
+        ByteBuffer target = assembly.buffer.duplicate();
+        target.position(offset);
+        target.put(fragment.duplicate());
+        synchronized (assembly)
+        {
+            if (++assembly.copied < count)
+            {
+                return null;
+            }
+        }
+        this.assemblies.remove(payloadId);
+        return assembly.buffer;
+    }
+
+    /**
+     * @return the number of payloads with some fragments received and some missing
+     */
+    public int getIncomplete()
+    {
+        return this.assemblies.size();
+    }
+
+    private static class Assembly
+    {
+        private final ByteBuffer buffer;
+        private final Set<Integer> offsets = new HashSet<>();
+        private int copied = 0;
+
+        private Assembly(int total)
+        {
+            this.buffer = BufferPool.Instance().acquire(total);
+        }
+    }
+}
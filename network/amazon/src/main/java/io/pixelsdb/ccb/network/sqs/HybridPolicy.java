@@ -0,0 +1,77 @@
+package io.pixelsdb.ccb.network.sqs;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+/**
+ * How {@link HybridSender} routes a payload by its size: payloads of up to inlineMaxBytes are sent inline in
+ * one message, payloads of up to fragmentMaxBytes are split into inline fragments of inlineMaxBytes, and
+ * larger payloads are written to S3 with only their path in the message. The inline limit leaves room in the
+ * 256KB SQS message for the body and the attribute names.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class HybridPolicy
+{
+    public enum Route
+    {
+        inline, fragment, s3
+    }
+
+    public static final int DEFAULT_INLINE_MAX_BYTES = 240 * 1024;
+    public static final long DEFAULT_FRAGMENT_MAX_BYTES = 2 * 1024 * 1024;
+
+    private final int inlineMaxBytes;
+    private final long fragmentMaxBytes;
+
+    public HybridPolicy(int inlineMaxBytes, long fragmentMaxBytes)
+    {
+        if (inlineMaxBytes <= 0 || fragmentMaxBytes < inlineMaxBytes)
+        {
+            throw new IllegalArgumentException("the inline limit must be positive and not exceed the fragment limit");
+        }
+        this.inlineMaxBytes = inlineMaxBytes;
+        this.fragmentMaxBytes = fragmentMaxBytes;
+    }
+
+    public static HybridPolicy defaults()
+    {
+        return new HybridPolicy(DEFAULT_INLINE_MAX_BYTES, DEFAULT_FRAGMENT_MAX_BYTES);
+    }
+
+    /**
+     * Create a policy from the hybrid.* settings.
+     */
+    public static HybridPolicy from(BenchmarkConfig config)
+    {
+        return new HybridPolicy((int) config.getSize("hybrid.inline.max.bytes", DEFAULT_INLINE_MAX_BYTES),
+                config.getSize("hybrid.fragment.max.bytes", DEFAULT_FRAGMENT_MAX_BYTES));
+    }
+
+    public Route route(int bytes)
+    {
+        if (bytes <= this.inlineMaxBytes)
+        {
+            return Route.inline;
+        }
+        return bytes <= this.fragmentMaxBytes ? Route.fragment : Route.s3;
+    }
+
+    /**
+     * @return the number of inline fragments a payload of the given size is split into
+     */
+    public int fragmentsOf(int bytes)
+    {
+        return (bytes + this.inlineMaxBytes - 1) / this.inlineMaxBytes;
+    }
+
+    public int getInlineMaxBytes()
+    {
+        return inlineMaxBytes;
+    }
+
+    public long getFragmentMaxBytes()
+    {
+        return fragmentMaxBytes;
+    }
+}
@@ -0,0 +1,231 @@
+package io.pixelsdb.ccb.network.sqs;
+
+import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
+import io.pixelsdb.pixels.common.physical.PhysicalReader;
+import io.pixelsdb.pixels.common.physical.PhysicalReaderUtil;
+import io.pixelsdb.pixels.common.physical.Storage;
+import io.pixelsdb.pixels.common.physical.StorageFactory;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives the payloads sent by {@link HybridSender}. Pollers long poll the queue and buffer the inline
+ * payloads, reassemble the fragmented ones, and hand the S3 paths to the readers, so the payloads are
+ * received in the order they become complete. Each message is deleted once its content is buffered.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class HybridReceiver implements Receiver
+{
+    private final Storage s3 = StorageFactory.Instance().getStorage(Storage.Scheme.s3);
+    private final SqsClient sqsClient;
+    private volatile boolean closed = false;
+    private final BlockingQueue<ByteBuffer> contentQueue = new LinkedBlockingQueue<>();
+    private final FragmentAssembler assembler = new FragmentAssembler();
+    private final ExecutorService pollers = TransportExecutors.Instance().newUnboundedExecutor();
+    private final ExecutorService readers = TransportExecutors.Instance().newExecutor(8);
+    /**
+     * Runs the async receives waiting for the pollers, they are interrupted when the receiver is closed.
+     */
+    private final ExecutorService waiters = TransportExecutors.Instance().newUnboundedExecutor();
+    private final SqsBatcher batcher;
+
+    public HybridReceiver(String queueUrl) throws IOException
+    {
+        this(queueUrl, BatchPolicy.unbatched());
+    }
+
+    /**
+     * @param batchPolicy the policy of batching the deletes of the received messages
+     */
+    public HybridReceiver(String queueUrl, BatchPolicy batchPolicy) throws IOException
+    {
+        this.sqsClient = SqsClient.create();
+        this.batcher = new SqsBatcher(this.sqsClient, queueUrl, batchPolicy, 2);
+        for (int i = 0; i < 8; ++i)
+        {
+            this.pollers.submit(() -> {
+                while (!this.closed)
+                {
+                    ReceiveMessageRequest request = ReceiveMessageRequest.builder()
+                            .messageAttributeNames("content")
+                            .queueUrl(queueUrl).maxNumberOfMessages(10).waitTimeSeconds(5).build();
+                    long start = System.nanoTime();
+                    ReceiveMessageResponse response = this.sqsClient.receiveMessage(request);
+                    if (response.hasMessages())
+                    {
+                        LatencyMetrics.Instance().record(Phase.sqs_receive, start);
+                        for (Message message : response.messages())
+                        {
+                            try
+                            {
+                                dispatch(message);
+                            }
+                            catch (IOException | RuntimeException e)
+                            {
+                                FailureMetrics.Instance().record(e);
+                            }
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    private void dispatch(Message message) throws IOException
+    {
+        String[] fields = message.body().split(" ");
+        switch (fields[0])
+        {
+            case "inline":
+                this.contentQueue.add(content(message));
+                this.batcher.delete(message.receiptHandle());
+                break;
+            case "fragment":
+                ByteBuffer payload = this.assembler.add(fields[1], Integer.parseInt(fields[2]),
+                        Integer.parseInt(fields[3]), Integer.parseInt(fields[4]), content(message));
+                if (payload != null)
+                {
+                    this.contentQueue.add(payload);
+                }
+                this.batcher.delete(message.receiptHandle());
+                break;
+            case "s3":
+                this.readers.submit(() -> {
+                    try
+                    {
+                        this.contentQueue.add(read(fields[1]));
+                        this.batcher.delete(message.receiptHandle());
+                    }
+                    catch (IOException e)
+                    {
+                        FailureMetrics.Instance().record(e);
+                    }
+                });
+                break;
+            default:
+                throw new IOException("unknown message: " + message.body());
+        }
+    }
+
+    private static ByteBuffer content(Message message)
+    {
+        return message.messageAttributes().get("content").binaryValue().asByteBuffer();
+    }
+
+    private ByteBuffer read(String path) throws IOException
+    {
+        long start = System.nanoTime();
+        try (PhysicalReader reader = PhysicalReaderUtil.newPhysicalReader(this.s3, path))
+        {
+            ByteBuffer buffer = BufferPool.Instance().acquire((int) reader.getFileLength());
+            Buffers.readFully(reader, buffer);
+            LatencyMetrics.Instance().record(Phase.s3_get, start);
+            return buffer.flip();
+        }
+    }
+
+    @Override
+    public ByteBuffer receive(int bytes) throws IOException
+    {
+        try
+        {
+            return this.contentQueue.take();
+        }
+        catch (InterruptedException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Complete immediately if a payload is already buffered, otherwise wait for the pollers.
+     */
+    @Override
+    public CompletableFuture<ByteBuffer> receiveAsync(int bytes)
+    {
+        ByteBuffer buffer = this.contentQueue.poll();
+        if (buffer != null)
+        {
+            return CompletableFuture.completedFuture(buffer);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return this.contentQueue.take();
+            }
+            catch (InterruptedException e)
+            {
+                throw new CompletionException(e);
+            }
+        }, this.waiters);
+    }
+
+    /**
+     * The payload is copied into dst, the buffer it was received in is returned to the buffer pool.
+     */
+    @Override
+    public int receive(ByteBuffer dst) throws IOException
+    {
+        ByteBuffer buffer = receive(dst.remaining());
+        try
+        {
+            return Buffers.copy(buffer, dst);
+        }
+        finally
+        {
+            BufferPool.Instance().release(buffer);
+        }
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.closed = true;
+        // no payload is buffered after the pollers stop, so the pending async receives would never complete
+        this.waiters.shutdownNow();
+        this.pollers.shutdown();
+        this.readers.shutdown();
+        while (true)
+        {
+            try
+            {
+                if (this.waiters.awaitTermination(1, TimeUnit.SECONDS) &&
+                        this.pollers.awaitTermination(1, TimeUnit.SECONDS) &&
+                        this.readers.awaitTermination(1, TimeUnit.SECONDS))
+                {
+                    break;
+                }
+            } catch (InterruptedException e)
+            {
+                e.printStackTrace();
+            }
+        }
+        this.batcher.close();
+        this.sqsClient.close();
+    }
+}
@@ -0,0 +1,179 @@
+package io.pixelsdb.ccb.network.sqs;
+
+import io.pixelsdb.ccb.network.Sender;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+import io.pixelsdb.ccb.network.flow.InFlightLimiter;
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
+import io.pixelsdb.pixels.common.physical.PhysicalWriter;
+import io.pixelsdb.pixels.common.physical.PhysicalWriterUtil;
+import io.pixelsdb.pixels.common.physical.Storage;
+import io.pixelsdb.pixels.common.physical.StorageFactory;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends each payload by the route that {@link HybridPolicy} chooses for its size. The message body tells
+ * {@link HybridReceiver} how to get the payload:
+ * <ul>
+ *     <li>inline: the payload is the content attribute;</li>
+ *     <li>fragment payloadId offset count total: the content attribute is a fragment of the payload;</li>
+ *     <li>s3 path: the payload is the object at path.</li>
+ * </ul>
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class HybridSender implements Sender
+{
+    private final Storage s3;
+    private final SqsClient sqsClient;
+    private final String s3Prefix;
+    private final String senderId = UUID.randomUUID().toString();
+    private boolean closed = false;
+    private final AtomicInteger contentId = new AtomicInteger(0);
+    private final ExecutorService executor = TransportExecutors.Instance().newExecutor(8);
+    private final HybridPolicy hybridPolicy;
+    private final InFlightLimiter inFlightLimiter;
+    private final SqsBatcher batcher;
+
+    public HybridSender(String s3Prefix, String queueUrl) throws IOException
+    {
+        this(s3Prefix, queueUrl, HybridPolicy.defaults(), InFlightLimiter.defaults(), BatchPolicy.unbatched());
+    }
+
+    public HybridSender(String s3Prefix, String queueUrl, HybridPolicy hybridPolicy,
+                        InFlightLimiter inFlightLimiter, BatchPolicy batchPolicy) throws IOException
+    {
+        if (!s3Prefix.endsWith("/"))
+        {
+            s3Prefix += "/";
+        }
+        this.s3Prefix = s3Prefix;
+        this.hybridPolicy = hybridPolicy;
+        this.inFlightLimiter = inFlightLimiter;
+        this.s3 = StorageFactory.Instance().getStorage(Storage.Scheme.s3);
+        this.sqsClient = SqsClient.create();
+        this.batcher = new SqsBatcher(this.sqsClient, queueUrl, batchPolicy, 8);
+    }
+
+    @Override
+    public void send(ByteBuffer buffer) throws IOException
+    {
+        ByteBuffer payload = buffer.slice();
+        int bytes = payload.remaining();
+        this.inFlightLimiter.acquire(bytes);
+        long start = System.nanoTime();
+        HybridPolicy.Route route = this.hybridPolicy.route(bytes);
+        CompletableFuture<Void> sent;
+        switch (route)
+        {
+            case inline:
+                sent = this.batcher.send("inline", content(payload), bytes);
+                break;
+            case fragment:
+                sent = sendFragments(payload);
+                break;
+            default:
+                sent = putAndSend(payload);
+        }
+        sent.whenComplete((res, err) -> {
+            if (err != null)
+            {
+                FailureMetrics.Instance().record(err);
+            }
+            else if (route != HybridPolicy.Route.s3)
+            {
+                LatencyMetrics.Instance().record(Phase.sqs_send, start);
+            }
+            this.inFlightLimiter.release(bytes, System.nanoTime() - start);
+        });
+    }
+
+    private CompletableFuture<Void> sendFragments(ByteBuffer payload)
+    {
+        int bytes = payload.remaining();
+        int count = this.hybridPolicy.fragmentsOf(bytes);
+        int fragmentSize = this.hybridPolicy.getInlineMaxBytes();
+        String payloadId = this.senderId + "-" + this.contentId.getAndIncrement();
+        CompletableFuture<?>[] fragments = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; ++i)
+        {
+            int offset = i * fragmentSize;
+            int length = Math.min(fragmentSize, bytes - offset);
+            ByteBuffer fragment = payload.duplicate();
+            fragment.limit(offset + length).position(offset);
+            String body = "fragment " + payloadId + " " + offset + " " + count + " " + bytes;
+            fragments[i] = this.batcher.send(body, content(fragment.slice()), length);
+        }
+        return CompletableFuture.allOf(fragments);
+    }
+
+    private CompletableFuture<Void> putAndSend(ByteBuffer payload)
+    {
+        String path = Storage.Scheme.s3 + "://" + this.s3Prefix + this.contentId.getAndIncrement();
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try (PhysicalWriter writer = PhysicalWriterUtil.newPhysicalWriter(this.s3, path, true))
+            {
+                Buffers.append(writer, payload);
+            }
+            catch (IOException e)
+            {
+                throw new CompletionException(e);
+            }
+            LatencyMetrics.Instance().record(Phase.s3_put, start);
+        }, this.executor).thenCompose(res -> {
+            long sqsStart = System.nanoTime();
+            return this.batcher.send("s3 " + path, null, path.length()).thenRun(() ->
+                    LatencyMetrics.Instance().record(Phase.sqs_send, sqsStart));
+        });
+    }
+
+    private static Map<String, MessageAttributeValue> content(ByteBuffer payload)
+    {
+        return Map.of("content", MessageAttributeValue.builder()
+                .binaryValue(SdkBytes.fromByteBufferUnsafe(payload)).dataType("Binary").build());
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.executor.shutdown();
+        while (true)
+        {
+            try
+            {
+                if (this.executor.awaitTermination(1, TimeUnit.SECONDS))
+                {
+                    break;
+                }
+            } catch (InterruptedException e)
+            {
+                e.printStackTrace();
+            }
+        }
+        this.batcher.close();
+        this.sqsClient.close();
+        this.closed = true;
+    }
+}
@@ -0,0 +1,65 @@
+package io.pixelsdb.ccb.network.sqs;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+/**
+ * Whether the claim-check transports (s3qs and sqs) deliver the payloads of a sender in the order they were
+ * sent. If enabled, each sender and receiver of the same index use a queue of their own, the sender stamps
+ * each message with its sequence number, and the receiver fetches the payloads in parallel, out of order,
+ * but only those whose sequence numbers are within window of the next one to deliver, so up to window
+ * payloads are held in memory. The polls and the fetches are done as configured by the {@link PrefetchPolicy},
+ * whether prefetching is enabled or not. Ordering does not support packing, as a packed object is sent when
+ * it is full, not in the order of the payloads it holds.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class OrderPolicy
+{
+    public static final int DEFAULT_WINDOW = 32;
+    /**
+     * The message attribute of the sequence number stamped by {@link SqsSender}, s3qs senders stamp it as the
+     * last component of the object key.
+     */
+    public static final String SEQUENCE_ATTRIBUTE = "sequence";
+
+    private final boolean enabled;
+    private final int window;
+
+    public OrderPolicy(boolean enabled, int window)
+    {
+        if (window < 1)
+        {
+            throw new IllegalArgumentException("the reorder window must be positive");
+        }
+        this.enabled = enabled;
+        this.window = window;
+    }
+
+    /**
+     * @return the policy that delivers the payloads in the order they are received from the queue
+     */
+    public static OrderPolicy disabled()
+    {
+        return new OrderPolicy(false, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Create a policy from the order.* settings.
+     */
+    public static OrderPolicy from(BenchmarkConfig config)
+    {
+        return new OrderPolicy(config.getBoolean("order.enabled", false),
+                config.getInt("order.window", DEFAULT_WINDOW));
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public int getWindow()
+    {
+        return window;
+    }
+}
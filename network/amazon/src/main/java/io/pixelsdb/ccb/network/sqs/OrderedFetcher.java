@@ -0,0 +1,309 @@
+package io.pixelsdb.ccb.network.sqs;
+
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+import io.pixelsdb.ccb.network.flow.ReorderBuffer;
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+import io.pixelsdb.ccb.network.metrics.TimelineMetrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * The ordered read-ahead pipeline of a claim-check receiver, configured by an {@link OrderPolicy} and a
+ * {@link PrefetchPolicy}. The pollers put the polled messages into a map of waiting messages sorted by their
+ * sequence numbers, the fetchers fetch the waiting message of the lowest sequence number as long as it is
+ * within the window of the next sequence number to deliver, and put its payload into a {@link ReorderBuffer},
+ * which {@link #take()} takes the payloads from in sequence.
+ * <p/>
+ * The window bounds the payloads in memory by the sequence numbers rather than by the count, so the next
+ * payload can always be fetched once its message is polled. The waiting messages are only referenced, so the
+ * pollers keep polling beyond pendingMessages of them while none of them is within the window. A message whose
+ * sequence number is delivered, or is being fetched, is a redelivery and is discarded, and a redelivered message
+ * that is still waiting replaces the earlier delivery, whose receipt is no longer valid. As a payload can not be
+ * skipped, a fetch that fails fails the pipeline.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class OrderedFetcher<M> implements Closeable
+{
+    private static final long CHECK_CLOSED_MS = 100;
+
+    private final Prefetcher.Poller<M> poller;
+    private final Prefetcher.Fetcher<M> fetcher;
+    private final ToLongFunction<M> sequencer;
+    private final Consumer<M> discard;
+    private final int window;
+    private final int pendingMessages;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = this.lock.newCondition();
+    private final TreeMap<Long, M> waiting = new TreeMap<>();
+    private final Set<Long> fetching = new HashSet<>();
+    private final ReorderBuffer<ByteBuffer> reorderBuffer = new ReorderBuffer<>();
+    private final ExecutorService pollers = TransportExecutors.Instance().newUnboundedExecutor();
+    private final ExecutorService fetchers;
+    // a single platform thread, as the takes must run in the order they are submitted in either execution mode
+    private final ExecutorService taker = Executors.newSingleThreadExecutor();
+    private long delivered = 0;
+    private volatile boolean closed = false;
+
+    /**
+     * @param sequencer gives the sequence number of a message
+     * @param discard discards a redelivered message, e.g., by deleting it from the queue
+     */
+    public OrderedFetcher(OrderPolicy orderPolicy, PrefetchPolicy prefetchPolicy, Prefetcher.Poller<M> poller,
+                          ToLongFunction<M> sequencer, Prefetcher.Fetcher<M> fetcher, Consumer<M> discard)
+    {
+        this.poller = poller;
+        this.fetcher = fetcher;
+        this.sequencer = sequencer;
+        this.discard = discard;
+        this.window = orderPolicy.getWindow();
+        this.pendingMessages = prefetchPolicy.getPendingMessages();
+        this.fetchers = TransportExecutors.Instance().newExecutor(prefetchPolicy.getFetches());
+        for (int i = 0; i < prefetchPolicy.getPollers(); ++i)
+        {
+            this.pollers.submit(this::poll);
+        }
+        for (int i = 0; i < prefetchPolicy.getFetches(); ++i)
+        {
+            this.fetchers.submit(this::fetch);
+        }
+    }
+
+    private void poll()
+    {
+        while (!this.closed)
+        {
+            try
+            {
+                this.lock.lock();
+                try
+                {
+                    while (this.waiting.size() >= this.pendingMessages && isFetchable() && !this.closed)
+                    {
+                        this.changed.await(CHECK_CLOSED_MS, TimeUnit.MILLISECONDS);
+                    }
+                }
+                finally
+                {
+                    this.lock.unlock();
+                }
+                List<M> messages = this.poller.poll(PrefetchPolicy.MAX_POLL_MESSAGES);
+                for (M message : messages)
+                {
+                    add(message);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+            catch (IOException | RuntimeException e)
+            {
+                if (this.closed)
+                {
+                    // the poll was interrupted by close
+                    return;
+                }
+                FailureMetrics.Instance().record(e);
+            }
+        }
+    }
+
+    private void add(M message)
+    {
+        long sequence = this.sequencer.applyAsLong(message);
+        M redelivered = null;
+        this.lock.lock();
+        try
+        {
+            if (sequence < this.delivered || this.fetching.contains(sequence))
+            {
+                redelivered = message;
+            }
+            else
+            {
+                this.waiting.put(sequence, message);
+                this.changed.signalAll();
+            }
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+        if (redelivered != null)
+        {
+            this.discard.accept(redelivered);
+        }
+    }
+
+    private boolean isFetchable()
+    {
+        return !this.waiting.isEmpty() && this.waiting.firstKey() < this.delivered + this.window;
+    }
+
+    private void fetch()
+    {
+        try
+        {
+            while (!this.closed)
+            {
+                Map.Entry<Long, M> next;
+                this.lock.lock();
+                try
+                {
+                    while (!isFetchable())
+                    {
+                        if (this.closed)
+                        {
+                            return;
+                        }
+                        this.changed.await(CHECK_CLOSED_MS, TimeUnit.MILLISECONDS);
+                    }
+                    next = this.waiting.pollFirstEntry();
+                    this.fetching.add(next.getKey());
+                    // a poller may be waiting for the window to move past the waiting messages
+                    this.changed.signalAll();
+                }
+                finally
+                {
+                    this.lock.unlock();
+                }
+                ByteBuffer payload;
+                try
+                {
+                    payload = this.fetcher.fetch(next.getValue());
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    TimelineMetrics.Instance().recordError();
+                    this.reorderBuffer.fail(new IOException("failed to fetch payload " + next.getKey(), e));
+                    return;
+                }
+                this.reorderBuffer.put(next.getKey(), payload);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            // closed
+        }
+    }
+
+    /**
+     * @return the payload of the next sequence number, waiting for it to be fetched
+     * @throws IOException if the payload failed to be fetched
+     */
+    public ByteBuffer take() throws IOException
+    {
+        ByteBuffer payload = this.reorderBuffer.take();
+        this.lock.lock();
+        try
+        {
+            this.fetching.remove(this.delivered++);
+            this.changed.signalAll();
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+        return payload;
+    }
+
+    /**
+     * The takes are run one by one in the order they are called, so the futures complete in sequence.
+     */
+    public CompletableFuture<ByteBuffer> takeAsync()
+    {
+        return CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return take();
+            }
+            catch (IOException e)
+            {
+                throw new CompletionException(e);
+            }
+        }, this.taker);
+    }
+
+    /**
+     * @return the sequence number of the next payload to deliver
+     */
+    public long getDelivered()
+    {
+        this.lock.lock();
+        try
+        {
+            return this.delivered;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of payloads fetched or being fetched but not delivered
+     */
+    public int getFetching()
+    {
+        this.lock.lock();
+        try
+        {
+            return this.fetching.size();
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stop the pollers, the fetchers, and the pending takes, and release the fetched payloads to the buffer pool.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        this.closed = true;
+        this.pollers.shutdownNow();
+        this.fetchers.shutdown();
+        this.reorderBuffer.fail(new IOException("the ordered fetcher is closed"));
+        this.taker.shutdown();
+        while (true)
+        {
+            try
+            {
+                if (this.pollers.awaitTermination(1, TimeUnit.SECONDS) &&
+                        this.fetchers.awaitTermination(1, TimeUnit.SECONDS) &&
+                        this.taker.awaitTermination(1, TimeUnit.SECONDS))
+                {
+                    break;
+                }
+            } catch (InterruptedException e)
+            {
+                e.printStackTrace();
+            }
+        }
+        for (ByteBuffer payload : this.reorderBuffer.drain())
+        {
+            BufferPool.Instance().release(payload);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.pixelsdb.ccb.network.sqs;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+/**
+ * Whether and how {@link SqsReceiver} prefetches the payloads ahead of the receive calls: pollers long poll
+ * the queue (waiting up to waitSeconds per request) into a queue of at most pendingMessages messages, and
+ * up to fetches S3 GETs read the referenced objects into a queue of at most bufferedPayloads payloads. So up
+ * to fetches + bufferedPayloads payloads are held in memory.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class PrefetchPolicy
+{
+    /**
+     * The maximum number of messages received by one request.
+     */
+    public static final int MAX_POLL_MESSAGES = 10;
+    public static final int MAX_WAIT_SECONDS = 20;
+
+    private final boolean enabled;
+    private final int pollers;
+    private final int pendingMessages;
+    private final int fetches;
+    private final int bufferedPayloads;
+    private final int waitSeconds;
+
+    public PrefetchPolicy(boolean enabled, int pollers, int pendingMessages, int fetches, int bufferedPayloads,
+                          int waitSeconds)
+    {
+        if (pollers < 1 || pendingMessages < 1 || fetches < 1 || bufferedPayloads < 1)
+        {
+            throw new IllegalArgumentException("the pollers, pending messages, fetches, and buffered payloads " +
+                    "must be positive");
+        }
+        if (waitSeconds < 0 || waitSeconds > MAX_WAIT_SECONDS)
+        {
+            throw new IllegalArgumentException("the wait time must be in [0, 20] seconds");
+        }
+        this.enabled = enabled;
+        this.pollers = pollers;
+        this.pendingMessages = pendingMessages;
+        this.fetches = fetches;
+        this.bufferedPayloads = bufferedPayloads;
+        this.waitSeconds = waitSeconds;
+    }
+
+    /**
+     * @return the policy that polls the queue and reads an object only when a payload is received
+     */
+    public static PrefetchPolicy disabled()
+    {
+        return new PrefetchPolicy(false, 2, 64, 16, 16, 5);
+    }
+
+    /**
+     * Create a policy from the prefetch.* settings.
+     */
+    public static PrefetchPolicy from(BenchmarkConfig config)
+    {
+        return new PrefetchPolicy(config.getBoolean("prefetch.enabled", false),
+                config.getInt("prefetch.pollers", 2), config.getInt("prefetch.pending.messages", 64),
+                config.getInt("prefetch.fetches", 16), config.getInt("prefetch.buffered.payloads", 16),
+                config.getInt("prefetch.wait.seconds", 5));
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public int getPollers()
+    {
+        return pollers;
+    }
+
+    public int getPendingMessages()
+    {
+        return pendingMessages;
+    }
+
+    public int getFetches()
+    {
+        return fetches;
+    }
+
+    public int getBufferedPayloads()
+    {
+        return bufferedPayloads;
+    }
+
+    public int getWaitSeconds()
+    {
+        return waitSeconds;
+    }
+}
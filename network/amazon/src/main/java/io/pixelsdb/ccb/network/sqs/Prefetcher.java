@@ -0,0 +1,233 @@
+package io.pixelsdb.ccb.network.sqs;
+
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The read-ahead pipeline of a claim-check receiver, configured by a {@link PrefetchPolicy}. The pollers keep
+ * the bounded queue of pending messages full, each polling for as many messages as there are free slots (up
+ * to 10 per request), and the fetchers keep up to fetches payloads in flight, each taking a pending message,
+ * fetching its payload, and putting it into the bounded queue of buffered payloads that {@link #take()} takes
+ * from. A payload that fails to be fetched is reported and skipped, its message is left to be redelivered.
+ * <p/>
+ * The buffered payloads are from the buffer pool, the receiver of a payload releases it once consumed, and
+ * the payloads still buffered when the prefetcher is closed are released by it.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class Prefetcher<M> implements Closeable
+{
+    private static final long CHECK_CLOSED_MS = 100;
+
+    private final Poller<M> poller;
+    private final Fetcher<M> fetcher;
+    private final Semaphore pendingSlots;
+    private final BlockingQueue<M> pending = new LinkedBlockingQueue<>();
+    private final BlockingQueue<ByteBuffer> buffered;
+    private final ExecutorService pollers = TransportExecutors.Instance().newUnboundedExecutor();
+    private final ExecutorService fetchers;
+    private volatile boolean closed = false;
+
+    public Prefetcher(PrefetchPolicy policy, Poller<M> poller, Fetcher<M> fetcher)
+    {
+        this.poller = poller;
+        this.fetcher = fetcher;
+        this.pendingSlots = new Semaphore(policy.getPendingMessages());
+        this.buffered = new LinkedBlockingQueue<>(policy.getBufferedPayloads());
+        this.fetchers = TransportExecutors.Instance().newExecutor(policy.getFetches());
+        for (int i = 0; i < policy.getPollers(); ++i)
+        {
+            this.pollers.submit(this::poll);
+        }
+        for (int i = 0; i < policy.getFetches(); ++i)
+        {
+            this.fetchers.submit(this::fetch);
+        }
+    }
+
+    private void poll()
+    {
+        while (!this.closed)
+        {
+            int slots = 0;
+            try
+            {
+                if (!this.pendingSlots.tryAcquire(CHECK_CLOSED_MS, TimeUnit.MILLISECONDS))
+                {
+                    continue;
+                }
+                slots = 1;
+                while (slots < PrefetchPolicy.MAX_POLL_MESSAGES && this.pendingSlots.tryAcquire())
+                {
+                    slots++;
+                }
+                List<M> messages = this.poller.poll(slots);
+                this.pending.addAll(messages);
+                slots -= messages.size();
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+            catch (IOException | RuntimeException e)
+            {
+                if (this.closed)
+                {
+                    // the poll was interrupted by close
+                    return;
+                }
+                FailureMetrics.Instance().record(e);
+            }
+            finally
+            {
+                this.pendingSlots.release(slots);
+            }
+        }
+    }
+
+    private void fetch()
+    {
+        try
+        {
+            while (!this.closed)
+            {
+                M message = this.pending.poll(CHECK_CLOSED_MS, TimeUnit.MILLISECONDS);
+                if (message == null)
+                {
+                    continue;
+                }
+                this.pendingSlots.release();
+                ByteBuffer payload;
+                try
+                {
+                    payload = this.fetcher.fetch(message);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    FailureMetrics.Instance().record(e);
+                    continue;
+                }
+                while (!this.buffered.offer(payload, CHECK_CLOSED_MS, TimeUnit.MILLISECONDS))
+                {
+                    if (this.closed)
+                    {
+                        BufferPool.Instance().release(payload);
+                        return;
+                    }
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            // closed
+        }
+    }
+
+    /**
+     * @return the next buffered payload, waiting for one to be fetched if none is buffered
+     */
+    public ByteBuffer take() throws IOException
+    {
+        try
+        {
+            return this.buffered.take();
+        }
+        catch (InterruptedException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Complete immediately if a payload is already buffered, otherwise wait for the fetchers.
+     */
+    public CompletableFuture<ByteBuffer> takeAsync()
+    {
+        ByteBuffer payload = this.buffered.poll();
+        if (payload != null)
+        {
+            return CompletableFuture.completedFuture(payload);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return this.buffered.take();
+            }
+            catch (InterruptedException e)
+            {
+                throw new CompletionException(e);
+            }
+        }, this.pollers);
+    }
+
+    public int getPending()
+    {
+        return pending.size();
+    }
+
+    public int getBuffered()
+    {
+        return buffered.size();
+    }
+
+    /**
+     * Stop the pollers and the fetchers, the polls in progress are interrupted and the fetches in progress
+     * are waited for, and the payloads still buffered are released to the buffer pool.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        this.closed = true;
+        this.pollers.shutdownNow();
+        this.fetchers.shutdown();
+        while (true)
+        {
+            try
+            {
+                if (this.pollers.awaitTermination(1, TimeUnit.SECONDS) &&
+                        this.fetchers.awaitTermination(1, TimeUnit.SECONDS))
+                {
+                    break;
+                }
+            } catch (InterruptedException e)
+            {
+                e.printStackTrace();
+            }
+        }
+        ByteBuffer payload;
+        while ((payload = this.buffered.poll()) != null)
+        {
+            BufferPool.Instance().release(payload);
+        }
+    }
+
+    public interface Poller<M>
+    {
+        /**
+         * @return up to maxMessages messages, possibly none if none arrived within the wait time
+         */
+        List<M> poll(int maxMessages) throws IOException;
+    }
+
+    public interface Fetcher<M>
+    {
+        /**
+         * @return the payload referenced by the message, in a buffer from the buffer pool
+         */
+        ByteBuffer fetch(M message) throws IOException;
+    }
+}
@@ -1,6 +1,20 @@
 package io.pixelsdb.ccb.network.sqs;
 
+import io.pixelsdb.ccb.network.Futures;
 import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
+import io.pixelsdb.ccb.network.pack.PackCursor;
+import io.pixelsdb.ccb.network.pack.PackPolicy;
+import io.pixelsdb.ccb.network.pack.PackedObject;
+import io.pixelsdb.ccb.network.retry.Retrier;
+import io.pixelsdb.ccb.network.retry.RetryPolicy;
+import io.pixelsdb.ccb.network.stream.ReaderChannel;
+import io.pixelsdb.ccb.network.transfer.RangedDownloader;
+import io.pixelsdb.ccb.network.transfer.TransferPolicy;
 import io.pixelsdb.pixels.common.physical.PhysicalReader;
 import io.pixelsdb.pixels.common.physical.Storage;
 import io.pixelsdb.pixels.common.physical.StorageFactory;
@@ -9,11 +23,19 @@ import io.pixelsdb.pixels.storage.s3qs.S3Queue;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * Receives the payloads sent by {@link S3qsSender}. The failed polls and reads are retried by a {@link Retrier},
+ * a read is retried on the polled reader from the start of the object, as the message is consumed by the poll.
+ * If ordering is enabled, an {@link OrderedFetcher} reads the polled objects in parallel and delivers the
+ * payloads in the order of their sequence numbers, which are the last components of the object keys.
+ *
  * @author hank
  * @create 2025-09-28
  */
@@ -21,37 +43,223 @@ public class S3qsReceiver implements Receiver
 {
     private boolean closed = false;
     private final S3Queue queue;
-    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final ExecutorService executor = TransportExecutors.Instance().newExecutor(8);
+    private final PackCursor packCursor;
+    private final RangedDownloader downloader;
+    private final Retrier retrier;
+    private final OrderedFetcher<PhysicalReader> orderedFetcher;
+    private final int chunkSize;
 
     public S3qsReceiver(String queueUrl) throws IOException
     {
+        this(queueUrl, PackPolicy.disabled(), TransferPolicy.disabled(), RetryPolicy.disabled(),
+                OrderPolicy.disabled(), PrefetchPolicy.disabled());
+    }
+
+    /**
+     * @param packPolicy whether the queue carries packed objects, and how to read them
+     * @param transferPolicy whether large objects are read by parallel ranged reads
+     * @param retryPolicy the policy of retrying the failed polls and reads
+     * @param orderPolicy whether the payloads are delivered in order
+     * @param prefetchPolicy the pollers, fetches, and pending messages of the ordered delivery
+     */
+    public S3qsReceiver(String queueUrl, PackPolicy packPolicy, TransferPolicy transferPolicy,
+                        RetryPolicy retryPolicy, OrderPolicy orderPolicy, PrefetchPolicy prefetchPolicy)
+            throws IOException
+    {
+        if (orderPolicy.isEnabled() && packPolicy.isEnabled())
+        {
+            throw new IllegalArgumentException("ordered delivery does not support packing");
+        }
+        this.downloader = new RangedDownloader(transferPolicy);
+        this.retrier = new Retrier(retryPolicy);
+        this.chunkSize = (int) transferPolicy.getPartSize();
         S3QS s3qs = (S3QS) StorageFactory.Instance().getStorage(Storage.Scheme.s3qs);
         this.queue = s3qs.openQueue(queueUrl);
+        this.packCursor = packPolicy.isEnabled() ? new PackCursor(() -> openPacked(packPolicy.isBulkRead())) : null;
+        this.orderedFetcher = orderPolicy.isEnabled() ? new OrderedFetcher<>(orderPolicy, prefetchPolicy,
+                this::pollReader, S3qsReceiver::sequenceOf, this::fetch, S3qsReceiver::discard) : null;
     }
 
     @Override
     public ByteBuffer receive(int bytes) throws IOException
     {
-        this.executor.submit(() -> {
-            while (true)
+        if (this.orderedFetcher != null)
+        {
+            return this.orderedFetcher.take();
+        }
+        return Futures.join(receiveAsync(bytes));
+    }
+
+    /**
+     * Poll and read the next object in the executor, the payload is read into a buffer from the buffer pool.
+     */
+    @Override
+    public CompletableFuture<ByteBuffer> receiveAsync(int bytes)
+    {
+        if (this.orderedFetcher != null)
+        {
+            return this.orderedFetcher.takeAsync();
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            ByteBuffer buffer = BufferPool.Instance().acquire(bytes);
+            try
             {
-                try (PhysicalReader reader = this.queue.poll(10))
-                {
-                    if (reader == null)
-                    {
-                        System.out.println("reader is null");
-                        continue;
-                    }
-                    reader.readFully(bytes);
-                    break;
-                }
-                catch (IOException e)
+                receive(buffer);
+            }
+            catch (IOException e)
+            {
+                BufferPool.Instance().release(buffer);
+                throw new CompletionException(e);
+            }
+            return buffer.flip();
+        }, this.executor);
+    }
+
+    @Override
+    public int receive(ByteBuffer dst) throws IOException
+    {
+        if (this.packCursor != null)
+        {
+            return this.packCursor.read(dst);
+        }
+        if (this.orderedFetcher != null)
+        {
+            ByteBuffer buffer = this.orderedFetcher.take();
+            try
+            {
+                return Buffers.copy(buffer, dst);
+            }
+            finally
+            {
+                BufferPool.Instance().release(buffer);
+            }
+        }
+        while (true)
+        {
+            long start = System.nanoTime();
+            try (PhysicalReader reader = this.retrier.call(() -> this.queue.poll(10)))
+            {
+                if (reader == null)
                 {
-                    e.printStackTrace();
+                    continue;
                 }
+                LatencyMetrics.Instance().record(Phase.sqs_receive, start);
+                start = System.nanoTime();
+                int position = dst.position();
+                int bytes = this.retrier.call(() -> {
+                    reader.seek(0);
+                    return this.downloader.readFully(reader, dst.position(position));
+                });
+                LatencyMetrics.Instance().record(Phase.s3_get, start);
+                return bytes;
             }
-        });
-        return null;
+        }
+    }
+
+    /**
+     * The polled object is read as the channel is read, in ranges of at least the transfer policy's part size,
+     * and its reader is closed when the channel is closed. A streamed read is not retried, as the bytes already
+     * consumed can not be taken back. If packing or ordering is enabled, the payload is received whole as by
+     * {@link #receive(int)}.
+     */
+    @Override
+    public ReadableByteChannel receiveChannel(int bytes) throws IOException
+    {
+        if (this.packCursor != null || this.orderedFetcher != null)
+        {
+            return Receiver.super.receiveChannel(bytes);
+        }
+        while (true)
+        {
+            long start = System.nanoTime();
+            PhysicalReader reader = this.retrier.call(() -> this.queue.poll(10));
+            if (reader != null)
+            {
+                LatencyMetrics.Instance().record(Phase.sqs_receive, start);
+                long getStart = System.nanoTime();
+                return new ReaderChannel(reader, Math.min(bytes, reader.getFileLength()), this.chunkSize, () -> {
+                    reader.close();
+                    LatencyMetrics.Instance().record(Phase.s3_get, getStart);
+                });
+            }
+        }
+    }
+
+    /**
+     * Poll the queue once for the ordered fetcher.
+     */
+    private List<PhysicalReader> pollReader(int maxMessages) throws IOException
+    {
+        long start = System.nanoTime();
+        PhysicalReader reader = this.retrier.call(() -> this.queue.poll(10));
+        if (reader == null)
+        {
+            return List.of();
+        }
+        LatencyMetrics.Instance().record(Phase.sqs_receive, start);
+        return List.of(reader);
+    }
+
+    /**
+     * Read the polled object into a buffer from the buffer pool and close its reader.
+     */
+    private ByteBuffer fetch(PhysicalReader reader) throws IOException
+    {
+        try (reader)
+        {
+            long start = System.nanoTime();
+            ByteBuffer buffer = BufferPool.Instance().acquire((int) reader.getFileLength());
+            try
+            {
+                this.retrier.run(() -> {
+                    reader.seek(0);
+                    this.downloader.readFully(reader, buffer.clear());
+                });
+            }
+            catch (IOException | RuntimeException e)
+            {
+                BufferPool.Instance().release(buffer);
+                throw e;
+            }
+            LatencyMetrics.Instance().record(Phase.s3_get, start);
+            return buffer.flip();
+        }
+    }
+
+    /**
+     * @return the sequence number of the object, which is the last component of its key
+     */
+    private static long sequenceOf(PhysicalReader reader)
+    {
+        String path = reader.getPath();
+        return Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+    }
+
+    private static void discard(PhysicalReader reader)
+    {
+        try
+        {
+            reader.close();
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    private PackedObject openPacked(boolean bulk) throws IOException
+    {
+        while (true)
+        {
+            long start = System.nanoTime();
+            PhysicalReader reader = this.retrier.call(() -> this.queue.poll(10));
+            if (reader != null)
+            {
+                LatencyMetrics.Instance().record(Phase.sqs_receive, start);
+                return PackedObject.open(reader, bulk);
+            }
+        }
     }
 
     @Override
@@ -63,6 +271,10 @@ public class S3qsReceiver implements Receiver
     @Override
     public void close() throws IOException
     {
+        if (this.orderedFetcher != null)
+        {
+            this.orderedFetcher.close();
+        }
         this.executor.shutdown();
         while (true)
         {
@@ -1,6 +1,17 @@
 package io.pixelsdb.ccb.network.sqs;
 
 import io.pixelsdb.ccb.network.Sender;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+import io.pixelsdb.ccb.network.flow.InFlightLimiter;
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
+import io.pixelsdb.ccb.network.pack.PackPolicy;
+import io.pixelsdb.ccb.network.pack.Packer;
+import io.pixelsdb.ccb.network.retry.Retrier;
+import io.pixelsdb.ccb.network.retry.RetryPolicy;
+import io.pixelsdb.ccb.network.stream.WriterChannel;
 import io.pixelsdb.pixels.common.physical.PhysicalWriter;
 import io.pixelsdb.pixels.common.physical.Storage;
 import io.pixelsdb.pixels.common.physical.StorageFactory;
@@ -8,8 +19,11 @@ import io.pixelsdb.pixels.storage.s3qs.S3QS;
 import io.pixelsdb.pixels.storage.s3qs.S3Queue;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -22,11 +36,26 @@ public class S3qsSender implements Sender
     private final String s3Prefix;
     private final S3Queue queue;
     private final AtomicInteger contentId = new AtomicInteger(0);
-    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final ExecutorService executor = TransportExecutors.Instance().newExecutor(8);
+    private final InFlightLimiter inFlightLimiter;
+    private final Packer packer;
+    private final Retrier retrier;
     private boolean closed = false;
 
     public S3qsSender(String s3Prefix, String queueUrl) throws IOException
     {
+        this(s3Prefix, queueUrl, InFlightLimiter.defaults(), PackPolicy.disabled(), RetryPolicy.disabled());
+    }
+
+    /**
+     * If the pack policy is enabled, the payloads are packed into shared objects, and one message is sent
+     * for each object. The failed offers are retried according to the retry policy.
+     */
+    public S3qsSender(String s3Prefix, String queueUrl, InFlightLimiter inFlightLimiter,
+                      PackPolicy packPolicy, RetryPolicy retryPolicy) throws IOException
+    {
+        this.inFlightLimiter = inFlightLimiter;
+        this.retrier = new Retrier(retryPolicy);
         if (!s3Prefix.endsWith("/"))
         {
             s3Prefix += "/";
@@ -34,21 +63,105 @@ public class S3qsSender implements Sender
         this.s3Prefix = s3Prefix;
         S3QS s3qs = (S3QS) StorageFactory.Instance().getStorage(Storage.Scheme.s3qs);
         this.queue = s3qs.openQueue(queueUrl);
+        this.packer = packPolicy.isEnabled() ? new Packer(packPolicy, this::offerPacked) : null;
     }
 
     @Override
-    public void send(byte[] buffer) throws IOException
+    public void send(ByteBuffer buffer) throws IOException
     {
+        ByteBuffer payload = buffer.slice();
+        int bytes = payload.remaining();
+        if (this.packer != null)
+        {
+            this.inFlightLimiter.acquire(bytes);
+            long submitted = System.nanoTime();
+            this.packer.add(payload).whenComplete((res, err) -> {
+                if (err != null)
+                {
+                    FailureMetrics.Instance().record(err);
+                }
+                this.inFlightLimiter.release(bytes, System.nanoTime() - submitted);
+            });
+            return;
+        }
         int contentId = this.contentId.getAndIncrement();
+        this.inFlightLimiter.acquire(bytes);
+        long submitted = System.nanoTime();
         this.executor.submit(() -> {
-            String path = s3Prefix + contentId;
-            try (PhysicalWriter writer = this.queue.offer(path))
+            try
+            {
+                String path = s3Prefix + contentId;
+                // the s3qs writer puts the object and then enqueues its path when it is closed,
+                // so the queue send is included in the s3_put latency of this transport
+                long start = System.nanoTime();
+                try
+                {
+                    offer(path, payload);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    FailureMetrics.Instance().record(e);
+                }
+                LatencyMetrics.Instance().record(Phase.s3_put, start);
+            }
+            finally
             {
-                writer.append(buffer);
+                this.inFlightLimiter.release(bytes, System.nanoTime() - submitted);
+            }
+        });
+    }
+
+    /**
+     * The payload is written through an s3qs writer, which uploads the object as its buffer fills, and its path
+     * is enqueued when the channel is closed, which blocks until then. A streamed payload is not retried, as it
+     * is not kept. If the pack policy is enabled, the payload is collected and packed as if it were sent by
+     * {@link #send(ByteBuffer)}.
+     */
+    @Override
+    public WritableByteChannel openChannel() throws IOException
+    {
+        if (this.packer != null)
+        {
+            return Sender.super.openChannel();
+        }
+        PhysicalWriter writer = this.queue.offer(s3Prefix + this.contentId.getAndIncrement());
+        long start = System.nanoTime();
+        return new WriterChannel(writer, false, () -> {
+            writer.close();
+            LatencyMetrics.Instance().record(Phase.s3_put, start);
+        });
+    }
+
+    /**
+     * Put and enqueue a packed object, the object is in a heap buffer.
+     */
+    private CompletableFuture<Void> offerPacked(ByteBuffer object)
+    {
+        int contentId = this.contentId.getAndIncrement();
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try
+            {
+                offer(s3Prefix + contentId, object);
             }
             catch (IOException e)
             {
-                e.printStackTrace();
+                throw new CompletionException(e);
+            }
+            LatencyMetrics.Instance().record(Phase.s3_put, start);
+        }, this.executor);
+    }
+
+    /**
+     * Put the object and enqueue its path, a retry puts the same path again, so it overwrites the object of
+     * the failed attempt, though its path may be enqueued twice if the failed attempt was enqueued.
+     */
+    private void offer(String path, ByteBuffer payload) throws IOException
+    {
+        this.retrier.run(() -> {
+            try (PhysicalWriter writer = this.queue.offer(path))
+            {
+                Buffers.append(writer, payload);
             }
         });
     }
@@ -62,6 +175,10 @@ public class S3qsSender implements Sender
     @Override
     public void close() throws IOException
     {
+        if (this.packer != null)
+        {
+            this.packer.close();
+        }
         this.executor.shutdown();
         while (true)
         {
@@ -1,7 +1,15 @@
 package io.pixelsdb.ccb.network.sqs;
 
-import com.google.common.util.concurrent.RateLimiter;
+import io.pixelsdb.ccb.network.Futures;
 import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.flow.RateController;
+import io.pixelsdb.ccb.network.flow.RatePolicy;
+import io.pixelsdb.ccb.network.retry.HedgePolicy;
+import io.pixelsdb.ccb.network.retry.Hedger;
+import io.pixelsdb.ccb.network.retry.Retrier;
+import io.pixelsdb.ccb.network.retry.RetryPolicy;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
 import io.pixelsdb.pixels.common.physical.PhysicalReader;
 import io.pixelsdb.pixels.common.physical.PhysicalReaderUtil;
 import io.pixelsdb.pixels.common.physical.Storage;
@@ -9,15 +17,20 @@ import io.pixelsdb.pixels.common.physical.StorageFactory;
 import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.model.Message;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
-import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Receives the paths sent by {@link SqsAsyncSender} and reads the objects, both asynchronously. The receives
+ * are paced by a {@link RateController}, which sees each receive as one request, timed from the arrival of
+ * the message until the object is read. The polls and the reads are retried by a {@link Retrier}, and the
+ * reads can be hedged by a {@link Hedger}.
+ *
  * @author hank
  * @create 2025-09-20
  */
@@ -27,49 +40,115 @@ public class SqsAsyncReceiver implements Receiver
     private final SqsAsyncClient sqsClient;
     private final String queueUrl;
     private boolean closed = false;
-    private final Queue<CompletableFuture<ReceiveMessageResponse>> sqsResponses = new ConcurrentLinkedQueue<>();
-    private final Queue<CompletableFuture<Void>> s3Responses = new ConcurrentLinkedQueue<>();
-    private final RateLimiter rateLimiter = RateLimiter.create(1500d * 1024d * 1024d);
+    private final Set<CompletableFuture<ByteBuffer>> pending = ConcurrentHashMap.newKeySet();
+    private final RateController rateController;
+    private final Retrier retrier;
+    private final Hedger hedger;
+    private final SqsBatcher batcher;
 
     public SqsAsyncReceiver(String queueUrl) throws IOException
+    {
+        this(queueUrl, BatchPolicy.unbatched(), RatePolicy.fixed(RatePolicy.DEFAULT_RECEIVE_RATE),
+                RetryPolicy.disabled(), HedgePolicy.disabled());
+    }
+
+    /**
+     * @param batchPolicy the policy of batching the deletes of the received messages
+     * @param ratePolicy the policy of pacing the receives
+     * @param retryPolicy the policy of retrying the failed polls and reads
+     * @param hedgePolicy whether the slow reads are hedged
+     */
+    public SqsAsyncReceiver(String queueUrl, BatchPolicy batchPolicy, RatePolicy ratePolicy,
+                            RetryPolicy retryPolicy, HedgePolicy hedgePolicy) throws IOException
     {
         this.queueUrl = queueUrl;
+        this.rateController = new RateController(ratePolicy);
+        this.retrier = new Retrier(retryPolicy, this.rateController::onRetry);
+        this.hedger = new Hedger(hedgePolicy);
         this.sqsClient = SqsAsyncClient.create();
+        this.batcher = new SqsBatcher(this.sqsClient, queueUrl, batchPolicy);
     }
 
     @Override
     public ByteBuffer receive(int bytes) throws IOException
     {
-        this.rateLimiter.acquire(bytes);
+        return Futures.join(receiveAsync(bytes));
+    }
+
+    @Override
+    public CompletableFuture<ByteBuffer> receiveAsync(int bytes)
+    {
+        try
+        {
+            this.rateController.acquire(bytes);
+        }
+        catch (IOException e)
+        {
+            return CompletableFuture.failedFuture(e);
+        }
+        // the long poll waits for the senders, so only the read from the arrival of the message is timed
+        AtomicLong arrival = new AtomicLong(System.nanoTime());
+        CompletableFuture<ByteBuffer> future = this.retrier.callAsync(this::receiveMessage).thenCompose(message -> {
+            arrival.set(System.nanoTime());
+            return this.retrier.callAsync(() -> this.hedger.call(() -> read(message.body(), bytes), null))
+                    .thenApply(buffer -> {
+                        this.batcher.delete(message.receiptHandle());
+                        return buffer;
+                    });
+        });
+        this.pending.add(future);
+        future.whenComplete((buffer, err) -> {
+            this.pending.remove(future);
+            this.rateController.release(System.nanoTime() - arrival.get(), err);
+        });
+        return future;
+    }
+
+    /**
+     * @return the future of the next message, long polling again if the queue is empty
+     */
+    private CompletableFuture<Message> receiveMessage()
+    {
         ReceiveMessageRequest request = ReceiveMessageRequest.builder()
             .queueUrl(queueUrl).maxNumberOfMessages(1).waitTimeSeconds(20).build();
-        this.sqsResponses.add(this.sqsClient.receiveMessage(request).whenComplete((response, err) -> {
-            if (err != null)
+        long start = System.nanoTime();
+        return this.sqsClient.receiveMessage(request).thenCompose(response -> {
+            if (!response.hasMessages())
             {
-                err.printStackTrace();
-                return;
+                return receiveMessage();
             }
-            if (response.hasMessages())
-            {
-                for (Message message : response.messages())
+            LatencyMetrics.Instance().record(Phase.sqs_receive, start);
+            return CompletableFuture.completedFuture(response.messages().get(0));
+        });
+    }
+
+    private CompletableFuture<ByteBuffer> read(String path, int bytes)
+    {
+        try
+        {
+            PhysicalReader reader = PhysicalReaderUtil.newPhysicalReader(this.s3, path);
+            long start = System.nanoTime();
+            // the object may be shorter than the message size, e.g., if the payload is compressed
+            int length = (int) Math.min(bytes, reader.getFileLength());
+            return reader.readAsync(0, length).whenComplete((buffer, err) -> {
+                if (err == null)
                 {
-                    String path = message.body();
-                    try (PhysicalReader reader = PhysicalReaderUtil.newPhysicalReader(this.s3, path))
-                    {
-                        CompletableFuture<Void> future = new CompletableFuture<>();
-                        this.s3Responses.add(future);
-                        reader.readAsync(0, bytes).whenComplete((buf, err0) -> {
-                            System.out.println(path);
-                            future.complete(null);
-                        });
-                    } catch (IOException e)
-                    {
-                        e.printStackTrace();
-                    }
+                    LatencyMetrics.Instance().record(Phase.s3_get, start);
                 }
-            }
-        }));
-        return null;
+                try
+                {
+                    reader.close();
+                }
+                catch (IOException e)
+                {
+                    e.printStackTrace();
+                }
+            });
+        }
+        catch (IOException e)
+        {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
     @Override
@@ -78,18 +157,26 @@ public class SqsAsyncReceiver implements Receiver
         return this.closed;
     }
 
+    /**
+     * Wait for the pending receives, so that every payload requested before close is fetched.
+     */
     @Override
     public void close() throws IOException
     {
-        for (CompletableFuture<ReceiveMessageResponse> response : this.sqsResponses)
-        {
-            response.join();
-        }
-        for (CompletableFuture<Void> response : this.s3Responses)
+        for (CompletableFuture<ByteBuffer> future : this.pending)
         {
-            //response.join();
+            try
+            {
+                future.join();
+            }
+            catch (Exception e)
+            {
+                // already thrown to the caller of receiveAsync
+            }
         }
+        this.batcher.close();
         this.sqsClient.close();
+        this.rateController.close();
         this.closed = true;
     }
 }
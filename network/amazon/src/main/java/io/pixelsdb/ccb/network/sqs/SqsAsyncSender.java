@@ -1,23 +1,33 @@
 package io.pixelsdb.ccb.network.sqs;
 
-import com.google.common.util.concurrent.RateLimiter;
 import io.pixelsdb.ccb.network.Sender;
+import io.pixelsdb.ccb.network.flow.InFlightLimiter;
+import io.pixelsdb.ccb.network.flow.RateController;
+import io.pixelsdb.ccb.network.flow.RatePolicy;
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
+import io.pixelsdb.ccb.network.retry.Retrier;
+import io.pixelsdb.ccb.network.retry.RetryPolicy;
 import io.pixelsdb.pixels.common.physical.Storage;
 import io.pixelsdb.pixels.common.physical.StorageFactory;
 import io.pixelsdb.pixels.storage.s3.S3;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.sqs.SqsAsyncClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
 import java.io.IOException;
-import java.util.LinkedList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Puts each payload into an S3 object and sends its path by SQS, both asynchronously. The puts are paced by a
+ * {@link RateController}, which sees each message as one request from the put until the path is sent. The put
+ * and the send are retried separately by a {@link Retrier}, keyed by the content id of the message.
+ *
  * @author hank
  * @create 2025-09-20
  */
@@ -27,47 +37,84 @@ public class SqsAsyncSender implements Sender
     private final SqsAsyncClient sqsClient;
     private final String bucket;
     private final String keyPrefix;
-    private final String queueUrl;
     private boolean closed = false;
     private final AtomicInteger contentId = new AtomicInteger(0);
-    private final List<CompletableFuture<PutObjectResponse>> s3Responses = new LinkedList<>();
-    private final RateLimiter rateLimiter = RateLimiter.create(3000d * 1024d * 1024d);
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+    private final RateController rateController;
+    private final InFlightLimiter inFlightLimiter;
+    private final SqsBatcher batcher;
+    private final Retrier retrier;
 
     public SqsAsyncSender(String s3Prefix, String queueUrl) throws IOException
     {
+        this(s3Prefix, queueUrl, InFlightLimiter.defaults(), BatchPolicy.unbatched(),
+                RatePolicy.fixed(RatePolicy.DEFAULT_SEND_RATE), RetryPolicy.disabled());
+    }
+
+    public SqsAsyncSender(String s3Prefix, String queueUrl, InFlightLimiter inFlightLimiter,
+                          BatchPolicy batchPolicy, RatePolicy ratePolicy, RetryPolicy retryPolicy) throws IOException
+    {
+        this.inFlightLimiter = inFlightLimiter;
+        this.rateController = new RateController(ratePolicy);
+        this.retrier = new Retrier(retryPolicy, this.rateController::onRetry);
         if (!s3Prefix.endsWith("/"))
         {
             s3Prefix += "/";
         }
         this.bucket = s3Prefix.substring(0, s3Prefix.indexOf("/"));
         this.keyPrefix = s3Prefix.substring(this.bucket.length() + 1);
-        this.queueUrl = queueUrl;
         this.s3 = (S3) StorageFactory.Instance().getStorage(Storage.Scheme.s3);
         this.sqsClient = SqsAsyncClient.create();
+        this.batcher = new SqsBatcher(this.sqsClient, queueUrl, batchPolicy);
     }
 
     @Override
-    public void send(byte[] buffer) throws IOException
+    public void send(ByteBuffer buffer) throws IOException
     {
-        this.rateLimiter.acquire(buffer.length);
+        ByteBuffer payload = buffer.slice();
+        int bytes = payload.remaining();
+        this.rateController.acquire(bytes);
+        try
+        {
+            this.inFlightLimiter.acquire(bytes);
+        }
+        catch (IOException e)
+        {
+            // rejected or interrupted, so the slot of the rate controller is given back
+            this.rateController.cancel();
+            throw e;
+        }
         int contentId = this.contentId.getAndIncrement();
         String path = keyPrefix + contentId;
         PutObjectRequest putObjectRequest = PutObjectRequest.builder().bucket(bucket).key(path).build();
-        CompletableFuture<PutObjectResponse> response = this.s3.getS3AsyncClient()
-                .putObject(putObjectRequest, AsyncRequestBody.fromBytes(buffer));
-
-        this.s3Responses.add(response.whenComplete((res, err) -> {
+        long start = System.nanoTime();
+        // a retry puts the same key and sends the same path, so it overwrites the object of the failed attempt
+        CompletableFuture<?> future = this.retrier.callAsync(() -> this.s3.getS3AsyncClient()
+                        .putObject(putObjectRequest, AsyncRequestBody.fromByteBufferUnsafe(payload.duplicate())))
+                .thenCompose(res -> {
+                    LatencyMetrics.Instance().record(Phase.s3_put, start);
+                    long sqsStart = System.nanoTime();
+                    String body = this.bucket + "/" + path;
+                    // the batch byte limit is on the message bodies, not on the objects they reference
+                    return this.retrier.callAsync(() -> this.batcher.send(body, null, body.length()))
+                            .thenRun(() -> LatencyMetrics.Instance().record(Phase.sqs_send, sqsStart));
+                });
+        // the message is in flight until both the object and the notification are sent
+        this.pending.add(future);
+        future.whenComplete((res, err) -> {
+            this.pending.remove(future);
+            long latency = System.nanoTime() - start;
+            this.inFlightLimiter.release(bytes, latency);
+            this.rateController.release(latency, err);
             if (err != null)
             {
-                this.s3.reconnect();
-                return;
+                FailureMetrics.Instance().record(err);
+                if (Retrier.isConnectionFailure(err))
+                {
+                    this.s3.reconnect();
+                }
             }
-            SendMessageRequest request = SendMessageRequest.builder().queueUrl(queueUrl)
-                    .messageBody(this.bucket + "/" + path).build();
-            sqsClient.sendMessage(request).whenComplete((res0, err0) -> {
-                System.out.println(res0.toString());
-            });
-        }));
+        });
     }
 
     @Override
@@ -79,11 +126,20 @@ public class SqsAsyncSender implements Sender
     @Override
     public void close() throws IOException
     {
-        for (CompletableFuture<PutObjectResponse> response : this.s3Responses)
+        for (CompletableFuture<?> future : this.pending)
         {
-            response.join();
+            try
+            {
+                future.join();
+            }
+            catch (Exception e)
+            {
+                // already reported when the future completed
+            }
         }
+        this.batcher.close();
         this.sqsClient.close();
+        this.rateController.close();
         this.closed = true;
     }
 }
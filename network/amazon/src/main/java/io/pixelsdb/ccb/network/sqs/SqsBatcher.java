@@ -0,0 +1,302 @@
+package io.pixelsdb.ccb.network.sqs;
+
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Groups the messages sent to and deleted from one queue into SendMessageBatch and DeleteMessageBatch
+ * requests according to a {@link BatchPolicy}. Each entry gets its own future, which fails if the entry
+ * is reported as failed in the batch response.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class SqsBatcher implements Closeable
+{
+    private final String queueUrl;
+    private final BatchPolicy policy;
+    private final Function<SendMessageBatchRequest, CompletableFuture<SendMessageBatchResponse>> sendBatch;
+    private final Function<DeleteMessageBatchRequest, CompletableFuture<DeleteMessageBatchResponse>> deleteBatch;
+    private final ExecutorService requestExecutor;
+    private final ScheduledExecutorService lingerTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sqs-batcher-linger");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Batch<SendMessageBatchRequestEntry.Builder> sends = new Batch<>();
+    private final Batch<DeleteMessageBatchRequestEntry.Builder> deletes = new Batch<>();
+    private final Set<CompletableFuture<?>> requests = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The batch requests are issued on a transport executor of flushThreads threads, as the client is blocking.
+     */
+    public SqsBatcher(SqsClient sqsClient, String queueUrl, BatchPolicy policy, int flushThreads)
+    {
+        this.queueUrl = queueUrl;
+        this.policy = policy;
+        this.requestExecutor = TransportExecutors.Instance().newExecutor(flushThreads);
+        this.sendBatch = request -> CompletableFuture.supplyAsync(
+                () -> sqsClient.sendMessageBatch(request), this.requestExecutor);
+        this.deleteBatch = request -> CompletableFuture.supplyAsync(
+                () -> sqsClient.deleteMessageBatch(request), this.requestExecutor);
+    }
+
+    public SqsBatcher(SqsAsyncClient sqsClient, String queueUrl, BatchPolicy policy)
+    {
+        this(queueUrl, policy, sqsClient::sendMessageBatch, sqsClient::deleteMessageBatch);
+    }
+
+    /**
+     * @param sendBatch issues a send batch request asynchronously
+     * @param deleteBatch issues a delete batch request asynchronously
+     */
+    public SqsBatcher(String queueUrl, BatchPolicy policy,
+                      Function<SendMessageBatchRequest, CompletableFuture<SendMessageBatchResponse>> sendBatch,
+                      Function<DeleteMessageBatchRequest, CompletableFuture<DeleteMessageBatchResponse>> deleteBatch)
+    {
+        this.queueUrl = queueUrl;
+        this.policy = policy;
+        this.requestExecutor = null;
+        this.sendBatch = sendBatch;
+        this.deleteBatch = deleteBatch;
+    }
+
+    /**
+     * @param body the message body
+     * @param attributes the message attributes, can be null
+     * @param bytes the payload size of the message, counted against the policy's byte limit
+     * @return the future completed when the batch containing this message is accepted by the queue
+     */
+    public CompletableFuture<Void> send(String body, Map<String, MessageAttributeValue> attributes, int bytes)
+    {
+        SendMessageBatchRequestEntry.Builder entry = SendMessageBatchRequestEntry.builder().messageBody(body);
+        if (attributes != null)
+        {
+            entry.messageAttributes(attributes);
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        add(this.sends, entry, bytes, future, this::flushSends);
+        return future;
+    }
+
+    /**
+     * Acknowledge a received message so that it is not redelivered after the visibility timeout.
+     * @return the future completed when the message is deleted
+     */
+    public CompletableFuture<Void> delete(String receiptHandle)
+    {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        add(this.deletes, DeleteMessageBatchRequestEntry.builder().receiptHandle(receiptHandle),
+                0, future, this::flushDeletes);
+        return future;
+    }
+
+    private <E> void add(Batch<E> batch, E entry, int bytes, CompletableFuture<Void> future,
+                         Consumer<Batch.Drained<E>> flusher)
+    {
+        List<Batch.Drained<E>> full = new ArrayList<>(2);
+        long generation;
+        boolean first;
+        synchronized (batch)
+        {
+            if (!batch.entries.isEmpty() && batch.bytes + bytes > this.policy.getMaxBytes())
+            {
+                full.add(batch.drain());
+            }
+            batch.entries.add(entry);
+            batch.futures.add(future);
+            batch.bytes += bytes;
+            first = batch.entries.size() == 1;
+            generation = batch.generation;
+            if (batch.entries.size() >= this.policy.getMaxEntries() || batch.bytes >= this.policy.getMaxBytes())
+            {
+                full.add(batch.drain());
+                first = false;
+            }
+        }
+        for (Batch.Drained<E> drained : full)
+        {
+            flusher.accept(drained);
+        }
+        if (first)
+        {
+            this.lingerTimer.schedule(() -> {
+                Batch.Drained<E> drained;
+                synchronized (batch)
+                {
+                    drained = batch.generation == generation && !batch.entries.isEmpty() ? batch.drain() : null;
+                }
+                if (drained != null)
+                {
+                    flusher.accept(drained);
+                }
+            }, this.policy.getLingerMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushSends(Batch.Drained<SendMessageBatchRequestEntry.Builder> drained)
+    {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(drained.entries.size());
+        for (int i = 0; i < drained.entries.size(); ++i)
+        {
+            entries.add(drained.entries.get(i).id(String.valueOf(i)).build());
+        }
+        SendMessageBatchRequest request = SendMessageBatchRequest.builder()
+                .queueUrl(this.queueUrl).entries(entries).build();
+        long start = System.nanoTime();
+        track(this.sendBatch.apply(request).whenComplete((response, err) -> {
+            if (err == null)
+            {
+                LatencyMetrics.Instance().record(Phase.sqs_send_batch, start);
+            }
+            complete(drained.futures, err, err == null ? response.failed() : null);
+        }));
+    }
+
+    private void flushDeletes(Batch.Drained<DeleteMessageBatchRequestEntry.Builder> drained)
+    {
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(drained.entries.size());
+        for (int i = 0; i < drained.entries.size(); ++i)
+        {
+            entries.add(drained.entries.get(i).id(String.valueOf(i)).build());
+        }
+        DeleteMessageBatchRequest request = DeleteMessageBatchRequest.builder()
+                .queueUrl(this.queueUrl).entries(entries).build();
+        long start = System.nanoTime();
+        track(this.deleteBatch.apply(request).whenComplete((response, err) -> {
+            if (err == null)
+            {
+                LatencyMetrics.Instance().record(Phase.sqs_delete_batch, start);
+            }
+            complete(drained.futures, err, err == null ? response.failed() : null);
+        }));
+    }
+
+    private void track(CompletableFuture<?> request)
+    {
+        this.requests.add(request);
+        request.whenComplete((response, err) -> this.requests.remove(request));
+    }
+
+    private static void complete(List<CompletableFuture<Void>> futures, Throwable err, List<BatchResultErrorEntry> failed)
+    {
+        if (err != null)
+        {
+            for (CompletableFuture<Void> future : futures)
+            {
+                future.completeExceptionally(err);
+            }
+            return;
+        }
+        if (failed != null)
+        {
+            for (BatchResultErrorEntry entry : failed)
+            {
+                futures.get(Integer.parseInt(entry.id())).completeExceptionally(
+                        new IOException("batch entry failed: " + entry.code() + " " + entry.message()));
+            }
+        }
+        for (CompletableFuture<Void> future : futures)
+        {
+            future.complete(null);
+        }
+    }
+
+    /**
+     * Send the pending batches and wait for all the batch requests to complete.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        Batch.Drained<SendMessageBatchRequestEntry.Builder> pendingSends;
+        synchronized (this.sends)
+        {
+            pendingSends = this.sends.entries.isEmpty() ? null : this.sends.drain();
+        }
+        if (pendingSends != null)
+        {
+            flushSends(pendingSends);
+        }
+        Batch.Drained<DeleteMessageBatchRequestEntry.Builder> pendingDeletes;
+        synchronized (this.deletes)
+        {
+            pendingDeletes = this.deletes.entries.isEmpty() ? null : this.deletes.drain();
+        }
+        if (pendingDeletes != null)
+        {
+            flushDeletes(pendingDeletes);
+        }
+        for (CompletableFuture<?> request : this.requests)
+        {
+            try
+            {
+                request.join();
+            }
+            catch (Exception e)
+            {
+                // the failure is propagated to the futures of the entries
+            }
+        }
+        this.lingerTimer.shutdownNow();
+        if (this.requestExecutor != null)
+        {
+            this.requestExecutor.shutdown();
+        }
+    }
+
+    private static class Batch<E>
+    {
+        private List<E> entries = new ArrayList<>(BatchPolicy.MAX_ENTRIES);
+        private List<CompletableFuture<Void>> futures = new ArrayList<>(BatchPolicy.MAX_ENTRIES);
+        private long bytes = 0;
+        private long generation = 0;
+
+        private Drained<E> drain()
+        {
+            Drained<E> drained = new Drained<>(this.entries, this.futures);
+            this.entries = new ArrayList<>(BatchPolicy.MAX_ENTRIES);
+            this.futures = new ArrayList<>(BatchPolicy.MAX_ENTRIES);
+            this.bytes = 0;
+            this.generation++;
+            return drained;
+        }
+
+        private static class Drained<E>
+        {
+            private final List<E> entries;
+            private final List<CompletableFuture<Void>> futures;
+
+            private Drained(List<E> entries, List<CompletableFuture<Void>> futures)
+            {
+                this.entries = entries;
+                this.futures = futures;
+            }
+        }
+    }
+}
@@ -1,6 +1,14 @@
 package io.pixelsdb.ccb.network.sqs;
 
 import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.buffer.SpillPolicy;
+import io.pixelsdb.ccb.network.buffer.SpillQueue;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.Message;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
@@ -11,19 +19,35 @@ import java.nio.ByteBuffer;
 import java.util.concurrent.*;
 
 /**
+ * Receives the payloads carried by the sqs messages of {@link SqsPureSender}. The pollers buffer the payloads in a
+ * {@link SpillQueue} until they are received, which spills them to local disk beyond its memory budget if the
+ * spill policy is enabled, so a consumer slower than the pollers does not make the heap grow without bound.
+ *
  * @author hank
  * @create 2025-09-29
  */
 public class SqsPureReceiver implements Receiver
 {
     private final SqsClient sqsClient;
-    private boolean closed = false;
-    private final BlockingQueue<ByteBuffer> contentQueue = new LinkedBlockingQueue<>();
-    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private volatile boolean closed = false;
+    private final SpillQueue contentQueue;
+    private final ExecutorService executor = TransportExecutors.Instance().newUnboundedExecutor();
+    private final SqsBatcher batcher;
 
     public SqsPureReceiver(String queueUrl) throws IOException
     {
+        this(queueUrl, BatchPolicy.unbatched(), SpillPolicy.disabled());
+    }
+
+    /**
+     * @param batchPolicy the policy of batching the deletes of the received messages
+     * @param spillPolicy whether the buffered payloads beyond a memory budget are spilled to local disk
+     */
+    public SqsPureReceiver(String queueUrl, BatchPolicy batchPolicy, SpillPolicy spillPolicy) throws IOException
+    {
+        this.contentQueue = new SpillQueue(spillPolicy);
         this.sqsClient = SqsClient.create();
+        this.batcher = new SqsBatcher(this.sqsClient, queueUrl, batchPolicy, 2);
         for (int i = 0; i < 8; ++i)
         {
             this.executor.submit(() -> {
@@ -32,13 +56,29 @@ public class SqsPureReceiver implements Receiver
                     ReceiveMessageRequest request = ReceiveMessageRequest.builder()
                             .messageAttributeNames("content")
                             .queueUrl(queueUrl).maxNumberOfMessages(10).waitTimeSeconds(5).build();
+                    long start = System.nanoTime();
                     ReceiveMessageResponse response = this.sqsClient.receiveMessage(request);
                     if (response.hasMessages())
                     {
+                        LatencyMetrics.Instance().record(Phase.sqs_receive, start);
                         for (Message message : response.messages())
                         {
                             ByteBuffer buffer = message.messageAttributes().get("content").binaryValue().asByteBuffer();
-                            this.contentQueue.add(buffer);
+                            try
+                            {
+                                this.contentQueue.put(buffer);
+                            }
+                            catch (IOException e)
+                            {
+                                // not acknowledged, so the message is redelivered after the visibility timeout
+                                if (!this.closed)
+                                {
+                                    FailureMetrics.Instance().record(e);
+                                }
+                                continue;
+                            }
+                            // the payload is carried by the message, so it is acknowledged once buffered
+                            this.batcher.delete(message.receiptHandle());
                         }
                     }
                 }
@@ -59,6 +99,61 @@ public class SqsPureReceiver implements Receiver
         }
     }
 
+    /**
+     * Complete immediately if a payload is already buffered, otherwise wait for the pollers in the executor.
+     */
+    @Override
+    public CompletableFuture<ByteBuffer> receiveAsync(int bytes)
+    {
+        try
+        {
+            ByteBuffer buffer = this.contentQueue.poll();
+            if (buffer != null)
+            {
+                return CompletableFuture.completedFuture(buffer);
+            }
+        }
+        catch (IOException e)
+        {
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return this.contentQueue.take();
+            }
+            catch (IOException | InterruptedException e)
+            {
+                throw new CompletionException(e);
+            }
+        }, this.executor);
+    }
+
+    /**
+     * The payloads are received as read-only views of the sdk's byte arrays, so they are copied into dst
+     * without any intermediate allocation, except for the spilled payloads, which are paged in first.
+     */
+    @Override
+    public int receive(ByteBuffer dst) throws IOException
+    {
+        try
+        {
+            ByteBuffer buffer = this.contentQueue.take();
+            try
+            {
+                return Buffers.copy(buffer, dst);
+            }
+            finally
+            {
+                BufferPool.Instance().release(buffer);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
     @Override
     public boolean isClosed()
     {
@@ -70,6 +165,8 @@ public class SqsPureReceiver implements Receiver
     {
         this.executor.shutdown();
         this.closed = true;
+        // the pending async receives wait in the executor, closing the queue fails them
+        this.contentQueue.close();
         while (true)
         {
             try
@@ -83,7 +180,7 @@ public class SqsPureReceiver implements Receiver
                 e.printStackTrace();
             }
         }
+        this.batcher.close();
         this.sqsClient.close();
-
     }
 }
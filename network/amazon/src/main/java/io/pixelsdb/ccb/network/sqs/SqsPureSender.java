@@ -1,16 +1,17 @@
 package io.pixelsdb.ccb.network.sqs;
 
 import io.pixelsdb.ccb.network.Sender;
+import io.pixelsdb.ccb.network.flow.InFlightLimiter;
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 /**
  * @author hank
@@ -19,39 +20,48 @@ import java.util.concurrent.TimeUnit;
 public class SqsPureSender implements Sender
 {
     private final SqsClient sqsClient;
-    private final String queueUrl;
     private boolean closed = false;
-    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final InFlightLimiter inFlightLimiter;
+    private final SqsBatcher batcher;
 
     public SqsPureSender(String queueUrl) throws IOException
     {
-        this.queueUrl = queueUrl;
+        this(queueUrl, InFlightLimiter.defaults(), BatchPolicy.unbatched());
+    }
+
+    /**
+     * The messages are sent by the batcher on 8 threads, the in-flight limiter bounds the queued payloads.
+     */
+    public SqsPureSender(String queueUrl, InFlightLimiter inFlightLimiter, BatchPolicy batchPolicy) throws IOException
+    {
+        this.inFlightLimiter = inFlightLimiter;
         this.sqsClient = SqsClient.create();
+        this.batcher = new SqsBatcher(this.sqsClient, queueUrl, batchPolicy, 8);
     }
 
     @Override
-    public void send(byte[] buffer) throws IOException
+    public void send(ByteBuffer buffer) throws IOException
     {
-        this.executor.submit(() -> {
-            Map<String, MessageAttributeValue> messageAttributeMap = Map.of(
-                    "content", MessageAttributeValue.builder()
-                            .binaryValue(SdkBytes.fromByteArray(buffer))
-                            .dataType("Binary").build()
-            );
-            SendMessageRequest request = SendMessageRequest.builder()
-                    .queueUrl(queueUrl)
-                    .messageBody("body")
-                    .messageAttributes(messageAttributeMap).build();
-            try
+        ByteBuffer payload = buffer.slice();
+        int bytes = payload.remaining();
+        this.inFlightLimiter.acquire(bytes);
+        long start = System.nanoTime();
+        Map<String, MessageAttributeValue> messageAttributeMap = Map.of(
+                "content", MessageAttributeValue.builder()
+                        .binaryValue(SdkBytes.fromByteBufferUnsafe(payload))
+                        .dataType("Binary").build()
+        );
+        this.batcher.send("body", messageAttributeMap, bytes).whenComplete((res, err) -> {
+            if (err != null)
             {
-                sqsClient.sendMessage(request);
+                FailureMetrics.Instance().record(err);
             }
-            catch (Throwable e)
+            else
             {
-                e.printStackTrace();
+                LatencyMetrics.Instance().record(Phase.sqs_send, start);
             }
+            this.inFlightLimiter.release(bytes, System.nanoTime() - start);
         });
-
     }
 
     @Override
@@ -63,20 +73,7 @@ public class SqsPureSender implements Sender
     @Override
     public void close() throws IOException
     {
-        this.executor.shutdown();
-        while (true)
-        {
-            try
-            {
-                if (this.executor.awaitTermination(1, TimeUnit.SECONDS))
-                {
-                    break;
-                }
-            } catch (InterruptedException e)
-            {
-                e.printStackTrace();
-            }
-        }
+        this.batcher.close();
         this.sqsClient.close();
         this.closed = true;
     }
@@ -1,24 +1,56 @@
 package io.pixelsdb.ccb.network.sqs;
 
+import io.pixelsdb.ccb.network.Futures;
 import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
+import io.pixelsdb.ccb.network.pack.PackCursor;
+import io.pixelsdb.ccb.network.pack.PackPolicy;
+import io.pixelsdb.ccb.network.pack.PackedObject;
+import io.pixelsdb.ccb.network.retry.HedgePolicy;
+import io.pixelsdb.ccb.network.retry.Hedger;
+import io.pixelsdb.ccb.network.retry.Retrier;
+import io.pixelsdb.ccb.network.retry.RetryPolicy;
+import io.pixelsdb.ccb.network.stream.ReaderChannel;
+import io.pixelsdb.ccb.network.transfer.RangedDownloader;
+import io.pixelsdb.ccb.network.transfer.TransferPolicy;
 import io.pixelsdb.pixels.common.physical.PhysicalReader;
 import io.pixelsdb.pixels.common.physical.PhysicalReaderUtil;
 import io.pixelsdb.pixels.common.physical.Storage;
 import io.pixelsdb.pixels.common.physical.StorageFactory;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * Receives the payloads sent by {@link SqsSender}, each message references an S3 object holding a payload
+ * (or a packed object holding several). If prefetching is enabled (and packing is not), a {@link Prefetcher}
+ * polls the queue and reads the objects ahead of the receive calls, which only take the buffered payloads.
+ * The failed polls and reads are retried by a {@link Retrier}, and the duplicate messages of the sends
+ * retried by the sender are dropped. If hedging is enabled, each object is read by a {@link Hedger} into a
+ * buffer from the buffer pool, and copied if the receive call gives the destination.
+ * If ordering is enabled, an {@link OrderedFetcher} fetches the objects in parallel and delivers the payloads
+ * in the order of the sequence numbers stamped by the sender.
+ *
  * @author hank
  * @create 2025-09-20
  */
@@ -28,47 +60,361 @@ public class SqsReceiver implements Receiver
     private final SqsClient sqsClient;
     private final String queueUrl;
     private boolean closed = false;
-    private final Queue<String> s3PathQueue = new ConcurrentLinkedQueue<>();
-    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final Queue<Message> messageQueue = new ConcurrentLinkedQueue<>();
+    /**
+     * The message id of the first message received for each object path until it is deleted, see
+     * {@link #dropDuplicates(List)}.
+     */
+    private final ConcurrentMap<String, String> received = new ConcurrentHashMap<>();
+    private final ExecutorService executor = TransportExecutors.Instance().newExecutor(8);
+    private final SqsBatcher batcher;
+    private final PackCursor packCursor;
+    private final RangedDownloader downloader;
+    private final PrefetchPolicy prefetchPolicy;
+    private final Prefetcher<Message> prefetcher;
+    private final OrderedFetcher<Message> orderedFetcher;
+    private final Retrier retrier;
+    private final Hedger hedger;
+    private final HedgePolicy hedgePolicy;
+    private final ExecutorService hedgeExecutor;
+    private final int chunkSize;
 
     public SqsReceiver(String queueUrl) throws IOException
     {
+        this(queueUrl, BatchPolicy.unbatched(), PackPolicy.disabled(), TransferPolicy.disabled(),
+                PrefetchPolicy.disabled(), RetryPolicy.disabled(), HedgePolicy.disabled(), OrderPolicy.disabled());
+    }
+
+    /**
+     * @param batchPolicy the policy of batching the deletes of the received messages
+     * @param packPolicy whether the messages reference packed objects, and how to read them
+     * @param transferPolicy whether large objects are read by parallel ranged reads
+     * @param prefetchPolicy whether the objects are read ahead of the receive calls, ignored if packing is enabled
+     * @param retryPolicy the policy of retrying the failed polls and reads
+     * @param hedgePolicy whether the slow reads are hedged, ignored if packing is enabled
+     * @param orderPolicy whether the payloads are delivered in order, the prefetch policy is then ignored except
+     *                    for its pollers, fetches, pending messages, and wait time
+     */
+    public SqsReceiver(String queueUrl, BatchPolicy batchPolicy, PackPolicy packPolicy,
+                       TransferPolicy transferPolicy, PrefetchPolicy prefetchPolicy, RetryPolicy retryPolicy,
+                       HedgePolicy hedgePolicy, OrderPolicy orderPolicy) throws IOException
+    {
+        if (orderPolicy.isEnabled() && packPolicy.isEnabled())
+        {
+            throw new IllegalArgumentException("ordered delivery does not support packing");
+        }
+        this.downloader = new RangedDownloader(transferPolicy);
+        this.retrier = new Retrier(retryPolicy);
+        this.hedger = new Hedger(hedgePolicy);
+        this.hedgePolicy = hedgePolicy;
+        this.chunkSize = (int) transferPolicy.getPartSize();
+        // the blocking reads are hedged from their own threads, so that a hedge does not wait for the slow read
+        this.hedgeExecutor = hedgePolicy.isEnabled() ? TransportExecutors.Instance().newUnboundedExecutor() : null;
         this.queueUrl = queueUrl;
         this.sqsClient = SqsClient.create();
+        this.batcher = new SqsBatcher(this.sqsClient, queueUrl, batchPolicy, 2);
+        this.packCursor = packPolicy.isEnabled() ? new PackCursor(() -> openPacked(packPolicy.isBulkRead())) : null;
+        this.prefetchPolicy = prefetchPolicy;
+        this.orderedFetcher = orderPolicy.isEnabled() ? new OrderedFetcher<>(orderPolicy, prefetchPolicy,
+                this::pollMessages, SqsReceiver::sequenceOf, this::fetch, this::delete) : null;
+        this.prefetcher = prefetchPolicy.isEnabled() && this.packCursor == null && this.orderedFetcher == null ?
+                new Prefetcher<>(prefetchPolicy, this::pollMessages, this::fetch) : null;
     }
 
     @Override
     public ByteBuffer receive(int bytes) throws IOException
     {
-        String s3Path = this.s3PathQueue.poll();
-        if (s3Path == null)
+        if (this.orderedFetcher != null)
         {
-            ReceiveMessageResponse response;
-            do
+            return this.orderedFetcher.take();
+        }
+        if (this.prefetcher != null)
+        {
+            return this.prefetcher.take();
+        }
+        return Futures.join(receiveAsync(bytes));
+    }
+
+    /**
+     * Take the next message from the queue in the calling thread and read the object in the
+     * executor, the payload is read into a buffer from the buffer pool. Packed objects are
+     * opened and read in the executor.
+     */
+    @Override
+    public CompletableFuture<ByteBuffer> receiveAsync(int bytes)
+    {
+        if (this.orderedFetcher != null)
+        {
+            return this.orderedFetcher.takeAsync();
+        }
+        if (this.prefetcher != null)
+        {
+            return this.prefetcher.takeAsync();
+        }
+        Message message;
+        try
+        {
+            message = this.packCursor == null ? nextMessage() : null;
+        }
+        catch (IOException e)
+        {
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            ByteBuffer buffer = BufferPool.Instance().acquire(bytes);
+            try
             {
-                ReceiveMessageRequest request = ReceiveMessageRequest.builder()
-                        .queueUrl(queueUrl).maxNumberOfMessages(10).waitTimeSeconds(1).build();
-                response = this.sqsClient.receiveMessage(request);
-            } while (!response.hasMessages());
-            for (Message message : response.messages())
+                if (message != null)
+                {
+                    read(message, buffer);
+                }
+                else
+                {
+                    this.packCursor.read(buffer);
+                }
+            }
+            catch (IOException e)
             {
-                String path = message.body();
-                this.s3PathQueue.add(path);
+                BufferPool.Instance().release(buffer);
+                throw new CompletionException(e);
             }
-            s3Path = this.s3PathQueue.poll();
+            return buffer.flip();
+        }, this.executor);
+    }
+
+    /**
+     * If prefetching or ordering, the payload is copied into dst and the buffer it was fetched into is returned
+     * to the buffer pool.
+     */
+    @Override
+    public int receive(ByteBuffer dst) throws IOException
+    {
+        if (this.packCursor != null)
+        {
+            return this.packCursor.read(dst);
         }
-        String path = s3Path;
-        this.executor.submit(() -> {
-            System.out.println(path);
-            try (PhysicalReader reader = PhysicalReaderUtil.newPhysicalReader(this.s3, path))
+        if (this.prefetcher != null || this.orderedFetcher != null)
+        {
+            ByteBuffer buffer = this.orderedFetcher != null ? this.orderedFetcher.take() : this.prefetcher.take();
+            try
             {
-                reader.readFully(bytes);
-            } catch (IOException e)
+                return Buffers.copy(buffer, dst);
+            }
+            finally
             {
-                e.printStackTrace();
+                BufferPool.Instance().release(buffer);
             }
+        }
+        return read(nextMessage(), dst);
+    }
+
+    /**
+     * The object referenced by the next message is read as the channel is read, in ranges of at least the
+     * transfer policy's part size, and the message is deleted when the channel is closed. If packing, prefetching,
+     * ordering, or hedging is enabled, the payload is received whole as by {@link #receive(int)}.
+     */
+    @Override
+    public ReadableByteChannel receiveChannel(int bytes) throws IOException
+    {
+        if (this.packCursor != null || this.prefetcher != null || this.orderedFetcher != null ||
+                this.hedgePolicy.isEnabled())
+        {
+            return Receiver.super.receiveChannel(bytes);
+        }
+        Message message = nextMessage();
+        long start = System.nanoTime();
+        PhysicalReader reader = this.retrier.call(() -> PhysicalReaderUtil.newPhysicalReader(this.s3, message.body()));
+        return new ReaderChannel(reader, Math.min(bytes, reader.getFileLength()), this.chunkSize, () -> {
+            reader.close();
+            LatencyMetrics.Instance().record(Phase.s3_get, start);
+            delete(message);
         });
-        return null;
+    }
+
+    /**
+     * Open the packed object referenced by the next message, the message is deleted once the object is opened.
+     */
+    private PackedObject openPacked(boolean bulk) throws IOException
+    {
+        Message message = nextMessage();
+        PackedObject object = PackedObject.open(this.retrier.call(() ->
+                PhysicalReaderUtil.newPhysicalReader(this.s3, message.body())), bulk);
+        delete(message);
+        return object;
+    }
+
+    /**
+     * Read the object referenced by the message, the message is deleted from the queue once the object is read.
+     */
+    private int read(Message message, ByteBuffer dst) throws IOException
+    {
+        if (this.hedgePolicy.isEnabled())
+        {
+            ByteBuffer buffer = fetch(message);
+            try
+            {
+                return Buffers.copy(buffer, dst);
+            }
+            finally
+            {
+                BufferPool.Instance().release(buffer);
+            }
+        }
+        long start = System.nanoTime();
+        int position = dst.position();
+        int bytes = this.retrier.call(() -> {
+            try (PhysicalReader reader = PhysicalReaderUtil.newPhysicalReader(this.s3, message.body()))
+            {
+                return this.downloader.readFully(reader, dst.position(position));
+            }
+        });
+        LatencyMetrics.Instance().record(Phase.s3_get, start);
+        delete(message);
+        return bytes;
+    }
+
+    /**
+     * Read the object referenced by the message into a buffer from the buffer pool, the message is deleted
+     * from the queue once the object is read.
+     */
+    private ByteBuffer fetch(Message message) throws IOException
+    {
+        long start = System.nanoTime();
+        String path = message.body();
+        ByteBuffer buffer;
+        if (this.hedgePolicy.isEnabled())
+        {
+            buffer = Futures.join(this.retrier.callAsync(() -> this.hedger.call(() ->
+                    CompletableFuture.supplyAsync(() -> {
+                        try
+                        {
+                            return fetchObject(path);
+                        }
+                        catch (IOException e)
+                        {
+                            throw new CompletionException(e);
+                        }
+                    }, this.hedgeExecutor), BufferPool.Instance()::release)));
+        }
+        else
+        {
+            buffer = this.retrier.call(() -> fetchObject(path));
+        }
+        LatencyMetrics.Instance().record(Phase.s3_get, start);
+        delete(message);
+        return buffer;
+    }
+
+    /**
+     * Read the object into a buffer from the buffer pool, the buffer is released if the read fails.
+     */
+    private ByteBuffer fetchObject(String path) throws IOException
+    {
+        try (PhysicalReader reader = PhysicalReaderUtil.newPhysicalReader(this.s3, path))
+        {
+            ByteBuffer buffer = BufferPool.Instance().acquire((int) reader.getFileLength());
+            try
+            {
+                this.downloader.readFully(reader, buffer);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                BufferPool.Instance().release(buffer);
+                throw e;
+            }
+            return buffer.flip();
+        }
+    }
+
+    /**
+     * Long poll the queue once for the prefetcher.
+     */
+    private List<Message> pollMessages(int maxMessages) throws IOException
+    {
+        ReceiveMessageRequest request = ReceiveMessageRequest.builder().queueUrl(this.queueUrl)
+                .maxNumberOfMessages(maxMessages).waitTimeSeconds(this.prefetchPolicy.getWaitSeconds())
+                .messageAttributeNames(OrderPolicy.SEQUENCE_ATTRIBUTE).build();
+        long start = System.nanoTime();
+        ReceiveMessageResponse response = this.retrier.call(() -> this.sqsClient.receiveMessage(request));
+        if (response.hasMessages())
+        {
+            LatencyMetrics.Instance().record(Phase.sqs_receive, start);
+        }
+        return dropDuplicates(response.messages());
+    }
+
+    /**
+     * A send retried by {@link SqsSender} after its first attempt was delivered sends another message with the
+     * same object path (which ends with the content id), such a duplicate is deleted and dropped. A message
+     * redelivered after its read failed has the same message id as before, so it is kept. A path is remembered
+     * only until its message is deleted, as the duplicate of a retried send usually arrives while the first
+     * message is still being read, so the memory is bounded by the messages in flight. The duplicates are only
+     * detected per receiver: on a queue shared by several receivers, a duplicate received by another receiver,
+     * or after the first message is deleted, is delivered again.
+     * @return the messages that are not duplicates
+     */
+    private List<Message> dropDuplicates(List<Message> messages)
+    {
+        List<Message> unique = new ArrayList<>(messages.size());
+        for (Message message : messages)
+        {
+            String first = this.received.putIfAbsent(message.body(), message.messageId());
+            if (first == null || first.equals(message.messageId()))
+            {
+                unique.add(message);
+            }
+            else
+            {
+                this.batcher.delete(message.receiptHandle());
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Delete the message once its object is read, and forget its path once the delete is done.
+     */
+    private void delete(Message message)
+    {
+        this.batcher.delete(message.receiptHandle()).whenComplete((res, err) ->
+                this.received.remove(message.body(), message.messageId()));
+    }
+
+    /**
+     * @return the sequence number stamped on the message by {@link SqsSender}
+     */
+    private static long sequenceOf(Message message)
+    {
+        MessageAttributeValue sequence = message.messageAttributes().get(OrderPolicy.SEQUENCE_ATTRIBUTE);
+        if (sequence == null)
+        {
+            throw new IllegalStateException("message " + message.messageId() + " has no sequence number");
+        }
+        return Long.parseLong(sequence.stringValue());
+    }
+
+    /**
+     * @return the next message, long polling the queue if no message is buffered locally
+     */
+    private Message nextMessage() throws IOException
+    {
+        Message next = this.messageQueue.poll();
+        if (next == null)
+        {
+            long start = System.nanoTime();
+            List<Message> messages;
+            do
+            {
+                ReceiveMessageRequest request = ReceiveMessageRequest.builder()
+                        .queueUrl(queueUrl).maxNumberOfMessages(10).waitTimeSeconds(1).build();
+                ReceiveMessageResponse response = this.retrier.call(() -> this.sqsClient.receiveMessage(request));
+                messages = dropDuplicates(response.messages());
+            } while (messages.isEmpty());
+            LatencyMetrics.Instance().record(Phase.sqs_receive, start);
+            this.messageQueue.addAll(messages);
+            next = this.messageQueue.poll();
+        }
+        return next;
     }
 
     @Override
@@ -80,7 +426,19 @@ public class SqsReceiver implements Receiver
     @Override
     public void close() throws IOException
     {
+        if (this.prefetcher != null)
+        {
+            this.prefetcher.close();
+        }
+        if (this.orderedFetcher != null)
+        {
+            this.orderedFetcher.close();
+        }
         this.executor.shutdown();
+        if (this.hedgeExecutor != null)
+        {
+            this.hedgeExecutor.shutdown();
+        }
         while (true)
         {
             try
@@ -94,6 +452,7 @@ public class SqsReceiver implements Receiver
                 e.printStackTrace();
             }
         }
+        this.batcher.close();
         this.sqsClient.close();
         this.closed = true;
     }
@@ -1,17 +1,39 @@
 package io.pixelsdb.ccb.network.sqs;
 
+import io.pixelsdb.ccb.network.Futures;
 import io.pixelsdb.ccb.network.Sender;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.ccb.network.exec.TransportExecutors;
+import io.pixelsdb.ccb.network.flow.InFlightLimiter;
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
+import io.pixelsdb.ccb.network.pack.PackPolicy;
+import io.pixelsdb.ccb.network.pack.Packer;
+import io.pixelsdb.ccb.network.retry.Retrier;
+import io.pixelsdb.ccb.network.retry.RetryPolicy;
+import io.pixelsdb.ccb.network.transfer.MultipartUploadChannel;
+import io.pixelsdb.ccb.network.transfer.MultipartUploader;
+import io.pixelsdb.ccb.network.transfer.TransferPolicy;
 import io.pixelsdb.pixels.common.physical.PhysicalWriter;
 import io.pixelsdb.pixels.common.physical.PhysicalWriterUtil;
 import io.pixelsdb.pixels.common.physical.Storage;
 import io.pixelsdb.pixels.common.physical.StorageFactory;
+import io.pixelsdb.pixels.storage.s3.S3;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
-import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -27,10 +49,43 @@ public class SqsSender implements Sender
     private final String queueUrl;
     private boolean closed = false;
     private AtomicInteger contentId = new AtomicInteger(0);
-    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final ExecutorService executor = TransportExecutors.Instance().newExecutor(8);
+    private final InFlightLimiter inFlightLimiter;
+    private final SqsBatcher batcher;
+    private final Packer packer;
+    private final TransferPolicy transferPolicy;
+    private final MultipartUploader uploader;
+    private final Retrier retrier;
+    private final boolean ordered;
+    /**
+     * The messages being sent, whose retries may still be scheduled after the put is done.
+     */
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
 
     public SqsSender(String s3Prefix, String queueUrl) throws IOException
     {
+        this(s3Prefix, queueUrl, InFlightLimiter.defaults(), BatchPolicy.unbatched(), PackPolicy.disabled(),
+                TransferPolicy.disabled(), RetryPolicy.disabled(), OrderPolicy.disabled());
+    }
+
+    /**
+     * If the pack policy is enabled, the payloads are packed into shared objects, and one message is sent
+     * for each object. If the transfer policy is enabled, large payloads are put by parallel multipart uploads.
+     * The failed puts and sends are retried according to the retry policy, a payload whose put finally fails
+     * is not sent. If the order policy is enabled, each message is stamped with the content id of its payload as
+     * the sequence number, the content ids are assigned in the order of the send calls.
+     */
+    public SqsSender(String s3Prefix, String queueUrl, InFlightLimiter inFlightLimiter, BatchPolicy batchPolicy,
+                     PackPolicy packPolicy, TransferPolicy transferPolicy, RetryPolicy retryPolicy,
+                     OrderPolicy orderPolicy) throws IOException
+    {
+        if (orderPolicy.isEnabled() && packPolicy.isEnabled())
+        {
+            throw new IllegalArgumentException("ordered delivery does not support packing");
+        }
+        this.inFlightLimiter = inFlightLimiter;
+        this.retrier = new Retrier(retryPolicy);
+        this.ordered = orderPolicy.isEnabled();
         if (!s3Prefix.endsWith("/"))
         {
             s3Prefix += "/";
@@ -39,28 +94,183 @@ public class SqsSender implements Sender
         this.queueUrl = queueUrl;
         this.s3 = StorageFactory.Instance().getStorage(Storage.Scheme.s3);
         this.sqsClient = SqsClient.create();
+        this.batcher = new SqsBatcher(this.sqsClient, queueUrl, batchPolicy, 4);
+        this.packer = packPolicy.isEnabled() ? new Packer(packPolicy, this::sendPacked) : null;
+        this.transferPolicy = transferPolicy;
+        this.uploader = transferPolicy.isEnabled() ?
+                new MultipartUploader(((S3) this.s3).getS3AsyncClient(), transferPolicy) : null;
     }
 
     @Override
-    public void send(byte[] buffer) throws IOException
+    public void send(ByteBuffer buffer) throws IOException
     {
+        ByteBuffer payload = buffer.slice();
+        int bytes = payload.remaining();
+        if (this.packer != null)
+        {
+            this.inFlightLimiter.acquire(bytes);
+            long submitted = System.nanoTime();
+            this.packer.add(payload).whenComplete((res, err) -> {
+                if (err != null)
+                {
+                    FailureMetrics.Instance().record(err);
+                }
+                this.inFlightLimiter.release(bytes, System.nanoTime() - submitted);
+            });
+            return;
+        }
         int contentId = this.contentId.getAndIncrement();
+        this.inFlightLimiter.acquire(bytes);
+        long submitted = System.nanoTime();
         this.executor.submit(() -> {
-            String path = Storage.Scheme.s3 + "://" + s3Prefix + contentId;
+            CompletableFuture<Void> sent;
+            try
+            {
+                String path = Storage.Scheme.s3 + "://" + s3Prefix + contentId;
+                long start = System.nanoTime();
+                // a retry puts the same key, so it overwrites the object of the failed attempt
+                this.retrier.run(() -> put(contentId, path, payload));
+                LatencyMetrics.Instance().record(Phase.s3_put, start);
+                sent = notify(contentId, path);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            CompletableFuture<Void> message = sent;
+            this.pending.add(message);
+            message.whenComplete((res, err) -> {
+                this.pending.remove(message);
+                if (err != null)
+                {
+                    FailureMetrics.Instance().record(err);
+                }
+                this.inFlightLimiter.release(bytes, System.nanoTime() - submitted);
+            });
+        });
+
+    }
+
+    /**
+     * The payload is uploaded in parts of the transfer policy's part size as they fill, whether the transfer
+     * policy is enabled or not, and the message is sent when the last part is uploaded and the object completed.
+     * A streamed payload is not retried, as it is not kept, and is not counted by the in-flight limiter. If the
+     * pack policy is enabled, the payload is collected and packed as if it were sent by {@link #send(ByteBuffer)}.
+     */
+    @Override
+    public WritableByteChannel openChannel() throws IOException
+    {
+        if (this.packer != null)
+        {
+            return Sender.super.openChannel();
+        }
+        int contentId = this.contentId.getAndIncrement();
+        String path = Storage.Scheme.s3 + "://" + s3Prefix + contentId;
+        String bucket = this.s3Prefix.substring(0, this.s3Prefix.indexOf("/"));
+        String key = this.s3Prefix.substring(bucket.length() + 1) + contentId;
+        MultipartUploadChannel channel = new MultipartUploadChannel(((S3) this.s3).getS3AsyncClient(),
+                bucket, key, this.transferPolicy);
+        long start = System.nanoTime();
+        CompletableFuture<Void> sent = channel.getCompletion().thenCompose(res -> {
+            LatencyMetrics.Instance().record(Phase.s3_put, start);
+            return notify(contentId, path);
+        });
+        this.pending.add(sent);
+        sent.whenComplete((res, err) -> {
+            this.pending.remove(sent);
+            if (err != null)
+            {
+                FailureMetrics.Instance().record(err);
+            }
+        });
+        return channel;
+    }
+
+    /**
+     * Send the message of the object written for the content id, stamped with its sequence number if ordered.
+     */
+    private CompletableFuture<Void> notify(int contentId, String path)
+    {
+        long sqsStart = System.nanoTime();
+        Map<String, MessageAttributeValue> attributes = this.ordered ? Map.of(OrderPolicy.SEQUENCE_ATTRIBUTE,
+                MessageAttributeValue.builder().dataType("Number").stringValue(String.valueOf(contentId))
+                        .build()) : null;
+        return this.retrier.callAsync(() -> this.batcher.send(path, attributes, path.length())).thenRun(() ->
+                LatencyMetrics.Instance().record(Phase.sqs_send, sqsStart));
+    }
+
+    /**
+     * Put the payload into the object of the content id, the position and the limit of the payload are not changed.
+     */
+    private void put(int contentId, String path, ByteBuffer payload) throws IOException
+    {
+        if (this.uploader != null && this.transferPolicy.isParallel(payload.remaining()))
+        {
+            putMultipart(contentId, payload.duplicate());
+        }
+        else if (payload.isDirect())
+        {
+            putDirect(contentId, payload.duplicate());
+        }
+        else
+        {
             try (PhysicalWriter s3PhysicalWriter = PhysicalWriterUtil.newPhysicalWriter(s3, path, true))
             {
-                s3PhysicalWriter.append(buffer, 0, buffer.length);
-            } catch (IOException e)
+                Buffers.append(s3PhysicalWriter, payload);
+            }
+        }
+    }
+
+    /**
+     * Write a packed object and send its path, the object is in a heap buffer.
+     */
+    private CompletableFuture<Void> sendPacked(ByteBuffer object)
+    {
+        int contentId = this.contentId.getAndIncrement();
+        String path = Storage.Scheme.s3 + "://" + s3Prefix + contentId;
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try
             {
-                e.printStackTrace();
+                this.retrier.run(() -> {
+                    try (PhysicalWriter s3PhysicalWriter = PhysicalWriterUtil.newPhysicalWriter(s3, path, true))
+                    {
+                        Buffers.append(s3PhysicalWriter, object);
+                    }
+                });
             }
-            SendMessageRequest request = SendMessageRequest.builder()
-                    .queueUrl(queueUrl)
-                    .messageBody(path).build();
-            SendMessageResponse response = sqsClient.sendMessage(request);
-            System.out.println(response.toString());
+            catch (IOException e)
+            {
+                throw new CompletionException(e);
+            }
+            LatencyMetrics.Instance().record(Phase.s3_put, start);
+        }, this.executor).thenCompose(res -> {
+            long sqsStart = System.nanoTime();
+            return this.retrier.callAsync(() -> this.batcher.send(path, null, path.length())).thenRun(() ->
+                    LatencyMetrics.Instance().record(Phase.sqs_send, sqsStart));
         });
+    }
+
+    /**
+     * The physical writer only takes heap arrays, so direct buffers are put by the s3 async client,
+     * which reads them in place.
+     */
+    private void putDirect(int contentId, ByteBuffer payload) throws IOException
+    {
+        String bucket = this.s3Prefix.substring(0, this.s3Prefix.indexOf("/"));
+        String key = this.s3Prefix.substring(bucket.length() + 1) + contentId;
+        PutObjectRequest request = PutObjectRequest.builder().bucket(bucket).key(key).build();
+        Futures.join(((S3) this.s3).getS3AsyncClient().putObject(request, AsyncRequestBody.fromByteBufferUnsafe(payload)));
+    }
 
+    /**
+     * Put the payload by a multipart upload, its parts are read in place from heap or direct buffers.
+     */
+    private void putMultipart(int contentId, ByteBuffer payload) throws IOException
+    {
+        String bucket = this.s3Prefix.substring(0, this.s3Prefix.indexOf("/"));
+        String key = this.s3Prefix.substring(bucket.length() + 1) + contentId;
+        Futures.join(this.uploader.upload(bucket, key, payload));
     }
 
     @Override
@@ -72,6 +282,10 @@ public class SqsSender implements Sender
     @Override
     public void close() throws IOException
     {
+        if (this.packer != null)
+        {
+            this.packer.close();
+        }
         this.executor.shutdown();
         while (true)
         {
@@ -86,6 +300,19 @@ public class SqsSender implements Sender
                 e.printStackTrace();
             }
         }
+        // the executor is drained, so every message is pending or sent, and none is retried after the batcher closes
+        for (CompletableFuture<?> message : this.pending)
+        {
+            try
+            {
+                message.join();
+            }
+            catch (Exception e)
+            {
+                // already reported when the future completed
+            }
+        }
+        this.batcher.close();
         this.sqsClient.close();
         this.closed = true;
     }
@@ -0,0 +1,61 @@
+package io.pixelsdb.ccb.network.stream;
+
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * The channel of a message that is already received into a buffer, the buffer is released to the buffer pool
+ * when the channel is closed.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class BufferReadChannel implements ReadableByteChannel
+{
+    private final ByteBuffer buffer;
+    private boolean open = true;
+
+    public BufferReadChannel(ByteBuffer buffer)
+    {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException
+    {
+        if (!this.open)
+        {
+            throw new ClosedChannelException();
+        }
+        if (!this.buffer.hasRemaining())
+        {
+            return -1;
+        }
+        int bytes = Math.min(dst.remaining(), this.buffer.remaining());
+        ByteBuffer src = this.buffer.duplicate();
+        src.limit(src.position() + bytes);
+        dst.put(src);
+        this.buffer.position(this.buffer.position() + bytes);
+        return bytes;
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return this.open;
+    }
+
+    @Override
+    public void close()
+    {
+        if (this.open)
+        {
+            this.open = false;
+            BufferPool.Instance().release(this.buffer);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.pixelsdb.ccb.network.stream;
+
+import io.pixelsdb.ccb.network.Sender;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The channel of a message for the senders that can not send a message before it is complete, e.g., because
+ * they compress or pack it. The written bytes are collected into a growing heap buffer, which is sent by
+ * {@link Sender#send(ByteBuffer)} when the channel is closed, so the producer and the network do not overlap.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class BufferedSendChannel implements WritableByteChannel
+{
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private final Sender sender;
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private boolean open = true;
+
+    public BufferedSendChannel(Sender sender)
+    {
+        this.sender = sender;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException
+    {
+        if (!this.open)
+        {
+            throw new ClosedChannelException();
+        }
+        int bytes = src.remaining();
+        if (bytes > this.buffer.remaining())
+        {
+            long capacity = Math.max((long) this.buffer.capacity() * 2, (long) this.buffer.position() + bytes);
+            if (capacity > Integer.MAX_VALUE)
+            {
+                throw new IOException("message exceeds 2GB");
+            }
+            ByteBuffer grown = ByteBuffer.allocate((int) capacity);
+            grown.put(this.buffer.flip());
+            this.buffer = grown;
+        }
+        this.buffer.put(src);
+        return bytes;
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return this.open;
+    }
+
+    /**
+     * Send the collected bytes as one message.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (!this.open)
+        {
+            return;
+        }
+        this.open = false;
+        this.sender.send(this.buffer.flip());
+    }
+}
@@ -0,0 +1,101 @@
+package io.pixelsdb.ccb.network.stream;
+
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.pixels.common.physical.PhysicalReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * The channel of a message of length bytes read through a physical reader from its current position, so the
+ * consumer can process the first bytes while the later ones are still in transit. Reads smaller than chunkSize
+ * are served from a chunk read ahead, so that a reader issuing one request per read, e.g., an S3 reader, is
+ * not asked for many small ranges.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class ReaderChannel implements ReadableByteChannel
+{
+    private final PhysicalReader reader;
+    private final int chunkSize;
+    private final Closeable onClose;
+    private long remaining;
+    private ByteBuffer chunk = null;
+    private boolean open = true;
+
+    /**
+     * @param chunkSize the minimum size of a read from the reader, 0 to read directly into the destination
+     * @param onClose releases the message when the channel is closed, e.g., closes the reader, can be null
+     */
+    public ReaderChannel(PhysicalReader reader, long length, int chunkSize, Closeable onClose)
+    {
+        this.reader = reader;
+        this.remaining = length;
+        this.chunkSize = chunkSize;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException
+    {
+        if (!this.open)
+        {
+            throw new ClosedChannelException();
+        }
+        if (this.chunk != null && this.chunk.hasRemaining())
+        {
+            int bytes = Math.min(dst.remaining(), this.chunk.remaining());
+            ByteBuffer src = this.chunk.duplicate();
+            src.limit(src.position() + bytes);
+            dst.put(src);
+            this.chunk.position(this.chunk.position() + bytes);
+            return bytes;
+        }
+        if (this.remaining == 0)
+        {
+            return -1;
+        }
+        if (dst.remaining() >= this.chunkSize)
+        {
+            int bytes = (int) Math.min(dst.remaining(), this.remaining);
+            ByteBuffer target = dst.duplicate();
+            target.limit(target.position() + bytes);
+            Buffers.readFully(this.reader, target);
+            dst.position(target.position());
+            this.remaining -= bytes;
+            return bytes;
+        }
+        if (this.chunk == null)
+        {
+            this.chunk = ByteBuffer.allocate(this.chunkSize);
+        }
+        this.chunk.clear().limit((int) Math.min(this.chunkSize, this.remaining));
+        Buffers.readFully(this.reader, this.chunk);
+        this.remaining -= this.chunk.flip().remaining();
+        return read(dst);
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return this.open;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (!this.open)
+        {
+            return;
+        }
+        this.open = false;
+        if (this.onClose != null)
+        {
+            this.onClose.close();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.pixelsdb.ccb.network.stream;
+
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.pixels.common.physical.PhysicalWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The channel of a message written through a physical writer as it is produced, e.g., the http stream, which
+ * pushes every write to the receiver, or an s3qs writer, which uploads the object as its buffer fills and
+ * enqueues its path when it is closed.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class WriterChannel implements WritableByteChannel
+{
+    private final PhysicalWriter writer;
+    private final boolean flush;
+    private final Closeable onClose;
+    private boolean open = true;
+
+    /**
+     * @param flush whether the writer is flushed after each write
+     * @param onClose completes the message when the channel is closed, e.g., by closing the writer, can be null
+     */
+    public WriterChannel(PhysicalWriter writer, boolean flush, Closeable onClose)
+    {
+        this.writer = writer;
+        this.flush = flush;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException
+    {
+        if (!this.open)
+        {
+            throw new ClosedChannelException();
+        }
+        int bytes = src.remaining();
+        Buffers.append(this.writer, src);
+        src.position(src.limit());
+        if (this.flush)
+        {
+            this.writer.flush();
+        }
+        return bytes;
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return this.open;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (!this.open)
+        {
+            return;
+        }
+        this.open = false;
+        if (this.onClose != null)
+        {
+            this.onClose.close();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.pixelsdb.ccb.network.sweep;
+
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+
+/**
+ * The measurement of one repetition of a sweep cell.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class CellResult
+{
+    private final long startMs;
+    private final long endMs;
+    private final long messages;
+    private final long bytes;
+    private final long failures;
+
+    /**
+     * @param failures the failures in the background of the transport during the run, see {@link FailureMetrics}
+     */
+    public CellResult(long startMs, long endMs, long messages, long bytes, long failures)
+    {
+        this.startMs = startMs;
+        this.endMs = endMs;
+        this.messages = messages;
+        this.bytes = bytes;
+        this.failures = failures;
+    }
+
+    public long getStartMs()
+    {
+        return startMs;
+    }
+
+    public long getEndMs()
+    {
+        return endMs;
+    }
+
+    public long getElapsedMs()
+    {
+        return endMs - startMs;
+    }
+
+    public long getMessages()
+    {
+        return messages;
+    }
+
+    public long getBytes()
+    {
+        return bytes;
+    }
+
+    public long getFailures()
+    {
+        return failures;
+    }
+
+    public double getMessagesPerSecond()
+    {
+        return messages * 1000.0d / Math.max(1, getElapsedMs());
+    }
+
+    public double getMBPerSecond()
+    {
+        return bytes * 1000.0d / 1024 / 1024 / Math.max(1, getElapsedMs());
+    }
+}
@@ -0,0 +1,107 @@
+package io.pixelsdb.ccb.network.sweep;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+import io.pixelsdb.ccb.network.Transport;
+import io.pixelsdb.ccb.network.local.LocalCloud;
+import io.pixelsdb.ccb.network.metrics.TimelineSampler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the sweep (or the shuffle if loopback.program is shuffle) with both roles in this process against the
+ * in-process {@link LocalCloud} stand-ins, so that the transports can be benchmarked and regression-tested on a
+ * laptop. The cells are those of the sweep.* (or shuffle.*) settings, except that the transports are
+ * loopback.transports (all of them by default), and the sender and the receiver write their results to the
+ * output files with -sender and -receiver inserted before the extension. As the metrics are process-wide, the
+ * latency rows of each role include the phases of both, and both roles share one {@link TimelineSampler}, whose
+ * rows have the role loopback.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class LoopbackRunner
+{
+    private final BenchmarkConfig config;
+
+    public LoopbackRunner(BenchmarkConfig config)
+    {
+        this.config = config;
+    }
+
+    public void run() throws IOException
+    {
+        boolean shuffle = this.config.getString("loopback.program", "sweep").equals("shuffle");
+        try (LocalCloud cloud = LocalCloud.from(this.config);
+             TimelineSampler timeline = TimelineSampler.from(this.config, "loopback"))
+        {
+            cloud.configureSdk();
+            System.out.println("local s3 and sqs listening at " + cloud.getEndpoint());
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            List<Future<?>> futures = new ArrayList<>(2);
+            for (Role role : Role.values())
+            {
+                BenchmarkConfig roleConfig = configOf(cloud, role);
+                futures.add(executor.submit(() -> {
+                    if (shuffle)
+                    {
+                        new ShuffleRunner(roleConfig, role, timeline).run();
+                    }
+                    else
+                    {
+                        new SweepRunner(roleConfig, role, timeline).run();
+                    }
+                    return null;
+                }));
+            }
+            executor.shutdown();
+            try
+            {
+                for (Future<?> future : futures)
+                {
+                    future.get();
+                }
+            }
+            catch (InterruptedException | ExecutionException e)
+            {
+                executor.shutdownNow();
+                throw new IOException("failed to run the loopback " + (shuffle ? "shuffle" : "sweep"), e);
+            }
+            System.out.print(cloud.report());
+        }
+    }
+
+    private BenchmarkConfig configOf(LocalCloud cloud, Role role)
+    {
+        BenchmarkConfig roleConfig = this.config.copy();
+        List<String> transports = new ArrayList<>();
+        for (Transport transport : Transport.values())
+        {
+            transports.add(transport.name());
+        }
+        String loopbackTransports = this.config.getString("loopback.transports", String.join(",", transports));
+        roleConfig.set("sweep.transports", loopbackTransports);
+        roleConfig.set("shuffle.transports", loopbackTransports);
+        roleConfig.set("transport.sqs.queue.url",
+                cloud.getQueueUrl(this.config.getString("loopback.queue.name", "loopback")));
+        roleConfig.set("sweep.output", withRole(this.config.getString("sweep.output", "sweep-results.csv"), role));
+        roleConfig.set("sweep.latency.output",
+                withRole(this.config.getString("sweep.latency.output", "sweep-latencies.csv"), role));
+        roleConfig.set("shuffle.output", withRole(this.config.getString("shuffle.output", "shuffle-results.csv"), role));
+        roleConfig.set("shuffle.endpoint.output",
+                withRole(this.config.getString("shuffle.endpoint.output", "shuffle-endpoints.csv"), role));
+        return roleConfig;
+    }
+
+    private static String withRole(String path, Role role)
+    {
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/') ? path.substring(0, dot) + "-" + role + path.substring(dot) :
+                path + "-" + role;
+    }
+}
@@ -0,0 +1,12 @@
+package io.pixelsdb.ccb.network.sweep;
+
+/**
+ * Which side of a transport a benchmark process runs.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public enum Role
+{
+    sender, receiver
+}
@@ -0,0 +1,68 @@
+package io.pixelsdb.ccb.network.sweep;
+
+import java.util.Arrays;
+
+/**
+ * The measurement of one repetition of a shuffle. Besides the aggregate of all the senders (or all the
+ * partition receivers), it holds when each of them finished, relative to the start of the run, so that the
+ * stragglers show up as a ratio of the slowest to the median endpoint.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class ShuffleResult extends CellResult
+{
+    private final long[] endpointMs;
+    private final long[] endpointMessages;
+    private final int messageSize;
+
+    public ShuffleResult(long startMs, long endMs, long[] endpointMs, long[] endpointMessages, int messageSize,
+                         long failures)
+    {
+        super(startMs, endMs, Arrays.stream(endpointMessages).sum(),
+                Arrays.stream(endpointMessages).sum() * messageSize, failures);
+        this.endpointMs = endpointMs;
+        this.endpointMessages = endpointMessages;
+        this.messageSize = messageSize;
+    }
+
+    public int getEndpoints()
+    {
+        return endpointMs.length;
+    }
+
+    public long getEndpointMs(int endpoint)
+    {
+        return endpointMs[endpoint];
+    }
+
+    public long getEndpointMessages(int endpoint)
+    {
+        return endpointMessages[endpoint];
+    }
+
+    public long getEndpointBytes(int endpoint)
+    {
+        return endpointMessages[endpoint] * messageSize;
+    }
+
+    public long getMedianEndpointMs()
+    {
+        long[] sorted = endpointMs.clone();
+        Arrays.sort(sorted);
+        return sorted[(sorted.length - 1) / 2];
+    }
+
+    public long getMaxEndpointMs()
+    {
+        return Arrays.stream(endpointMs).max().orElse(0);
+    }
+
+    /**
+     * @return the ratio of the slowest endpoint's time to the median endpoint's time
+     */
+    public double getStragglerRatio()
+    {
+        return (double) getMaxEndpointMs() / Math.max(1, getMedianEndpointMs());
+    }
+}
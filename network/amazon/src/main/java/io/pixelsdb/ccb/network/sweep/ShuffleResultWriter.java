@@ -0,0 +1,69 @@
+package io.pixelsdb.ccb.network.sweep;
+
+import io.pixelsdb.ccb.network.Transport;
+import io.pixelsdb.ccb.network.shuffle.ShufflePlan;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Writes the results of a shuffle as one CSV table, a row per repetition of each transport, and the times
+ * of the endpoints (the senders or the partition receivers) into a second table, a row per endpoint of each
+ * repetition. Rows are flushed as they are written.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class ShuffleResultWriter implements AutoCloseable
+{
+    private static final String HEADER = "transport,role,senders,partitions,message_size,message_count," +
+            "sender_skew,partition_skew,repetition,start_ms,end_ms,elapsed_ms,messages_per_sec,mb_per_sec," +
+            "median_endpoint_ms,max_endpoint_ms,straggler_ratio,failures";
+    private static final String ENDPOINT_HEADER = "transport,role,repetition,endpoint,messages,bytes," +
+            "elapsed_ms,mb_per_sec";
+
+    private final PrintWriter writer;
+    private final PrintWriter endpointWriter;
+
+    public ShuffleResultWriter(String path, String endpointPath) throws IOException
+    {
+        this.writer = new PrintWriter(new FileWriter(path));
+        this.writer.println(HEADER);
+        this.writer.flush();
+        this.endpointWriter = new PrintWriter(new FileWriter(endpointPath));
+        this.endpointWriter.println(ENDPOINT_HEADER);
+        this.endpointWriter.flush();
+    }
+
+    public void write(Role role, Transport transport, ShufflePlan plan, int messageSize, int repetition,
+                      ShuffleResult result)
+    {
+        this.writer.println(String.join(",", transport.name(), role.name(),
+                String.valueOf(plan.getSenders()), String.valueOf(plan.getPartitions()),
+                String.valueOf(messageSize), String.valueOf(plan.getMessageCount()),
+                String.valueOf(plan.getSenderSkew()), String.valueOf(plan.getPartitionSkew()),
+                String.valueOf(repetition), String.valueOf(result.getStartMs()), String.valueOf(result.getEndMs()),
+                String.valueOf(result.getElapsedMs()), String.format("%.3f", result.getMessagesPerSecond()),
+                String.format("%.3f", result.getMBPerSecond()), String.valueOf(result.getMedianEndpointMs()),
+                String.valueOf(result.getMaxEndpointMs()), String.format("%.3f", result.getStragglerRatio()),
+                String.valueOf(result.getFailures())));
+        this.writer.flush();
+        for (int i = 0; i < result.getEndpoints(); ++i)
+        {
+            long elapsedMs = result.getEndpointMs(i);
+            this.endpointWriter.println(String.join(",", transport.name(), role.name(),
+                    String.valueOf(repetition), String.valueOf(i), String.valueOf(result.getEndpointMessages(i)),
+                    String.valueOf(result.getEndpointBytes(i)), String.valueOf(elapsedMs),
+                    String.format("%.3f", result.getEndpointBytes(i) * 1000.0d / 1024 / 1024 / Math.max(1, elapsedMs))));
+        }
+        this.endpointWriter.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.writer.close();
+        this.endpointWriter.close();
+    }
+}
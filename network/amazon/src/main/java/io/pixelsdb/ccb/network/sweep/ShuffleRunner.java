@@ -0,0 +1,237 @@
+package io.pixelsdb.ccb.network.sweep;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.Sender;
+import io.pixelsdb.ccb.network.Transport;
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.TimelineMetrics;
+import io.pixelsdb.ccb.network.metrics.TimelineSampler;
+import io.pixelsdb.ccb.network.payload.PayloadPool;
+import io.pixelsdb.ccb.network.shuffle.PartitionedReceiver;
+import io.pixelsdb.ccb.network.shuffle.PartitionedSender;
+import io.pixelsdb.ccb.network.shuffle.ShufflePlan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the MxN shuffle of the shuffle.* settings for each of shuffle.transports: the sender process runs the
+ * M partition workers, each sending its messages to the N partitions through a {@link PartitionedSender},
+ * and the receiver process runs the N partition receivers, each draining its partition through a
+ * {@link PartitionedReceiver}. Like the sweep, both processes are started with the same config file except
+ * shuffle.role, and a run is timed from when all the endpoints are opened until all of them are closed.
+ * <p/>
+ * Point-to-point transports (http, http_striped) use one connection per sender and partition, so a run opens
+ * MxN of them. The other transports send each partition's messages to the partition's own queue, which must
+ * exist unless the queues are the in-process stand-ins.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class ShuffleRunner
+{
+    private final BenchmarkConfig config;
+    private final Role role;
+    private final TimelineSampler timeline;
+    private final ShufflePlan plan;
+    private final BenchmarkConfig[] partitionConfigs;
+
+    public ShuffleRunner(BenchmarkConfig config, Role role)
+    {
+        this(config, role, null);
+    }
+
+    /**
+     * @param timeline the sampler of the process if it is shared with another runner, or null to open one
+     * by the timeline.* settings
+     */
+    public ShuffleRunner(BenchmarkConfig config, Role role, TimelineSampler timeline)
+    {
+        this.config = config;
+        this.role = role;
+        this.timeline = timeline;
+        this.plan = ShufflePlan.from(config);
+        this.partitionConfigs = new BenchmarkConfig[this.plan.getPartitions()];
+        for (int i = 0; i < this.partitionConfigs.length; ++i)
+        {
+            this.partitionConfigs[i] = ShufflePlan.configOf(config, i);
+        }
+    }
+
+    public ShuffleRunner(BenchmarkConfig config)
+    {
+        this(config, Role.valueOf(config.getString("shuffle.role")));
+    }
+
+    public void run() throws IOException
+    {
+        long messageSize = this.config.getSize("shuffle.message.size", 1024 * 1024);
+        if (messageSize > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("message size exceeds 2GB: " + messageSize);
+        }
+        int repetitions = this.config.getInt("shuffle.repetitions", 3);
+        long pauseMs = this.config.getLong("shuffle.pause.ms", 1000);
+        String output = this.config.getString("shuffle.output", "shuffle-results.csv");
+        String endpointOutput = this.config.getString("shuffle.endpoint.output", "shuffle-endpoints.csv");
+        PayloadPool payloads = this.role == Role.sender ? PayloadPool.from(this.config, (int) messageSize) : null;
+
+        try (ShuffleResultWriter writer = new ShuffleResultWriter(output, endpointOutput);
+             TimelineSampler owned = this.timeline == null ? TimelineSampler.from(this.config, this.role.name()) : null)
+        {
+            TimelineSampler timeline = this.timeline != null ? this.timeline : owned;
+            for (String name : this.config.getList("shuffle.transports", "http"))
+            {
+                Transport transport = Transport.from(name);
+                System.out.println("running " + this.role + " shuffle: " + transport + " " +
+                        this.plan.getSenders() + "x" + this.plan.getPartitions());
+                for (int repetition = 0; repetition < repetitions; ++repetition)
+                {
+                    if (timeline != null)
+                    {
+                        timeline.setRun(transport + "-" + this.plan.getSenders() + "x" +
+                                this.plan.getPartitions() + "-" + repetition);
+                    }
+                    ShuffleResult result = runOnce(transport, (int) messageSize, payloads);
+                    writer.write(this.role, transport, this.plan, (int) messageSize, repetition, result);
+                    System.out.println("repetition " + repetition + ": " + result.getElapsedMs() + " ms, " +
+                            String.format("%.3f", result.getMBPerSecond()) + " MB/s, straggler ratio " +
+                            String.format("%.3f", result.getStragglerRatio()));
+                    SweepRunner.pause(pauseMs);
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the senders or the partition receivers of the shuffle once.
+     * @param payloads the payloads to send, null for the receiver role
+     */
+    public ShuffleResult runOnce(Transport transport, int messageSize, PayloadPool payloads) throws IOException
+    {
+        int endpoints = this.role == Role.sender ? this.plan.getSenders() : this.plan.getPartitions();
+        ExecutorService executor = Executors.newFixedThreadPool(endpoints);
+        CountDownLatch opened = new CountDownLatch(endpoints);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] endpointMessages = new long[endpoints];
+        List<Future<Long>> futures = new ArrayList<>(endpoints);
+        for (int i = 0; i < endpoints; ++i)
+        {
+            int index = i;
+            if (this.role == Role.sender)
+            {
+                endpointMessages[i] = this.plan.getSenderMessages(i);
+                futures.add(executor.submit(() -> {
+                    int[] schedule = this.plan.scheduleOf(index);
+                    PartitionedSender sender;
+                    try
+                    {
+                        sender = openSender(transport, index);
+                    }
+                    finally
+                    {
+                        opened.countDown();
+                    }
+                    try (sender)
+                    {
+                        start.await();
+                        for (int partition : schedule)
+                        {
+                            ByteBuffer payload = payloads.next();
+                            int bytes = payload.remaining();
+                            sender.send(partition, payload);
+                            TimelineMetrics.Instance().recordMessage(bytes);
+                        }
+                    }
+                    return System.nanoTime();
+                }));
+            }
+            else
+            {
+                endpointMessages[i] = this.plan.getPartitionMessages(i);
+                futures.add(executor.submit(() -> {
+                    PartitionedReceiver receiver;
+                    try
+                    {
+                        receiver = openReceiver(transport, index);
+                    }
+                    finally
+                    {
+                        opened.countDown();
+                    }
+                    try (receiver)
+                    {
+                        start.await();
+                        receiver.drain((flow, messages) ->
+                                SweepRunner.receiveAll(this.config, flow, messageSize, messages));
+                    }
+                    return System.nanoTime();
+                }));
+            }
+        }
+        executor.shutdown();
+        try
+        {
+            opened.await();
+            LatencyMetrics.Instance().reset();
+            FailureMetrics.Instance().reset();
+            long startMs = System.currentTimeMillis();
+            long startNanos = System.nanoTime();
+            start.countDown();
+            long[] endpointMs = new long[endpoints];
+            for (int i = 0; i < endpoints; ++i)
+            {
+                endpointMs[i] = (futures.get(i).get() - startNanos) / 1000000;
+            }
+            long endMs = System.currentTimeMillis();
+            return new ShuffleResult(startMs, endMs, endpointMs, endpointMessages, messageSize,
+                    FailureMetrics.Instance().getFailures());
+        }
+        catch (InterruptedException | ExecutionException e)
+        {
+            executor.shutdownNow();
+            throw new IOException("failed to run the " + transport + " shuffle", e);
+        }
+    }
+
+    private PartitionedSender openSender(Transport transport, int sender) throws IOException
+    {
+        int partitions = this.plan.getPartitions();
+        Sender[] senders = new Sender[partitions];
+        for (int i = 0; i < partitions; ++i)
+        {
+            senders[i] = SweepRunner.openSender(this.partitionConfigs[i], transport,
+                    ShufflePlan.flowOf(sender, i, partitions));
+        }
+        return new PartitionedSender(senders);
+    }
+
+    private PartitionedReceiver openReceiver(Transport transport, int partition) throws IOException
+    {
+        if (!transport.isPointToPoint(this.config))
+        {
+            return new PartitionedReceiver(partition,
+                    new Receiver[]{SweepRunner.openReceiver(this.partitionConfigs[partition], transport, partition)},
+                    new long[]{this.plan.getPartitionMessages(partition)});
+        }
+        int senders = this.plan.getSenders();
+        Receiver[] flows = new Receiver[senders];
+        long[] messages = new long[senders];
+        for (int i = 0; i < senders; ++i)
+        {
+            flows[i] = SweepRunner.openReceiver(this.partitionConfigs[partition], transport,
+                    ShufflePlan.flowOf(i, partition, this.plan.getPartitions()));
+            messages[i] = this.plan.getMessages(i, partition);
+        }
+        return new PartitionedReceiver(partition, flows, messages);
+    }
+}
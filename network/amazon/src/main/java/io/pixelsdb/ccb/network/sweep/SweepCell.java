@@ -0,0 +1,69 @@
+package io.pixelsdb.ccb.network.sweep;
+
+import io.pixelsdb.ccb.network.Transport;
+
+/**
+ * One point of the sweep matrix.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class SweepCell
+{
+    private final Transport transport;
+    private final int messageSize;
+    private final long messageCount;
+    private final int concurrency;
+
+    public SweepCell(Transport transport, int messageSize, long messageCount, int concurrency)
+    {
+        this.transport = transport;
+        this.messageSize = messageSize;
+        this.messageCount = messageCount;
+        this.concurrency = concurrency;
+    }
+
+    public Transport getTransport()
+    {
+        return transport;
+    }
+
+    public int getMessageSize()
+    {
+        return messageSize;
+    }
+
+    public long getMessageCount()
+    {
+        return messageCount;
+    }
+
+    public int getConcurrency()
+    {
+        return concurrency;
+    }
+
+    /**
+     * @param index the index of a sender or receiver in [0, concurrency)
+     * @param total the number of messages to be split among the senders or receivers
+     * @return the number of messages handled by the sender or receiver at the index
+     */
+    public static long messagesOf(int index, int concurrency, long total)
+    {
+        return total / concurrency + (index < total % concurrency ? 1 : 0);
+    }
+
+    /**
+     * @return the cell as transport-size-count-concurrency, e.g., to label the rows of a timeline
+     */
+    public String getLabel()
+    {
+        return transport + "-" + messageSize + "-" + messageCount + "-" + concurrency;
+    }
+
+    @Override
+    public String toString()
+    {
+        return transport + " size=" + messageSize + " count=" + messageCount + " concurrency=" + concurrency;
+    }
+}
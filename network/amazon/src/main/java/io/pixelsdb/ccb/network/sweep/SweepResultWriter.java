@@ -0,0 +1,85 @@
+package io.pixelsdb.ccb.network.sweep;
+
+import io.pixelsdb.ccb.network.codec.CodecMetrics;
+import io.pixelsdb.ccb.network.metrics.LatencyHistogram;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Writes the results of a sweep as one CSV table, a row per repetition of each cell, and the
+ * latency percentiles into a second table, a row per phase of each repetition.
+ * The compression ratio and the codec cpu time of a run are taken from {@link CodecMetrics}, they are 1 and 0
+ * if the codec stage is disabled. Rows are flushed as they are written so that a partially finished sweep is
+ * still usable.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class SweepResultWriter implements AutoCloseable
+{
+    private static final String HEADER = "transport,role,message_size,message_count,concurrency,repetition," +
+            "start_ms,end_ms,elapsed_ms,messages_per_sec,mb_per_sec,compression_ratio,codec_cpu_ms,failures";
+    private static final String LATENCY_HEADER = "transport,role,message_size,message_count,concurrency,repetition," +
+            "phase,count,mean_us,p50_us,p99_us,p999_us,max_us";
+
+    private final PrintWriter writer;
+    private final PrintWriter latencyWriter;
+
+    public SweepResultWriter(String path, String latencyPath) throws IOException
+    {
+        this.writer = new PrintWriter(new FileWriter(path));
+        this.writer.println(HEADER);
+        this.writer.flush();
+        this.latencyWriter = new PrintWriter(new FileWriter(latencyPath));
+        this.latencyWriter.println(LATENCY_HEADER);
+        this.latencyWriter.flush();
+    }
+
+    public void write(Role role, SweepCell cell, int repetition, CellResult result)
+    {
+        this.writer.println(String.join(",", cell.getTransport().name(), role.name(),
+                String.valueOf(cell.getMessageSize()), String.valueOf(cell.getMessageCount()),
+                String.valueOf(cell.getConcurrency()), String.valueOf(repetition),
+                String.valueOf(result.getStartMs()), String.valueOf(result.getEndMs()),
+                String.valueOf(result.getElapsedMs()), String.format("%.3f", result.getMessagesPerSecond()),
+                String.format("%.3f", result.getMBPerSecond()),
+                String.format("%.3f", CodecMetrics.Instance().getRatio()),
+                String.format("%.3f", CodecMetrics.Instance().getCpuMs()), String.valueOf(result.getFailures())));
+        this.writer.flush();
+    }
+
+    /**
+     * Write the percentiles of the phases that have recorded latencies in {@link LatencyMetrics}.
+     */
+    public void writeLatencies(Role role, SweepCell cell, int repetition)
+    {
+        for (Phase phase : Phase.values())
+        {
+            LatencyHistogram histogram = LatencyMetrics.Instance().get(phase);
+            if (histogram.getCount() == 0)
+            {
+                continue;
+            }
+            this.latencyWriter.println(String.join(",", cell.getTransport().name(), role.name(),
+                    String.valueOf(cell.getMessageSize()), String.valueOf(cell.getMessageCount()),
+                    String.valueOf(cell.getConcurrency()), String.valueOf(repetition), phase.name(),
+                    String.valueOf(histogram.getCount()), String.format("%.3f", histogram.getMeanNanos() / 1e3),
+                    String.format("%.3f", histogram.getPercentileNanos(50) / 1e3),
+                    String.format("%.3f", histogram.getPercentileNanos(99) / 1e3),
+                    String.format("%.3f", histogram.getPercentileNanos(99.9) / 1e3),
+                    String.format("%.3f", histogram.getMaxNanos() / 1e3)));
+        }
+        this.latencyWriter.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.writer.close();
+        this.latencyWriter.close();
+    }
+}
@@ -0,0 +1,431 @@
+package io.pixelsdb.ccb.network.sweep;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+import io.pixelsdb.ccb.network.Futures;
+import io.pixelsdb.ccb.network.Receiver;
+import io.pixelsdb.ccb.network.Sender;
+import io.pixelsdb.ccb.network.Transport;
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.codec.CodecMetrics;
+import io.pixelsdb.ccb.network.codec.CodecReceiver;
+import io.pixelsdb.ccb.network.codec.CodecSender;
+import io.pixelsdb.ccb.network.metrics.FailureMetrics;
+import io.pixelsdb.ccb.network.metrics.InstrumentedReceiver;
+import io.pixelsdb.ccb.network.metrics.InstrumentedSender;
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.TimelineMetrics;
+import io.pixelsdb.ccb.network.metrics.TimelineSampler;
+import io.pixelsdb.ccb.network.payload.PayloadPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs every cell of the (transport, message size, message count, concurrency) matrix given in the
+ * sweep.* settings. The sender and the receiver processes are started with the same config file
+ * (except sweep.role) so that they walk through the cells in the same order.
+ * <p/>
+ * Each cell is warmed up once and then measured sweep.repetitions times. A repetition opens
+ * concurrency senders (or receivers), splits the messages among them, and is timed from when all
+ * of them are opened until all of them are closed, so the time to drain the asynchronous senders
+ * is included. The latency histograms and the codec counters are reset at the start of each run, so
+ * after a run they hold the per-message latencies and the compression of that run only. The payloads
+ * are generated before the run into a {@link PayloadPool}, which is reused while the message size is unchanged.
+ * If timeline.enabled, a {@link TimelineSampler} samples the whole sweep, its rows are labelled by the cell
+ * and the repetition (or warmup) being run. If stream.enabled, each payload is written to the channel of
+ * {@link Sender#openChannel()} and read from {@link Receiver#receiveChannel(int)} in chunks of stream.chunk.size.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class SweepRunner
+{
+    private final BenchmarkConfig config;
+    private final Role role;
+    private final TimelineSampler timeline;
+    private PayloadPool payloads = null;
+
+    public SweepRunner(BenchmarkConfig config, Role role)
+    {
+        this(config, role, null);
+    }
+
+    /**
+     * @param timeline the sampler of the process if it is shared with another runner, or null to open one
+     * by the timeline.* settings
+     */
+    public SweepRunner(BenchmarkConfig config, Role role, TimelineSampler timeline)
+    {
+        this.config = config;
+        this.role = role;
+        this.timeline = timeline;
+    }
+
+    public SweepRunner(BenchmarkConfig config)
+    {
+        this(config, Role.valueOf(config.getString("sweep.role")));
+    }
+
+    public List<SweepCell> getCells()
+    {
+        List<SweepCell> cells = new ArrayList<>();
+        for (String transport : this.config.getList("sweep.transports", "http"))
+        {
+            for (long messageSize : this.config.getSizeList("sweep.message.sizes", "8MB"))
+            {
+                if (messageSize > Integer.MAX_VALUE)
+                {
+                    throw new IllegalArgumentException("message size exceeds 2GB: " + messageSize);
+                }
+                for (String messageCount : this.config.getList("sweep.message.counts", "12800"))
+                {
+                    for (int concurrency : this.config.getIntList("sweep.concurrencies", "1"))
+                    {
+                        cells.add(new SweepCell(Transport.from(transport), (int) messageSize,
+                                Long.parseLong(messageCount), concurrency));
+                    }
+                }
+            }
+        }
+        return cells;
+    }
+
+    public void run() throws IOException
+    {
+        int repetitions = this.config.getInt("sweep.repetitions", 3);
+        long pauseMs = this.config.getLong("sweep.cell.pause.ms", 1000);
+        String output = this.config.getString("sweep.output", "sweep-results.csv");
+        String latencyOutput = this.config.getString("sweep.latency.output", "sweep-latencies.csv");
+
+        try (SweepResultWriter writer = new SweepResultWriter(output, latencyOutput);
+             TimelineSampler owned = this.timeline == null ? TimelineSampler.from(this.config, this.role.name()) : null)
+        {
+            TimelineSampler timeline = this.timeline != null ? this.timeline : owned;
+            for (SweepCell cell : getCells())
+            {
+                System.out.println("running " + this.role + " cell: " + cell);
+                if (warmUp(cell, timeline))
+                {
+                    pause(pauseMs);
+                }
+                for (int repetition = 0; repetition < repetitions; ++repetition)
+                {
+                    if (timeline != null)
+                    {
+                        timeline.setRun(cell.getLabel() + "-" + repetition);
+                    }
+                    CellResult result = runCell(cell, cell.getMessageCount());
+                    writer.write(this.role, cell, repetition, result);
+                    writer.writeLatencies(this.role, cell, repetition);
+                    System.out.println("repetition " + repetition + ": " + result.getElapsedMs() + " ms, " +
+                            String.format("%.3f", result.getMBPerSecond()) + " MB/s");
+                    pause(pauseMs);
+                }
+            }
+        }
+    }
+
+    /**
+     * Warm up the cell by a run of sweep.warmup.messages messages, or of one message per connection if the
+     * concurrency is larger. No run is made if sweep.warmup.messages is 0.
+     * @param timeline the sampler whose rows of the run are labelled as the warmup of the cell, or null
+     * @return true if the warmup was run
+     */
+    public boolean warmUp(SweepCell cell, TimelineSampler timeline) throws IOException
+    {
+        long warmupMessages = this.config.getLong("sweep.warmup.messages", 16);
+        if (warmupMessages <= 0)
+        {
+            return false;
+        }
+        if (timeline != null)
+        {
+            timeline.setRun(cell.getLabel() + "-warmup");
+        }
+        runCell(cell, Math.max(warmupMessages, cell.getConcurrency()));
+        return true;
+    }
+
+    /**
+     * Run the sender or receiver side of a cell once.
+     * @param cell the cell to run
+     * @param messageCount the total number of messages to send or receive
+     * @return the measurement of this run
+     */
+    public CellResult runCell(SweepCell cell, long messageCount) throws IOException
+    {
+        int concurrency = cell.getConcurrency();
+        PayloadPool payloads = this.role == Role.sender ? payloadsOf(cell.getMessageSize()) : null;
+        int streamChunkSize = streamChunkSizeOf(this.config);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch opened = new CountDownLatch(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; ++i)
+        {
+            int index = i;
+            long messages = SweepCell.messagesOf(index, concurrency, messageCount);
+            futures.add(executor.submit(() -> {
+                if (this.role == Role.sender)
+                {
+                    Sender sender;
+                    try
+                    {
+                        sender = openSender(this.config, cell.getTransport(), index);
+                    }
+                    finally
+                    {
+                        opened.countDown();
+                    }
+                    try (sender)
+                    {
+                        start.await();
+                        for (long j = 0; j < messages; ++j)
+                        {
+                            ByteBuffer payload = payloads.next();
+                            int bytes = payload.remaining();
+                            if (streamChunkSize > 0)
+                            {
+                                sendStreamed(sender, payload, streamChunkSize);
+                            }
+                            else
+                            {
+                                sender.send(payload);
+                            }
+                            TimelineMetrics.Instance().recordMessage(bytes);
+                        }
+                    }
+                }
+                else
+                {
+                    Receiver receiver;
+                    try
+                    {
+                        receiver = openReceiver(this.config, cell.getTransport(), index);
+                    }
+                    finally
+                    {
+                        opened.countDown();
+                    }
+                    try (receiver)
+                    {
+                        start.await();
+                        receiveAll(this.config, receiver, cell.getMessageSize(), messages);
+                    }
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        try
+        {
+            opened.await();
+            LatencyMetrics.Instance().reset();
+            CodecMetrics.Instance().reset();
+            FailureMetrics.Instance().reset();
+            long startMs = System.currentTimeMillis();
+            start.countDown();
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+            long endMs = System.currentTimeMillis();
+            return new CellResult(startMs, endMs, messageCount, messageCount * cell.getMessageSize(),
+                    FailureMetrics.Instance().getFailures());
+        }
+        catch (InterruptedException | ExecutionException e)
+        {
+            executor.shutdownNow();
+            throw new IOException("failed to run cell " + cell, e);
+        }
+    }
+
+    /**
+     * @return the chunk size of the streamed sends and receives, 0 if stream.enabled is false
+     */
+    static int streamChunkSizeOf(BenchmarkConfig config)
+    {
+        if (!config.getBoolean("stream.enabled", false))
+        {
+            return 0;
+        }
+        return (int) Math.max(1, config.getSize("stream.chunk.size", 1024 * 1024));
+    }
+
+    /**
+     * Write the payload to the channel of one message in chunks, as a producer of the payload would.
+     */
+    static void sendStreamed(Sender sender, ByteBuffer payload, int chunkSize) throws IOException
+    {
+        try (WritableByteChannel channel = sender.openChannel())
+        {
+            ByteBuffer chunk = payload.slice();
+            for (int position = 0; position < chunk.capacity(); position += chunkSize)
+            {
+                chunk.limit(Math.min(chunk.capacity(), position + chunkSize)).position(position);
+                while (chunk.hasRemaining())
+                {
+                    channel.write(chunk);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read one message from its channel in chunks into a pooled buffer, as a consumer of the payload would.
+     * @return the size of the message
+     */
+    static long receiveStreamed(Receiver receiver, int messageSize, ByteBuffer chunk) throws IOException
+    {
+        long bytes = 0;
+        try (ReadableByteChannel channel = receiver.receiveChannel(messageSize))
+        {
+            int read;
+            while ((read = channel.read(chunk.clear())) >= 0)
+            {
+                bytes += read;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Receive the messages with up to receive.async.window outstanding asynchronous receives, each payload
+     * is consumed by counting it in the {@link TimelineMetrics} and releasing it to the buffer pool. If the
+     * window is 0, the messages are received one by one, into pooled buffers if buffer.pool.enabled. If
+     * stream.enabled, the messages are received one by one from their channels.
+     */
+    static void receiveAll(BenchmarkConfig config, Receiver receiver, int messageSize, long messages)
+            throws IOException
+    {
+        int window = config.getInt("receive.async.window", 8);
+        boolean pooled = config.getBoolean("buffer.pool.enabled", true);
+        int streamChunkSize = streamChunkSizeOf(config);
+        BufferPool pool = BufferPool.Instance();
+        if (streamChunkSize > 0)
+        {
+            ByteBuffer chunk = pool.acquire(streamChunkSize);
+            try
+            {
+                for (long i = 0; i < messages; ++i)
+                {
+                    TimelineMetrics.Instance().recordMessage(receiveStreamed(receiver, messageSize, chunk));
+                }
+            }
+            finally
+            {
+                pool.release(chunk);
+            }
+        }
+        else if (window > 0)
+        {
+            Deque<CompletableFuture<ByteBuffer>> outstanding = new ArrayDeque<>(window);
+            for (long i = 0; i < messages; ++i)
+            {
+                if (outstanding.size() >= window)
+                {
+                    consume(pool, Futures.join(outstanding.poll()));
+                }
+                outstanding.add(receiver.receiveAsync(messageSize));
+            }
+            while (!outstanding.isEmpty())
+            {
+                consume(pool, Futures.join(outstanding.poll()));
+            }
+        }
+        else
+        {
+            for (long i = 0; i < messages; ++i)
+            {
+                if (pooled)
+                {
+                    ByteBuffer buffer = pool.acquire(messageSize);
+                    TimelineMetrics.Instance().recordMessage(receiver.receive(buffer));
+                    pool.release(buffer);
+                }
+                else
+                {
+                    consume(null, receiver.receive(messageSize));
+                }
+            }
+        }
+    }
+
+    private static void consume(BufferPool pool, ByteBuffer payload)
+    {
+        TimelineMetrics.Instance().recordMessage(payload.remaining());
+        if (pool != null)
+        {
+            pool.release(payload);
+        }
+    }
+
+    private PayloadPool payloadsOf(int messageSize) throws IOException
+    {
+        if (this.payloads == null || this.payloads.getPayloadSize() != messageSize)
+        {
+            // drop the previous pool before generating the next one
+            this.payloads = null;
+            this.payloads = PayloadPool.from(this.config, messageSize);
+        }
+        return this.payloads;
+    }
+
+    /**
+     * Open a sender of the transport, wrapped by the codec and latency stages enabled in the config.
+     */
+    static Sender openSender(BenchmarkConfig config, Transport transport, int index) throws IOException
+    {
+        Sender sender = transport.newSender(config, index);
+        if (config.getBoolean("codec.enabled", false))
+        {
+            sender = CodecSender.from(sender, config);
+        }
+        if (config.getBoolean("metrics.latency.enabled", true))
+        {
+            sender = new InstrumentedSender(sender);
+        }
+        return sender;
+    }
+
+    /**
+     * Open a receiver of the transport, wrapped by the codec and latency stages enabled in the config.
+     */
+    static Receiver openReceiver(BenchmarkConfig config, Transport transport, int index) throws IOException
+    {
+        Receiver receiver = transport.newReceiver(config, index);
+        if (config.getBoolean("codec.enabled", false))
+        {
+            receiver = new CodecReceiver(receiver);
+        }
+        if (config.getBoolean("metrics.latency.enabled", true))
+        {
+            receiver = new InstrumentedReceiver(receiver);
+        }
+        return receiver;
+    }
+
+    static void pause(long ms)
+    {
+        try
+        {
+            Thread.sleep(ms);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package io.pixelsdb.ccb.network.transfer;
+
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The channel of an S3 object written as it is produced. The written bytes fill parts of
+ * {@link TransferPolicy#getPartSize()} bytes from the buffer pool, and each full part is uploaded at once as
+ * a part of a multipart upload, which is created when the first part is full, with up to
+ * {@link TransferPolicy#getParallelism()} parts in flight: a write blocks while that many are in flight, so
+ * a producer faster than the network holds at most parallelism + 1 parts. When the channel is closed, the
+ * last part is uploaded and the upload completed, or an object smaller than a part is put by one request.
+ * The {@link #getCompletion()} future is completed when the object is complete, closing does not wait for it.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class MultipartUploadChannel implements WritableByteChannel
+{
+    private final S3AsyncClient s3Client;
+    private final String bucket;
+    private final String key;
+    private final int partSize;
+    private final Semaphore inFlight;
+    private final List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private CompletableFuture<String> uploadId = null;
+    private ByteBuffer part = null;
+    private volatile Throwable failure = null;
+    private boolean open = true;
+
+    public MultipartUploadChannel(S3AsyncClient s3Client, String bucket, String key, TransferPolicy policy)
+    {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.key = key;
+        this.partSize = (int) policy.getPartSize();
+        this.inFlight = new Semaphore(policy.getParallelism());
+    }
+
+    /**
+     * @throws IOException if a part failed to be uploaded, the object can then not be completed
+     */
+    @Override
+    public int write(ByteBuffer src) throws IOException
+    {
+        if (!this.open)
+        {
+            throw new ClosedChannelException();
+        }
+        if (this.failure != null)
+        {
+            throw new IOException("failed to upload a part of " + this.bucket + "/" + this.key, this.failure);
+        }
+        int bytes = src.remaining();
+        while (src.hasRemaining())
+        {
+            if (this.part == null)
+            {
+                this.part = BufferPool.Instance().acquire(this.partSize);
+            }
+            int length = Math.min(src.remaining(), this.part.remaining());
+            ByteBuffer slice = src.duplicate();
+            slice.limit(slice.position() + length);
+            this.part.put(slice);
+            src.position(src.position() + length);
+            if (!this.part.hasRemaining())
+            {
+                uploadPart();
+            }
+        }
+        return bytes;
+    }
+
+    private void uploadPart() throws IOException
+    {
+        if (this.uploadId == null)
+        {
+            this.uploadId = this.s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                    .bucket(this.bucket).key(this.key).build()).thenApply(created -> created.uploadId());
+        }
+        try
+        {
+            this.inFlight.acquire();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a part upload");
+        }
+        ByteBuffer body = this.part.flip();
+        this.part = null;
+        int partNumber = this.parts.size() + 1;
+        CompletableFuture<CompletedPart> future = this.uploadId.thenCompose(id -> this.s3Client.uploadPart(
+                UploadPartRequest.builder().bucket(this.bucket).key(this.key).uploadId(id)
+                        .partNumber(partNumber).contentLength((long) body.remaining()).build(),
+                AsyncRequestBody.fromByteBufferUnsafe(body)))
+                .thenApply(response -> CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+        future.whenComplete((res, err) -> {
+            if (err != null)
+            {
+                this.failure = err;
+            }
+            BufferPool.Instance().release(body);
+            this.inFlight.release();
+        });
+        this.parts.add(future);
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return this.open;
+    }
+
+    /**
+     * Upload the last part and complete the object, the completion is asynchronous.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (!this.open)
+        {
+            return;
+        }
+        this.open = false;
+        if (this.uploadId == null)
+        {
+            ByteBuffer body = this.part != null ? this.part.flip() : ByteBuffer.allocate(0);
+            this.part = null;
+            this.s3Client.putObject(PutObjectRequest.builder().bucket(this.bucket).key(this.key).build(),
+                    AsyncRequestBody.fromByteBufferUnsafe(body)).whenComplete((res, err) -> {
+                        BufferPool.Instance().release(body);
+                        complete(err);
+                    });
+            return;
+        }
+        if (this.part != null && this.part.position() > 0)
+        {
+            uploadPart();
+        }
+        else if (this.part != null)
+        {
+            BufferPool.Instance().release(this.part);
+            this.part = null;
+        }
+        CompletableFuture<String> uploadId = this.uploadId;
+        CompletableFuture.allOf(this.parts.toArray(new CompletableFuture<?>[0])).thenCompose(res -> {
+            List<CompletedPart> completed = new ArrayList<>(this.parts.size());
+            for (CompletableFuture<CompletedPart> part : this.parts)
+            {
+                completed.add(part.join());
+            }
+            return this.s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(this.bucket).key(this.key).uploadId(uploadId.join())
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build()).build());
+        }).whenComplete((res, err) -> {
+            if (err != null && !uploadId.isCompletedExceptionally())
+            {
+                this.s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(this.bucket).key(this.key).uploadId(uploadId.join()).build());
+            }
+            complete(err);
+        });
+    }
+
+    private void complete(Throwable err)
+    {
+        if (err == null)
+        {
+            this.completion.complete(null);
+        }
+        else
+        {
+            this.completion.completeExceptionally(err);
+        }
+    }
+
+    /**
+     * @return the future completed when the object is complete, after the channel is closed
+     */
+    public CompletableFuture<Void> getCompletion()
+    {
+        return completion;
+    }
+}
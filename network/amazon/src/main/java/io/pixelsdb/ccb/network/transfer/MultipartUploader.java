@@ -0,0 +1,111 @@
+package io.pixelsdb.ccb.network.transfer;
+
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uploads a payload as an S3 multipart upload, with up to {@link TransferPolicy#getParallelism()} parts in
+ * flight. The parts are views of the payload, so it is not copied, and it must not be modified until the
+ * upload completes. A failed upload is aborted so that its parts are not kept.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class MultipartUploader
+{
+    private final S3AsyncClient s3Client;
+    private final TransferPolicy policy;
+
+    public MultipartUploader(S3AsyncClient s3Client, TransferPolicy policy)
+    {
+        this.s3Client = s3Client;
+        this.policy = policy;
+    }
+
+    /**
+     * Upload the bytes between the position and the limit of the payload, which are not changed.
+     * @return the future completed when the object is complete
+     */
+    public CompletableFuture<Void> upload(String bucket, String key, ByteBuffer payload)
+    {
+        ByteBuffer content = payload.slice();
+        CreateMultipartUploadRequest request = CreateMultipartUploadRequest.builder().bucket(bucket).key(key).build();
+        return this.s3Client.createMultipartUpload(request).thenCompose(created -> {
+            String uploadId = created.uploadId();
+            Upload upload = new Upload(bucket, key, uploadId, content);
+            int lanes = Math.min(this.policy.getParallelism(), upload.parts.length);
+            CompletableFuture<?>[] laneFutures = new CompletableFuture<?>[lanes];
+            for (int i = 0; i < lanes; ++i)
+            {
+                laneFutures[i] = uploadNext(upload);
+            }
+            return CompletableFuture.allOf(laneFutures).thenCompose(res -> {
+                CompleteMultipartUploadRequest complete = CompleteMultipartUploadRequest.builder()
+                        .bucket(bucket).key(key).uploadId(uploadId)
+                        .multipartUpload(CompletedMultipartUpload.builder().parts(Arrays.asList(upload.parts)).build())
+                        .build();
+                return this.s3Client.completeMultipartUpload(complete);
+            }).whenComplete((res, err) -> {
+                if (err != null)
+                {
+                    this.s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                            .bucket(bucket).key(key).uploadId(uploadId).build());
+                }
+            });
+        }).thenApply(res -> null);
+    }
+
+    /**
+     * Upload the next part of the upload, and the parts after it one by one, until no part is left.
+     */
+    private CompletableFuture<Void> uploadNext(Upload upload)
+    {
+        int index = upload.next.getAndIncrement();
+        if (index >= upload.parts.length)
+        {
+            return CompletableFuture.completedFuture(null);
+        }
+        int partSize = (int) this.policy.getPartSize();
+        int offset = index * partSize;
+        int length = Math.min(partSize, upload.content.limit() - offset);
+        ByteBuffer part = upload.content.duplicate();
+        part.limit(offset + length).position(offset);
+        UploadPartRequest request = UploadPartRequest.builder().bucket(upload.bucket).key(upload.key)
+                .uploadId(upload.uploadId).partNumber(index + 1).contentLength((long) length).build();
+        return this.s3Client.uploadPart(request, AsyncRequestBody.fromByteBufferUnsafe(part.slice()))
+                .thenCompose(response -> {
+                    upload.parts[index] = CompletedPart.builder().partNumber(index + 1).eTag(response.eTag()).build();
+                    return uploadNext(upload);
+                });
+    }
+
+    private class Upload
+    {
+        private final String bucket;
+        private final String key;
+        private final String uploadId;
+        private final ByteBuffer content;
+        private final CompletedPart[] parts;
+        private final AtomicInteger next = new AtomicInteger(0);
+
+        private Upload(String bucket, String key, String uploadId, ByteBuffer content)
+        {
+            this.bucket = bucket;
+            this.key = key;
+            this.uploadId = uploadId;
+            this.content = content;
+            this.parts = new CompletedPart[policy.partsOf(content.remaining())];
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.pixelsdb.ccb.network.transfer;
+
+import io.pixelsdb.ccb.network.Futures;
+import io.pixelsdb.ccb.network.buffer.Buffers;
+import io.pixelsdb.pixels.common.physical.PhysicalReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reads large objects by concurrent ranged reads of {@link TransferPolicy#getPartSize()} bytes, with up to
+ * {@link TransferPolicy#getParallelism()} reads in flight, and assembles the parts in the destination buffer.
+ * Objects below the policy's threshold, and objects whose reader does not support asynchronous reads, are
+ * read by one {@link Buffers#readFully(PhysicalReader, ByteBuffer)}.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class RangedDownloader
+{
+    private final TransferPolicy policy;
+
+    public RangedDownloader(TransferPolicy policy)
+    {
+        this.policy = policy;
+    }
+
+    /**
+     * Read the object from its start into dst, up to dst.remaining() bytes, and advance the position of dst.
+     * The object may be shorter than dst, e.g., if the payload is compressed. If a part fails, the parts still
+     * in flight are awaited before the failure is thrown.
+     * @return the number of bytes read
+     */
+    public int readFully(PhysicalReader reader, ByteBuffer dst) throws IOException
+    {
+        int length = (int) Math.min(dst.remaining(), reader.getFileLength());
+        if (!this.policy.isParallel(length) || !reader.supportsAsync())
+        {
+            ByteBuffer target = dst.duplicate();
+            target.limit(target.position() + length);
+            Buffers.readFully(reader, target);
+            dst.position(target.position());
+            return length;
+        }
+        int partSize = (int) this.policy.getPartSize();
+        int parts = this.policy.partsOf(length);
+        int start = dst.position();
+        Deque<CompletableFuture<ByteBuffer>> outstanding = new ArrayDeque<>(this.policy.getParallelism());
+        int nextRead = 0;
+        int nextCopy = 0;
+        try
+        {
+            while (nextCopy < parts)
+            {
+                while (nextRead < parts && outstanding.size() < this.policy.getParallelism())
+                {
+                    long offset = (long) nextRead * partSize;
+                    outstanding.add(reader.readAsync(offset, (int) Math.min(partSize, length - offset)));
+                    nextRead++;
+                }
+                ByteBuffer part = Futures.join(outstanding.poll());
+                ByteBuffer target = dst.duplicate();
+                target.position(start + nextCopy * partSize);
+                target.put(part);
+                nextCopy++;
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            awaitAll(outstanding);
+            throw e;
+        }
+        dst.position(start + length);
+        return length;
+    }
+
+    /**
+     * Wait for the reads still in flight after a part failed, so none of them is running when the failure is
+     * propagated, e.g., while the read of the object is retried on the same reader and destination.
+     */
+    private static void awaitAll(Deque<CompletableFuture<ByteBuffer>> outstanding)
+    {
+        for (CompletableFuture<ByteBuffer> read : outstanding)
+        {
+            try
+            {
+                read.join();
+            }
+            catch (RuntimeException e)
+            {
+                // the failure of the first failed part is propagated
+            }
+        }
+    }
+}
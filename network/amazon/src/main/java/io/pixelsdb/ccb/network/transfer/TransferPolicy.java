@@ -0,0 +1,94 @@
+package io.pixelsdb.ccb.network.transfer;
+
+import io.pixelsdb.ccb.network.BenchmarkConfig;
+
+/**
+ * Whether and how large payloads are moved to and from S3 over several connections. If enabled, payloads of
+ * at least minBytes are uploaded as a multipart upload and downloaded by ranged GETs, in parts of partSize
+ * bytes, with up to parallelism parts in flight per payload.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TransferPolicy
+{
+    /**
+     * The minimum size of the parts of a multipart upload, except for the last part.
+     */
+    public static final long MIN_PART_SIZE = 5 * 1024 * 1024;
+    public static final long DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+    public static final int DEFAULT_PARALLELISM = 8;
+    public static final long DEFAULT_MIN_BYTES = 16 * 1024 * 1024;
+
+    private final boolean enabled;
+    private final long partSize;
+    private final int parallelism;
+    private final long minBytes;
+
+    public TransferPolicy(boolean enabled, long partSize, int parallelism, long minBytes)
+    {
+        if (partSize < MIN_PART_SIZE || partSize > Integer.MAX_VALUE || parallelism < 1)
+        {
+            throw new IllegalArgumentException("the part size must be in [5MB, 2GB) and the parallelism positive");
+        }
+        this.enabled = enabled;
+        this.partSize = partSize;
+        this.parallelism = parallelism;
+        this.minBytes = minBytes;
+    }
+
+    /**
+     * @return the policy that moves every payload in one request
+     */
+    public static TransferPolicy disabled()
+    {
+        return new TransferPolicy(false, DEFAULT_PART_SIZE, DEFAULT_PARALLELISM, DEFAULT_MIN_BYTES);
+    }
+
+    /**
+     * Create a policy from the transfer.* settings.
+     */
+    public static TransferPolicy from(BenchmarkConfig config)
+    {
+        return new TransferPolicy(config.getBoolean("transfer.parallel.enabled", false),
+                config.getSize("transfer.part.size", DEFAULT_PART_SIZE),
+                config.getInt("transfer.parallelism", DEFAULT_PARALLELISM),
+                config.getSize("transfer.parallel.min.bytes", DEFAULT_MIN_BYTES));
+    }
+
+    /**
+     * @return true if a payload of the given size is moved in parallel parts
+     */
+    public boolean isParallel(long bytes)
+    {
+        return this.enabled && bytes >= this.minBytes && bytes > this.partSize;
+    }
+
+    /**
+     * @return the number of parts a payload of the given size is split into
+     */
+    public int partsOf(long bytes)
+    {
+        return (int) ((bytes + this.partSize - 1) / this.partSize);
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public long getPartSize()
+    {
+        return partSize;
+    }
+
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    public long getMinBytes()
+    {
+        return minBytes;
+    }
+}
@@ -0,0 +1,49 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.exec.BoundedExecutor;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestBoundedExecutor
+{
+    @Test
+    public void testCap() throws Exception
+    {
+        BoundedExecutor executor = new BoundedExecutor(Executors.newCachedThreadPool(), 4);
+        AtomicInteger running = new AtomicInteger(0);
+        AtomicInteger maxRunning = new AtomicInteger(0);
+        CountDownLatch done = new CountDownLatch(64);
+        for (int i = 0; i < 64; ++i)
+        {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try
+                {
+                    Thread.sleep(2);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(maxRunning.get() <= 4);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(4, executor.getAvailable());
+    }
+}
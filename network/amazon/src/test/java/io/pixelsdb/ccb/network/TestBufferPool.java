@@ -0,0 +1,46 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestBufferPool
+{
+    @Test
+    public void testReuse()
+    {
+        BufferPool pool = new BufferPool(16 * 1024 * 1024, false);
+        ByteBuffer buffer = pool.acquire(5000);
+        assertEquals(8192, buffer.capacity());
+        assertEquals(5000, buffer.limit());
+        pool.release(buffer);
+        ByteBuffer reused = pool.acquire(6000);
+        assertSame(buffer, reused);
+        assertEquals(6000, reused.limit());
+        assertEquals(1, pool.getAllocations());
+        assertEquals(1, pool.getReuses());
+    }
+
+    @Test
+    public void testBounded()
+    {
+        BufferPool pool = new BufferPool(8 * 1024 * 1024, true);
+        ByteBuffer first = pool.acquire(8 * 1024 * 1024);
+        ByteBuffer second = pool.acquire(8 * 1024 * 1024);
+        pool.release(first);
+        pool.release(second);
+        pool.release(ByteBuffer.allocate(8 * 1024 * 1024));
+        assertEquals(8 * 1024 * 1024, pool.getPooledBytes());
+        assertSame(first, pool.acquire(1024 * 1024 * 7));
+        assertNotSame(second, pool.acquire(1024 * 1024 * 7));
+    }
+}
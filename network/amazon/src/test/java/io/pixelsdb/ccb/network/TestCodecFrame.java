@@ -0,0 +1,54 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.codec.Codec;
+import io.pixelsdb.ccb.network.codec.CodecFrame;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestCodecFrame
+{
+    @Test
+    public void testRoundTrip() throws IOException
+    {
+        int chunkSize = CodecFrame.MIN_CHUNK_SIZE;
+        ByteBuffer payload = ByteBuffer.allocate(3 * chunkSize + 100);
+        for (int i = 0; i < payload.capacity(); ++i)
+        {
+            payload.put((byte) i);
+        }
+        payload.flip();
+        BufferPool scratchPool = new BufferPool(16 * 1024 * 1024, true);
+        ByteBuffer frame = CodecFrame.encode(Codec.none, Codec.none.newChunkCodec(0), payload, chunkSize,
+                true, scratchPool, ForkJoinPool.commonPool());
+        assertEquals(0, payload.position());
+        assertEquals(CodecFrame.FIXED_HEADER_SIZE + 4 * Integer.BYTES + payload.remaining(), frame.remaining());
+        assertTrue(frame.remaining() <= CodecFrame.maxFrameSize(payload.remaining()));
+
+        CodecFrame header = CodecFrame.readHeader(frame);
+        assertEquals(Codec.none, header.getCodec());
+        assertEquals(payload.remaining(), header.getLength());
+        ByteBuffer decoded = ByteBuffer.allocate(header.getLength());
+        header.decode(frame, decoded, ForkJoinPool.commonPool());
+        decoded.flip();
+        assertEquals(payload, decoded);
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownCodec() throws IOException
+    {
+        ByteBuffer frame = ByteBuffer.allocate(CodecFrame.FIXED_HEADER_SIZE + Integer.BYTES);
+        frame.put((byte) 100).putInt(0).putInt(CodecFrame.MIN_CHUNK_SIZE).putInt(1).putInt(0).flip();
+        CodecFrame.readHeader(frame);
+    }
+}
@@ -2,11 +2,12 @@ package io.pixelsdb.ccb.network;
 
 import io.pixelsdb.ccb.network.http.HttpReceiver;
 import io.pixelsdb.ccb.network.http.HttpSender;
+import io.pixelsdb.ccb.network.payload.EntropyGenerator;
+import io.pixelsdb.ccb.network.payload.PayloadPool;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -44,10 +45,10 @@ public class TestHttp
         this.executor.submit(() -> {
             try (HttpSender sender = new HttpSender("localhost", 19200))
             {
-                ByteBuffer buffer = ByteBuffer.allocate(8 * 1024 * 1024);
+                PayloadPool payloads = PayloadPool.generate(new EntropyGenerator(8), 8 * 1024 * 1024, 4, false, 0);
                 for (int i = 0; i < 1280; i++)
                 {
-                    sender.send(buffer.array());
+                    sender.send(payloads.next());
                 }
                 System.out.println("send finished in " + (System.currentTimeMillis() - startTime) + " ms");
             } catch (IOException e)
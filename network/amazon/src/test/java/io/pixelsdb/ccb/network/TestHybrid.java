@@ -0,0 +1,52 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.sqs.FragmentAssembler;
+import io.pixelsdb.ccb.network.sqs.HybridPolicy;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestHybrid
+{
+    @Test
+    public void testRoute()
+    {
+        HybridPolicy policy = new HybridPolicy(1000, 5000);
+        assertEquals(HybridPolicy.Route.inline, policy.route(1000));
+        assertEquals(HybridPolicy.Route.fragment, policy.route(1001));
+        assertEquals(HybridPolicy.Route.fragment, policy.route(5000));
+        assertEquals(HybridPolicy.Route.s3, policy.route(5001));
+        assertEquals(2, policy.fragmentsOf(1001));
+        assertEquals(5, policy.fragmentsOf(5000));
+    }
+
+    @Test
+    public void testReassemble() throws Exception
+    {
+        FragmentAssembler assembler = new FragmentAssembler();
+        byte[] bytes = new byte[2500];
+        for (int i = 0; i < bytes.length; ++i)
+        {
+            bytes[i] = (byte) i;
+        }
+        ByteBuffer payload = ByteBuffer.wrap(bytes);
+        assertNull(assembler.add("a", 2000, 3, 2500, payload.duplicate().position(2000)));
+        assertNull(assembler.add("a", 0, 3, 2500, payload.duplicate().limit(1000)));
+        // a redelivered fragment is ignored
+        assertNull(assembler.add("a", 0, 3, 2500, payload.duplicate().limit(1000)));
+        assertEquals(1, assembler.getIncomplete());
+        ByteBuffer whole = assembler.add("a", 1000, 3, 2500, payload.duplicate().limit(2000).position(1000));
+        assertNotNull(whole);
+        assertEquals(0, assembler.getIncomplete());
+        assertEquals(2500, whole.remaining());
+        assertEquals(payload, whole);
+    }
+}
@@ -0,0 +1,56 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.flow.AdaptiveWindow;
+import io.pixelsdb.ccb.network.flow.InFlightLimiter;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestInFlightLimiter
+{
+    @Test
+    public void testReject() throws IOException
+    {
+        InFlightLimiter limiter = new InFlightLimiter(2, 1024, true, null);
+        limiter.acquire(2048);
+        try
+        {
+            limiter.acquire(1);
+            fail("the byte limit is exceeded");
+        }
+        catch (IOException e)
+        {
+            // expected
+        }
+        limiter.release(2048, 0);
+        limiter.acquire(512);
+        limiter.acquire(512);
+        assertEquals(2, limiter.getInFlightMessages());
+        assertEquals(1024, limiter.getInFlightBytes());
+    }
+
+    @Test
+    public void testAdaptiveWindow()
+    {
+        AdaptiveWindow window = new AdaptiveWindow(4, 1, 64);
+        for (int i = 0; i < 100; ++i)
+        {
+            window.update(10_000_000L);
+        }
+        int grown = window.getWindow();
+        assertTrue(grown > 4);
+        for (int i = 0; i < 4 * grown; ++i)
+        {
+            window.update(100_000_000L);
+        }
+        assertTrue(window.getWindow() < grown);
+    }
+}
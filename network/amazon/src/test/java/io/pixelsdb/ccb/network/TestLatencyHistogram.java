@@ -0,0 +1,34 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.metrics.LatencyHistogram;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestLatencyHistogram
+{
+    @Test
+    public void testPercentiles()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100000; ++i)
+        {
+            histogram.record(i * 1000);
+        }
+        assertEquals(100000, histogram.getCount());
+        assertEquals(100000000L, histogram.getMaxNanos());
+        long p50 = histogram.getPercentileNanos(50);
+        long p99 = histogram.getPercentileNanos(99);
+        long p999 = histogram.getPercentileNanos(99.9);
+        assertTrue(Math.abs(p50 - 50000000L) <= 50000000L / 32);
+        assertTrue(Math.abs(p99 - 99000000L) <= 99000000L / 32);
+        assertTrue(Math.abs(p999 - 99900000L) <= 99900000L / 32);
+        histogram.reset();
+        assertEquals(0, histogram.getPercentileNanos(99));
+    }
+}
@@ -0,0 +1,98 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.local.LocalCloud;
+import io.pixelsdb.ccb.network.local.LocalS3;
+import io.pixelsdb.ccb.network.local.LocalSqs;
+import io.pixelsdb.ccb.network.local.ShapingPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestLocalCloud
+{
+    private final HttpClient client = HttpClient.newHttpClient();
+    private LocalCloud cloud;
+
+    @Before
+    public void start() throws IOException
+    {
+        this.cloud = new LocalCloud(0, new LocalS3(ShapingPolicy.unshaped(), 1024 * 1024),
+                new LocalSqs(ShapingPolicy.unshaped(), 256 * 1024));
+    }
+
+    @After
+    public void stop()
+    {
+        this.cloud.close();
+    }
+
+    @Test
+    public void testObjects() throws IOException, InterruptedException
+    {
+        String url = this.cloud.getEndpoint() + "/bucket/dir/object";
+        byte[] content = new byte[1000];
+        for (int i = 0; i < content.length; ++i)
+        {
+            content[i] = (byte) i;
+        }
+        HttpResponse<byte[]> put = this.client.send(HttpRequest.newBuilder(URI.create(url))
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(content)).build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, put.statusCode());
+        HttpResponse<byte[]> get = this.client.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Range", "bytes=100-199").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(206, get.statusCode());
+        assertEquals("bytes 100-199/1000", get.headers().firstValue("Content-Range").orElse(null));
+        byte[] expected = new byte[100];
+        System.arraycopy(content, 100, expected, 0, 100);
+        assertArrayEquals(expected, get.body());
+        HttpResponse<byte[]> missing = this.client.send(HttpRequest.newBuilder(URI.create(url + "-missing"))
+                .GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(404, missing.statusCode());
+    }
+
+    @Test
+    public void testMessages() throws IOException, InterruptedException
+    {
+        String queueUrl = this.cloud.getQueueUrl("test");
+        Map<String, Object> sent = sqs("SendMessageBatch", "{\"QueueUrl\":\"" + queueUrl + "\",\"Entries\":[" +
+                "{\"Id\":\"0\",\"MessageBody\":\"first\"},{\"Id\":\"1\",\"MessageBody\":\"second\"}]}");
+        assertEquals(2, ((List<?>) sent.get("Successful")).size());
+        Map<String, Object> received = sqs("ReceiveMessage", "{\"QueueUrl\":\"" + queueUrl +
+                "\",\"MaxNumberOfMessages\":10,\"WaitTimeSeconds\":1}");
+        List<?> messages = (List<?>) received.get("Messages");
+        assertEquals(2, messages.size());
+        Map<?, ?> first = (Map<?, ?>) messages.get(0);
+        assertEquals("first", first.get("Body"));
+        // the md5 of "first"
+        assertEquals("8b04d5e3775d298e78455efc5ca404d5", first.get("MD5OfBody"));
+        assertEquals(2, this.cloud.getSqs().getDepth("test"));
+        sqs("DeleteMessage", "{\"QueueUrl\":\"" + queueUrl + "\",\"ReceiptHandle\":\"" +
+                first.get("ReceiptHandle") + "\"}");
+        assertEquals(1, this.cloud.getSqs().getDepth("test"));
+    }
+
+    private Map<String, Object> sqs(String operation, String body) throws IOException, InterruptedException
+    {
+        HttpResponse<String> response = this.client.send(HttpRequest.newBuilder(URI.create(this.cloud.getEndpoint()))
+                .header("X-Amz-Target", "AmazonSQS." + operation)
+                .header("Content-Type", "application/x-amz-json-1.0")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(response.body(), 200, response.statusCode());
+        return Json.parseObject(response.body());
+    }
+}
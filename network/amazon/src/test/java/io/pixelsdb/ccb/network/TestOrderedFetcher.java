@@ -0,0 +1,103 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.sqs.OrderPolicy;
+import io.pixelsdb.ccb.network.sqs.OrderedFetcher;
+import io.pixelsdb.ccb.network.sqs.PrefetchPolicy;
+import io.pixelsdb.ccb.network.sqs.Prefetcher;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestOrderedFetcher
+{
+    @Test
+    public void testOrder() throws IOException
+    {
+        int messages = 1000;
+        int window = 8;
+        // the messages arrive shuffled, and every tenth one is redelivered later
+        List<Integer> arrivals = new ArrayList<>();
+        for (int i = 0; i < messages; ++i)
+        {
+            arrivals.add(i);
+        }
+        Collections.shuffle(arrivals, new Random(0));
+        for (int i = 0; i < messages; i += 10)
+        {
+            arrivals.add(i);
+        }
+        ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>(arrivals);
+        Prefetcher.Poller<Integer> poller = maxMessages -> {
+            List<Integer> polled = new ArrayList<>();
+            Integer message;
+            while (polled.size() < maxMessages && (message = queue.poll()) != null)
+            {
+                polled.add(message);
+            }
+            return polled;
+        };
+        AtomicInteger inFlight = new AtomicInteger(0);
+        AtomicInteger maxInFlight = new AtomicInteger(0);
+        Prefetcher.Fetcher<Integer> fetcher = message -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            ByteBuffer buffer = BufferPool.Instance().acquire(4);
+            return buffer.putInt(message).flip();
+        };
+        AtomicInteger discarded = new AtomicInteger(0);
+        try (OrderedFetcher<Integer> fetcher0 = new OrderedFetcher<>(new OrderPolicy(true, window),
+                new PrefetchPolicy(false, 2, 64, 4, 4, 0), poller, Integer::longValue, fetcher,
+                message -> discarded.incrementAndGet()))
+        {
+            for (int i = 0; i < messages; ++i)
+            {
+                ByteBuffer payload = i % 2 == 0 ? fetcher0.take() : Futures.join(fetcher0.takeAsync());
+                assertEquals(i, payload.getInt());
+                BufferPool.Instance().release(payload);
+                inFlight.decrementAndGet();
+            }
+            assertEquals(messages, fetcher0.getDelivered());
+        }
+        // the payloads fetched but not delivered never exceed the window, plus the one taken but not yet counted
+        assertTrue("max in flight " + maxInFlight.get(), maxInFlight.get() <= window + 1);
+        assertTrue(discarded.get() <= messages / 10);
+    }
+
+    @Test(expected = IOException.class)
+    public void testFetchFailure() throws IOException
+    {
+        ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>(List.of(1, 0, 2));
+        Prefetcher.Poller<Integer> poller = maxMessages -> {
+            Integer message = queue.poll();
+            return message == null ? List.of() : List.of(message);
+        };
+        Prefetcher.Fetcher<Integer> fetcher = message -> {
+            if (message == 1)
+            {
+                throw new IOException("failed to fetch " + message);
+            }
+            return BufferPool.Instance().acquire(4).putInt(message).flip();
+        };
+        try (OrderedFetcher<Integer> fetcher0 = new OrderedFetcher<>(new OrderPolicy(true, 4),
+                new PrefetchPolicy(false, 1, 64, 2, 4, 0), poller, Integer::longValue, fetcher, message -> { }))
+        {
+            BufferPool.Instance().release(fetcher0.take());
+            // the payload of 1 can not be skipped
+            fetcher0.take();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.pack.PackIndex;
+import io.pixelsdb.ccb.network.pack.PackPolicy;
+import io.pixelsdb.ccb.network.pack.Packer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestPacker
+{
+    @Test
+    public void testPackAndIndex() throws Exception
+    {
+        List<ByteBuffer> objects = new CopyOnWriteArrayList<>();
+        PackPolicy policy = new PackPolicy(true, 1024 * 1024, 3, 60000, true);
+        Packer packer = new Packer(policy, object -> {
+            objects.add(object);
+            return CompletableFuture.completedFuture(null);
+        });
+        CompletableFuture<Void> first = packer.add(payload(100, (byte) 1));
+        packer.add(payload(200, (byte) 2));
+        assertFalse(first.isDone());
+        packer.add(payload(300, (byte) 3));
+        assertTrue(first.isDone());
+        assertEquals(1, objects.size());
+
+        ByteBuffer object = objects.get(0);
+        assertEquals(600 + PackIndex.footerSize(3), object.remaining());
+        PackIndex index = PackIndex.parse(object);
+        assertEquals(3, index.getCount());
+        for (int i = 0; i < 3; ++i)
+        {
+            assertEquals((i + 1) * 100, index.getLength(i));
+            assertEquals(i * (i + 1) * 50, index.getOffset(i));
+            assertEquals((byte) (i + 1), object.get((int) index.getOffset(i)));
+        }
+
+        packer.add(payload(10, (byte) 4));
+        packer.close();
+        assertEquals(2, objects.size());
+        assertEquals(1, PackIndex.parse(objects.get(1)).getCount());
+    }
+
+    @Test
+    public void testLinger() throws Exception
+    {
+        List<ByteBuffer> objects = new CopyOnWriteArrayList<>();
+        PackPolicy policy = new PackPolicy(true, 1024 * 1024, 1024, 10, true);
+        Packer packer = new Packer(policy, object -> {
+            objects.add(object);
+            return CompletableFuture.completedFuture(null);
+        });
+        packer.add(payload(100, (byte) 1)).get(10, TimeUnit.SECONDS);
+        assertEquals(1, objects.size());
+        packer.close();
+    }
+
+    private static ByteBuffer payload(int size, byte value)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining())
+        {
+            buffer.put(value);
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,58 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.payload.EntropyGenerator;
+import io.pixelsdb.ccb.network.payload.PayloadPool;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestPayloadPool
+{
+    @Test
+    public void testEntropy()
+    {
+        EntropyGenerator generator = new EntropyGenerator(2);
+        assertEquals(4, generator.getAlphabet());
+        ByteBuffer buffer = ByteBuffer.allocate(100000);
+        generator.fill(buffer, 1);
+        assertEquals(buffer.limit(), buffer.position());
+        boolean[] seen = new boolean[256];
+        for (int i = 0; i < buffer.limit(); ++i)
+        {
+            seen[buffer.get(i) & 0xff] = true;
+        }
+        for (int i = 0; i < seen.length; ++i)
+        {
+            assertEquals(i < 4, seen[i]);
+        }
+    }
+
+    @Test
+    public void testPool() throws IOException
+    {
+        PayloadPool pool = PayloadPool.generate(new EntropyGenerator(8), 4096, 3, true, 7);
+        assertEquals(3, pool.getSize());
+        assertEquals(4096, pool.getPayloadSize());
+        ByteBuffer first = pool.next();
+        ByteBuffer second = pool.next();
+        pool.next();
+        assertTrue(first.isDirect());
+        assertEquals(0, first.position());
+        assertEquals(4096, first.limit());
+        assertNotSame(first, second);
+        assertNotEquals(first, second);
+        assertSame(first, pool.next());
+        assertEquals(first, PayloadPool.generate(new EntropyGenerator(8), 4096, 1, false, 7).next());
+    }
+}
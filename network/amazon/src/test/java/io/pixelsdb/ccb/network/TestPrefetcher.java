@@ -0,0 +1,72 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.buffer.BufferPool;
+import io.pixelsdb.ccb.network.sqs.PrefetchPolicy;
+import io.pixelsdb.ccb.network.sqs.Prefetcher;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestPrefetcher
+{
+    @Test
+    public void testPrefetch() throws IOException, InterruptedException
+    {
+        AtomicInteger next = new AtomicInteger(0);
+        AtomicInteger maxRequested = new AtomicInteger(0);
+        PrefetchPolicy policy = new PrefetchPolicy(true, 2, 8, 4, 4, 0);
+        Prefetcher.Poller<Integer> poller = maxMessages -> {
+            maxRequested.accumulateAndGet(maxMessages, Math::max);
+            List<Integer> messages = new ArrayList<>();
+            for (int i = 0; i < maxMessages && next.get() < 100; ++i)
+            {
+                messages.add(next.getAndIncrement());
+            }
+            return messages;
+        };
+        Prefetcher.Fetcher<Integer> fetcher = message -> {
+            if (message == 13)
+            {
+                throw new IOException("failed to fetch " + message);
+            }
+            ByteBuffer buffer = BufferPool.Instance().acquire(4);
+            return buffer.putInt(message).flip();
+        };
+        Set<Integer> received = new HashSet<>();
+        try (Prefetcher<Integer> prefetcher = new Prefetcher<>(policy, poller, fetcher))
+        {
+            Thread.sleep(200);
+            // the pipeline is bounded while nothing is taken
+            assertTrue(prefetcher.getPending() <= 8);
+            assertEquals(4, prefetcher.getBuffered());
+            for (int i = 0; i < 99; ++i)
+            {
+                ByteBuffer payload = i % 2 == 0 ? prefetcher.take() : Futures.join(prefetcher.takeAsync());
+                received.add(payload.getInt());
+                BufferPool.Instance().release(payload);
+            }
+        }
+        assertEquals(99, received.size());
+        assertTrue(!received.contains(13));
+        assertTrue(maxRequested.get() <= PrefetchPolicy.MAX_POLL_MESSAGES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWait()
+    {
+        new PrefetchPolicy(true, 1, 1, 1, 1, 21);
+    }
+}
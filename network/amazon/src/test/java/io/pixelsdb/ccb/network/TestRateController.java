@@ -0,0 +1,152 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.flow.RateController;
+import io.pixelsdb.ccb.network.flow.RatePolicy;
+import io.pixelsdb.ccb.network.flow.Throttling;
+import io.pixelsdb.ccb.network.retry.Retrier;
+import io.pixelsdb.ccb.network.retry.RetryPolicy;
+import org.junit.Test;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestRateController
+{
+    private static final double MB = 1024 * 1024;
+
+    private static RatePolicy aimd()
+    {
+        return new RatePolicy(true, 100 * MB, 10 * MB, 1000 * MB, 10 * MB, 4, 1, 16, 0.5, 2, 0);
+    }
+
+    private static void round(RateController controller, long latencyNanos, Throwable failure) throws IOException
+    {
+        int requests = controller.getConcurrency();
+        for (int i = 0; i < requests; ++i)
+        {
+            controller.acquire(1);
+        }
+        for (int i = 0; i < requests; ++i)
+        {
+            controller.release(latencyNanos, failure);
+        }
+    }
+
+    @Test
+    public void testAdditiveIncrease() throws IOException
+    {
+        try (RateController controller = new RateController(aimd()))
+        {
+            for (int i = 0; i < 3; ++i)
+            {
+                round(controller, 1_000_000L, null);
+            }
+            assertEquals(130 * MB, controller.getRate(), 1);
+            assertEquals(7, controller.getConcurrency());
+        }
+    }
+
+    @Test
+    public void testThrottleCut() throws IOException
+    {
+        try (RateController controller = new RateController(aimd()))
+        {
+            round(controller, 1_000_000L, null);
+            SdkServiceException slowDown = SdkServiceException.builder().statusCode(503).message("SlowDown").build();
+            round(controller, 1_000_000L, new CompletionException(slowDown));
+            // one cut per round however many requests are throttled
+            assertEquals(55 * MB, controller.getRate(), 1);
+            assertEquals(2, controller.getConcurrency());
+            assertEquals(5, controller.getThrottles());
+        }
+    }
+
+    @Test
+    public void testThrottledRetry() throws IOException
+    {
+        try (RateController controller = new RateController(aimd()))
+        {
+            Retrier retrier = new Retrier(new RetryPolicy(3, 1, 4), controller::onRetry);
+            SdkServiceException slowDown = SdkServiceException.builder().statusCode(503).message("SlowDown").build();
+            AtomicInteger attempts = new AtomicInteger(0);
+            controller.acquire(1);
+            CompletableFuture<Integer> future = retrier.callAsync(() -> attempts.incrementAndGet() < 3 ?
+                    CompletableFuture.failedFuture(slowDown) : CompletableFuture.completedFuture(42));
+            assertEquals(42, (int) Futures.join(future));
+            // the limits are cut by the first throttled attempt, before the request completes
+            assertEquals(50 * MB, controller.getRate(), 1);
+            assertEquals(2, controller.getConcurrency());
+            assertEquals(2, controller.getThrottles());
+            controller.release(1_000_000L, null);
+        }
+    }
+
+    @Test
+    public void testLatencyDecrease() throws IOException
+    {
+        try (RateController controller = new RateController(aimd()))
+        {
+            round(controller, 1_000_000L, null);
+            round(controller, 10_000_000L, null);
+            assertEquals(55 * MB, controller.getRate(), 1);
+        }
+    }
+
+    @Test
+    public void testFixed() throws IOException
+    {
+        try (RateController controller = new RateController(RatePolicy.fixed(100 * MB)))
+        {
+            SdkServiceException slowDown = SdkServiceException.builder().statusCode(503).message("SlowDown").build();
+            for (int i = 0; i < 100; ++i)
+            {
+                controller.acquire(1);
+                controller.release(1_000_000L, i % 2 == 0 ? slowDown : null);
+            }
+            assertEquals(100 * MB, controller.getRate(), 1);
+        }
+    }
+
+    @Test
+    public void testCancel() throws IOException
+    {
+        try (RateController controller = new RateController(aimd()))
+        {
+            // the cancelled requests give their slots back, so the next ones do not wait for them
+            for (int round = 0; round < 3; ++round)
+            {
+                for (int i = 0; i < 4; ++i)
+                {
+                    controller.acquire(1);
+                }
+                for (int i = 0; i < 4; ++i)
+                {
+                    controller.cancel();
+                }
+            }
+            assertEquals(100 * MB, controller.getRate(), 1);
+            assertEquals(4, controller.getConcurrency());
+        }
+    }
+
+    @Test
+    public void testThrottling()
+    {
+        assertTrue(Throttling.isThrottle(new CompletionException(
+                SdkServiceException.builder().statusCode(503).message("SlowDown").build())));
+        assertFalse(Throttling.isThrottle(new CompletionException(
+                SdkServiceException.builder().statusCode(404).message("NoSuchKey").build())));
+        assertFalse(Throttling.isThrottle(new IOException("connection reset")));
+    }
+}
@@ -0,0 +1,50 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.flow.ReorderBuffer;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestReorderBuffer
+{
+    @Test
+    public void testReorder() throws Exception
+    {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>();
+        buffer.put(2, "c");
+        buffer.put(0, "a");
+        assertEquals("a", buffer.take());
+        Thread producer = new Thread(() -> buffer.put(1, "b"));
+        producer.start();
+        assertEquals("b", buffer.take());
+        assertEquals("c", buffer.take());
+        assertEquals(3, buffer.getNext());
+        assertEquals(0, buffer.getPending());
+        producer.join();
+    }
+
+    @Test
+    public void testFail()
+    {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>();
+        buffer.put(1, "b");
+        buffer.fail(new IOException("connection lost"));
+        try
+        {
+            buffer.take();
+        }
+        catch (IOException e)
+        {
+            assertEquals("connection lost", e.getMessage());
+            return;
+        }
+        fail("take should fail");
+    }
+}
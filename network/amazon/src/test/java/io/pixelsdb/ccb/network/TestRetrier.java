@@ -0,0 +1,112 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.retry.HedgePolicy;
+import io.pixelsdb.ccb.network.retry.Hedger;
+import io.pixelsdb.ccb.network.retry.Retrier;
+import io.pixelsdb.ccb.network.retry.RetryPolicy;
+import org.junit.Test;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestRetrier
+{
+    @Test
+    public void testConnectionFailure()
+    {
+        assertTrue(Retrier.isConnectionFailure(new CompletionException(new IOException(new ConnectException()))));
+        assertTrue(Retrier.isConnectionFailure(new SocketTimeoutException("read timed out")));
+        assertFalse(Retrier.isConnectionFailure(new CompletionException(new IOException("no such key"))));
+        assertFalse(Retrier.isConnectionFailure(null));
+    }
+
+    @Test
+    public void testRetry() throws IOException
+    {
+        Retrier retrier = new Retrier(new RetryPolicy(4, 1, 4));
+        AtomicInteger attempts = new AtomicInteger(0);
+        int result = retrier.call(() -> {
+            if (attempts.incrementAndGet() < 3)
+            {
+                throw new IOException("connection reset");
+            }
+            return 42;
+        });
+        assertEquals(42, result);
+        assertEquals(3, attempts.get());
+
+        attempts.set(0);
+        try
+        {
+            retrier.run(() -> {
+                attempts.incrementAndGet();
+                throw new IOException("connection reset");
+            });
+            fail("the attempts are exhausted");
+        }
+        catch (IOException e)
+        {
+            assertEquals(4, attempts.get());
+        }
+    }
+
+    @Test
+    public void testNotRetryable()
+    {
+        assertFalse(Retrier.isRetryable(SdkServiceException.builder().statusCode(404).message("NoSuchKey").build()));
+        assertTrue(Retrier.isRetryable(SdkServiceException.builder().statusCode(503).message("SlowDown").build()));
+        assertTrue(Retrier.isRetryable(new IOException("connection reset")));
+        assertFalse(Retrier.isRetryable(new IOException(new InterruptedException())));
+    }
+
+    @Test
+    public void testRetryAsync() throws IOException
+    {
+        Retrier retrier = new Retrier(new RetryPolicy(3, 1, 4));
+        AtomicInteger attempts = new AtomicInteger(0);
+        CompletableFuture<Integer> future = retrier.callAsync(() -> attempts.incrementAndGet() < 3 ?
+                CompletableFuture.failedFuture(new IOException("connection reset")) :
+                CompletableFuture.completedFuture(42));
+        assertEquals(42, (int) Futures.join(future));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testHedge() throws IOException
+    {
+        Hedger hedger = new Hedger(new HedgePolicy(true, 50, 1, 4));
+        for (int i = 0; i < 4; ++i)
+        {
+            Futures.join(hedger.call(() -> CompletableFuture.completedFuture(0), null));
+        }
+        assertTrue(hedger.getDelayNanos() >= TimeUnit.MILLISECONDS.toNanos(1));
+
+        // the first request never completes in time, so the hedge is taken and the late result discarded
+        AtomicInteger requests = new AtomicInteger(0);
+        AtomicInteger discarded = new AtomicInteger(0);
+        CompletableFuture<Integer> slow = new CompletableFuture<>();
+        long hedgeWins = Hedger.getHedgeWins();
+        CompletableFuture<Integer> future = hedger.call(() -> requests.incrementAndGet() == 1 ? slow :
+                CompletableFuture.completedFuture(2), value -> discarded.incrementAndGet());
+        assertEquals(2, (int) Futures.join(future));
+        assertEquals(2, requests.get());
+        assertEquals(hedgeWins + 1, Hedger.getHedgeWins());
+        slow.complete(1);
+        assertEquals(1, discarded.get());
+    }
+}
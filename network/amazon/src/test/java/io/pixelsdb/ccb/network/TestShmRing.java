@@ -0,0 +1,132 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.shm.ShmReceiver;
+import io.pixelsdb.ccb.network.shm.ShmRing;
+import io.pixelsdb.ccb.network.shm.ShmSender;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestShmRing
+{
+    @Test
+    public void testWrapAround() throws Exception
+    {
+        Path dir = Files.createTempDirectory("shm-test");
+        Path path = dir.resolve("ring");
+        try (ShmRing consumer = ShmRing.create(path, 4096);
+             ShmRing producer = ShmRing.attach(path, 1000))
+        {
+            assertNull(consumer.poll());
+            // the sizes are not multiples of the alignment, so the messages wrap at varying offsets
+            for (int i = 0; i < 200; ++i)
+            {
+                int size = (i * 37) % 1500;
+                producer.write(messageOf(i, size));
+                ByteBuffer message = consumer.read();
+                assertEquals(size, message.remaining());
+                assertTrue(message.isReadOnly());
+                for (int j = 0; j < size; ++j)
+                {
+                    assertEquals((byte) (i + j), message.get(message.position() + j));
+                }
+                // the producer runs in this thread, so it can not wait for the consumer to release the message
+                consumer.release();
+            }
+            assertEquals(0, producer.getUsedBytes());
+        }
+        assertFalse(Files.exists(path));
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testTooLarge() throws Exception
+    {
+        Path dir = Files.createTempDirectory("shm-test");
+        try (ShmRing ring = ShmRing.create(dir.resolve("ring"), 4096))
+        {
+            ring.write(ByteBuffer.allocate(ring.getMaxMessageBytes()));
+            assertEquals(ring.getMaxMessageBytes(), ring.read().remaining());
+            ring.write(ByteBuffer.allocate(ring.getMaxMessageBytes() + 1));
+            fail("the message should not fit in the ring");
+        }
+        catch (IOException e)
+        {
+            assertTrue(e.getMessage().contains("exceeds"));
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testProducers() throws Exception
+    {
+        Path dir = Files.createTempDirectory("shm-test");
+        Path path = dir.resolve("ring");
+        int producers = 4;
+        int messages = 2000;
+        try (ShmReceiver receiver = new ShmReceiver(path, 16 * 1024))
+        {
+            List<Thread> threads = new ArrayList<>(producers);
+            for (int p = 0; p < producers; ++p)
+            {
+                int producer = p;
+                Thread thread = new Thread(() -> {
+                    try (ShmSender sender = new ShmSender(path, 1000))
+                    {
+                        for (int i = 0; i < messages; ++i)
+                        {
+                            ByteBuffer message = ByteBuffer.allocate(8 + (i % 64) * 8);
+                            message.putInt(0, producer).putInt(4, i);
+                            sender.send(message);
+                        }
+                    }
+                    catch (IOException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            int[] next = new int[producers];
+            for (int i = 0; i < producers * messages; ++i)
+            {
+                ByteBuffer message = i % 2 == 0 ? receiver.receiveSlice() : receiver.receive(0);
+                int producer = message.getInt(message.position());
+                // the messages of each producer are received in the order they are sent
+                assertEquals(next[producer]++, message.getInt(message.position() + 4));
+                assertEquals(8 + (next[producer] - 1) % 64 * 8, message.remaining());
+            }
+            for (Thread thread : threads)
+            {
+                thread.join();
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private static ByteBuffer messageOf(int seed, int size)
+    {
+        ByteBuffer message = ByteBuffer.allocate(size);
+        for (int j = 0; j < size; ++j)
+        {
+            message.put(j, (byte) (seed + j));
+        }
+        return message;
+    }
+}
@@ -0,0 +1,72 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.shuffle.ShufflePlan;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestShufflePlan
+{
+    @Test
+    public void testUniform()
+    {
+        ShufflePlan plan = new ShufflePlan(4, 8, 1000, 0, 0);
+        long total = 0;
+        for (int i = 0; i < 8; ++i)
+        {
+            total += plan.getPartitionMessages(i);
+        }
+        assertEquals(1000, total);
+        assertEquals(250, plan.getSenderMessages(0));
+        assertEquals(32, plan.getMessages(0, 0));
+        assertEquals(31, plan.getMessages(0, 7));
+    }
+
+    @Test
+    public void testSkew()
+    {
+        ShufflePlan plan = new ShufflePlan(2, 4, 1000, 0, 1);
+        // the weights are 1, 1/2, 1/3, and 1/4 of 500 messages per sender
+        assertEquals(240, plan.getMessages(1, 0));
+        assertEquals(120, plan.getMessages(1, 1));
+        assertEquals(80, plan.getMessages(1, 2));
+        assertEquals(60, plan.getMessages(1, 3));
+        assertEquals(480, plan.getPartitionMessages(0));
+    }
+
+    @Test
+    public void testSchedule()
+    {
+        ShufflePlan plan = new ShufflePlan(1, 3, 12, 0, 1);
+        int[] schedule = plan.scheduleOf(0);
+        assertEquals(12, schedule.length);
+        int[] counts = new int[3];
+        for (int i = 0; i < schedule.length; ++i)
+        {
+            counts[schedule[i]]++;
+            // the hottest partition is spread over the schedule rather than sent to in one burst
+            assertTrue(counts[0] >= (i + 1) * plan.getMessages(0, 0) / 12 - 1);
+        }
+        for (int i = 0; i < 3; ++i)
+        {
+            assertEquals(plan.getMessages(0, i), counts[i]);
+        }
+    }
+
+    @Test
+    public void testPartitionConfig()
+    {
+        Properties properties = new Properties();
+        properties.setProperty("transport.sqs.queue.url", "http://127.0.0.1:4566/000000000000/shuffle");
+        BenchmarkConfig config = ShufflePlan.configOf(new BenchmarkConfig(properties), 7);
+        assertEquals("http://127.0.0.1:4566/000000000000/shuffle-7", config.getString("transport.sqs.queue.url"));
+        assertEquals(7 * 64 + 3, ShufflePlan.flowOf(7, 3, 64));
+    }
+}
@@ -0,0 +1,133 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.buffer.SpillPolicy;
+import io.pixelsdb.ccb.network.buffer.SpillQueue;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestSpillQueue
+{
+    @Test
+    public void testSpillInOrder() throws Exception
+    {
+        Path dir = Files.createTempDirectory("spill-test");
+        SpillQueue queue = new SpillQueue(new SpillPolicy(true, 3000, 4096, dir.toString()));
+        for (int i = 0; i < 10; ++i)
+        {
+            queue.put(payloadOf(i, 1000));
+        }
+        assertEquals(10, queue.size());
+        assertEquals(3000, queue.getMemoryBytes());
+        assertEquals(7, queue.getSpills());
+        assertEquals(7000, queue.getSpilledBytes());
+        // four payloads fit in a segment
+        assertEquals(2, queue.getSegments());
+        assertEquals(2, countFiles(dir));
+
+        for (int i = 0; i < 10; ++i)
+        {
+            ByteBuffer payload = queue.take();
+            assertEquals(1000, payload.remaining());
+            assertEquals((byte) i, payload.get(payload.position()));
+            assertEquals((byte) i, payload.get(payload.limit() - 1));
+        }
+        assertNull(queue.poll());
+        assertEquals(0, queue.getMemoryBytes());
+        // the segment being written is kept until the queue is closed
+        assertEquals(1, countFiles(dir));
+        queue.close();
+        assertEquals(0, countFiles(dir));
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testLargePayload() throws Exception
+    {
+        Path dir = Files.createTempDirectory("spill-test");
+        try (SpillQueue queue = new SpillQueue(new SpillPolicy(true, 0, 1024, dir.toString())))
+        {
+            ByteBuffer source = payloadOf(7, 5000);
+            queue.put(source);
+            source.put(0, (byte) 1);
+            ByteBuffer payload = queue.poll();
+            assertEquals(5000, payload.remaining());
+            assertEquals(7, payload.get(0));
+            assertEquals(1, queue.getSegments());
+        }
+        assertEquals(0, countFiles(dir));
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testDisabled() throws Exception
+    {
+        try (SpillQueue queue = new SpillQueue(SpillPolicy.disabled()))
+        {
+            ByteBuffer source = payloadOf(3, 100);
+            queue.put(source);
+            assertEquals(100, queue.getMemoryBytes());
+            assertTrue(source == queue.take());
+            assertEquals(0, queue.getSpills());
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception
+    {
+        SpillQueue queue = new SpillQueue(SpillPolicy.disabled());
+        Thread closer = new Thread(() -> {
+            try
+            {
+                Thread.sleep(50);
+                queue.close();
+            }
+            catch (IOException | InterruptedException e)
+            {
+                throw new RuntimeException(e);
+            }
+        });
+        closer.start();
+        try
+        {
+            queue.take();
+        }
+        catch (IOException e)
+        {
+            closer.join();
+            return;
+        }
+        fail("take should fail once the queue is closed");
+    }
+
+    private static ByteBuffer payloadOf(int value, int size)
+    {
+        ByteBuffer payload = ByteBuffer.allocate(size);
+        for (int i = 0; i < size; ++i)
+        {
+            payload.put(i, (byte) value);
+        }
+        return payload;
+    }
+
+    private static long countFiles(Path dir) throws IOException
+    {
+        try (Stream<Path> files = Files.list(dir))
+        {
+            return files.count();
+        }
+    }
+}
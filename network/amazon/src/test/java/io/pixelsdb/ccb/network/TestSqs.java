@@ -2,11 +2,12 @@ package io.pixelsdb.ccb.network;
 
 import io.pixelsdb.ccb.network.sqs.SqsReceiver;
 import io.pixelsdb.ccb.network.sqs.SqsSender;
+import io.pixelsdb.ccb.network.payload.EntropyGenerator;
+import io.pixelsdb.ccb.network.payload.PayloadPool;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -46,10 +47,10 @@ public class TestSqs
             {
                 SqsSender sender = new SqsSender("pixels-turbo-intermediate/shuffle",
                         "https://sqs.us-east-2.amazonaws.com/970089764833/pixels-shuffle");
-                ByteBuffer buffer = ByteBuffer.allocate(8 * 1024 * 1024);
+                PayloadPool payloads = PayloadPool.generate(new EntropyGenerator(8), 8 * 1024 * 1024, 4, false, 0);
                 for (int i = 0; i < 8; i++)
                 {
-                    sender.send(buffer.array());
+                    sender.send(payloads.next());
                 }
                 System.out.println("send finished in " + (System.currentTimeMillis() - startTime) + " ms");
             } catch (IOException e)
@@ -0,0 +1,101 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.sqs.BatchPolicy;
+import io.pixelsdb.ccb.network.sqs.SqsBatcher;
+import org.junit.Test;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestSqsBatcher
+{
+    private final List<List<String>> sends = new CopyOnWriteArrayList<>();
+    private final List<Integer> deletes = new CopyOnWriteArrayList<>();
+
+    private SqsBatcher newBatcher(BatchPolicy policy)
+    {
+        return new SqsBatcher("queue", policy, request -> {
+            List<String> bodies = new ArrayList<>();
+            for (SendMessageBatchRequestEntry entry : request.entries())
+            {
+                bodies.add(entry.messageBody());
+            }
+            this.sends.add(bodies);
+            return CompletableFuture.completedFuture(SendMessageBatchResponse.builder().failed(List.of()).build());
+        }, request -> {
+            this.deletes.add(request.entries().size());
+            return CompletableFuture.completedFuture(DeleteMessageBatchResponse.builder().failed(List.of()).build());
+        });
+    }
+
+    @Test
+    public void testMaxEntries() throws Exception
+    {
+        try (SqsBatcher batcher = newBatcher(new BatchPolicy(10, 256 * 1024, 60000)))
+        {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 25; ++i)
+            {
+                futures.add(batcher.send("m" + i, null, 2));
+            }
+            // two full batches are sent at once, the rest lingers
+            assertEquals(2, this.sends.size());
+            assertEquals(10, this.sends.get(0).size());
+            assertEquals("m10", this.sends.get(1).get(0));
+            assertTrue(futures.get(19).isDone());
+            assertFalse(futures.get(20).isDone());
+        }
+        // the pending batch is sent when the batcher is closed
+        assertEquals(3, this.sends.size());
+        assertEquals(5, this.sends.get(2).size());
+    }
+
+    @Test
+    public void testMaxBytes() throws Exception
+    {
+        try (SqsBatcher batcher = newBatcher(new BatchPolicy(10, 100, 60000)))
+        {
+            batcher.send("a", null, 40);
+            batcher.send("b", null, 40);
+            assertEquals(0, this.sends.size());
+            // the third entry would take the batch over the limit, so the batch is sent without it
+            batcher.send("c", null, 40);
+            assertEquals(1, this.sends.size());
+            assertEquals(List.of("a", "b"), this.sends.get(0));
+            // an entry reaching the limit by itself is sent alone
+            batcher.send("d", null, 100);
+            assertEquals(List.of("c"), this.sends.get(1));
+            assertEquals(List.of("d"), this.sends.get(2));
+        }
+        assertEquals(3, this.sends.size());
+    }
+
+    @Test
+    public void testLinger() throws Exception
+    {
+        try (SqsBatcher batcher = newBatcher(new BatchPolicy(10, 256 * 1024, 20)))
+        {
+            CompletableFuture<Void> sent = batcher.send("a", null, 1);
+            CompletableFuture<Void> deleted = batcher.delete("handle");
+            assertFalse(sent.isDone());
+            sent.get(5, TimeUnit.SECONDS);
+            deleted.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(List.of("a")), this.sends);
+            assertEquals(List.of(1), this.deletes);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.pixelsdb.ccb.network;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestStreamChannels
+{
+    @Test
+    public void testBufferedSend() throws IOException
+    {
+        CollectingSender sender = new CollectingSender();
+        byte[] payload = payloadOf(200 * 1024);
+        try (WritableByteChannel channel = sender.openChannel())
+        {
+            for (int position = 0; position < payload.length; position += 1000)
+            {
+                ByteBuffer chunk = ByteBuffer.wrap(payload, position, Math.min(1000, payload.length - position));
+                assertEquals(chunk.remaining(), channel.write(chunk));
+                assertEquals(0, chunk.remaining());
+            }
+            assertTrue(sender.messages.isEmpty());
+        }
+        assertEquals(1, sender.messages.size());
+        assertArrayEquals(payload, sender.messages.get(0));
+    }
+
+    @Test
+    public void testSendStream() throws IOException
+    {
+        CollectingSender sender = new CollectingSender();
+        WritableByteChannel channel;
+        try (OutputStream stream = sender.openStream())
+        {
+            stream.write(1);
+            stream.write(new byte[] {2, 3, 4});
+        }
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, sender.messages.get(0));
+        channel = sender.openChannel();
+        channel.close();
+        channel.close();
+        assertEquals(2, sender.messages.size());
+        assertEquals(0, sender.messages.get(1).length);
+        try
+        {
+            channel.write(ByteBuffer.allocate(1));
+        }
+        catch (ClosedChannelException e)
+        {
+            return;
+        }
+        fail("write should fail after close");
+    }
+
+    @Test
+    public void testReceiveChannel() throws IOException
+    {
+        byte[] payload = payloadOf(10000);
+        Receiver receiver = new FixedReceiver(payload);
+        ByteBuffer chunk = ByteBuffer.allocate(3000);
+        ByteBuffer received = ByteBuffer.allocate(payload.length);
+        try (ReadableByteChannel channel = receiver.receiveChannel(payload.length))
+        {
+            int read;
+            while ((read = channel.read(chunk.clear())) >= 0)
+            {
+                assertTrue(read <= 3000);
+                received.put(chunk.flip());
+            }
+        }
+        assertArrayEquals(payload, received.array());
+
+        try (InputStream stream = receiver.receiveStream(payload.length))
+        {
+            assertArrayEquals(payload, stream.readAllBytes());
+        }
+    }
+
+    private static byte[] payloadOf(int size)
+    {
+        byte[] payload = new byte[size];
+        for (int i = 0; i < size; ++i)
+        {
+            payload[i] = (byte) (i * 31);
+        }
+        return payload;
+    }
+
+    private static class CollectingSender implements Sender
+    {
+        private final List<byte[]> messages = new ArrayList<>();
+
+        @Override
+        public void send(ByteBuffer buffer)
+        {
+            byte[] message = new byte[buffer.remaining()];
+            buffer.duplicate().get(message);
+            this.messages.add(message);
+        }
+
+        @Override
+        public boolean isClosed()
+        {
+            return false;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+
+    private static class FixedReceiver implements Receiver
+    {
+        private final byte[] payload;
+
+        private FixedReceiver(byte[] payload)
+        {
+            this.payload = payload;
+        }
+
+        @Override
+        public ByteBuffer receive(int bytes)
+        {
+            return ByteBuffer.wrap(this.payload.clone(), 0, Math.min(bytes, this.payload.length));
+        }
+
+        @Override
+        public boolean isClosed()
+        {
+            return false;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
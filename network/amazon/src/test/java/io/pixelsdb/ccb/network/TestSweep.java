@@ -0,0 +1,47 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.sweep.Role;
+import io.pixelsdb.ccb.network.sweep.SweepCell;
+import io.pixelsdb.ccb.network.sweep.SweepRunner;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestSweep
+{
+    @Test
+    public void testCells()
+    {
+        Properties properties = new Properties();
+        properties.setProperty("sweep.transports", "http, sqs-pure");
+        properties.setProperty("sweep.message.sizes", "4KB,8MB");
+        properties.setProperty("sweep.message.counts", "100");
+        properties.setProperty("sweep.concurrencies", "1,16,256");
+        List<SweepCell> cells = new SweepRunner(new BenchmarkConfig(properties), Role.sender).getCells();
+        assertEquals(12, cells.size());
+        assertEquals(Transport.sqs_pure, cells.get(11).getTransport());
+        assertEquals(8 * 1024 * 1024, cells.get(11).getMessageSize());
+        assertEquals(256, cells.get(11).getConcurrency());
+    }
+
+    @Test
+    public void testSplitMessages()
+    {
+        long total = 0;
+        for (int i = 0; i < 16; ++i)
+        {
+            total += SweepCell.messagesOf(i, 16, 100);
+        }
+        assertEquals(100, total);
+        assertEquals(7, SweepCell.messagesOf(3, 16, 100));
+        assertEquals(6, SweepCell.messagesOf(4, 16, 100));
+        assertEquals(64L * 1024 * 1024, BenchmarkConfig.parseSize("64MB"));
+    }
+}
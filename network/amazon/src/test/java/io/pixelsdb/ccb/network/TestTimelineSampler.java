@@ -0,0 +1,84 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.metrics.LatencyMetrics;
+import io.pixelsdb.ccb.network.metrics.Phase;
+import io.pixelsdb.ccb.network.metrics.TimelineMetrics;
+import io.pixelsdb.ccb.network.metrics.TimelineSampler;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestTimelineSampler
+{
+    @Test
+    public void testCsv() throws IOException, InterruptedException
+    {
+        File file = File.createTempFile("timeline", ".csv");
+        file.deleteOnExit();
+        try (TimelineSampler timeline = new TimelineSampler(file.getPath(), 50, false, "sender"))
+        {
+            timeline.setRun("test");
+            for (int i = 0; i < 10; ++i)
+            {
+                TimelineMetrics.Instance().recordMessage(1024);
+                LatencyMetrics.Instance().record(Phase.send, System.nanoTime() - 1000000);
+                Thread.sleep(20);
+            }
+            TimelineMetrics.Instance().recordError();
+        }
+        List<String> lines = Files.readAllLines(file.toPath());
+        List<String> header = Arrays.asList(lines.get(0).split(","));
+        assertEquals("epoch_ms", header.get(0));
+        assertTrue(lines.size() > 2);
+        long messages = 0, bytes = 0, errors = 0, sends = 0, lastEpochMs = 0;
+        for (String line : lines.subList(1, lines.size()))
+        {
+            String[] row = line.split(",");
+            long epochMs = Long.parseLong(row[0]);
+            assertEquals(0, epochMs % 50);
+            assertTrue(epochMs >= lastEpochMs);
+            lastEpochMs = epochMs;
+            assertEquals("sender", row[header.indexOf("role")]);
+            assertEquals("test", row[header.indexOf("run")]);
+            messages += Long.parseLong(row[header.indexOf("messages")]);
+            bytes += Long.parseLong(row[header.indexOf("bytes")]);
+            errors += Long.parseLong(row[header.indexOf("errors")]);
+            sends += Long.parseLong(row[header.indexOf("send_count")]);
+        }
+        assertEquals(10, messages);
+        assertEquals(10 * 1024, bytes);
+        assertEquals(1, errors);
+        assertEquals(10, sends);
+    }
+
+    @Test
+    public void testJson() throws IOException
+    {
+        File file = File.createTempFile("timeline", ".json");
+        file.deleteOnExit();
+        try (TimelineSampler timeline = new TimelineSampler(file.getPath(), 1000, true))
+        {
+            TimelineMetrics.Instance().recordMessage(4096);
+        }
+        long bytes = 0;
+        for (String line : Files.readAllLines(file.toPath()))
+        {
+            Map<String, Object> row = Json.parseObject(line);
+            assertTrue(row.containsKey("receive_p99_ms"));
+            bytes += ((Number) row.get("bytes")).longValue();
+        }
+        assertEquals(4096, bytes);
+    }
+}
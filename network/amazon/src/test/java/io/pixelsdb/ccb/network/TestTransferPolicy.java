@@ -0,0 +1,32 @@
+package io.pixelsdb.ccb.network;
+
+import io.pixelsdb.ccb.network.transfer.TransferPolicy;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author hank
+ * @create 2026-10-17
+ */
+public class TestTransferPolicy
+{
+    @Test
+    public void testParts()
+    {
+        TransferPolicy policy = new TransferPolicy(true, 8 * 1024 * 1024, 4, 16 * 1024 * 1024);
+        assertFalse(policy.isParallel(8 * 1024 * 1024));
+        assertTrue(policy.isParallel(16 * 1024 * 1024));
+        assertEquals(2, policy.partsOf(16 * 1024 * 1024));
+        assertEquals(3, policy.partsOf(16 * 1024 * 1024 + 1));
+        assertFalse(TransferPolicy.disabled().isParallel(1024L * 1024 * 1024));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMinPartSize()
+    {
+        new TransferPolicy(true, 1024 * 1024, 4, 0);
+    }
+}
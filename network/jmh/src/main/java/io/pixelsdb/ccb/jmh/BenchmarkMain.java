@@ -0,0 +1,24 @@
+package io.pixelsdb.ccb.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the allocation profiler, so that the bytes allocated per operation
+ * (gc.alloc.rate.norm) are reported next to the time per operation. The arguments are those of jmh, e.g.,
+ * java -jar target/benchmarks.jar SqsMessageBenchmark -p payloadSize=1024.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+public class BenchmarkMain
+{
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException
+    {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build()).run();
+    }
+}
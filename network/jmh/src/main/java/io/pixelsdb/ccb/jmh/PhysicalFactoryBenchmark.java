@@ -0,0 +1,95 @@
+package io.pixelsdb.ccb.jmh;
+
+import io.pixelsdb.ccb.network.local.LocalCloud;
+import io.pixelsdb.ccb.network.local.LocalS3;
+import io.pixelsdb.ccb.network.local.LocalSqs;
+import io.pixelsdb.ccb.network.local.ShapingPolicy;
+import io.pixelsdb.pixels.common.physical.PhysicalReader;
+import io.pixelsdb.pixels.common.physical.PhysicalReaderUtil;
+import io.pixelsdb.pixels.common.physical.PhysicalWriter;
+import io.pixelsdb.pixels.common.physical.PhysicalWriterUtil;
+import io.pixelsdb.pixels.common.physical.Storage;
+import io.pixelsdb.pixels.common.physical.StorageFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The cost of opening and closing the pixels physical readers and writers, which the sqs, s3qs, and hybrid
+ * transports do once per message. The storage is pointed at the unshaped in-process s3 stand-in, so each
+ * operation includes the loopback requests issued when a reader or writer is opened or closed (e.g., the head
+ * request of a reader, the put request of a writer), but no network latency.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhysicalFactoryBenchmark
+{
+    private static final String BUCKET = "pixels-turbo-intermediate";
+    private static final int PAYLOAD_SIZE = 1024;
+
+    private final AtomicInteger contentId = new AtomicInteger(0);
+    // append(ByteBuffer) flips its argument, so the payload is appended as an array
+    private final byte[] payload = new byte[PAYLOAD_SIZE];
+    private LocalCloud cloud;
+    private Storage s3;
+    private String readPath;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        this.cloud = new LocalCloud(0, new LocalS3(ShapingPolicy.unshaped(), 1024L * 1024 * 1024),
+                new LocalSqs(ShapingPolicy.unshaped(), 256 * 1024));
+        this.cloud.configureSdk();
+        this.s3 = StorageFactory.Instance().getStorage(Storage.Scheme.s3);
+        this.readPath = "s3://" + BUCKET + "/jmh/read";
+        try (PhysicalWriter writer = PhysicalWriterUtil.newPhysicalWriter(this.s3, this.readPath, true))
+        {
+            writer.append(this.payload, 0, PAYLOAD_SIZE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        this.cloud.close();
+    }
+
+    @Benchmark
+    public long openReader() throws IOException
+    {
+        try (PhysicalReader reader = PhysicalReaderUtil.newPhysicalReader(this.s3, this.readPath))
+        {
+            return reader.getFileLength();
+        }
+    }
+
+    @Benchmark
+    public long openWriter() throws IOException
+    {
+        String path = "s3://" + BUCKET + "/jmh/write/" + this.contentId.getAndIncrement();
+        try (PhysicalWriter writer = PhysicalWriterUtil.newPhysicalWriter(this.s3, path, true))
+        {
+            return writer.append(this.payload, 0, PAYLOAD_SIZE);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.pixelsdb.ccb.jmh;
+
+import io.pixelsdb.pixels.common.physical.Storage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The per-message work of the s3-based transports before an object is put: naming the object by string
+ * concatenation (the s3:// path of sqs, and the bucket/key message body of sqs_async), building the
+ * PutObjectRequest, and wrapping the payload into an AsyncRequestBody with and without a copy.
+ *
+ * @author hank
+ * @create 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class S3RequestBenchmark
+{
+    private final AtomicInteger contentId = new AtomicInteger(0);
+    private final String bucket = "pixels-turbo-intermediate";
+    private final String keyPrefix = "shuffle/0/";
+    private final String s3Prefix = bucket + "/" + keyPrefix;
+    private ByteBuffer payload;
+
+    @Setup
+    public void setup()
+    {
+        this.payload = ByteBuffer.allocate(16 * 1024);
+    }
+
+    @Benchmark
+    public String sqsObjectPath()
+    {
+        return Storage.Scheme.s3 + "://" + this.s3Prefix + this.contentId.getAndIncrement();
+    }
+
+    @Benchmark
+    public String sqsAsyncMessageBody()
+    {
+        String path = this.keyPrefix + this.contentId.getAndIncrement();
+        return this.bucket + "/" + path;
+    }
+
+    @Benchmark
+    public PutObjectRequest putObjectRequest()
+    {
+        return PutObjectRequest.builder().bucket(this.bucket)
+                .key(this.keyPrefix + this.contentId.getAndIncrement()).build();
+    }
+
+    @Benchmark
+    public AsyncRequestBody wrapRequestBody()
+    {
+        return AsyncRequestBody.fromByteBufferUnsafe(this.payload.slice());
+    }
+
+    @Benchmark
+    public AsyncRequestBody copyRequestBody()
+    {
+        return AsyncRequestBody.fromByteBuffer(this.payload.slice());
+    }
+}